@@ -0,0 +1,103 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.integration.aggregator.AggregatingMessageHandler;
+import org.springframework.integration.aggregator.DefaultAggregatingMessageGroupProcessor;
+import org.springframework.integration.channel.NullChannel;
+import org.springframework.integration.store.SimpleMessageStore;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+
+/**
+ * The throughput of an {@link AggregatingMessageHandler} with the default sequence-based
+ * correlation and release strategies over a {@link SimpleMessageStore}.
+ * Every invocation completes one group, so the score is reported in released groups.
+ * The {@code lockFree} parameter switches the handler to the in-memory lock-free accumulation.
+ *
+ * @since 6.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AggregatorBenchmark {
+
+	private static final int GROUPS = 256;
+
+	@Param({ "10", "100", "1000" })
+	public int groupSize;
+
+	@Param({ "false", "true" })
+	public boolean lockFree;
+
+	private IntegrationInfrastructure infrastructure;
+
+	private AggregatingMessageHandler aggregator;
+
+	private Message<?>[][] groups;
+
+	private int nextGroup;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.infrastructure = new IntegrationInfrastructure();
+		AggregatingMessageHandler handler =
+				new AggregatingMessageHandler(new DefaultAggregatingMessageGroupProcessor(), new SimpleMessageStore());
+		handler.setOutputChannel(new NullChannel());
+		handler.setExpireGroupsUponCompletion(true);
+		handler.setLockFreeAccumulation(this.lockFree);
+		this.aggregator = this.infrastructure.initialize(handler, "aggregator");
+
+		this.groups = new Message<?>[GROUPS][this.groupSize];
+		for (int i = 0; i < GROUPS; i++) {
+			for (int j = 0; j < this.groupSize; j++) {
+				this.groups[i][j] =
+						MessageBuilder.withPayload(j)
+								.setCorrelationId(i)
+								.setSequenceNumber(j + 1)
+								.setSequenceSize(this.groupSize)
+								.build();
+			}
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.infrastructure.close();
+	}
+
+	@Benchmark
+	public void aggregate() {
+		for (Message<?> message : this.groups[this.nextGroup++ % GROUPS]) {
+			this.aggregator.handleMessage(message);
+		}
+	}
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.integration.dispatcher.BroadcastingDispatcher;
+import org.springframework.integration.dispatcher.UnicastingDispatcher;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+
+/**
+ * The synchronous dispatching logic of the {@link UnicastingDispatcher}
+ * (with the default round-robin load balancing) and {@link BroadcastingDispatcher}
+ * (with and without sequence details applied) for a number of subscribers.
+ *
+ * @since 6.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DispatcherBenchmark {
+
+	@Param({ "1", "4" })
+	public int subscribers;
+
+	private final UnicastingDispatcher unicastingDispatcher = new UnicastingDispatcher();
+
+	private final BroadcastingDispatcher broadcastingDispatcher = new BroadcastingDispatcher();
+
+	private final BroadcastingDispatcher sequenceBroadcastingDispatcher = new BroadcastingDispatcher();
+
+	private Message<?> message;
+
+	private long handled;
+
+	@Setup
+	public void setup() {
+		this.message = MessageBuilder.withPayload("test").build();
+		this.sequenceBroadcastingDispatcher.setApplySequence(true);
+		for (int i = 0; i < this.subscribers; i++) {
+			MessageHandler handler = (message) -> this.handled++;
+			this.unicastingDispatcher.addHandler(handler);
+			this.broadcastingDispatcher.addHandler(handler);
+			this.sequenceBroadcastingDispatcher.addHandler(handler);
+		}
+	}
+
+	@Benchmark
+	public boolean unicast() {
+		return this.unicastingDispatcher.dispatch(this.message);
+	}
+
+	@Benchmark
+	public boolean broadcast() {
+		return this.broadcastingDispatcher.dispatch(this.message);
+	}
+
+	@Benchmark
+	public boolean broadcastWithSequence() {
+		return this.sequenceBroadcastingDispatcher.dispatch(this.message);
+	}
+
+}
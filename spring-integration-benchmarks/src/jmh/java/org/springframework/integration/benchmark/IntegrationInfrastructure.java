@@ -0,0 +1,56 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmark;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.integration.config.EnableIntegration;
+
+/**
+ * The minimal Spring Integration infrastructure for benchmarks.
+ * Components are initialized against an {@link EnableIntegration} application context
+ * the same way the framework does for regular beans, so the measured paths
+ * are exactly those used in the target applications.
+ *
+ * @since 6.2
+ */
+final class IntegrationInfrastructure implements AutoCloseable {
+
+	private final AnnotationConfigApplicationContext applicationContext =
+			new AnnotationConfigApplicationContext(IntegrationConfiguration.class);
+
+	@SuppressWarnings("unchecked")
+	<T> T initialize(T component, String name) {
+		return (T) this.applicationContext.getAutowireCapableBeanFactory().initializeBean(component, name);
+	}
+
+	void destroy(Object component) {
+		this.applicationContext.getAutowireCapableBeanFactory().destroyBean(component);
+	}
+
+	@Override
+	public void close() {
+		this.applicationContext.close();
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@EnableIntegration
+	static class IntegrationConfiguration {
+
+	}
+
+}
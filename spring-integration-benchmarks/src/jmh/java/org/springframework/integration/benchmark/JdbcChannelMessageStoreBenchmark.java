@@ -0,0 +1,115 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.integration.jdbc.store.JdbcChannelMessageStore;
+import org.springframework.integration.jdbc.store.channel.H2ChannelMessageStoreQueryProvider;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * The transactional polling of the {@link JdbcChannelMessageStore} against an embedded H2 database:
+ * one message per transaction ({@code pollSize = 1})
+ * versus {@link JdbcChannelMessageStore#pollMessagesFromGroup(Object, int)} for several messages at once.
+ * The score is per message.
+ *
+ * @since 6.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JdbcChannelMessageStoreBenchmark {
+
+	private static final String GROUP_ID = "channel";
+
+	private static final int MESSAGES = 100;
+
+	@Param({ "1", "10", "100" })
+	public int pollSize;
+
+	private EmbeddedDatabase dataSource;
+
+	private JdbcChannelMessageStore messageStore;
+
+	private TransactionTemplate transactionTemplate;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.dataSource =
+				new EmbeddedDatabaseBuilder()
+						.setType(EmbeddedDatabaseType.H2)
+						.generateUniqueName(true)
+						.addScript("classpath:org/springframework/integration/jdbc/schema-h2.sql")
+						.build();
+		this.messageStore = new JdbcChannelMessageStore(this.dataSource);
+		this.messageStore.setChannelMessageStoreQueryProvider(new H2ChannelMessageStoreQueryProvider());
+		this.messageStore.afterPropertiesSet();
+		this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(this.dataSource));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.dataSource.shutdown();
+	}
+
+	@Setup(Level.Invocation)
+	public void fillChannel() {
+		for (int i = 0; i < MESSAGES; i++) {
+			this.messageStore.addMessageToGroup(GROUP_ID, MessageBuilder.withPayload("test").setHeader("foo", "bar").build());
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(MESSAGES)
+	public void pollChannel(Blackhole blackhole) {
+		int polled = 0;
+		while (polled < MESSAGES) {
+			polled +=
+					this.transactionTemplate.execute(status -> {
+						if (this.pollSize == 1) {
+							blackhole.consume(this.messageStore.pollMessageFromGroup(GROUP_ID));
+							return 1;
+						}
+						else {
+							int size = this.messageStore.pollMessagesFromGroup(GROUP_ID, this.pollSize).size();
+							blackhole.consume(size);
+							return size;
+						}
+					});
+		}
+	}
+
+}
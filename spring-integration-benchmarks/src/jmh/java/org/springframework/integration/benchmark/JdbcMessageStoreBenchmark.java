@@ -0,0 +1,96 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.integration.jdbc.store.JdbcMessageStore;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.messaging.Message;
+
+/**
+ * The bulk group operations of the {@link JdbcMessageStore} against an embedded H2 database:
+ * a group of messages is added at once and then removed at once,
+ * as a splitter and an aggregator over the same store would do.
+ * Every invocation adds and removes one group.
+ *
+ * @since 6.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JdbcMessageStoreBenchmark {
+
+	private static final String GROUP_ID = "group";
+
+	@Param({ "10", "1000" })
+	public int groupSize;
+
+	@Param({ "100" })
+	public int batchSize;
+
+	private EmbeddedDatabase dataSource;
+
+	private JdbcMessageStore messageStore;
+
+	private Message<?>[] messages;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.dataSource =
+				new EmbeddedDatabaseBuilder()
+						.setType(EmbeddedDatabaseType.H2)
+						.generateUniqueName(true)
+						.addScript("classpath:org/springframework/integration/jdbc/schema-h2.sql")
+						.build();
+		this.messageStore = new JdbcMessageStore(this.dataSource);
+		this.messageStore.setAddBatchSize(this.batchSize);
+		this.messageStore.setRemoveBatchSize(this.batchSize);
+		this.messages = new Message<?>[this.groupSize];
+		for (int i = 0; i < this.groupSize; i++) {
+			this.messages[i] = MessageBuilder.withPayload("test" + i).setCorrelationId(GROUP_ID).build();
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.dataSource.shutdown();
+	}
+
+	@Benchmark
+	public int addAndRemoveGroupMessages() {
+		this.messageStore.addMessagesToGroup(GROUP_ID, this.messages);
+		int size = this.messageStore.messageGroupSize(GROUP_ID);
+		this.messageStore.removeMessagesFromGroup(GROUP_ID, this.messages);
+		return size;
+	}
+
+}
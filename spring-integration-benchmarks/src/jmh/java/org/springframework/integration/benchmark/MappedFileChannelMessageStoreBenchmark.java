@@ -0,0 +1,99 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.integration.store.MappedFileChannelMessageStore;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * The durable enqueue and dequeue of the {@link MappedFileChannelMessageStore}
+ * (as used by the {@link org.springframework.integration.store.MessageGroupQueue})
+ * with different flush batch sizes: {@code 0} - leave it to the OS,
+ * {@code 1} - force on every operation.
+ *
+ * @since 6.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MappedFileChannelMessageStoreBenchmark {
+
+	private static final String GROUP_ID = "queue";
+
+	private static final int BATCH = 100;
+
+	@Param({ "0", "100", "1" })
+	public int flushBatchSize;
+
+	private Path directory;
+
+	private MappedFileChannelMessageStore messageStore;
+
+	private Message<?> message;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		this.directory = Files.createTempDirectory("mapped-store-benchmark");
+		this.messageStore = new MappedFileChannelMessageStore(this.directory.toFile());
+		this.messageStore.setFlushBatchSize(this.flushBatchSize);
+		this.message = MessageBuilder.withPayload("test").setHeader("foo", "bar").build();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		this.messageStore.close();
+		FileSystemUtils.deleteRecursively(this.directory);
+	}
+
+	@Benchmark
+	public Message<?> enqueueAndDequeue() {
+		this.messageStore.addMessageToGroup(GROUP_ID, this.message);
+		return this.messageStore.pollMessageFromGroup(GROUP_ID);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void enqueueAndDequeueBatch(Blackhole blackhole) {
+		for (int i = 0; i < BATCH; i++) {
+			this.messageStore.addMessageToGroup(GROUP_ID, this.message);
+		}
+		for (int i = 0; i < BATCH; i++) {
+			blackhole.consume(this.messageStore.pollMessageFromGroup(GROUP_ID));
+		}
+	}
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.integration.support.MutableMessageBuilder;
+import org.springframework.messaging.Message;
+
+/**
+ * The cost of building new messages and copying existing ones with an extra header,
+ * for different number of headers in the source message.
+ * The {@code layered} variants build messages with layered headers on top of the source ones.
+ *
+ * @since 6.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MessageBuilderBenchmark {
+
+	@Param({ "2", "32" })
+	public int headers;
+
+	private Message<?> message;
+
+	@Setup
+	public void setup() {
+		MessageBuilder<String> builder = MessageBuilder.withPayload("test");
+		for (int i = 0; i < this.headers; i++) {
+			builder.setHeader("header" + i, "value" + i);
+		}
+		this.message = builder.build();
+	}
+
+	@Benchmark
+	public Message<?> withPayload() {
+		return MessageBuilder.withPayload("test").build();
+	}
+
+	@Benchmark
+	public Message<?> fromMessage() {
+		return MessageBuilder.fromMessage(this.message).build();
+	}
+
+	@Benchmark
+	public Message<?> fromMessageSetHeader() {
+		return MessageBuilder.fromMessage(this.message)
+				.setHeader("extra", "value")
+				.build();
+	}
+
+	@Benchmark
+	public Message<?> layeredFromMessageSetHeader() {
+		return MessageBuilder.fromMessage(this.message, true)
+				.setHeader("extra", "value")
+				.build();
+	}
+
+	@Benchmark
+	public Message<?> layeredFromMessageSetHeaderAndRead() {
+		Message<?> result =
+				MessageBuilder.fromMessage(this.message, true)
+						.setHeader("extra", "value")
+						.build();
+		return result.getHeaders().get("header0") != null ? result : null;
+	}
+
+	@Benchmark
+	public Message<?> mutableFromMessageSetHeader() {
+		return MutableMessageBuilder.fromMessage(this.message)
+				.setHeader("extra", "value")
+				.build();
+	}
+
+}
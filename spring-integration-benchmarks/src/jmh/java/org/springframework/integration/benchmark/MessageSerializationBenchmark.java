@@ -0,0 +1,139 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+import org.springframework.core.serializer.DefaultDeserializer;
+import org.springframework.core.serializer.DefaultSerializer;
+import org.springframework.core.serializer.Deserializer;
+import org.springframework.core.serializer.Serializer;
+import org.springframework.integration.codec.CodecMessageSerializer;
+import org.springframework.integration.codec.kryo.MessageCodec;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+
+/**
+ * The cost of serializing a message into the {@code MESSAGE_BYTES} of the JDBC message stores
+ * and deserializing it back: the default Java serialization against the {@link CodecMessageSerializer}
+ * with the Kryo {@link MessageCodec}, with and without compression.
+ * The size of the serialized message (the row size) is reported by the {@link RowSize} counter.
+ *
+ * @since 6.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MessageSerializationBenchmark {
+
+	@Param({ "java", "kryo", "kryo-deflate" })
+	public String format;
+
+	@Param({ "100", "10000" })
+	public int payloadSize;
+
+	private Serializer<Object> serializer;
+
+	private Deserializer<Object> deserializer;
+
+	private Message<?> message;
+
+	private byte[] serialized;
+
+	@Setup(Level.Trial)
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void setup() throws IOException {
+		switch (this.format) {
+			case "java" -> {
+				this.serializer = new DefaultSerializer();
+				this.deserializer = new DefaultDeserializer();
+			}
+			case "kryo", "kryo-deflate" -> {
+				CodecMessageSerializer codecMessageSerializer = new CodecMessageSerializer(new MessageCodec());
+				if (this.format.equals("kryo-deflate")) {
+					codecMessageSerializer.setCompressionThreshold(1024);
+				}
+				this.serializer = (Serializer) codecMessageSerializer;
+				this.deserializer = (Deserializer) codecMessageSerializer;
+			}
+			default -> throw new IllegalArgumentException("Unknown format: " + this.format);
+		}
+
+		StringBuilder payload = new StringBuilder("[");
+		for (int i = 0; payload.length() < this.payloadSize; i++) {
+			payload.append("{\"id\":").append(i).append(",\"name\":\"item").append(i).append("\"},");
+		}
+		this.message =
+				MessageBuilder.withPayload(payload.substring(0, this.payloadSize))
+						.setCorrelationId("someCorrelationId")
+						.setSequenceNumber(1)
+						.setSequenceSize(10)
+						.setHeader("contentType", "application/json")
+						.build();
+		this.serialized = this.serializer.serializeToByteArray(this.message);
+	}
+
+	@Benchmark
+	public byte[] serialize(RowSize rowSize) throws IOException {
+		byte[] bytes = this.serializer.serializeToByteArray(this.message);
+		rowSize.rowBytes = bytes.length * rowSize.weight;
+		return bytes;
+	}
+
+	@Benchmark
+	public Object deserialize() throws IOException {
+		return this.deserializer.deserializeFromByteArray(this.serialized);
+	}
+
+	/**
+	 * The size of the serialized message reported along with the {@code serialize} results.
+	 * The {@code EVENTS} counters are summed over the measurement iterations,
+	 * so each iteration reports its share of the value.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class RowSize {
+
+		public double rowBytes;
+
+		private double weight;
+
+		@Setup(Level.Iteration)
+		public void setup(IterationParams iterationParams) {
+			this.weight =
+					iterationParams.getType() == IterationType.MEASUREMENT
+							? 1.0 / iterationParams.getCount()
+							: 0;
+		}
+
+	}
+
+}
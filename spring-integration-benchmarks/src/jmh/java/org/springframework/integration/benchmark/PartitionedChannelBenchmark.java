@@ -0,0 +1,175 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+import org.springframework.integration.channel.PartitionedChannel;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * The {@link PartitionedChannel} with a dedicated platform thread per partition
+ * versus partitions drained on demand by a shared pool or by virtual threads (Java 21+).
+ * Besides the send-to-handle throughput over all the partitions, the {@link Footprint}
+ * counters report the live threads and the retained heap per partition once every partition
+ * has handled a message and gone idle.
+ * The native stack of a platform thread is not part of the heap numbers.
+ *
+ * @since 6.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PartitionedChannelBenchmark {
+
+	private static final int BATCH_SIZE = 1000;
+
+	@Param({ "16", "1024" })
+	public int partitionCount;
+
+	@Param({ "platform", "shared", "virtual" })
+	public String mode;
+
+	private final AtomicLong handled = new AtomicLong();
+
+	private IntegrationInfrastructure infrastructure;
+
+	private ThreadPoolTaskExecutor taskExecutor;
+
+	private PartitionedChannel channel;
+
+	private Message<?>[] messages;
+
+	private double threadsPerPartition;
+
+	private double heapBytesPerPartition;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.infrastructure = new IntegrationInfrastructure();
+		PartitionedChannel partitionedChannel =
+				new PartitionedChannel(this.partitionCount, (message) -> message.getHeaders().get("partitionKey"));
+		switch (this.mode) {
+			case "platform" -> {
+			}
+			case "shared" -> {
+				this.taskExecutor = new ThreadPoolTaskExecutor();
+				this.taskExecutor.setCorePoolSize(4);
+				this.taskExecutor.afterPropertiesSet();
+				partitionedChannel.setTaskExecutor(this.taskExecutor);
+			}
+			case "virtual" -> partitionedChannel.setVirtualThreads(true);
+			default -> throw new IllegalArgumentException("Unknown partitions mode: " + this.mode);
+		}
+		this.channel = this.infrastructure.initialize(partitionedChannel, this.mode + "PartitionedChannel");
+		this.channel.subscribe((message) -> this.handled.incrementAndGet());
+
+		this.messages = new Message<?>[Math.max(BATCH_SIZE, this.partitionCount)];
+		for (int i = 0; i < this.messages.length; i++) {
+			this.messages[i] =
+					MessageBuilder.withPayload("test")
+							.setHeader("partitionKey", i % this.partitionCount)
+							.build();
+		}
+
+		int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+		long heapBefore = usedHeapAfterGc();
+		sendAndAwait(this.messages.length);
+		this.threadsPerPartition =
+				(double) (ManagementFactory.getThreadMXBean().getThreadCount() - threadsBefore) / this.partitionCount;
+		this.heapBytesPerPartition = (double) (usedHeapAfterGc() - heapBefore) / this.partitionCount;
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.infrastructure.destroy(this.channel);
+		if (this.taskExecutor != null) {
+			this.taskExecutor.shutdown();
+		}
+		this.infrastructure.close();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public void send(Footprint footprint) {
+		sendAndAwait(BATCH_SIZE);
+		footprint.threadsPerPartition = this.threadsPerPartition * footprint.weight;
+		footprint.heapBytesPerPartition = this.heapBytesPerPartition * footprint.weight;
+	}
+
+	private void sendAndAwait(int count) {
+		long expected = this.handled.get() + count;
+		for (int i = 0; i < count; i++) {
+			this.channel.send(this.messages[i]);
+		}
+		while (this.handled.get() < expected) {
+			Thread.onSpinWait();
+		}
+	}
+
+	private static long usedHeapAfterGc() {
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+	}
+
+	/**
+	 * The per-partition footprint measured for the trial.
+	 * The {@code EVENTS} counters are summed over the measurement iterations,
+	 * so each iteration reports its share of the value.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Footprint {
+
+		public double threadsPerPartition;
+
+		public double heapBytesPerPartition;
+
+		private double weight;
+
+		@Setup(Level.Iteration)
+		public void setup(IterationParams iterationParams) {
+			this.weight =
+					iterationParams.getType() == IterationType.MEASUREMENT
+							? 1.0 / iterationParams.getCount()
+							: 0;
+		}
+
+	}
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.integration.channel.AbstractPollableChannel;
+import org.springframework.integration.channel.PriorityChannel;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.channel.RingBufferChannel;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+
+/**
+ * The send and receive paths of the pollable channels.
+ * The {@code sendAndReceive} benchmark measures an uncontended round trip,
+ * when the {@code producersConsumers} group measures the contention
+ * between several producer and consumer threads on the same channel.
+ *
+ * @since 6.2
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PollableChannelBenchmark {
+
+	@Param({ "queue", "priority", "bucketedPriority", "ringBuffer" })
+	public String channelType;
+
+	@Param({ "1024" })
+	public int capacity;
+
+	private IntegrationInfrastructure infrastructure;
+
+	private AbstractPollableChannel channel;
+
+	private Message<?> message;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.infrastructure = new IntegrationInfrastructure();
+		this.message = MessageBuilder.withPayload("test").setPriority(5).build();
+		this.channel =
+				this.infrastructure.initialize(
+						switch (this.channelType) {
+							case "queue" -> new QueueChannel(this.capacity);
+							case "priority" -> new PriorityChannel(this.capacity);
+							case "bucketedPriority" -> new PriorityChannel(this.capacity, 10);
+							case "ringBuffer" -> new RingBufferChannel(this.capacity);
+							default -> throw new IllegalArgumentException("Unknown channel type: " + this.channelType);
+						},
+						this.channelType + "Channel");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.infrastructure.destroy(this.channel);
+		this.infrastructure.close();
+	}
+
+	@Benchmark
+	@Group("sendAndReceive")
+	public Message<?> sendAndReceive() {
+		this.channel.send(this.message, 0);
+		return this.channel.receive(0);
+	}
+
+	@Benchmark
+	@Group("producersConsumers")
+	@GroupThreads(2)
+	public boolean produce() {
+		return this.channel.send(this.message, 0);
+	}
+
+	@Benchmark
+	@Group("producersConsumers")
+	@GroupThreads(2)
+	public void consume(Blackhole blackhole) {
+		blackhole.consume(this.channel.receive(0));
+	}
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.integration.aggregator.ResequencingMessageGroupProcessor;
+import org.springframework.integration.aggregator.ResequencingMessageHandler;
+import org.springframework.integration.aggregator.SequenceSizeReleaseStrategy;
+import org.springframework.integration.channel.NullChannel;
+import org.springframework.integration.store.SimpleMessageStore;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+
+/**
+ * The throughput of a {@link ResequencingMessageHandler} releasing partial sequences
+ * for a sequence of {@code sequenceSize} messages arriving shuffled within windows of {@code window} messages.
+ * Every invocation resequences the whole sequence, so the score is reported in sequences.
+ *
+ * @since 6.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ResequencerBenchmark {
+
+	@Param({ "10000", "50000" })
+	public int sequenceSize;
+
+	@Param({ "100", "1000" })
+	public int window;
+
+	private IntegrationInfrastructure infrastructure;
+
+	private SimpleMessageStore messageStore;
+
+	private ResequencingMessageHandler resequencer;
+
+	private Message<?>[] messages;
+
+	private int sequence;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.infrastructure = new IntegrationInfrastructure();
+		this.messageStore = new SimpleMessageStore();
+		ResequencingMessageHandler handler =
+				new ResequencingMessageHandler(new ResequencingMessageGroupProcessor(), this.messageStore,
+						(message) -> this.sequence, new SequenceSizeReleaseStrategy(true));
+		handler.setOutputChannel(new NullChannel());
+		this.resequencer = this.infrastructure.initialize(handler, "resequencer");
+
+		List<Message<?>> shuffled = new ArrayList<>(this.sequenceSize);
+		for (int i = 1; i <= this.sequenceSize; i++) {
+			shuffled.add(MessageBuilder.withPayload(i)
+					.setSequenceNumber(i)
+					.setSequenceSize(this.sequenceSize)
+					.build());
+		}
+		Random random = new Random(42);
+		for (int i = 0; i < this.sequenceSize; i += this.window) {
+			Collections.shuffle(shuffled.subList(i, Math.min(i + this.window, this.sequenceSize)), random);
+		}
+		this.messages = shuffled.toArray(new Message<?>[0]);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.infrastructure.close();
+	}
+
+	@Benchmark
+	public void resequence() {
+		for (Message<?> message : this.messages) {
+			this.resequencer.handleMessage(message);
+		}
+		this.messageStore.removeMessageGroup(this.sequence++);
+	}
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.integration.store.MessageGroup;
+import org.springframework.integration.store.SimpleMessageStore;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+
+/**
+ * The group operations of the {@link SimpleMessageStore}: the queue-like add and poll
+ * (as used by the {@link org.springframework.integration.store.MessageGroupQueue}),
+ * the group read (as used by correlation handlers) and the complete group life cycle.
+ *
+ * @since 6.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SimpleMessageStoreBenchmark {
+
+	private static final String GROUP_ID = "group";
+
+	private static final String QUEUE_GROUP_ID = "queue";
+
+	@Param({ "10", "1000" })
+	public int groupSize;
+
+	@Param({ "true", "false" })
+	public boolean copyOnGet;
+
+	private SimpleMessageStore messageStore;
+
+	private Message<?>[] messages;
+
+	@Setup
+	public void setup() {
+		this.messageStore = new SimpleMessageStore();
+		this.messageStore.setCopyOnGet(this.copyOnGet);
+		this.messages = new Message<?>[this.groupSize];
+		for (int i = 0; i < this.groupSize; i++) {
+			this.messages[i] = MessageBuilder.withPayload(i).build();
+		}
+		this.messageStore.addMessagesToGroup(GROUP_ID, this.messages);
+	}
+
+	@Benchmark
+	public Message<?> addAndPoll() {
+		this.messageStore.addMessagesToGroup(QUEUE_GROUP_ID, this.messages[0]);
+		return this.messageStore.pollMessageFromGroup(QUEUE_GROUP_ID);
+	}
+
+	@Benchmark
+	public MessageGroup getMessageGroup() {
+		return this.messageStore.getMessageGroup(GROUP_ID);
+	}
+
+	@Benchmark
+	public int groupLifecycle() {
+		String groupId = "lifecycle";
+		this.messageStore.addMessagesToGroup(groupId, this.messages);
+		int size = this.messageStore.messageGroupSize(groupId);
+		this.messageStore.completeGroup(groupId);
+		this.messageStore.removeMessageGroup(groupId);
+		return size;
+	}
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import reactor.core.publisher.Flux;
+
+import org.springframework.integration.channel.AbstractMessageChannel;
+import org.springframework.integration.channel.DirectChannel;
+import org.springframework.integration.channel.ExecutorChannel;
+import org.springframework.integration.channel.FluxMessageChannel;
+import org.springframework.integration.channel.PartitionedChannel;
+import org.springframework.integration.channel.PublishSubscribeChannel;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * The send path of the subscribable channels: from the {@code send()} call
+ * down to the subscribed {@link MessageHandler}.
+ * Every invocation sends a batch of messages and waits until all of them are handled,
+ * so the asynchronous channels are measured end-to-end, not only for their hand-off.
+ *
+ * @since 6.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SubscribableChannelBenchmark {
+
+	private static final int BATCH_SIZE = 1000;
+
+	private static final int PARTITION_KEYS = 16;
+
+	@Param({ "direct", "executor", "publishSubscribe", "publishSubscribeExecutor", "partitioned", "flux" })
+	public String channelType;
+
+	private final AtomicLong handled = new AtomicLong();
+
+	private final Message<?>[] messages = new Message<?>[BATCH_SIZE];
+
+	private IntegrationInfrastructure infrastructure;
+
+	private ThreadPoolTaskExecutor taskExecutor;
+
+	private AbstractMessageChannel channel;
+
+	private int subscribers = 1;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.infrastructure = new IntegrationInfrastructure();
+		this.taskExecutor = new ThreadPoolTaskExecutor();
+		this.taskExecutor.setCorePoolSize(4);
+		this.taskExecutor.afterPropertiesSet();
+
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			this.messages[i] =
+					MessageBuilder.withPayload("test")
+							.setHeader("partitionKey", i % PARTITION_KEYS)
+							.build();
+		}
+
+		this.channel =
+				this.infrastructure.initialize(
+						switch (this.channelType) {
+							case "direct" -> new DirectChannel();
+							case "executor" -> new ExecutorChannel(this.taskExecutor);
+							case "publishSubscribe" -> new PublishSubscribeChannel();
+							case "publishSubscribeExecutor" -> new PublishSubscribeChannel(this.taskExecutor);
+							case "partitioned" -> new PartitionedChannel(4,
+									(message) -> message.getHeaders().get("partitionKey"));
+							case "flux" -> new FluxMessageChannel();
+							default -> throw new IllegalArgumentException("Unknown channel type: " + this.channelType);
+						},
+						this.channelType + "Channel");
+
+		if (this.channel instanceof FluxMessageChannel fluxMessageChannel) {
+			Flux.from(fluxMessageChannel).subscribe((message) -> this.handled.incrementAndGet());
+		}
+		else {
+			if (this.channel instanceof PublishSubscribeChannel) {
+				this.subscribers = 2;
+			}
+			for (int i = 0; i < this.subscribers; i++) {
+				MessageHandler handler = (message) -> this.handled.incrementAndGet();
+				((SubscribableChannel) this.channel).subscribe(handler);
+			}
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.infrastructure.destroy(this.channel);
+		this.taskExecutor.shutdown();
+		this.infrastructure.close();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public void send() {
+		long expected = this.handled.get() + (long) BATCH_SIZE * this.subscribers;
+		for (Message<?> message : this.messages) {
+			this.channel.send(message);
+		}
+		while (this.handled.get() < expected) {
+			Thread.onSpinWait();
+		}
+	}
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmark;
+
+import java.time.Instant;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.integration.scheduling.HashedWheelTaskScheduler;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * The cost of scheduling and cancelling a one-time task, like a group timeout of an aggregator
+ * which is rescheduled on every message, with the {@link ThreadPoolTaskScheduler}
+ * and the {@link HashedWheelTaskScheduler} holding {@code pending} tasks.
+ *
+ * @since 6.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskSchedulerBenchmark {
+
+	private static final Runnable NO_OP = () -> { };
+
+	@Param({ "threadPool", "hashedWheel" })
+	public String scheduler;
+
+	@Param({ "1000000" })
+	public int pending;
+
+	private TaskScheduler taskScheduler;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		if ("threadPool".equals(this.scheduler)) {
+			ThreadPoolTaskScheduler threadPoolTaskScheduler = new ThreadPoolTaskScheduler();
+			threadPoolTaskScheduler.setRemoveOnCancelPolicy(true);
+			threadPoolTaskScheduler.afterPropertiesSet();
+			this.taskScheduler = threadPoolTaskScheduler;
+		}
+		else {
+			this.taskScheduler = new HashedWheelTaskScheduler();
+		}
+		Instant farFuture = Instant.now().plusSeconds(3600);
+		for (int i = 0; i < this.pending; i++) {
+			this.taskScheduler.schedule(NO_OP, farFuture.plusMillis(i % 60_000));
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		((DisposableBean) this.taskScheduler).destroy();
+	}
+
+	@Benchmark
+	public boolean scheduleAndCancel() {
+		ScheduledFuture<?> future = this.taskScheduler.schedule(NO_OP, Instant.now().plusSeconds(30));
+		return future.cancel(false);
+	}
+
+}
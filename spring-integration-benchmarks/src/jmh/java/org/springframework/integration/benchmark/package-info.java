@@ -0,0 +1,4 @@
+/**
+ * Provides JMH benchmarks for the Spring Integration hot paths.
+ */
+package org.springframework.integration.benchmark;
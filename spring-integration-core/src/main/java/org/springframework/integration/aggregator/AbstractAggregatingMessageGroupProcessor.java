@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.integration.aggregator;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
 
@@ -90,8 +91,8 @@ public abstract class AbstractAggregatingMessageGroupProcessor implements Messag
 	@Override
 	public final Object processMessageGroup(MessageGroup group) {
 		Assert.notNull(group, "MessageGroup must not be null");
-		Map<String, Object> headers = aggregateHeaders(group);
-		Object payload = aggregatePayloads(group, headers);
+		Map<String, Object> headers = new HashMap<>();
+		Object payload = aggregate(group, headers);
 		AbstractIntegrationMessageBuilder<?> builder;
 		if (payload instanceof Message<?>) {
 			builder = getMessageBuilderFactory().fromMessage((Message<?>) payload);
@@ -117,6 +118,25 @@ public abstract class AbstractAggregatingMessageGroupProcessor implements Messag
 		return getHeadersFunction().apply(group);
 	}
 
+	/**
+	 * Aggregate the headers of the group into the provided map and return the aggregated payload.
+	 * This implementation calls {@link #aggregateHeaders(MessageGroup)} and then
+	 * {@link #aggregatePayloads(MessageGroup, Map)}, so the messages of the group are iterated twice.
+	 * Subclasses may override it to aggregate both in a single iteration, which matters for a group
+	 * loaded from the message store page by page.
+	 * @param group the message group.
+	 * @param headers the map to populate with the aggregated headers.
+	 * @return the aggregated payload.
+	 * @since 6.2
+	 */
+	protected Object aggregate(MessageGroup group, Map<String, Object> headers) {
+		Map<String, Object> aggregatedHeaders = aggregateHeaders(group);
+		if (aggregatedHeaders != null) {
+			headers.putAll(aggregatedHeaders);
+		}
+		return aggregatePayloads(group, headers);
+	}
+
 	protected abstract Object aggregatePayloads(MessageGroup group, Map<String, Object> defaultHeaders);
 
 }
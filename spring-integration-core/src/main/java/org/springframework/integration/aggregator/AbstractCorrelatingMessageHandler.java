@@ -18,6 +18,7 @@ package org.springframework.integration.aggregator;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -27,6 +28,8 @@ import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.concurrent.locks.Lock;
 import java.util.function.BiFunction;
 
@@ -92,6 +95,9 @@ import org.springframework.util.ObjectUtils;
  * are purged from the store on start up (or when {@link #purgeOrphanedGroups()} is called).
  * If {@link #expireDuration} is provided, the task is scheduled to perform
  * {@link #purgeOrphanedGroups()} periodically.
+ * <p>
+ * With the {@link #setLockFreeAccumulation(boolean)} option, the messages for count-based
+ * release strategies are accumulated in memory without locking and without a message store.
  *
  * @author Iwein Fuld
  * @author Dave Syer
@@ -108,10 +114,19 @@ import org.springframework.util.ObjectUtils;
 public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageProducingHandler
 		implements DiscardingMessageHandler, ApplicationEventPublisherAware, ManageableLifecycle {
 
+	/**
+	 * The maximum group size (release threshold) for the lock-free accumulation;
+	 * the messages for bigger groups are handled via the {@link MessageGroupStore}.
+	 * @since 6.2
+	 */
+	public static final int MAX_LOCK_FREE_GROUP_SIZE = 1024;
+
 	private final Comparator<Message<?>> sequenceNumberComparator = new MessageSequenceComparator();
 
 	private final Map<UUID, ScheduledFuture<?>> expireGroupScheduledFutures = new ConcurrentHashMap<>();
 
+	private final Map<Object, GroupAccumulator> groupAccumulators = new ConcurrentHashMap<>();
+
 	private MessageGroupProcessor outputProcessor;
 
 	private MessageGroupStore messageStore;
@@ -162,6 +177,8 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 
 	private BiFunction<Message<?>, String, String> groupConditionSupplier;
 
+	private boolean lockFreeAccumulation;
+
 	public AbstractCorrelatingMessageHandler(MessageGroupProcessor processor, MessageGroupStore store,
 			CorrelationStrategy correlationStrategy, ReleaseStrategy releaseStrategy) {
 
@@ -376,6 +393,29 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 		this.groupConditionSupplier = conditionSupplier;
 	}
 
+	/**
+	 * Set to true to accumulate messages for groups in memory without a lock
+	 * and without a {@link MessageGroupStore}.
+	 * Each group is an array of messages with the size of the release threshold,
+	 * and the slots in this array are claimed with a compare-and-set operation.
+	 * The lock for the group is obtained only when the group is released or expired,
+	 * so messages for the same group and for many concurrent groups can be added in parallel.
+	 * Only a {@link MessageCountReleaseStrategy} (the threshold is the size of the group)
+	 * and a {@link SimpleSequenceSizeReleaseStrategy} (the sequence size of the first message
+	 * is the size of the group) are supported.
+	 * A released group is not kept, so the next message with the same correlation key starts a new group;
+	 * a {@code groupTimeout} is evaluated once, for the first message in the group,
+	 * and the {@link org.springframework.integration.store.MessageGroupStoreReaper} does not see these groups.
+	 * Messages without a sequence size for a {@link SimpleSequenceSizeReleaseStrategy}, and groups with a size
+	 * over {@link #MAX_LOCK_FREE_GROUP_SIZE} (e.g. a {@code MessageCountReleaseStrategy(Integer.MAX_VALUE)}
+	 * to release only by the group timeout) are handled via the {@link MessageGroupStore} as usual.
+	 * @param lockFreeAccumulation true to accumulate messages in memory without a lock.
+	 * @since 6.2
+	 */
+	public void setLockFreeAccumulation(boolean lockFreeAccumulation) {
+		this.lockFreeAccumulation = lockFreeAccumulation;
+	}
+
 	@Override
 	public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
 		this.applicationEventPublisher = applicationEventPublisher;
@@ -426,6 +466,15 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 		if (this.releaseStrategy instanceof GroupConditionProvider) {
 			this.groupConditionSupplier = ((GroupConditionProvider) this.releaseStrategy).getGroupConditionSupplier();
 		}
+
+		if (this.lockFreeAccumulation) {
+			Assert.state(this.releaseStrategy instanceof MessageCountReleaseStrategy
+							|| this.releaseStrategy instanceof SimpleSequenceSizeReleaseStrategy,
+					() -> "The 'lockFreeAccumulation' supports only a 'MessageCountReleaseStrategy' " +
+							"or a 'SimpleSequenceSizeReleaseStrategy', not: " + this.releaseStrategy);
+			Assert.state(this.groupConditionSupplier == null,
+					"The 'groupConditionSupplier' is not supported with the 'lockFreeAccumulation'");
+		}
 	}
 
 	private MessageGroupProcessor createGroupTimeoutProcessor() {
@@ -532,6 +581,17 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 
 		this.logger.debug(() -> "Handling message with correlationKey [" + correlationKey + "]: " + message);
 
+		if (this.lockFreeAccumulation) {
+			int threshold =
+					this.releaseStrategy instanceof MessageCountReleaseStrategy countReleaseStrategy
+							? countReleaseStrategy.getThreshold()
+							: StaticMessageHeaderAccessor.getSequenceSize(message);
+			if (threshold > 0 && threshold <= MAX_LOCK_FREE_GROUP_SIZE) {
+				accumulate(message, correlationKey, threshold);
+				return;
+			}
+		}
+
 		UUID groupIdUuid = UUIDConverter.getUUID(correlationKey);
 		Lock lock = this.lockRegistry.obtain(groupIdUuid.toString());
 
@@ -594,6 +654,100 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 		return noOutput;
 	}
 
+	private void accumulate(Message<?> message, Object correlationKey, int threshold) {
+		while (true) {
+			GroupAccumulator accumulator =
+					this.groupAccumulators.computeIfAbsent(correlationKey,
+							(key) -> new GroupAccumulator(key, threshold));
+			int slot = accumulator.claim();
+			if (slot < 0) {
+				// The group is full or expired - start a new one
+				this.groupAccumulators.remove(correlationKey, accumulator);
+				continue;
+			}
+			if (accumulator.add(slot, message)) {
+				this.groupAccumulators.remove(correlationKey, accumulator);
+				accumulator.cancelExpiry();
+				releaseAccumulator(accumulator, message);
+			}
+			else if (slot == 0) {
+				scheduleAccumulatorExpiry(accumulator, message);
+			}
+			return;
+		}
+	}
+
+	private void releaseAccumulator(GroupAccumulator accumulator, Message<?> message) {
+		Object correlationKey = accumulator.groupId;
+		MessageGroup messageGroup = accumulator.toMessageGroup(accumulator.threshold);
+		Lock lock = this.lockRegistry.obtain(UUIDConverter.getUUID(correlationKey).toString());
+		try {
+			lock.lockInterruptibly();
+			try {
+				completeGroup(message, correlationKey, messageGroup, lock);
+			}
+			finally {
+				if (!this.releaseLockBeforeSend) {
+					lock.unlock();
+				}
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new MessageHandlingException(message, "Interrupted getting lock in the [" + this + ']', ex);
+		}
+	}
+
+	private void scheduleAccumulatorExpiry(GroupAccumulator accumulator, Message<?> firstMessage) {
+		Object groupTimeout =
+				obtainGroupTimeout(new SimpleMessageGroup(Collections.singletonList(firstMessage),
+						accumulator.groupId));
+		if (groupTimeout != null) {
+			Instant startTime = null;
+			if (groupTimeout instanceof Date date) {
+				startTime = date.toInstant();
+			}
+			else if ((Long) groupTimeout > 0) {
+				startTime = Instant.now().plusMillis((Long) groupTimeout);
+			}
+
+			if (startTime != null) {
+				accumulator.expiryFuture =
+						getTaskScheduler().schedule(() -> expireAccumulator(accumulator), startTime);
+			}
+			else {
+				expireAccumulator(accumulator);
+			}
+		}
+	}
+
+	private void expireAccumulator(GroupAccumulator accumulator) {
+		int count = accumulator.close();
+		if (count < 0) {
+			// Already released
+			return;
+		}
+		Object correlationKey = accumulator.groupId;
+		this.groupAccumulators.remove(correlationKey, accumulator);
+		MessageGroup messageGroup = accumulator.toMessageGroup(count);
+		Lock lock = this.lockRegistry.obtain(UUIDConverter.getUUID(correlationKey).toString());
+		try {
+			lock.lockInterruptibly();
+			try {
+				expireGroup(correlationKey, messageGroup, lock);
+			}
+			finally {
+				if (!this.releaseLockBeforeSend) {
+					lock.unlock();
+				}
+			}
+		}
+		catch (@SuppressWarnings("unused") InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			this.logger.debug("Thread was interrupted while trying to obtain lock");
+		}
+	}
+
 	private void cancelScheduledFutureIfAny(Object correlationKey, UUID groupIdUuid, boolean mayInterruptIfRunning) {
 		ScheduledFuture<?> scheduledFuture = this.expireGroupScheduledFutures.remove(groupIdUuid);
 		if (scheduledFuture != null) {
@@ -971,6 +1125,7 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 	@Override
 	public void destroy() {
 		this.expireGroupScheduledFutures.values().forEach(future -> future.cancel(true));
+		this.groupAccumulators.values().forEach(GroupAccumulator::cancelExpiry);
 	}
 
 	@Override
@@ -1068,6 +1223,20 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 			return true;
 		}
 
+		@Override
+		public int getMinSequenceNumber() {
+			return this.sourceGroup != null
+					? this.sourceGroup.getMinSequenceNumber()
+					: super.getMinSequenceNumber();
+		}
+
+		@Override
+		public int getContiguousSequenceEnd() {
+			return this.sourceGroup != null
+					? this.sourceGroup.getContiguousSequenceEnd()
+					: super.getContiguousSequenceEnd();
+		}
+
 		private boolean containsSequenceNumber(Collection<Message<?>> messages, Integer messageSequenceNumber) {
 			for (Message<?> member : messages) {
 				if (messageSequenceNumber.equals(member.getHeaders().get(
@@ -1080,6 +1249,80 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 
 	}
 
+	/**
+	 * The in-memory group for the lock-free accumulation.
+	 * A slot for a message is claimed with a compare-and-set on the {@link #claimed} counter,
+	 * so at most {@link #threshold} messages are accepted; the thread which has added
+	 * the last message releases the group.
+	 * An expiry closes the group for new claims and waits for already claimed slots to be filled.
+	 */
+	private static final class GroupAccumulator {
+
+		private final Object groupId;
+
+		private final int threshold;
+
+		private final long timestamp = System.currentTimeMillis();
+
+		private final AtomicInteger claimed = new AtomicInteger();
+
+		private final AtomicInteger added = new AtomicInteger();
+
+		private final AtomicReferenceArray<Message<?>> messages;
+
+		private volatile ScheduledFuture<?> expiryFuture;
+
+		GroupAccumulator(Object groupId, int threshold) {
+			this.groupId = groupId;
+			this.threshold = threshold;
+			this.messages = new AtomicReferenceArray<>(threshold);
+		}
+
+		int claim() {
+			int slot;
+			do {
+				slot = this.claimed.get();
+				if (slot >= this.threshold) {
+					return -1;
+				}
+			}
+			while (!this.claimed.compareAndSet(slot, slot + 1));
+			return slot;
+		}
+
+		boolean add(int slot, Message<?> message) {
+			this.messages.set(slot, message);
+			return this.added.incrementAndGet() == this.threshold;
+		}
+
+		int close() {
+			int count = this.claimed.getAndSet(Integer.MAX_VALUE);
+			if (count >= this.threshold) {
+				return -1;
+			}
+			while (this.added.get() < count) {
+				Thread.yield();
+			}
+			return count;
+		}
+
+		void cancelExpiry() {
+			ScheduledFuture<?> future = this.expiryFuture;
+			if (future != null) {
+				future.cancel(false);
+			}
+		}
+
+		MessageGroup toMessageGroup(int size) {
+			List<Message<?>> groupMessages = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				groupMessages.add(this.messages.get(i));
+			}
+			return new SimpleMessageGroup(groupMessages, this.groupId, this.timestamp, false);
+		}
+
+	}
+
 	private class ForceReleaseMessageGroupProcessor implements MessageGroupProcessor {
 
 		ForceReleaseMessageGroupProcessor() {
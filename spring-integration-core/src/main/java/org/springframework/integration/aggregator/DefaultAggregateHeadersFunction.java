@@ -1,5 +1,5 @@
 /*
- * Copyright 2019 the original author or authors.
+ * Copyright 2019-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 import org.apache.commons.logging.Log;
@@ -28,6 +29,7 @@ import org.apache.commons.logging.LogFactory;
 
 import org.springframework.integration.IntegrationMessageHeaderAccessor;
 import org.springframework.integration.store.MessageGroup;
+import org.springframework.lang.Nullable;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHeaders;
 
@@ -48,8 +50,19 @@ public class DefaultAggregateHeadersFunction implements Function<MessageGroup, M
 
 	@Override
 	public Map<String, Object> apply(MessageGroup messageGroup) {
+		return aggregateHeaders(messageGroup, null);
+	}
+
+	/**
+	 * Aggregate the headers of the group and pass every message to the callback
+	 * in the same iteration over the group.
+	 * @param messageGroup the group to aggregate headers from.
+	 * @param messageCallback the callback for every message in the group.
+	 * @return the aggregated headers.
+	 */
+	Map<String, Object> aggregateHeaders(MessageGroup messageGroup, @Nullable Consumer<Message<?>> messageCallback) {
 		Map<String, Object> aggregatedHeaders = new HashMap<>();
-		Set<String> conflictKeys = doAggregateHeaders(messageGroup, aggregatedHeaders);
+		Set<String> conflictKeys = doAggregateHeaders(messageGroup, aggregatedHeaders, messageCallback);
 		for (String keyToRemove : conflictKeys) {
 			if (LOGGER.isDebugEnabled()) {
 				LOGGER.debug("Excluding header '" + keyToRemove + "' upon aggregation due to conflict(s) "
@@ -60,9 +73,14 @@ public class DefaultAggregateHeadersFunction implements Function<MessageGroup, M
 		return aggregatedHeaders;
 	}
 
-	private Set<String> doAggregateHeaders(MessageGroup group, Map<String, Object> aggregatedHeaders) {
+	private Set<String> doAggregateHeaders(MessageGroup group, Map<String, Object> aggregatedHeaders,
+			@Nullable Consumer<Message<?>> messageCallback) {
+
 		Set<String> conflictKeys = new HashSet<>();
 		for (Message<?> message : group.getMessages()) {
+			if (messageCallback != null) {
+				messageCallback.accept(message);
+			}
 			for (Map.Entry<String, Object> entry : message.getHeaders().entrySet()) {
 				String key = entry.getKey();
 				if (MessageHeaders.ID.equals(key)
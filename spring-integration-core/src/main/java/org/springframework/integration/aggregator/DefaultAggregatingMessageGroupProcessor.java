@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 import org.springframework.integration.store.MessageGroup;
 import org.springframework.messaging.Message;
@@ -36,10 +37,43 @@ import org.springframework.util.Assert;
  */
 public class DefaultAggregatingMessageGroupProcessor extends AbstractAggregatingMessageGroupProcessor {
 
+	/**
+	 * Collect the payloads in the same iteration over the group as the headers,
+	 * when they are aggregated by the {@link DefaultAggregateHeadersFunction}
+	 * and {@link #isSinglePassAggregation()} is true.
+	 * @param group the message group.
+	 * @param headers the map to populate with the aggregated headers.
+	 * @return the list of payloads.
+	 * @since 6.2
+	 */
+	@Override
+	protected Object aggregate(MessageGroup group, Map<String, Object> headers) {
+		Function<MessageGroup, Map<String, Object>> function = getHeadersFunction();
+		if (isSinglePassAggregation() && function.getClass() == DefaultAggregateHeadersFunction.class) {
+			DefaultAggregateHeadersFunction headersFunction = (DefaultAggregateHeadersFunction) function;
+			List<Object> payloads = new ArrayList<>(group.size());
+			headers.putAll(headersFunction.aggregateHeaders(group, (message) -> payloads.add(message.getPayload())));
+			assertNotEmpty(payloads);
+			return payloads;
+		}
+		return super.aggregate(group, headers);
+	}
+
+	/**
+	 * Return true to collect the payloads in the same iteration over the group as the headers.
+	 * In this case the {@link #aggregateHeaders(MessageGroup)} is not called, so subclasses
+	 * overriding that method must override this one to return {@code false}.
+	 * @return true to aggregate headers and payloads in a single iteration over the group.
+	 * @since 6.2
+	 */
+	protected boolean isSinglePassAggregation() {
+		return true;
+	}
+
 	@Override
 	protected final Object aggregatePayloads(MessageGroup group, Map<String, Object> headers) {
 		Collection<Message<?>> messages = group.getMessages();
-		Assert.notEmpty(messages, this.getClass().getSimpleName() + " cannot process empty message groups");
+		assertNotEmpty(messages);
 		List<Object> payloads = new ArrayList<Object>(messages.size());
 		for (Message<?> message : messages) {
 			payloads.add(message.getPayload());
@@ -47,4 +81,8 @@ public class DefaultAggregatingMessageGroupProcessor extends AbstractAggregating
 		return payloads;
 	}
 
+	private void assertNotEmpty(Collection<?> messages) {
+		Assert.notEmpty(messages, this.getClass().getSimpleName() + " cannot process empty message groups");
+	}
+
 }
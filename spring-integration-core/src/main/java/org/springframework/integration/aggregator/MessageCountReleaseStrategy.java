@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -45,6 +45,15 @@ public class MessageCountReleaseStrategy implements ReleaseStrategy {
 		this.threshold = threshold;
 	}
 
+	/**
+	 * Return the number of messages to accept before releasing.
+	 * @return the threshold.
+	 * @since 6.2
+	 */
+	public int getThreshold() {
+		return this.threshold;
+	}
+
 	/**
 	 * Release the group if it has more messages than the threshold and has not previously been released.
 	 * It is possible that more messages than the threshold could be released, but only if multiple consumers
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,16 +17,24 @@
 package org.springframework.integration.aggregator;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 
 import org.springframework.integration.StaticMessageHeaderAccessor;
 import org.springframework.integration.store.MessageGroup;
+import org.springframework.lang.Nullable;
 import org.springframework.messaging.Message;
 
 /**
  * This class implements all the strategy interfaces needed for a default resequencer.
+ * <p>
+ * Starting with version 6.2, the contiguous run of messages to release is determined by the
+ * {@link MessageGroup#getMinSequenceNumber()} and {@link MessageGroup#getContiguousSequenceEnd()},
+ * and the messages of this run are placed by their sequence numbers in a single pass,
+ * without sorting the whole group.
+ * The sorting is used only if the group contains several messages with the same sequence number.
  *
  * @author Iwein Fuld
  * @author Dave Syer
@@ -43,27 +51,51 @@ public class ResequencingMessageGroupProcessor implements MessageGroupProcessor
 		Collection<Message<?>> messages = group.getMessages();
 
 		if (messages.size() > 0) {
-			List<Message<?>> sorted = new ArrayList<>(messages);
-			sorted.sort(this.comparator);
-			ArrayList<Message<?>> partialSequence = new ArrayList<>();
-			int previousSequence = extractSequenceNumber(sorted.get(0));
-			int currentSequence = previousSequence;
-			for (Message<?> message : sorted) {
-				previousSequence = currentSequence;
-				currentSequence = extractSequenceNumber(message);
-				if (currentSequence - 1 > previousSequence) {
-					//there is a gap in the sequence here
-					break;
+			List<Message<?>> partialSequence = contiguousSequence(group, messages);
+			return partialSequence != null ? partialSequence : sortedPartialSequence(messages);
+		}
+		return null;
+	}
+
+	@Nullable
+	private List<Message<?>> contiguousSequence(MessageGroup group, Collection<Message<?>> messages) {
+		int first = group.getMinSequenceNumber();
+		Message<?>[] sequence = new Message<?>[group.getContiguousSequenceEnd() - first + 1];
+		int found = 0;
+		for (Message<?> message : messages) {
+			int index = extractSequenceNumber(message) - first;
+			if (index >= 0 && index < sequence.length) {
+				if (sequence[index] != null) {
+					// several messages with the same sequence number
+					return null;
 				}
-				partialSequence.add(message);
+				sequence[index] = message;
+				found++;
 			}
+		}
+		return found == sequence.length ? Arrays.asList(sequence) : null;
+	}
 
-			return partialSequence;
+	private List<Message<?>> sortedPartialSequence(Collection<Message<?>> messages) {
+		List<Message<?>> sorted = new ArrayList<>(messages);
+		sorted.sort(this.comparator);
+		ArrayList<Message<?>> partialSequence = new ArrayList<>();
+		int previousSequence = extractSequenceNumber(sorted.get(0));
+		int currentSequence = previousSequence;
+		for (Message<?> message : sorted) {
+			previousSequence = currentSequence;
+			currentSequence = extractSequenceNumber(message);
+			if (currentSequence - 1 > previousSequence) {
+				//there is a gap in the sequence here
+				break;
+			}
+			partialSequence.add(message);
 		}
-		return null;
+
+		return partialSequence;
 	}
 
-	private Integer extractSequenceNumber(Message<?> message) {
+	private int extractSequenceNumber(Message<?> message) {
 		return StaticMessageHeaderAccessor.getSequenceNumber(message);
 	}
 
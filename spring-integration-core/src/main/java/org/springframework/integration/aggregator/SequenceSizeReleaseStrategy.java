@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,16 +16,10 @@
 
 package org.springframework.integration.aggregator;
 
-import java.util.Collection;
-import java.util.Collections;
-import java.util.Comparator;
-
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import org.springframework.integration.StaticMessageHeaderAccessor;
 import org.springframework.integration.store.MessageGroup;
-import org.springframework.messaging.Message;
 
 /**
  * An implementation of {@link ReleaseStrategy} that simply compares the current size of
@@ -44,8 +38,6 @@ public class SequenceSizeReleaseStrategy implements ReleaseStrategy {
 
 	private static final Log LOGGER = LogFactory.getLog(SequenceSizeReleaseStrategy.class);
 
-	private final Comparator<Message<?>> comparator = new MessageSequenceComparator();
-
 	private volatile boolean releasePartialSequences;
 
 	/**
@@ -57,8 +49,7 @@ public class SequenceSizeReleaseStrategy implements ReleaseStrategy {
 
 	/**
 	 * Construct an instance that supports releasing partial sequences if
-	 * releasePartialSequences is true. This can be an expensive operation on large
-	 * groups.
+	 * releasePartialSequences is true.
 	 * @param releasePartialSequences true to allow the release of partial sequences.
 	 */
 	public SequenceSizeReleaseStrategy(boolean releasePartialSequences) {
@@ -69,7 +60,8 @@ public class SequenceSizeReleaseStrategy implements ReleaseStrategy {
 	 * Flag that determines if partial sequences are allowed. If true then as soon as
 	 * enough messages arrive that can be ordered they will be released, provided they
 	 * all have sequence numbers greater than those already released.
-	 * This can be an expensive operation for large groups.
+	 * Starting with version 6.2, the check relies on the {@link MessageGroup#getMinSequenceNumber()},
+	 * which does not iterate the messages for a {@code SimpleMessageGroup}.
 	 * @param releasePartialSequences true when partial sequences should be released.
 	 */
 	public void setReleasePartialSequences(boolean releasePartialSequences) {
@@ -84,10 +76,7 @@ public class SequenceSizeReleaseStrategy implements ReleaseStrategy {
 			if (LOGGER.isTraceEnabled()) {
 				LOGGER.trace("Considering partial release of group [" + messageGroup + "]");
 			}
-			Collection<Message<?>> messages = messageGroup.getMessages();
-			Message<?> minMessage = Collections.min(messages, this.comparator);
-
-			int nextSequenceNumber = StaticMessageHeaderAccessor.getSequenceNumber(minMessage);
+			int nextSequenceNumber = messageGroup.getMinSequenceNumber();
 			int lastReleasedMessageSequence = messageGroup.getLastReleasedMessageSequenceNumber();
 
 			if (nextSequenceNumber - lastReleasedMessageSequence == 1) {
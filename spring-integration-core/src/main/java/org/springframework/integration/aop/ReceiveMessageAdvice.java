@@ -1,5 +1,5 @@
 /*
- * Copyright 2020 the original author or authors.
+ * Copyright 2020-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,9 +16,14 @@
 
 package org.springframework.integration.aop;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
 
+import org.springframework.integration.channel.BatchPollableChannel;
 import org.springframework.integration.core.MessageSource;
 import org.springframework.lang.Nullable;
 import org.springframework.messaging.Message;
@@ -26,6 +31,8 @@ import org.springframework.messaging.PollableChannel;
 
 /**
  * An AOP advice to perform hooks before and/or after a {@code receive()} contract is called.
+ * For the {@link BatchPollableChannel#receive(int, long)} the {@link #afterReceive(Message, Object)}
+ * is called for every received message or once with {@code null} when no messages received.
  *
  * @author Artem Bilan
  *
@@ -51,6 +58,10 @@ public interface ReceiveMessageAdvice extends MethodInterceptor {
 			return invocation.proceed();
 		}
 
+		if (target instanceof BatchPollableChannel && invocation.getArguments().length == 2) {
+			return invokeBatchReceive(invocation, target);
+		}
+
 		Message<?> result = null;
 		if (beforeReceive(target)) {
 			result = (Message<?>) invocation.proceed();
@@ -58,6 +69,26 @@ public interface ReceiveMessageAdvice extends MethodInterceptor {
 		return afterReceive(result, target);
 	}
 
+	@SuppressWarnings("unchecked")
+	private List<Message<?>> invokeBatchReceive(MethodInvocation invocation, Object target) throws Throwable {
+		List<Message<?>> messages = Collections.emptyList();
+		if (beforeReceive(target)) {
+			messages = (List<Message<?>>) invocation.proceed();
+		}
+		if (messages.isEmpty()) {
+			afterReceive(null, target);
+			return messages;
+		}
+		List<Message<?>> result = new ArrayList<>(messages.size());
+		for (Message<?> message : messages) {
+			Message<?> messageToReturn = afterReceive(message, target);
+			if (messageToReturn != null) {
+				result.add(messageToReturn);
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Subclasses can take actions based on the result of the {@link MethodInvocation#proceed()}; e.g.
 	 * adjust the {@code trigger}. The message can also be replaced with a new one.
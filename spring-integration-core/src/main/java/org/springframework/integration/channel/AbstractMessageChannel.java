@@ -107,6 +107,14 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 
 	private volatile String fullChannelName;
 
+	/**
+	 * The send plan: {@code true} if none of the message history, observation, metrics,
+	 * datatypes and interceptors are configured, so the message can be handed over
+	 * to the {@link #doSend(Message, long)} directly.
+	 * Recalculated in the setters of these options.
+	 */
+	private volatile boolean directSend = true;
+
 	@Override
 	public String getComponentType() {
 		return "channel";
@@ -120,11 +128,13 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 	@Override
 	public void setShouldTrack(boolean shouldTrack) {
 		this.shouldTrack = shouldTrack;
+		updateSendPlan();
 	}
 
 	@Override
 	public void registerMetricsCaptor(MetricsCaptor metricsCaptorToRegister) {
 		this.metricsCaptor = metricsCaptorToRegister;
+		updateSendPlan();
 	}
 
 	@Nullable
@@ -155,6 +165,7 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 	 */
 	public void setDatatypes(Class<?>... datatypes) {
 		this.datatypes = Arrays.copyOf(datatypes, datatypes.length);
+		updateSendPlan();
 	}
 
 	/**
@@ -166,6 +177,7 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 	public void setInterceptors(List<ChannelInterceptor> interceptors) {
 		interceptors.sort(this.orderComparator);
 		this.interceptors.set(interceptors);
+		updateSendPlan();
 	}
 
 	/**
@@ -175,6 +187,7 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 	@Override
 	public void addInterceptor(ChannelInterceptor interceptor) {
 		this.interceptors.add(interceptor);
+		updateSendPlan();
 	}
 
 	/**
@@ -185,6 +198,7 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 	@Override
 	public void addInterceptor(int index, ChannelInterceptor interceptor) {
 		this.interceptors.add(index, interceptor);
+		updateSendPlan();
 	}
 
 	/**
@@ -219,13 +233,17 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 
 	@Override
 	public boolean removeInterceptor(ChannelInterceptor interceptor) {
-		return this.interceptors.remove(interceptor);
+		boolean removed = this.interceptors.remove(interceptor);
+		updateSendPlan();
+		return removed;
 	}
 
 	@Override
 	@Nullable
 	public ChannelInterceptor removeInterceptor(int index) {
-		return this.interceptors.remove(index);
+		ChannelInterceptor removed = this.interceptors.remove(index);
+		updateSendPlan();
+		return removed;
 	}
 
 	/**
@@ -245,6 +263,7 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 	public void registerObservationRegistry(ObservationRegistry observationRegistry) {
 		Assert.notNull(observationRegistry, "'observationRegistry' must not be null");
 		this.observationRegistry = observationRegistry;
+		updateSendPlan();
 	}
 
 	@Override
@@ -252,6 +271,15 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 		return !ObservationRegistry.NOOP.equals(this.observationRegistry);
 	}
 
+	private void updateSendPlan() {
+		this.directSend =
+				!this.shouldTrack
+						&& !isObserved()
+						&& this.metricsCaptor == null
+						&& this.datatypes.length == 0
+						&& this.interceptors.getSize() == 0;
+	}
+
 	@Override
 	protected void onInit() {
 		super.onInit();
@@ -315,6 +343,9 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 	public boolean send(Message<?> messageArg, long timeout) {
 		Assert.notNull(messageArg, "message must not be null");
 		Assert.notNull(messageArg.getPayload(), "message payload must not be null");
+		if (this.directSend && !(this.loggingEnabled && this.logger.isDebugEnabled())) {
+			return sendDirect(messageArg, timeout);
+		}
 		Message<?> message = messageArg;
 		if (this.shouldTrack) {
 			message = MessageHistory.write(message, this, getMessageBuilderFactory());
@@ -331,6 +362,16 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 		}
 	}
 
+	private boolean sendDirect(Message<?> message, long timeout) {
+		try {
+			return doSend(message, timeout);
+		}
+		catch (Exception ex) {
+			throw IntegrationUtils.wrapInDeliveryExceptionIfNecessary(message,
+					() -> "failed to send Message to channel '" + getComponentName() + "'", ex);
+		}
+	}
+
 	private boolean sendWithObservation(Message<?> message, long timeout) {
 		MutableMessage<?> messageToSend = MutableMessage.of(message);
 		return IntegrationObservation.PRODUCER.observation(
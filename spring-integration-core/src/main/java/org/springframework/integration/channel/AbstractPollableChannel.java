@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,8 @@
 package org.springframework.integration.channel;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.List;
 
@@ -26,9 +28,9 @@ import org.springframework.integration.support.management.metrics.CounterFacade;
 import org.springframework.integration.support.management.metrics.MetricsCaptor;
 import org.springframework.lang.Nullable;
 import org.springframework.messaging.Message;
-import org.springframework.messaging.PollableChannel;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.util.Assert;
 
 /**
  * Base class for all pollable channels.
@@ -40,7 +42,7 @@ import org.springframework.messaging.support.ExecutorChannelInterceptor;
  * @author Trung Pham
  */
 public abstract class AbstractPollableChannel extends AbstractMessageChannel
-		implements PollableChannel, ExecutorChannelInterceptorAware {
+		implements BatchPollableChannel, ExecutorChannelInterceptorAware {
 
 	private int executorInterceptorsSize;
 
@@ -119,6 +121,63 @@ public abstract class AbstractPollableChannel extends AbstractMessageChannel
 		}
 	}
 
+	/**
+	 * Receive up to {@code maxMessages} from this channel in one operation.
+	 * The {@link ChannelInterceptor#preReceive} is called once for the whole batch,
+	 * the {@link ChannelInterceptor#postReceive} and
+	 * {@link ChannelInterceptor#afterReceiveCompletion} are called for every received message.
+	 * @param maxMessages the maximum number of messages to return.
+	 * @param timeout the timeout in milliseconds to wait for the first message.
+	 * @return the received messages; can be empty.
+	 * @since 6.2
+	 */
+	@Override
+	public List<Message<?>> receive(int maxMessages, long timeout) {
+		Assert.isTrue(maxMessages > 0, "'maxMessages' must be greater than 0");
+		ChannelInterceptorList interceptorList = getIChannelInterceptorList();
+		Deque<ChannelInterceptor> interceptorStack = null;
+		boolean counted = false;
+		try {
+			if (interceptorList.getSize() > 0) {
+				interceptorStack = new ArrayDeque<>();
+
+				if (!interceptorList.preReceive(this, interceptorStack)) {
+					return Collections.emptyList();
+				}
+			}
+			List<Message<?>> messages = doReceive(maxMessages, timeout);
+			if (messages.isEmpty()) {
+				if (isLoggingEnabled() && logger.isTraceEnabled()) {
+					logger.trace("postReceive on channel '" + this + "', no messages");
+				}
+				interceptorList.afterReceiveCompletion(null, this, null, interceptorStack);
+				return messages;
+			}
+			messages.forEach((message) -> incrementReceiveCounter());
+			counted = true;
+			logger.debug(LogMessage.format("postReceive on channel '%s', %d messages", this, messages.size()));
+			if (interceptorStack == null) {
+				return messages;
+			}
+			List<Message<?>> result = new ArrayList<>(messages.size());
+			for (Message<?> message : messages) {
+				Message<?> messageToReturn = interceptorList.postReceive(message, this);
+				interceptorList.afterReceiveCompletion(messageToReturn, this, null, interceptorStack);
+				if (messageToReturn != null) {
+					result.add(messageToReturn);
+				}
+			}
+			return result;
+		}
+		catch (RuntimeException ex) {
+			if (!counted) {
+				incrementReceiveErrorCounter(ex);
+			}
+			interceptorList.afterReceiveCompletion(null, this, ex, interceptorStack);
+			throw ex;
+		}
+	}
+
 	private void incrementReceiveCounter() {
 		MetricsCaptor metricsCaptor = getMetricsCaptor();
 		if (metricsCaptor != null) {
@@ -211,4 +270,28 @@ public abstract class AbstractPollableChannel extends AbstractMessageChannel
 	@Nullable
 	protected abstract Message<?> doReceive(long timeout);
 
+	/**
+	 * Receive up to {@code maxMessages}, blocking according to the {@code timeout}
+	 * semantics of {@link #doReceive(long)} only for the first one.
+	 * This implementation calls {@link #doReceive(long)} for every message;
+	 * subclasses are encouraged to override it with a bulk operation
+	 * (e.g. {@link java.util.concurrent.BlockingQueue#drainTo(java.util.Collection, int)}).
+	 * @param maxMessages the maximum number of messages to return.
+	 * @param timeout The timeout for the first message.
+	 * @return the messages; never null.
+	 * @since 6.2
+	 */
+	protected List<Message<?>> doReceive(int maxMessages, long timeout) {
+		Message<?> message = doReceive(timeout);
+		if (message == null) {
+			return Collections.emptyList();
+		}
+		List<Message<?>> messages = new ArrayList<>();
+		messages.add(message);
+		while (messages.size() < maxMessages && (message = doReceive(0)) != null) {
+			messages.add(message);
+		}
+		return messages;
+	}
+
 }
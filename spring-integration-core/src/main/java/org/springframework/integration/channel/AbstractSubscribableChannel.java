@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,8 +17,12 @@
 package org.springframework.integration.channel;
 
 import org.springframework.integration.MessageDispatchingException;
+import org.springframework.integration.dispatcher.LatencyAwareLoadBalancingStrategy;
 import org.springframework.integration.dispatcher.MessageDispatcher;
+import org.springframework.integration.dispatcher.UnicastingDispatcher;
 import org.springframework.integration.support.management.SubscribableChannelManagement;
+import org.springframework.integration.support.management.metrics.MetricsCaptor;
+import org.springframework.lang.Nullable;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageDeliveryException;
 import org.springframework.messaging.MessageHandler;
@@ -77,6 +81,34 @@ public abstract class AbstractSubscribableChannel extends AbstractMessageChannel
 		}
 	}
 
+	@Override
+	public void registerMetricsCaptor(MetricsCaptor metricsCaptor) {
+		super.registerMetricsCaptor(metricsCaptor);
+		LatencyAwareLoadBalancingStrategy latencyAwareStrategy = getLatencyAwareLoadBalancingStrategy();
+		if (latencyAwareStrategy != null) {
+			latencyAwareStrategy.registerMetricsCaptor(metricsCaptor, getComponentName());
+		}
+	}
+
+	@Override
+	public void destroy() {
+		super.destroy();
+		LatencyAwareLoadBalancingStrategy latencyAwareStrategy = getLatencyAwareLoadBalancingStrategy();
+		if (latencyAwareStrategy != null) {
+			latencyAwareStrategy.destroy();
+		}
+	}
+
+	@Nullable
+	private LatencyAwareLoadBalancingStrategy getLatencyAwareLoadBalancingStrategy() {
+		if (getDispatcher() instanceof UnicastingDispatcher unicastingDispatcher
+				&& unicastingDispatcher.getLoadBalancingStrategy() instanceof LatencyAwareLoadBalancingStrategy strategy) {
+
+			return strategy;
+		}
+		return null;
+	}
+
 	private MessageDispatcher getRequiredDispatcher() {
 		MessageDispatcher dispatcher = getDispatcher();
 		Assert.state(dispatcher != null, "'dispatcher' must not be null");
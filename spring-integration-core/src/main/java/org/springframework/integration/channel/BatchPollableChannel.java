@@ -0,0 +1,45 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.channel;
+
+import java.util.List;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.PollableChannel;
+
+/**
+ * A {@link PollableChannel} extension which can hand over several messages
+ * in a single receive operation.
+ *
+ * @since 6.2
+ */
+public interface BatchPollableChannel extends PollableChannel {
+
+	/**
+	 * Receive up to {@code maxMessages} from this channel.
+	 * Blocks for the provided timeout (if any) only until the first message is available;
+	 * the rest of the batch is made of messages which are immediately available.
+	 * @param maxMessages the maximum number of messages to return.
+	 * @param timeout the timeout in milliseconds to wait for the first message;
+	 * {@code 0} to return immediately, negative to wait indefinitely.
+	 * @return the received messages in the channel order; never {@code null},
+	 * but can be empty if no message is available within the allotted time or
+	 * the receiving thread is interrupted.
+	 */
+	List<Message<?>> receive(int maxMessages, long timeout);
+
+}
@@ -16,12 +16,18 @@
 
 package org.springframework.integration.channel;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadFactory;
 import java.util.function.Function;
 
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.integration.IntegrationMessageHeaderAccessor;
 import org.springframework.integration.dispatcher.LoadBalancingStrategy;
 import org.springframework.integration.dispatcher.PartitionedDispatcher;
+import org.springframework.integration.support.management.metrics.GaugeFacade;
+import org.springframework.integration.support.management.metrics.MetricsCaptor;
 import org.springframework.lang.Nullable;
 import org.springframework.messaging.Message;
 import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
@@ -40,6 +46,15 @@ import org.springframework.util.Assert;
  * The default {@link ThreadFactory} is based on the bean name of this channel plus {@code -partition-thread-}.
  * Thus, every thread name will reflect a partition it belongs to.
  * <p>
+ * With the {@link #setVirtualThreads(boolean) virtualThreads} option (Java 21+) or a shared
+ * {@link #setTaskExecutor(Executor) taskExecutor}, the partitions are not backed by dedicated threads,
+ * but are drained on demand by tasks on that executor, still preserving the order per partition.
+ * This allows a large number of partitions (e.g. one per ordering key).
+ * <p>
+ * With the {@link #setRebalancing(boolean) rebalancing} option, the keys without in-flight messages
+ * are moved away from saturated partitions, and the per-partition depth and processing time
+ * gauges are registered with the {@link MetricsCaptor}.
+ * <p>
  * The rest of the logic is similar to the {@link ExecutorChannel}, which includes:
  * - load balancing for subscribers;
  * - fail-over and error handling;
@@ -56,6 +71,13 @@ public class PartitionedChannel extends AbstractExecutorChannel {
 	@Nullable
 	private ThreadFactory threadFactory;
 
+	@Nullable
+	private Executor taskExecutor;
+
+	private boolean virtualThreads;
+
+	private final List<GaugeFacade> partitionGauges = new ArrayList<>();
+
 	/**
 	 * Instantiate based on a provided number of partitions and function resolving a partition key from
 	 * the {@link IntegrationMessageHeaderAccessor#CORRELATION_ID} message header.
@@ -90,6 +112,58 @@ public class PartitionedChannel extends AbstractExecutorChannel {
 		this.threadFactory = threadFactory;
 	}
 
+	/**
+	 * Set a shared {@link Executor} to drain partitions on demand instead of a dedicated thread per partition.
+	 * Propagated down to the {@link PartitionedDispatcher}.
+	 * The executor lifecycle is not managed by this channel.
+	 * Mutually exclusive with {@link #setVirtualThreads(boolean)}.
+	 * @param taskExecutor the {@link Executor} to use.
+	 * @since 6.2
+	 * @see PartitionedDispatcher#setTaskExecutor(Executor)
+	 */
+	public void setTaskExecutor(Executor taskExecutor) {
+		Assert.notNull(taskExecutor, "'taskExecutor' must not be null");
+		this.taskExecutor = taskExecutor;
+	}
+
+	/**
+	 * Set to {@code true} to drain partitions on demand by virtual threads
+	 * instead of a dedicated platform thread per partition.
+	 * The virtual thread names are based on the bean name of this channel plus {@code -partition-}.
+	 * Requires Java 21 or later.
+	 * Mutually exclusive with {@link #setTaskExecutor(Executor)}.
+	 * @param virtualThreads true to use virtual threads.
+	 * @since 6.2
+	 * @see VirtualThreadTaskExecutor
+	 */
+	public void setVirtualThreads(boolean virtualThreads) {
+		this.virtualThreads = virtualThreads;
+	}
+
+	/**
+	 * Set to {@code true} to move the partition keys which have no in-flight messages
+	 * away from saturated partitions.
+	 * The order of messages per key is preserved.
+	 * Propagated down to the {@link PartitionedDispatcher}.
+	 * @param rebalancing true to enable partition rebalancing.
+	 * @since 6.2
+	 * @see PartitionedDispatcher#setRebalancing(boolean)
+	 */
+	public void setRebalancing(boolean rebalancing) {
+		getDispatcher().setRebalancing(rebalancing);
+	}
+
+	/**
+	 * Set the partition depth from which its idle keys are considered for rebalancing.
+	 * Propagated down to the {@link PartitionedDispatcher}.
+	 * @param rebalanceThreshold the partition depth to start rebalancing from.
+	 * @since 6.2
+	 * @see PartitionedDispatcher#setRebalanceThreshold(int)
+	 */
+	public void setRebalanceThreshold(int rebalanceThreshold) {
+		getDispatcher().setRebalanceThreshold(rebalanceThreshold);
+	}
+
 	/**
 	 * Specify whether the channel's dispatcher should have failover enabled.
 	 * By default, it will. Set this value to 'false' to disable it.
@@ -122,6 +196,13 @@ public class PartitionedChannel extends AbstractExecutorChannel {
 		PartitionedDispatcher partitionedDispatcher = getDispatcher();
 		partitionedDispatcher.setThreadFactory(this.threadFactory);
 
+		if (this.virtualThreads) {
+			Assert.state(this.taskExecutor == null,
+					"The 'virtualThreads' and 'taskExecutor' options are mutually exclusive.");
+			this.taskExecutor = new VirtualThreadTaskExecutor(getComponentName() + "-partition-");
+		}
+		partitionedDispatcher.setTaskExecutor(this.taskExecutor);
+
 		if (this.maxSubscribers == null) {
 			partitionedDispatcher.setMaxSubscribers(getIntegrationProperties().getChannelsMaxUnicastSubscribers());
 		}
@@ -139,10 +220,40 @@ public class PartitionedChannel extends AbstractExecutorChannel {
 
 	}
 
+	@Override
+	public void registerMetricsCaptor(MetricsCaptor metricsCaptor) {
+		super.registerMetricsCaptor(metricsCaptor);
+		PartitionedDispatcher partitionedDispatcher = getDispatcher();
+		if (partitionedDispatcher.isRebalancing()) {
+			String name = getComponentName() == null ? "unknown" : getComponentName();
+			for (int i = 0; i < partitionedDispatcher.getPartitionCount(); i++) {
+				int partition = i;
+				this.partitionGauges.add(
+						metricsCaptor.gaugeBuilder("spring.integration.channel.partition.depth", this,
+										(channel) -> partitionedDispatcher.getPartitionDepth(partition))
+								.tag("name", name)
+								.tag("type", "channel")
+								.tag("partition", Integer.toString(partition))
+								.description("The number of messages queued or in process for the partition")
+								.build());
+				this.partitionGauges.add(
+						metricsCaptor.gaugeBuilder("spring.integration.channel.partition.processing.time", this,
+										(channel) -> partitionedDispatcher.getPartitionProcessingTime(partition))
+								.tag("name", name)
+								.tag("type", "channel")
+								.tag("partition", Integer.toString(partition))
+								.description("The average message processing time in the partition in milliseconds")
+								.build());
+			}
+		}
+	}
+
 	@Override
 	public void destroy() {
 		super.destroy();
 		getDispatcher().shutdown();
+		this.partitionGauges.forEach(GaugeFacade::remove);
+		this.partitionGauges.clear();
 	}
 
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,12 +17,14 @@
 package org.springframework.integration.channel;
 
 import java.util.Comparator;
+import java.util.List;
 import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.springframework.integration.StaticMessageHeaderAccessor;
 import org.springframework.integration.store.MessageGroupQueue;
 import org.springframework.integration.store.PriorityCapableChannelMessageStore;
+import org.springframework.integration.util.BucketedPriorityQueue;
 import org.springframework.integration.util.UpperBound;
 import org.springframework.lang.Nullable;
 import org.springframework.messaging.Message;
@@ -31,6 +33,10 @@ import org.springframework.messaging.MessageHeaders;
 /**
  * A message channel that prioritizes messages based on a {@link Comparator}.
  * The default comparator is based upon the message header's 'priority'.
+ * <p>
+ * When created with a number of {@code priorityLevels}, the channel is based on
+ * a {@link BucketedPriorityQueue} with a FIFO bucket per priority level instead of
+ * the comparator and sequence based {@link PriorityBlockingQueue}.
  *
  * @author Mark Fisher
  * @author Oleg Zhurakousky
@@ -48,7 +54,7 @@ public class PriorityChannel extends QueueChannel {
 
 	private final AtomicLong sequenceCounter = new AtomicLong();
 
-	private final boolean useMessageStore;
+	private final boolean wrapMessages;
 
 	/**
 	 * Create a channel with an unbounded queue. Message priority will be
@@ -90,7 +96,26 @@ public class PriorityChannel extends QueueChannel {
 	public PriorityChannel(int capacity, @Nullable Comparator<Message<?>> comparator) {
 		super(new PriorityBlockingQueue<>(DEFAULT_INITIAL_CAPACITY, new SequenceFallbackComparator(comparator)));
 		this.upperBound = new UpperBound(capacity);
-		this.useMessageStore = false;
+		this.wrapMessages = true;
+	}
+
+	/**
+	 * Create a channel with the specified queue capacity for the message priorities
+	 * from {@code 0} to {@code priorityLevels - 1}, based on the
+	 * {@link StaticMessageHeaderAccessor#getPriority(Message)}.
+	 * The messages without priority are treated as priority {@code 0}; the priorities
+	 * out of the range are treated as the lowest or the highest level respectively.
+	 * The send and receive operations are {@code O(1)} with FIFO order per priority level.
+	 * If the capacity is a non-positive value, the queue will be unbounded.
+	 * @param capacity The capacity.
+	 * @param priorityLevels The number of priority levels;
+	 * up to {@link BucketedPriorityQueue#MAX_PRIORITY_LEVELS}.
+	 * @since 6.2
+	 */
+	public PriorityChannel(int capacity, int priorityLevels) {
+		super(new BucketedPriorityQueue<Message<?>>(priorityLevels, PriorityChannel::priority));
+		this.upperBound = new UpperBound(capacity);
+		this.wrapMessages = false;
 	}
 
 	/**
@@ -112,7 +137,7 @@ public class PriorityChannel extends QueueChannel {
 	public PriorityChannel(MessageGroupQueue messageGroupQueue) {
 		super(messageGroupQueue);
 		this.upperBound = new UpperBound(0);
-		this.useMessageStore = true;
+		this.wrapMessages = false;
 	}
 
 	@Override
@@ -125,7 +150,7 @@ public class PriorityChannel extends QueueChannel {
 		if (!this.upperBound.tryAcquire(timeout)) {
 			return false;
 		}
-		if (!this.useMessageStore) {
+		if (this.wrapMessages) {
 			return super.doSend(new MessageWrapper(message), 0);
 		}
 		else {
@@ -137,7 +162,7 @@ public class PriorityChannel extends QueueChannel {
 	protected Message<?> doReceive(long timeout) {
 		Message<?> message = super.doReceive(timeout);
 		if (message != null) {
-			if (!this.useMessageStore) {
+			if (this.wrapMessages) {
 				message = ((MessageWrapper) message).getRootMessage();
 			}
 			this.upperBound.release();
@@ -145,6 +170,26 @@ public class PriorityChannel extends QueueChannel {
 		return message;
 	}
 
+	@Override
+	protected int drainTo(List<Message<?>> messages, int maxMessages) {
+		int start = messages.size();
+		int drained = super.drainTo(messages, maxMessages);
+		if (drained > 0) {
+			if (this.wrapMessages) {
+				for (int i = start; i < messages.size(); i++) {
+					messages.set(i, ((MessageWrapper) messages.get(i)).getRootMessage());
+				}
+			}
+			this.upperBound.release(drained);
+		}
+		return drained;
+	}
+
+	private static int priority(Message<?> message) {
+		Integer priority = StaticMessageHeaderAccessor.getPriority(message);
+		return priority != null ? priority : 0;
+	}
+
 	private static final class SequenceFallbackComparator implements Comparator<Message<?>> {
 
 		private final Comparator<Message<?>> targetComparator;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,16 +17,21 @@
 package org.springframework.integration.channel;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.springframework.integration.core.MessageSelector;
 import org.springframework.integration.support.management.metrics.GaugeFacade;
 import org.springframework.integration.support.management.metrics.MetricsCaptor;
+import org.springframework.integration.support.management.metrics.TimerFacade;
 import org.springframework.lang.Nullable;
 import org.springframework.messaging.Message;
 import org.springframework.util.Assert;
@@ -37,6 +42,26 @@ import org.springframework.util.Assert;
  * The capacity must be a positive integer value. For a zero-capacity version
  * based upon a {@link java.util.concurrent.SynchronousQueue}, consider the
  * {@link RendezvousChannel}.
+ * <p>
+ * When {@link #setWatermarks(int, int) watermarks} are configured, the registered
+ * {@link WatermarkListener}s are notified when the queue size reaches the high watermark
+ * and when it drops down to the low watermark after that.
+ * This way upstream producers can be paused instead of being blocked on a full queue.
+ * <p>
+ * When a {@link MetricsCaptor} is registered, the channel exposes the time messages
+ * spend in the queue as the {@code spring.integration.channel.queue.residency} timer, together with the
+ * {@code spring.integration.channel.queue.size} and {@code spring.integration.channel.queue.lag}
+ * (the age of the oldest message in the queue) gauges.
+ * <p>
+ * For the watermarks and these metrics, the channel keeps its own count of the queued messages
+ * and a FIFO of their enqueue times, so no message headers are added and the queue
+ * (e.g. a {@link org.springframework.integration.store.MessageGroupQueue} over a database)
+ * is not asked for its size on every operation.
+ * The enqueue times are matched with the removed messages in the arrival order;
+ * with a non-FIFO queue (e.g. the {@link PriorityChannel}), the residency of individual messages
+ * is therefore approximated, but its total (and mean) is exact.
+ * If the messages are removed from a persistent queue bypassing this channel
+ * (e.g. by another application), the count is corrected when a receive finds the queue empty.
  *
  * @author Mark Fisher
  * @author Oleg Zhurakousky
@@ -55,6 +80,30 @@ public class QueueChannel extends AbstractPollableChannel implements QueueChanne
 	@Nullable
 	private GaugeFacade remainingCapacityGauge;
 
+	@Nullable
+	private GaugeFacade lagGauge;
+
+	@Nullable
+	private TimerFacade residencyTimer;
+
+	@Nullable
+	private volatile QueueTracker queueTracker;
+
+	private final List<WatermarkListener> watermarkListeners = new CopyOnWriteArrayList<>();
+
+	private final AtomicBoolean notifyingWatermarkListeners = new AtomicBoolean();
+
+	private int highWatermark;
+
+	private int lowWatermark;
+
+	private volatile boolean highWatermarkReached;
+
+	/**
+	 * The state the listeners have been notified about; changed only by the notifying thread.
+	 */
+	private volatile boolean highWatermarkNotified;
+
 	/**
 	 * Create a channel with the specified queue.
 	 *
@@ -85,6 +134,62 @@ public class QueueChannel extends AbstractPollableChannel implements QueueChanne
 		this(new LinkedBlockingQueue<>());
 	}
 
+	/**
+	 * Set the queue sizes to notify the {@link WatermarkListener}s at.
+	 * The {@link WatermarkListener#highWatermarkReached(QueueChannel)} is called when the queue size
+	 * reaches the {@code highWatermark}, and the {@link WatermarkListener#lowWatermarkReached(QueueChannel)}
+	 * is called when the queue size drops down to the {@code lowWatermark} after that.
+	 * The listeners are called outside any lock, one at a time and strictly alternating;
+	 * if the queue size crosses the watermarks again while the listeners are being notified,
+	 * the intermediate transitions may be skipped.
+	 * @param highWatermark the queue size to consider the channel as overloaded.
+	 * @param lowWatermark the queue size to consider the channel as ready for new messages.
+	 * @since 6.2
+	 * @see #addWatermarkListener(WatermarkListener)
+	 * @see WatermarkListener#pausing(org.springframework.integration.core.Pausable...)
+	 */
+	public void setWatermarks(int highWatermark, int lowWatermark) {
+		Assert.isTrue(highWatermark > 0, "'highWatermark' must be greater than 0");
+		Assert.isTrue(lowWatermark >= 0 && lowWatermark < highWatermark,
+				"'lowWatermark' must be a non-negative value less than 'highWatermark'");
+		this.highWatermark = highWatermark;
+		this.lowWatermark = lowWatermark;
+		obtainQueueTracker();
+	}
+
+	/**
+	 * Set the {@link WatermarkListener}s to notify when the queue size crosses the watermarks.
+	 * @param listeners the listeners.
+	 * @since 6.2
+	 * @see #setWatermarks(int, int)
+	 */
+	public void setWatermarkListeners(List<WatermarkListener> listeners) {
+		Assert.noNullElements(listeners, "'listeners' must not contain null elements");
+		this.watermarkListeners.clear();
+		this.watermarkListeners.addAll(listeners);
+	}
+
+	/**
+	 * Add a {@link WatermarkListener} to notify when the queue size crosses the watermarks.
+	 * @param listener the listener.
+	 * @since 6.2
+	 * @see #setWatermarks(int, int)
+	 */
+	public void addWatermarkListener(WatermarkListener listener) {
+		Assert.notNull(listener, "'listener' must not be null");
+		this.watermarkListeners.add(listener);
+	}
+
+	/**
+	 * Return true if the queue size has reached the high watermark
+	 * and has not dropped down to the low watermark yet.
+	 * @return the high watermark state.
+	 * @since 6.2
+	 */
+	public boolean isHighWatermarkReached() {
+		return this.highWatermarkReached;
+	}
+
 	@Override
 	public void registerMetricsCaptor(MetricsCaptor metricsCaptor) {
 		super.registerMetricsCaptor(metricsCaptor);
@@ -103,11 +208,52 @@ public class QueueChannel extends AbstractPollableChannel implements QueueChanne
 						.tag("type", "channel")
 						.description("The remaining capacity of the queue channel")
 						.build();
+
+		obtainQueueTracker();
+		this.lagGauge =
+				metricsCaptor.gaugeBuilder("spring.integration.channel.queue.lag", this,
+								(channel) -> getConsumerLag())
+						.tag("name", getComponentName() == null ? "unknown" : getComponentName())
+						.tag("type", "channel")
+						.description("The time the oldest message has been waiting in the queue channel " +
+								"in milliseconds")
+						.build();
+
+		this.residencyTimer =
+				metricsCaptor.timerBuilder("spring.integration.channel.queue.residency")
+						.tag("name", getComponentName() == null ? "unknown" : getComponentName())
+						.tag("type", "channel")
+						.description("The time messages spend in the queue channel before being received")
+						.build();
+	}
+
+	private QueueTracker obtainQueueTracker() {
+		QueueTracker tracker = this.queueTracker;
+		if (tracker == null) {
+			tracker = new QueueTracker();
+			tracker.resync(getQueueSize(), System.nanoTime());
+			this.queueTracker = tracker;
+		}
+		return tracker;
 	}
 
 	@Override
 	protected boolean doSend(Message<?> message, long timeout) {
 		Assert.notNull(message, "'message' must not be null");
+		QueueTracker tracker = this.queueTracker;
+		if (tracker == null) {
+			return enqueue(message, timeout);
+		}
+		long enqueueTime = System.nanoTime();
+		boolean sent = enqueue(message, timeout);
+		if (sent) {
+			tracker.added(enqueueTime);
+			checkWatermarks(tracker);
+		}
+		return sent;
+	}
+
+	private boolean enqueue(Message<?> message, long timeout) {
 		try {
 			if (this.queue instanceof BlockingQueue) {
 				BlockingQueue<Message<?>> blockingQueue = (BlockingQueue<Message<?>>) this.queue;
@@ -138,6 +284,22 @@ public class QueueChannel extends AbstractPollableChannel implements QueueChanne
 	@Override
 	@Nullable
 	protected Message<?> doReceive(long timeout) {
+		Message<?> message = dequeue(timeout);
+		QueueTracker tracker = this.queueTracker;
+		if (tracker != null) {
+			if (message != null) {
+				recordResidency(tracker.removed());
+			}
+			else if (tracker.depth() != 0) {
+				tracker.resync(getQueueSize(), System.nanoTime());
+			}
+			checkWatermarks(tracker);
+		}
+		return message;
+	}
+
+	@Nullable
+	private Message<?> dequeue(long timeout) {
 		try {
 			if (timeout > 0) {
 				if (this.queue instanceof BlockingQueue) {
@@ -169,6 +331,52 @@ public class QueueChannel extends AbstractPollableChannel implements QueueChanne
 		}
 	}
 
+	@Override
+	protected List<Message<?>> doReceive(int maxMessages, long timeout) {
+		Message<?> message = doReceive(timeout);
+		if (message == null) {
+			return Collections.emptyList();
+		}
+		QueueTracker tracker = this.queueTracker;
+		int expected = tracker != null ? Math.max(tracker.depth(), 0) + 1 : maxMessages;
+		List<Message<?>> messages = new ArrayList<>(Math.min(maxMessages, Math.min(expected, 256)));
+		messages.add(message);
+		if (maxMessages > 1 && drainTo(messages, maxMessages - 1) > 0) {
+			tracker = this.queueTracker;
+			if (tracker != null) {
+				for (int i = 1; i < messages.size(); i++) {
+					recordResidency(tracker.removed());
+				}
+				checkWatermarks(tracker);
+			}
+		}
+		return messages;
+	}
+
+	/**
+	 * Remove up to {@code maxMessages} immediately available messages from the queue
+	 * and add them into the provided list.
+	 * Uses {@link BlockingQueue#drainTo(java.util.Collection, int)} if possible.
+	 * @param messages the list to add messages to.
+	 * @param maxMessages the maximum number of messages to drain.
+	 * @return the number of drained messages.
+	 * @since 6.2
+	 */
+	protected int drainTo(List<Message<?>> messages, int maxMessages) {
+		if (this.queue instanceof BlockingQueue<Message<?>> blockingQueue) {
+			return blockingQueue.drainTo(messages, maxMessages);
+		}
+		else {
+			int count = 0;
+			Message<?> message;
+			while (count < maxMessages && (message = this.queue.poll()) != null) {
+				messages.add(message);
+				count++;
+			}
+			return count;
+		}
+	}
+
 	@Nullable
 	private Message<?> pollNonBlockingQueue(long timeout) throws InterruptedException {
 		Message<?> message = this.queue.poll();
@@ -198,6 +406,7 @@ public class QueueChannel extends AbstractPollableChannel implements QueueChanne
 				clearedMessages.add(message);
 			}
 		}
+		messagesRemoved(clearedMessages);
 		return clearedMessages;
 	}
 
@@ -214,6 +423,7 @@ public class QueueChannel extends AbstractPollableChannel implements QueueChanne
 				purgedMessages.add(message);
 			}
 		}
+		messagesRemoved(purgedMessages);
 		return purgedMessages;
 	}
 
@@ -233,6 +443,100 @@ public class QueueChannel extends AbstractPollableChannel implements QueueChanne
 		}
 	}
 
+	/**
+	 * Return the time the oldest message has been waiting in the queue.
+	 * Only tracked when a {@link MetricsCaptor} is registered or watermarks are set; otherwise 0.
+	 * @return the consumer lag in milliseconds.
+	 * @since 6.2
+	 */
+	public long getConsumerLag() {
+		QueueTracker tracker = this.queueTracker;
+		if (tracker == null) {
+			return 0;
+		}
+		long oldest = tracker.oldest();
+		return oldest != QueueTracker.NO_TIME
+				? TimeUnit.NANOSECONDS.toMillis(Math.max(System.nanoTime() - oldest, 0))
+				: 0;
+	}
+
+	/**
+	 * Update the tracking state after messages have been removed from the queue
+	 * bypassing the receive operations.
+	 * @param messages the removed messages.
+	 */
+	void messagesRemoved(Collection<Message<?>> messages) {
+		QueueTracker tracker = this.queueTracker;
+		if (tracker != null) {
+			for (int i = 0; i < messages.size(); i++) {
+				tracker.removed();
+			}
+			checkWatermarks(tracker);
+		}
+	}
+
+	private void recordResidency(long enqueueTime) {
+		TimerFacade timer = this.residencyTimer;
+		if (timer != null && enqueueTime != QueueTracker.NO_TIME) {
+			timer.record(Math.max(System.nanoTime() - enqueueTime, 0), TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private void checkWatermarks(QueueTracker tracker) {
+		if (this.highWatermark > 0) {
+			int depth = tracker.depth();
+			if (this.highWatermarkReached ? depth <= this.lowWatermark : depth >= this.highWatermark) {
+				synchronized (tracker) {
+					depth = tracker.depth();
+					if (this.highWatermarkReached ? depth <= this.lowWatermark : depth >= this.highWatermark) {
+						this.highWatermarkReached = !this.highWatermarkReached;
+					}
+				}
+			}
+			if (this.highWatermarkReached != this.highWatermarkNotified) {
+				notifyWatermarkListeners();
+			}
+		}
+	}
+
+	/**
+	 * Bring the listeners to the current watermark state.
+	 * Only one thread notifies at a time, without holding any lock;
+	 * the others just return, and the state changed meanwhile is picked up by the notifying thread.
+	 */
+	private void notifyWatermarkListeners() {
+		while (this.highWatermarkReached != this.highWatermarkNotified
+				&& this.notifyingWatermarkListeners.compareAndSet(false, true)) {
+
+			try {
+				boolean reached;
+				while ((reached = this.highWatermarkReached) != this.highWatermarkNotified) {
+					this.highWatermarkNotified = reached;
+					for (WatermarkListener listener : this.watermarkListeners) {
+						notifyWatermarkListener(listener, reached);
+					}
+				}
+			}
+			finally {
+				this.notifyingWatermarkListeners.set(false);
+			}
+		}
+	}
+
+	private void notifyWatermarkListener(WatermarkListener listener, boolean highWatermarkReached) {
+		try {
+			if (highWatermarkReached) {
+				listener.highWatermarkReached(this);
+			}
+			else {
+				listener.lowWatermarkReached(this);
+			}
+		}
+		catch (RuntimeException ex) {
+			this.logger.error(ex, () -> "The WatermarkListener [" + listener + "] failed for channel: " + this);
+		}
+	}
+
 	@Override
 	public void destroy() {
 		super.destroy();
@@ -242,6 +546,98 @@ public class QueueChannel extends AbstractPollableChannel implements QueueChanne
 		if (this.remainingCapacityGauge != null) {
 			this.remainingCapacityGauge.remove();
 		}
+		if (this.lagGauge != null) {
+			this.lagGauge.remove();
+		}
+		if (this.residencyTimer != null) {
+			this.residencyTimer.remove();
+		}
+	}
+
+	/**
+	 * The number of messages in the queue and their enqueue times in the arrival order,
+	 * kept in a growable ring buffer of {@code long}s.
+	 * A removal which overtakes the corresponding addition (the message is received before
+	 * the sender has recorded it) is remembered as a debt and settled by that addition.
+	 */
+	private static final class QueueTracker {
+
+		static final long NO_TIME = Long.MIN_VALUE;
+
+		private static final int MIN_CAPACITY = 16;
+
+		private long[] times = new long[MIN_CAPACITY];
+
+		private int head;
+
+		private int size;
+
+		private int debt;
+
+		QueueTracker() {
+		}
+
+		synchronized void added(long time) {
+			if (this.debt > 0) {
+				this.debt--;
+				return;
+			}
+			if (this.size == this.times.length) {
+				resize(this.times.length << 1);
+			}
+			this.times[(this.head + this.size) & (this.times.length - 1)] = time;
+			this.size++;
+		}
+
+		/**
+		 * Remove the oldest enqueue time.
+		 * @return the time or {@link #NO_TIME} if there is none.
+		 */
+		synchronized long removed() {
+			if (this.size == 0) {
+				this.debt++;
+				return NO_TIME;
+			}
+			long time = this.times[this.head];
+			this.head = (this.head + 1) & (this.times.length - 1);
+			this.size--;
+			if (this.times.length > MIN_CAPACITY && this.size < this.times.length >> 2) {
+				resize(this.times.length >> 1);
+			}
+			return time;
+		}
+
+		synchronized long oldest() {
+			return this.size > 0 ? this.times[this.head] : NO_TIME;
+		}
+
+		synchronized int depth() {
+			return this.size - this.debt;
+		}
+
+		/**
+		 * Correct the state according to the actual queue size:
+		 * the oldest times are dropped, or the missing ones are added as the provided time.
+		 */
+		synchronized void resync(int queueSize, long time) {
+			this.debt = 0;
+			while (this.size > queueSize) {
+				removed();
+			}
+			while (this.size < queueSize) {
+				added(time);
+			}
+		}
+
+		private void resize(int capacity) {
+			long[] newTimes = new long[capacity];
+			for (int i = 0; i < this.size; i++) {
+				newTimes[i] = this.times[(this.head + i) & (this.times.length - 1)];
+			}
+			this.times = newTimes;
+			this.head = 0;
+		}
+
 	}
 
 }
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.channel;
+
+import java.util.List;
+
+import org.springframework.integration.core.MessageSelector;
+import org.springframework.integration.util.RingBufferQueue;
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.Message;
+
+/**
+ * A {@link QueueChannel} extension backed by a lock-free {@link RingBufferQueue}.
+ * Sending to and receiving from this channel does not allocate and producers do not
+ * contend with consumers on the same lock, which makes it a drop-in replacement
+ * for a bounded {@link QueueChannel} in high-throughput flows.
+ * <p>
+ * The capacity is rounded up to the nearest power of two.
+ * The {@link RingBufferQueue.ConcurrencyMode#MPSC} mode must be used only when there is
+ * a single consumer thread, e.g. a {@code PollingConsumer} without a task executor.
+ * <p>
+ * Since the ring buffer does not support removal of arbitrary elements,
+ * the {@link #purge(MessageSelector)} operation with a selector is not supported:
+ * re-queuing the accepted messages would compete with the actual consumers and change
+ * the order of messages.
+ * The {@link #clear()} (and {@code purge(null)}) polls all the messages, so in the
+ * {@link RingBufferQueue.ConcurrencyMode#MPSC} mode it must be called only from the
+ * consumer thread.
+ *
+ * @since 6.2
+ *
+ * @see RingBufferQueue
+ */
+public class RingBufferChannel extends QueueChannel {
+
+	/**
+	 * Create a channel for multiple consumers with the {@link RingBufferQueue.WaitStrategy#BLOCKING}
+	 * strategy and the specified capacity.
+	 * @param capacity the capacity (rounded up to a power of two).
+	 */
+	public RingBufferChannel(int capacity) {
+		this(capacity, RingBufferQueue.ConcurrencyMode.MPMC, RingBufferQueue.WaitStrategy.BLOCKING);
+	}
+
+	/**
+	 * Create a channel with the specified capacity, concurrency mode and wait strategy.
+	 * @param capacity the capacity (rounded up to a power of two).
+	 * @param concurrencyMode the consumer side {@link RingBufferQueue.ConcurrencyMode}.
+	 * @param waitStrategy the {@link RingBufferQueue.WaitStrategy} for blocking sends and receives.
+	 */
+	public RingBufferChannel(int capacity, RingBufferQueue.ConcurrencyMode concurrencyMode,
+			RingBufferQueue.WaitStrategy waitStrategy) {
+
+		super(new RingBufferQueue<>(capacity, concurrencyMode, waitStrategy));
+	}
+
+	/**
+	 * Remove all the messages if the selector is {@code null}.
+	 * @param selector must be {@code null}.
+	 * @return the removed messages.
+	 * @throws UnsupportedOperationException if a selector is provided.
+	 */
+	@Override
+	public List<Message<?>> purge(@Nullable MessageSelector selector) {
+		if (selector == null) {
+			return clear();
+		}
+		throw new UnsupportedOperationException(
+				"The 'RingBufferChannel' does not support 'purge()' with a 'MessageSelector'");
+	}
+
+}
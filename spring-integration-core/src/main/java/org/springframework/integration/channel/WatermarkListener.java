@@ -0,0 +1,99 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.channel;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.integration.core.Pausable;
+import org.springframework.util.Assert;
+
+/**
+ * A listener for the {@link QueueChannel} size crossing its watermarks.
+ * The {@link #highWatermarkReached(QueueChannel)} is called once the queue size reaches the high watermark,
+ * and the {@link #lowWatermarkReached(QueueChannel)} is called once the queue is drained down to the
+ * low watermark after that; the calls are always alternated.
+ * <p>
+ * The listener is called on the thread which has sent (or received) the message,
+ * outside any lock of the channel, therefore it must not block, but it may interact with the channel.
+ *
+ * @since 6.2
+ *
+ * @see QueueChannel#setWatermarks(int, int)
+ */
+public interface WatermarkListener {
+
+	/**
+	 * Called when the queue size has reached the high watermark.
+	 * @param channel the channel.
+	 */
+	void highWatermarkReached(QueueChannel channel);
+
+	/**
+	 * Called when the queue size has dropped to the low watermark.
+	 * @param channel the channel.
+	 */
+	void lowWatermarkReached(QueueChannel channel);
+
+	/**
+	 * Create a {@link WatermarkListener} which pauses the provided producers
+	 * on the high watermark and resumes them on the low watermark.
+	 * The producers which are already paused are not paused again, and only those
+	 * paused by this listener are resumed, so an explicit pause is not overridden.
+	 * @param producers the {@link Pausable} producers sending messages to the channel.
+	 * @return the listener.
+	 */
+	static WatermarkListener pausing(Pausable... producers) {
+		Assert.noNullElements(producers, "'producers' must not contain null elements");
+		List<Pausable> pausables = Arrays.asList(producers);
+		Set<Pausable> pausedByListener = ConcurrentHashMap.newKeySet();
+		return new WatermarkListener() {
+
+			@Override
+			public void highWatermarkReached(QueueChannel channel) {
+				for (Pausable pausable : pausables) {
+					if (!isPaused(pausable)) {
+						pausable.pause();
+						pausedByListener.add(pausable);
+					}
+				}
+			}
+
+			@Override
+			public void lowWatermarkReached(QueueChannel channel) {
+				for (Pausable pausable : pausables) {
+					if (pausedByListener.remove(pausable)) {
+						pausable.resume();
+					}
+				}
+			}
+
+			private boolean isPaused(Pausable pausable) {
+				try {
+					return pausable.isPaused();
+				}
+				catch (UnsupportedOperationException ex) {
+					return false;
+				}
+			}
+
+		};
+	}
+
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.springframework.core.serializer.Deserializer;
+import org.springframework.core.serializer.Serializer;
+import org.springframework.integration.message.AdviceMessage;
+import org.springframework.integration.support.MutableMessage;
+import org.springframework.integration.support.MutableMessageHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.ErrorMessage;
+import org.springframework.messaging.support.GenericMessage;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link Serializer} and {@link Deserializer} for {@link Message}s based on a {@link Codec},
+ * e.g. the {@link org.springframework.integration.codec.kryo.MessageCodec},
+ * as a compact alternative to the Java serialization in persistent message stores.
+ * <p>
+ * The result starts with a 4-byte header: the {@code 0xC0DE} format marker,
+ * the format version and the flags for the message type and compression,
+ * followed by the {@link MessageHeaders#ID} and {@link MessageHeaders#TIMESTAMP},
+ * which are restored on decoding even if the codec generates new ones
+ * (like the {@link org.springframework.integration.codec.kryo.MessageCodec} does).
+ * A Java serialization stream never starts with this marker, so a store can tell the
+ * data written by this serializer from the data written before it was configured:
+ * see {@link #isCodecFormat(byte[])}.
+ * <p>
+ * The codec decodes messages as one of {@link GenericMessage}, {@link ErrorMessage},
+ * {@link AdviceMessage} or {@link MutableMessage}, according to the header.
+ * Any other {@link Message} implementation is encoded as a {@link GenericMessage}
+ * with the same payload and headers.
+ * <p>
+ * The encoded message is compressed with the {@link Deflater} if its size reaches
+ * the {@link #setCompressionThreshold(int)}; the compression is disabled by default.
+ *
+ * @since 6.2
+ */
+public class CodecMessageSerializer implements Serializer<Message<?>>, Deserializer<Message<?>> {
+
+	private static final int MARKER_HIGH = 0xC0;
+
+	private static final int MARKER_LOW = 0xDE;
+
+	private static final int FORMAT_VERSION = 1;
+
+	private static final int HEADER_SIZE = 4;
+
+	private static final int MESSAGE_TYPE_MASK = 0x0F;
+
+	private static final int COMPRESSED = 0x10;
+
+	private static final int WITH_ID_AND_TIMESTAMP = 0x20;
+
+	private static final List<Class<?>> MESSAGE_TYPES =
+			List.of(GenericMessage.class, ErrorMessage.class, AdviceMessage.class, MutableMessage.class);
+
+	private final Codec codec;
+
+	private int compressionThreshold = Integer.MAX_VALUE;
+
+	private int compressionLevel = Deflater.BEST_SPEED;
+
+	/**
+	 * Construct an instance based on the provided {@link Codec}.
+	 * @param codec the codec to encode and decode messages.
+	 */
+	public CodecMessageSerializer(Codec codec) {
+		Assert.notNull(codec, "'codec' must not be null");
+		this.codec = codec;
+	}
+
+	/**
+	 * Set the size of the encoded message in bytes starting from which it is compressed.
+	 * Small messages usually don't gain from compression, so it is disabled by default.
+	 * The compressed form is stored only if it is actually smaller.
+	 * @param compressionThreshold the threshold in bytes.
+	 */
+	public void setCompressionThreshold(int compressionThreshold) {
+		Assert.isTrue(compressionThreshold >= 0, "'compressionThreshold' must not be negative");
+		this.compressionThreshold = compressionThreshold;
+	}
+
+	/**
+	 * Set the {@link Deflater} compression level.
+	 * Defaults to {@link Deflater#BEST_SPEED}: the compression is meant to save the storage
+	 * for large payloads with the least CPU overhead.
+	 * @param compressionLevel the compression level ({@code 0-9} or {@code -1} for the default one).
+	 */
+	public void setCompressionLevel(int compressionLevel) {
+		Assert.isTrue(compressionLevel >= Deflater.DEFAULT_COMPRESSION && compressionLevel <= Deflater.BEST_COMPRESSION,
+				"'compressionLevel' must be in range from -1 to 9");
+		this.compressionLevel = compressionLevel;
+	}
+
+	@Override
+	public void serialize(Message<?> message, OutputStream outputStream) throws IOException {
+		Message<?> messageToEncode = message;
+		int messageType = MESSAGE_TYPES.indexOf(message.getClass());
+		if (messageType < 0) {
+			messageToEncode = new GenericMessage<>(message.getPayload(), message.getHeaders());
+			messageType = 0;
+		}
+		byte[] encoded = this.codec.encode(messageToEncode);
+		int flags = messageType;
+		if (encoded.length >= this.compressionThreshold) {
+			byte[] compressed = compress(encoded);
+			if (compressed.length < encoded.length) {
+				encoded = compressed;
+				flags |= COMPRESSED;
+			}
+		}
+		UUID id = message.getHeaders().getId();
+		Long timestamp = message.getHeaders().getTimestamp();
+		if (id != null && timestamp != null) {
+			flags |= WITH_ID_AND_TIMESTAMP;
+		}
+		DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+		dataOutputStream.write(MARKER_HIGH);
+		dataOutputStream.write(MARKER_LOW);
+		dataOutputStream.write(FORMAT_VERSION);
+		dataOutputStream.write(flags);
+		if ((flags & WITH_ID_AND_TIMESTAMP) != 0) {
+			dataOutputStream.writeLong(id.getMostSignificantBits());
+			dataOutputStream.writeLong(id.getLeastSignificantBits());
+			dataOutputStream.writeLong(timestamp);
+		}
+		dataOutputStream.write(encoded);
+		dataOutputStream.flush();
+	}
+
+	@Override
+	public Message<?> deserialize(InputStream inputStream) throws IOException {
+		byte[] header = inputStream.readNBytes(HEADER_SIZE);
+		if (!isCodecFormat(header)) {
+			throw new IOException("The data is not produced by the CodecMessageSerializer");
+		}
+		if (header[2] != FORMAT_VERSION) {
+			throw new IOException("Unsupported CodecMessageSerializer format version: " + header[2]);
+		}
+		int flags = header[3];
+		int messageType = flags & MESSAGE_TYPE_MASK;
+		if (messageType >= MESSAGE_TYPES.size()) {
+			throw new IOException("Unsupported message type: " + messageType);
+		}
+		UUID id = null;
+		Long timestamp = null;
+		if ((flags & WITH_ID_AND_TIMESTAMP) != 0) {
+			DataInputStream dataInputStream = new DataInputStream(inputStream);
+			id = new UUID(dataInputStream.readLong(), dataInputStream.readLong());
+			timestamp = dataInputStream.readLong();
+		}
+		Class<?> type = MESSAGE_TYPES.get(messageType);
+		Message<?> message;
+		if ((flags & COMPRESSED) != 0) {
+			Inflater inflater = new Inflater();
+			try {
+				message = (Message<?>) this.codec.decode(new InflaterInputStream(inputStream, inflater), type);
+			}
+			finally {
+				inflater.end();
+			}
+		}
+		else {
+			message = (Message<?>) this.codec.decode(inputStream, type);
+		}
+		return id != null ? restoreIdAndTimestamp(message, id, timestamp) : message;
+	}
+
+	private byte[] compress(byte[] bytes) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream(bytes.length / 2);
+		Deflater deflater = new Deflater(this.compressionLevel);
+		try (DeflaterOutputStream deflaterOutputStream = new DeflaterOutputStream(outputStream, deflater)) {
+			deflaterOutputStream.write(bytes);
+		}
+		finally {
+			deflater.end();
+		}
+		return outputStream.toByteArray();
+	}
+
+	private static Message<?> restoreIdAndTimestamp(Message<?> message, UUID id, Long timestamp) {
+		MessageHeaders headers = message.getHeaders();
+		if (id.equals(headers.getId()) && timestamp.equals(headers.getTimestamp())) {
+			return message;
+		}
+		Map<String, Object> headersToRestore = new HashMap<>(headers);
+		headersToRestore.put(MessageHeaders.ID, id);
+		headersToRestore.put(MessageHeaders.TIMESTAMP, timestamp);
+		MutableMessageHeaders restoredHeaders = new MutableMessageHeaders(headersToRestore);
+		if (message instanceof ErrorMessage errorMessage) {
+			return new ErrorMessage(errorMessage.getPayload(), restoredHeaders, errorMessage.getOriginalMessage());
+		}
+		else if (message instanceof AdviceMessage<?> adviceMessage) {
+			return new AdviceMessage<>(adviceMessage.getPayload(), restoredHeaders, adviceMessage.getInputMessage());
+		}
+		else if (message instanceof MutableMessage<?>) {
+			return new MutableMessage<>(message.getPayload(), headersToRestore);
+		}
+		else {
+			return new GenericMessage<>(message.getPayload(), restoredHeaders);
+		}
+	}
+
+	/**
+	 * Check if the data starts with the format marker of the {@link CodecMessageSerializer}.
+	 * @param bytes the data to check.
+	 * @return true if the data is in the {@link CodecMessageSerializer} format.
+	 */
+	public static boolean isCodecFormat(@Nullable byte[] bytes) {
+		return bytes != null
+				&& bytes.length >= HEADER_SIZE
+				&& (bytes[0] & 0xFF) == MARKER_HIGH
+				&& (bytes[1] & 0xFF) == MARKER_LOW;
+	}
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.codec.kryo;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import org.springframework.integration.history.MessageHistory;
+
+/**
+ * Kryo Serializer for {@link MessageHistory}.
+ * Writes the component names and types, and the timestamps as deltas from the previous entry,
+ * instead of a list of {@link java.util.Properties}.
+ *
+ * @since 6.2
+ */
+class MessageHistorySerializer extends Serializer<MessageHistory> {
+
+	MessageHistorySerializer() {
+		setImmutable(true);
+	}
+
+	@Override
+	public void write(Kryo kryo, Output output, MessageHistory history) {
+		int size = history.size();
+		output.writeVarInt(size, true);
+		long previousTimestamp = 0;
+		for (int i = 0; i < size; i++) {
+			output.writeString(history.getName(i));
+			output.writeString(history.getType(i));
+			long timestamp = history.getTimestamp(i);
+			output.writeVarLong(timestamp - previousTimestamp, false);
+			previousTimestamp = timestamp;
+		}
+	}
+
+	@Override
+	public MessageHistory read(Kryo kryo, Input input, Class<? extends MessageHistory> type) {
+		int size = input.readVarInt(true);
+		MessageHistory history = null;
+		long timestamp = 0;
+		for (int i = 0; i < size; i++) {
+			String name = input.readString().intern();
+			String componentType = input.readString();
+			timestamp += input.readVarLong(false);
+			history = MessageHistory.append(history, name,
+					componentType != null ? componentType.intern() : null, timestamp);
+		}
+		return history;
+	}
+
+}
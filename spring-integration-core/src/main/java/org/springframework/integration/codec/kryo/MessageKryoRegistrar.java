@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2022 the original author or authors.
+ * Copyright 2015-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,7 +24,9 @@ import java.util.UUID;
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.Registration;
 
+import org.springframework.integration.history.MessageHistory;
 import org.springframework.integration.message.AdviceMessage;
+import org.springframework.integration.support.LayeredMessageHeaders;
 import org.springframework.integration.support.MutableMessage;
 import org.springframework.integration.support.MutableMessageHeaders;
 import org.springframework.messaging.MessageHeaders;
@@ -58,6 +60,10 @@ public class MessageKryoRegistrar extends AbstractKryoRegistrar {
 
 	private int uuidRegistrationId = RegistrationIds.DEFAULT_UUID_ID;
 
+	private int messageHistoryRegistrationId = RegistrationIds.DEFAULT_MESSAGE_HISTORY_ID;
+
+	private int layeredMessageHeadersRegistrationId = RegistrationIds.DEFAULT_LAYERED_MESSAGEHEADERS_ID;
+
 	/**
 	 * Set the registration id for {@link MessageHeaders}.
 	 * @param messageHeadersRegistrationId the id, default 41.
@@ -128,6 +134,25 @@ public class MessageKryoRegistrar extends AbstractKryoRegistrar {
 		this.uuidRegistrationId = uuidRegistrationId;
 	}
 
+	/**
+	 * Set the registration id for {@link MessageHistory}.
+	 * @param messageHistoryRegistrationId the id, default 49.
+	 * @since 6.2
+	 */
+	public void setMessageHistoryRegistrationId(int messageHistoryRegistrationId) {
+		this.messageHistoryRegistrationId = messageHistoryRegistrationId;
+	}
+
+	/**
+	 * Set the registration id for {@link LayeredMessageHeaders}.
+	 * These headers are written as a regular {@link MessageHeaders}.
+	 * @param layeredMessageHeadersRegistrationId the id, default 50.
+	 * @since 6.2
+	 */
+	public void setLayeredMessageHeadersRegistrationId(int layeredMessageHeadersRegistrationId) {
+		this.layeredMessageHeadersRegistrationId = layeredMessageHeadersRegistrationId;
+	}
+
 	@Override
 	public void registerTypes(Kryo kryo) {
 		super.registerTypes(kryo);
@@ -145,7 +170,11 @@ public class MessageKryoRegistrar extends AbstractKryoRegistrar {
 				new Registration(MessageHeaders.class, new MessageHeadersSerializer(),
 						this.messageHeadersRegistrationId),
 				new Registration(MutableMessageHeaders.class, new MutableMessageHeadersSerializer(),
-						this.mutableMessageHeadersRegistrationId));
+						this.mutableMessageHeadersRegistrationId),
+				new Registration(MessageHistory.class, new MessageHistorySerializer(),
+						this.messageHistoryRegistrationId),
+				new Registration(LayeredMessageHeaders.class, new MessageHeadersSerializer(),
+						this.layeredMessageHeadersRegistrationId));
 	}
 
 }
@@ -689,8 +689,9 @@ public abstract class AbstractMethodAnnotationPostProcessor<T extends Annotation
 		pollingEndpoint.setAdviceChain(pollerMetadata.getAdviceChain());
 		pollingEndpoint.setMaxMessagesPerPoll(pollerMetadata.getMaxMessagesPerPoll());
 		pollingEndpoint.setErrorHandler(pollerMetadata.getErrorHandler());
-		if (pollingEndpoint instanceof PollingConsumer) {
-			((PollingConsumer) pollingEndpoint).setReceiveTimeout(pollerMetadata.getReceiveTimeout());
+		if (pollingEndpoint instanceof PollingConsumer pollingConsumer) {
+			pollingConsumer.setReceiveTimeout(pollerMetadata.getReceiveTimeout());
+			pollingConsumer.setReceiveBatchSize(pollerMetadata.getReceiveBatchSize());
 		}
 		pollingEndpoint.setTransactionSynchronizationFactory(pollerMetadata.getTransactionSynchronizationFactory());
 	}
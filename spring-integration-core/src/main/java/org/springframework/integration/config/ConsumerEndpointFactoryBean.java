@@ -406,6 +406,7 @@ public class ConsumerEndpointFactoryBean
 		pollingConsumer.setErrorHandler(this.pollerMetadata.getErrorHandler());
 
 		pollingConsumer.setReceiveTimeout(this.pollerMetadata.getReceiveTimeout());
+		pollingConsumer.setReceiveBatchSize(this.pollerMetadata.getReceiveBatchSize());
 		pollingConsumer.setTransactionSynchronizationFactory(
 				this.pollerMetadata.getTransactionSynchronizationFactory());
 		pollingConsumer.setBeanClassLoader(this.beanClassLoader);
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.dispatcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.integration.support.context.NamedComponent;
+import org.springframework.integration.support.management.metrics.GaugeFacade;
+import org.springframework.integration.support.management.metrics.MetricsCaptor;
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link LoadBalancingStrategy} which prefers the less loaded handler:
+ * for every message two handlers are chosen at random (the power of two choices),
+ * and the one with the lower cost is tried first; the rest of the handlers follow
+ * in their subscription order for failover.
+ * <p>
+ * The cost of a handler is the number of messages it is currently handling plus one,
+ * multiplied by the exponentially weighted moving average of its handling time.
+ * Therefore, a handler which becomes slow (e.g. its downstream resource is degraded)
+ * quickly gets less traffic, and it is still probed from time to time to let it recover.
+ * The statistics are collected by the {@link UnicastingDispatcher} this strategy is set on;
+ * when there is only one subscriber, the message is dispatched directly, without statistics.
+ * <p>
+ * An instance of this strategy must not be shared between channels.
+ * When the {@link MetricsCaptor} is registered, the in-flight count and the average handling time
+ * are exposed as gauges for every handler which is a {@link NamedComponent} with a component name
+ * (e.g. the bean name of a consumer endpoint handler); the statistics of other handlers are not exposed.
+ *
+ * @since 6.2
+ */
+public class LatencyAwareLoadBalancingStrategy implements LoadBalancingStrategy {
+
+	private final Map<MessageHandler, HandlerStats> handlerStats = new ConcurrentHashMap<>();
+
+	@Nullable
+	private volatile MetricsCaptor metricsCaptor;
+
+	private String channelName = "unknown";
+
+	@Override
+	public Iterator<MessageHandler> getHandlerIterator(Message<?> message, Collection<MessageHandler> handlers) {
+		int size = handlers.size();
+		if (size < 2) {
+			return handlers.iterator();
+		}
+		MessageHandler[] candidates = handlers.toArray(new MessageHandler[size]);
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int first = random.nextInt(size);
+		int second = random.nextInt(size - 1);
+		if (second >= first) {
+			second++;
+		}
+		int best = cost(candidates[first]) <= cost(candidates[second]) ? first : second;
+		if (best > 0) {
+			MessageHandler bestHandler = candidates[best];
+			System.arraycopy(candidates, 0, candidates, 1, best);
+			candidates[0] = bestHandler;
+		}
+		return Arrays.asList(candidates).iterator();
+	}
+
+	/**
+	 * Return the number of messages the handler is currently handling.
+	 * @param handler the handler.
+	 * @return the in-flight count.
+	 */
+	public int getInFlight(MessageHandler handler) {
+		HandlerStats stats = this.handlerStats.get(handler);
+		return stats != null ? stats.inFlight.get() : 0;
+	}
+
+	/**
+	 * Return the moving average of the handling time for the handler.
+	 * @param handler the handler.
+	 * @return the average handling time in milliseconds.
+	 */
+	public double getAverageHandlingTime(MessageHandler handler) {
+		HandlerStats stats = this.handlerStats.get(handler);
+		return stats != null ? (double) stats.averageNanos / TimeUnit.MILLISECONDS.toNanos(1) : 0;
+	}
+
+	/**
+	 * Expose the per-handler statistics as gauges
+	 * {@code spring.integration.channel.handler.inflight} and
+	 * {@code spring.integration.channel.handler.processing.time}
+	 * tagged with the channel and handler component names.
+	 * @param metricsCaptorToRegister the metrics captor.
+	 * @param channelNameToTag the name of the channel this strategy is used for.
+	 */
+	public void registerMetricsCaptor(MetricsCaptor metricsCaptorToRegister, @Nullable String channelNameToTag) {
+		Assert.notNull(metricsCaptorToRegister, "'metricsCaptor' must not be null");
+		if (channelNameToTag != null) {
+			this.channelName = channelNameToTag;
+		}
+		this.metricsCaptor = metricsCaptorToRegister;
+		this.handlerStats.forEach((handler, stats) -> stats.registerGauges(handler));
+	}
+
+	/**
+	 * Remove the gauges registered for the handlers.
+	 */
+	public void destroy() {
+		this.handlerStats.values().forEach(HandlerStats::removeGauges);
+	}
+
+	void handlerAdded(MessageHandler handler) {
+		this.handlerStats.computeIfAbsent(handler, this::newHandlerStats);
+	}
+
+	long handlingStarted(MessageHandler handler) {
+		HandlerStats stats = this.handlerStats.get(handler);
+		if (stats != null) {
+			stats.inFlight.incrementAndGet();
+		}
+		return System.nanoTime();
+	}
+
+	void handlingFinished(MessageHandler handler, long startNanos) {
+		HandlerStats stats = this.handlerStats.get(handler);
+		if (stats != null) {
+			stats.handled(System.nanoTime() - startNanos);
+		}
+	}
+
+	void handlerRemoved(MessageHandler handler) {
+		HandlerStats stats = this.handlerStats.remove(handler);
+		if (stats != null) {
+			stats.removeGauges();
+		}
+	}
+
+	private double cost(MessageHandler handler) {
+		HandlerStats stats = this.handlerStats.get(handler);
+		return stats != null ? (stats.inFlight.get() + 1.0) * (stats.averageNanos + 1) : 0;
+	}
+
+	private HandlerStats newHandlerStats(MessageHandler handler) {
+		HandlerStats stats = new HandlerStats();
+		stats.registerGauges(handler);
+		return stats;
+	}
+
+	private final class HandlerStats {
+
+		private final AtomicInteger inFlight = new AtomicInteger();
+
+		private final List<GaugeFacade> gauges = new ArrayList<>();
+
+		private volatile long averageNanos;
+
+		HandlerStats() {
+		}
+
+		void handled(long nanos) {
+			this.inFlight.decrementAndGet();
+			long average = this.averageNanos;
+			this.averageNanos = average == 0 ? nanos : average + ((nanos - average) >> 3);
+		}
+
+		synchronized void registerGauges(MessageHandler handler) {
+			MetricsCaptor captor = LatencyAwareLoadBalancingStrategy.this.metricsCaptor;
+			String handlerName =
+					handler instanceof NamedComponent namedComponent
+							? namedComponent.getComponentName()
+							: null;
+			if (captor != null && handlerName != null && this.gauges.isEmpty()) {
+				String name = LatencyAwareLoadBalancingStrategy.this.channelName;
+				this.gauges.add(
+						captor.gaugeBuilder("spring.integration.channel.handler.inflight", this,
+										(stats) -> ((HandlerStats) stats).inFlight.get())
+								.tag("name", name)
+								.tag("type", "channel")
+								.tag("handler", handlerName)
+								.description("The number of messages in process by the handler")
+								.build());
+				this.gauges.add(
+						captor.gaugeBuilder("spring.integration.channel.handler.processing.time", this,
+										(stats) -> ((HandlerStats) stats).averageNanos /
+												(double) TimeUnit.MILLISECONDS.toNanos(1))
+								.tag("name", name)
+								.tag("type", "channel")
+								.tag("handler", handlerName)
+								.description("The average message handling time of the handler in milliseconds")
+								.build());
+			}
+		}
+
+		synchronized void removeGauges() {
+			this.gauges.forEach(GaugeFacade::remove);
+			this.gauges.clear();
+		}
+
+	}
+
+}
@@ -20,11 +20,19 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
@@ -48,6 +56,19 @@ import org.springframework.util.ErrorHandler;
  * The number of partitions should be a reasonable value for the application environment
  * since every partition is based on a dedicated thread for message processing.
  * <p>
+ * Alternatively, when a shared {@link #setTaskExecutor(Executor) taskExecutor} is provided
+ * (e.g. a {@link org.springframework.core.task.VirtualThreadTaskExecutor}),
+ * every partition is a lightweight serial queue which is drained by a task on that executor
+ * only when there are messages to process, so no threads are held by idle partitions.
+ * The messages for the same partition are still processed one by one in the order of arrival.
+ * <p>
+ * With the {@link #setRebalancing(boolean) rebalancing} mode, the dispatcher tracks the depth
+ * (messages queued and in process) and the processing time of each partition, and the keys
+ * which have no in-flight messages can be moved away from their (hash-based) home partition
+ * if it is saturated, to a less loaded one. A key stays on its partition while it has
+ * in-flight messages, so the order per key is preserved; hot keys therefore stay where they are
+ * and the cold keys sharing a partition with them get out of their way.
+ * <p>
  * The rest of the logic is similar to {@link UnicastingDispatcher} behavior.
  *
  * @author Artem Bilan
@@ -57,6 +78,11 @@ import org.springframework.util.ErrorHandler;
  */
 public class PartitionedDispatcher extends AbstractDispatcher {
 
+	/**
+	 * The default partition depth to start moving idle keys away from a partition.
+	 */
+	public static final int DEFAULT_REBALANCE_THRESHOLD = 16;
+
 	private final Map<Integer, UnicastingDispatcher> partitions = new HashMap<>();
 
 	private final List<ExecutorService> executors = new ArrayList<>();
@@ -67,6 +93,9 @@ public class PartitionedDispatcher extends AbstractDispatcher {
 
 	private ThreadFactory threadFactory = new CustomizableThreadFactory("partition-thread-");
 
+	@Nullable
+	private Executor taskExecutor;
+
 	private boolean failover = true;
 
 	@Nullable
@@ -76,6 +105,22 @@ public class PartitionedDispatcher extends AbstractDispatcher {
 
 	private MessageHandlingTaskDecorator messageHandlingTaskDecorator = task -> task;
 
+	private boolean rebalancing;
+
+	private int rebalanceThreshold = DEFAULT_REBALANCE_THRESHOLD;
+
+	@Nullable
+	private PartitionStats[] partitionStats;
+
+	private final Map<Object, KeyAssignment> keyAssignments = new ConcurrentHashMap<>();
+
+	/**
+	 * The ids of messages counted in the partition depth and their key assignment,
+	 * with the number of such dispatches (the same message may be dispatched several times),
+	 * so only those are released on completion, even if the mode is switched meanwhile.
+	 */
+	private final Map<UUID, Integer> trackedMessages = new ConcurrentHashMap<>();
+
 	private final Lock lock = new ReentrantLock();
 
 	/**
@@ -102,6 +147,23 @@ public class PartitionedDispatcher extends AbstractDispatcher {
 		this.threadFactory = threadFactory;
 	}
 
+	/**
+	 * Set a shared {@link Executor} to drain partitions on demand instead of
+	 * a dedicated single thread per partition.
+	 * Each partition becomes a serial queue: a drain task is submitted to this executor
+	 * when a message arrives for an idle partition, and the task exits when the
+	 * partition queue is empty.
+	 * The {@link #setThreadFactory(ThreadFactory)} is ignored in this mode.
+	 * Intended for a {@link org.springframework.core.task.VirtualThreadTaskExecutor},
+	 * so a large number of partitions does not cost a platform thread each.
+	 * The executor lifecycle is not managed by this dispatcher.
+	 * @param taskExecutor the {@link Executor} to drain partitions.
+	 * @since 6.2
+	 */
+	public void setTaskExecutor(@Nullable Executor taskExecutor) {
+		this.taskExecutor = taskExecutor;
+	}
+
 	/**
 	 * Specify whether partition dispatchers should have failover enabled.
 	 * By default, it will. Set this value to 'false' to disable it.
@@ -138,6 +200,76 @@ public class PartitionedDispatcher extends AbstractDispatcher {
 		this.messageHandlingTaskDecorator = messageHandlingTaskDecorator;
 	}
 
+	/**
+	 * Set to {@code true} to track per-partition load and to move keys which have no in-flight
+	 * messages away from a saturated partition.
+	 * The {@code partitionKeyFunction} must be deterministic for the same message in this mode:
+	 * it is evaluated again when the message has been handled to release its key.
+	 * The mode can be switched at runtime once it has been enabled before dispatching:
+	 * the messages in flight are released according to the mode they have been dispatched in.
+	 * @param rebalancing true to enable partition rebalancing.
+	 * @since 6.2
+	 * @see #setRebalanceThreshold(int)
+	 */
+	public void setRebalancing(boolean rebalancing) {
+		Assert.state(!rebalancing || this.partitionStats != null || this.partitions.isEmpty(),
+				"The rebalancing must be enabled before dispatching messages");
+		this.rebalancing = rebalancing;
+		if (rebalancing && this.partitionStats == null) {
+			PartitionStats[] stats = new PartitionStats[this.partitionCount];
+			for (int i = 0; i < this.partitionCount; i++) {
+				stats[i] = new PartitionStats();
+			}
+			this.partitionStats = stats;
+		}
+	}
+
+	/**
+	 * Set the depth of the home partition for a key (messages queued and in process)
+	 * from which the key, when it has no in-flight messages, is considered for moving
+	 * to another partition with a lower expected wait time (depth by average processing time).
+	 * Defaults to {@link #DEFAULT_REBALANCE_THRESHOLD}.
+	 * Only applies in the {@link #setRebalancing(boolean) rebalancing} mode.
+	 * @param rebalanceThreshold the partition depth to start rebalancing from.
+	 * @since 6.2
+	 */
+	public void setRebalanceThreshold(int rebalanceThreshold) {
+		Assert.isTrue(rebalanceThreshold > 0, "'rebalanceThreshold' must be greater than 0");
+		this.rebalanceThreshold = rebalanceThreshold;
+	}
+
+	public boolean isRebalancing() {
+		return this.rebalancing;
+	}
+
+	public int getPartitionCount() {
+		return this.partitionCount;
+	}
+
+	/**
+	 * Return the number of messages queued or in process for the partition.
+	 * Only tracked in the {@link #setRebalancing(boolean) rebalancing} mode; otherwise {@code 0}.
+	 * @param partition the partition index.
+	 * @return the partition depth.
+	 * @since 6.2
+	 */
+	public int getPartitionDepth(int partition) {
+		return this.partitionStats != null ? this.partitionStats[partition].depth.get() : 0;
+	}
+
+	/**
+	 * Return the moving average of message processing time in the partition, in milliseconds.
+	 * Only tracked in the {@link #setRebalancing(boolean) rebalancing} mode; otherwise {@code 0}.
+	 * @param partition the partition index.
+	 * @return the partition processing time.
+	 * @since 6.2
+	 */
+	public double getPartitionProcessingTime(int partition) {
+		return this.partitionStats != null
+				? (double) this.partitionStats[partition].averageNanos / TimeUnit.MILLISECONDS.toNanos(1)
+				: 0;
+	}
+
 	/**
 	 * Shutdown this dispatcher on application close.
 	 * The partition executors are shutdown and internal state of this instance is cleared.
@@ -146,16 +278,86 @@ public class PartitionedDispatcher extends AbstractDispatcher {
 		this.executors.forEach(ExecutorService::shutdown);
 		this.executors.clear();
 		this.partitions.clear();
+		this.keyAssignments.clear();
 	}
 
 	@Override
 	public boolean dispatch(Message<?> message) {
 		populatedPartitions();
-		int partition = Math.abs(this.partitionKeyFunction.apply(message).hashCode()) % this.partitionCount;
+		Object partitionKey = this.partitionKeyFunction.apply(message);
+		UUID messageId = message.getHeaders().getId();
+		if (this.partitionStats != null && this.rebalancing && messageId != null) {
+			return dispatchWithRebalancing(message, messageId, partitionKey, this.partitionStats);
+		}
+		int partition = homePartition(partitionKey);
 		UnicastingDispatcher partitionDispatcher = this.partitions.get(partition);
 		return partitionDispatcher.dispatch(message);
 	}
 
+	private int homePartition(Object partitionKey) {
+		return Math.abs(partitionKey.hashCode()) % this.partitionCount;
+	}
+
+	private boolean dispatchWithRebalancing(Message<?> message, UUID messageId, Object partitionKey,
+			PartitionStats[] stats) {
+
+		KeyAssignment keyAssignment =
+				this.keyAssignments.compute(partitionKey, (key, current) -> {
+					KeyAssignment assignment = current != null ? current : new KeyAssignment(choosePartition(key));
+					assignment.inFlight++;
+					return assignment;
+				});
+		int partition = keyAssignment.partition;
+		stats[partition].depth.incrementAndGet();
+		this.trackedMessages.merge(messageId, 1, Integer::sum);
+		try {
+			return this.partitions.get(partition).dispatch(message);
+		}
+		catch (RuntimeException ex) {
+			if (untrack(messageId)) {
+				stats[partition].depth.decrementAndGet();
+				releaseKey(partitionKey);
+			}
+			throw ex;
+		}
+	}
+
+	/**
+	 * Choose a partition for a key without in-flight messages: its home partition,
+	 * unless that one is over the threshold and a randomly picked other partition
+	 * has a lower expected wait time (the "power of two choices").
+	 */
+	private int choosePartition(Object partitionKey) {
+		int home = homePartition(partitionKey);
+		PartitionStats[] stats = this.partitionStats;
+		if (stats == null || this.partitionCount == 1 || stats[home].depth.get() < this.rebalanceThreshold) {
+			return home;
+		}
+		int candidate = ThreadLocalRandom.current().nextInt(this.partitionCount - 1);
+		if (candidate >= home) {
+			candidate++;
+		}
+		return stats[candidate].expectedWait() < stats[home].expectedWait() ? candidate : home;
+	}
+
+	/**
+	 * Release one tracked dispatch of the message.
+	 * @return true if the message was tracked.
+	 */
+	private boolean untrack(UUID messageId) {
+		boolean[] tracked = new boolean[1];
+		this.trackedMessages.computeIfPresent(messageId, (key, count) -> {
+			tracked[0] = true;
+			return count > 1 ? count - 1 : null;
+		});
+		return tracked[0];
+	}
+
+	private void releaseKey(Object partitionKey) {
+		this.keyAssignments.computeIfPresent(partitionKey,
+				(key, assignment) -> --assignment.inFlight == 0 ? null : assignment);
+	}
+
 	private void populatedPartitions() {
 		if (this.partitions.isEmpty()) {
 			this.lock.lock();
@@ -163,7 +365,7 @@ public class PartitionedDispatcher extends AbstractDispatcher {
 				if (this.partitions.isEmpty()) {
 					Map<Integer, UnicastingDispatcher> partitionsToUse = new HashMap<>();
 					for (int i = 0; i < this.partitionCount; i++) {
-						partitionsToUse.put(i, newPartition());
+						partitionsToUse.put(i, newPartition(i));
 					}
 					this.partitions.putAll(partitionsToUse);
 				}
@@ -174,17 +376,148 @@ public class PartitionedDispatcher extends AbstractDispatcher {
 		}
 	}
 
-	private UnicastingDispatcher newPartition() {
-		ExecutorService executor = Executors.newSingleThreadExecutor(this.threadFactory);
-		this.executors.add(executor);
+	private UnicastingDispatcher newPartition(int partition) {
+		Executor executor;
+		if (this.taskExecutor != null) {
+			executor = new SerialExecutor(this.taskExecutor);
+		}
+		else {
+			ExecutorService executorService = Executors.newSingleThreadExecutor(this.threadFactory);
+			this.executors.add(executorService);
+			executor = executorService;
+		}
 		DelegateDispatcher delegateDispatcher =
 				new DelegateDispatcher(new ErrorHandlingTaskExecutor(executor, this.errorHandler));
 		delegateDispatcher.setFailover(this.failover);
 		delegateDispatcher.setLoadBalancingStrategy(this.loadBalancingStrategy);
-		delegateDispatcher.setMessageHandlingTaskDecorator(this.messageHandlingTaskDecorator);
+		if (this.partitionStats != null) {
+			PartitionStats stats = this.partitionStats[partition];
+			delegateDispatcher.setMessageHandlingTaskDecorator(task -> {
+				Runnable decoratedTask = this.messageHandlingTaskDecorator.decorate(task);
+				return () -> {
+					long start = System.nanoTime();
+					try {
+						decoratedTask.run();
+					}
+					finally {
+						Message<?> message = task.getMessage();
+						UUID messageId = message.getHeaders().getId();
+						if (messageId != null && untrack(messageId)) {
+							stats.handled(System.nanoTime() - start);
+							releaseKey(this.partitionKeyFunction.apply(message));
+						}
+					}
+				};
+			});
+		}
+		else {
+			delegateDispatcher.setMessageHandlingTaskDecorator(this.messageHandlingTaskDecorator);
+		}
 		return delegateDispatcher;
 	}
 
+	/**
+	 * The load of a partition: the number of messages queued or in process and
+	 * an exponential moving average of the processing time.
+	 * Updated only by the partition thread, so the average does not need atomic updates.
+	 */
+	private static final class PartitionStats {
+
+		private final AtomicInteger depth = new AtomicInteger();
+
+		private volatile long averageNanos;
+
+		PartitionStats() {
+		}
+
+		void handled(long nanos) {
+			this.depth.decrementAndGet();
+			long average = this.averageNanos;
+			this.averageNanos = average == 0 ? nanos : average + ((nanos - average) >> 3);
+		}
+
+		long expectedWait() {
+			return this.depth.get() * (this.averageNanos + 1);
+		}
+
+	}
+
+	/**
+	 * The partition a key is pinned to while it has in-flight messages.
+	 * Mutated only within the {@link ConcurrentHashMap} compute functions.
+	 */
+	private static final class KeyAssignment {
+
+		private final int partition;
+
+		private int inFlight;
+
+		KeyAssignment(int partition) {
+			this.partition = partition;
+		}
+
+	}
+
+	/**
+	 * An {@link Executor} which runs tasks one at a time in the order of submission
+	 * on the target executor, occupying its thread only while there are tasks to run.
+	 * After a {@link #MAX_TASKS_PER_DRAIN} the drain task is re-submitted to let other
+	 * partitions proceed with a bounded target executor.
+	 */
+	private static final class SerialExecutor implements Executor {
+
+		private static final int MAX_TASKS_PER_DRAIN = 1024;
+
+		private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+		private final AtomicBoolean draining = new AtomicBoolean();
+
+		private final Executor target;
+
+		SerialExecutor(Executor target) {
+			this.target = target;
+		}
+
+		@Override
+		public void execute(Runnable task) {
+			this.tasks.offer(task);
+			try {
+				scheduleDrainIfNecessary();
+			}
+			catch (RuntimeException ex) {
+				this.tasks.remove(task);
+				throw ex;
+			}
+		}
+
+		private void scheduleDrainIfNecessary() {
+			if (!this.tasks.isEmpty() && this.draining.compareAndSet(false, true)) {
+				try {
+					this.target.execute(this::drain);
+				}
+				catch (RuntimeException ex) {
+					this.draining.set(false);
+					throw ex;
+				}
+			}
+		}
+
+		private void drain() {
+			try {
+				Runnable task;
+				int count = 0;
+				while (count++ < MAX_TASKS_PER_DRAIN && (task = this.tasks.poll()) != null) {
+					task.run();
+				}
+			}
+			finally {
+				this.draining.set(false);
+				scheduleDrainIfNecessary();
+			}
+		}
+
+	}
+
 	private final class DelegateDispatcher extends UnicastingDispatcher {
 
 		DelegateDispatcher(Executor executor) {
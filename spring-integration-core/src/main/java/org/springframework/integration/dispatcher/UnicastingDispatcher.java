@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -62,6 +62,9 @@ public class UnicastingDispatcher extends AbstractDispatcher {
 
 	private LoadBalancingStrategy loadBalancingStrategy;
 
+	@Nullable
+	private LatencyAwareLoadBalancingStrategy latencyAwareStrategy;
+
 	private MessageHandlingTaskDecorator messageHandlingTaskDecorator = task -> task;
 
 	public UnicastingDispatcher() {
@@ -89,6 +92,23 @@ public class UnicastingDispatcher extends AbstractDispatcher {
 	 */
 	public void setLoadBalancingStrategy(@Nullable LoadBalancingStrategy loadBalancingStrategy) {
 		this.loadBalancingStrategy = loadBalancingStrategy;
+		this.latencyAwareStrategy =
+				loadBalancingStrategy instanceof LatencyAwareLoadBalancingStrategy latencyAware
+						? latencyAware
+						: null;
+		if (this.latencyAwareStrategy != null) {
+			getHandlers().forEach(this.latencyAwareStrategy::handlerAdded);
+		}
+	}
+
+	/**
+	 * Return the {@link LoadBalancingStrategy} for this dispatcher.
+	 * @return the load balancing strategy, if any.
+	 * @since 6.2
+	 */
+	@Nullable
+	public LoadBalancingStrategy getLoadBalancingStrategy() {
+		return this.loadBalancingStrategy;
 	}
 
 	public void setMessageHandlingTaskDecorator(MessageHandlingTaskDecorator messageHandlingTaskDecorator) {
@@ -96,6 +116,26 @@ public class UnicastingDispatcher extends AbstractDispatcher {
 		this.messageHandlingTaskDecorator = messageHandlingTaskDecorator;
 	}
 
+	@Override
+	public boolean addHandler(MessageHandler handler) {
+		boolean added = super.addHandler(handler);
+		LatencyAwareLoadBalancingStrategy latencyAware = this.latencyAwareStrategy;
+		if (added && latencyAware != null) {
+			latencyAware.handlerAdded(handler);
+		}
+		return added;
+	}
+
+	@Override
+	public boolean removeHandler(MessageHandler handler) {
+		boolean removed = super.removeHandler(handler);
+		LatencyAwareLoadBalancingStrategy latencyAware = this.latencyAwareStrategy;
+		if (removed && latencyAware != null) {
+			latencyAware.handlerRemoved(handler);
+		}
+		return removed;
+	}
+
 	@Override
 	public final boolean dispatch(final Message<?> message) {
 		if (this.executor != null) {
@@ -139,8 +179,10 @@ public class UnicastingDispatcher extends AbstractDispatcher {
 			throw new MessageDispatchingException(message, "Dispatcher has no subscribers");
 		}
 		List<RuntimeException> exceptions = null;
+		LatencyAwareLoadBalancingStrategy latencyAware = this.latencyAwareStrategy;
 		while (!success && handlerIterator.hasNext()) {
 			MessageHandler handler = handlerIterator.next();
+			long start = latencyAware != null ? latencyAware.handlingStarted(handler) : 0;
 			try {
 				handler.handleMessage(message);
 				success = true; // we have a winner.
@@ -159,6 +201,11 @@ public class UnicastingDispatcher extends AbstractDispatcher {
 				}
 				handleExceptions(exceptions, message, isLast);
 			}
+			finally {
+				if (latencyAware != null) {
+					latencyAware.handlingFinished(handler, start);
+				}
+			}
 		}
 		return success;
 	}
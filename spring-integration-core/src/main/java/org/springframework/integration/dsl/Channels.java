@@ -138,6 +138,27 @@ public final class Channels {
 		return MessageChannels.executor(id, executor);
 	}
 
+	/**
+	 * Create an {@link ExecutorChannelSpec} based on a virtual threads executor.
+	 * @return the {@link ExecutorChannelSpec}.
+	 * @since 6.2
+	 * @see MessageChannels#virtualThreadExecutor()
+	 */
+	public ExecutorChannelSpec virtualThreadExecutor() {
+		return MessageChannels.virtualThreadExecutor();
+	}
+
+	/**
+	 * Create an {@link ExecutorChannelSpec} based on a virtual threads executor.
+	 * @param id the bean name for the channel.
+	 * @return the {@link ExecutorChannelSpec}.
+	 * @since 6.2
+	 * @see MessageChannels#virtualThreadExecutor(String)
+	 */
+	public ExecutorChannelSpec virtualThreadExecutor(String id) {
+		return MessageChannels.virtualThreadExecutor(id);
+	}
+
 
 	public FluxMessageChannelSpec flux() {
 		return MessageChannels.flux();
@@ -168,6 +189,27 @@ public final class Channels {
 		return MessageChannels.partitioned(id, partitionCount);
 	}
 
+	/**
+	 * Create a {@link RingBufferChannelSpec}.
+	 * @param capacity the capacity of the ring buffer (rounded up to a power of two).
+	 * @return the {@link RingBufferChannelSpec}.
+	 * @since 6.2
+	 */
+	public RingBufferChannelSpec ringBuffer(int capacity) {
+		return MessageChannels.ringBuffer(capacity);
+	}
+
+	/**
+	 * Create a {@link RingBufferChannelSpec}.
+	 * @param id the bean name for the channel.
+	 * @param capacity the capacity of the ring buffer (rounded up to a power of two).
+	 * @return the {@link RingBufferChannelSpec}.
+	 * @since 6.2
+	 */
+	public RingBufferChannelSpec ringBuffer(String id, int capacity) {
+		return MessageChannels.ringBuffer(id, capacity);
+	}
+
 	private Channels() {
 	}
 
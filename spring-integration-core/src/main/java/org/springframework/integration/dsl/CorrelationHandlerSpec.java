@@ -1,5 +1,5 @@
 /*
- * Copyright 2016-2022 the original author or authors.
+ * Copyright 2016-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -357,6 +357,19 @@ public abstract class CorrelationHandlerSpec<S extends CorrelationHandlerSpec<S,
 		return _this();
 	}
 
+	/**
+	 * Set to true to accumulate messages for groups in memory without a lock and without a message store.
+	 * Supported only for a {@code MessageCountReleaseStrategy} and a {@code SimpleSequenceSizeReleaseStrategy}.
+	 * @param lockFreeAccumulation true to accumulate messages in memory without a lock.
+	 * @return the endpoint spec.
+	 * @since 6.2
+	 * @see AbstractCorrelatingMessageHandler#setLockFreeAccumulation(boolean)
+	 */
+	public S lockFreeAccumulation(boolean lockFreeAccumulation) {
+		this.handler.setLockFreeAccumulation(lockFreeAccumulation);
+		return _this();
+	}
+
 	/**
 	 * Configure a {@link BiFunction} to supply a group condition from a message to be added to the group.
 	 * The {@code null} result from the function will reset a condition set before.
@@ -30,6 +30,7 @@ import org.springframework.integration.store.MessageGroupStore;
 import org.springframework.integration.transaction.TransactionInterceptorBuilder;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.transaction.TransactionManager;
 import org.springframework.transaction.interceptor.TransactionInterceptor;
 import org.springframework.util.Assert;
@@ -243,4 +244,33 @@ public class DelayerEndpointSpec extends ConsumerEndpointSpec<DelayerEndpointSpe
 		return this;
 	}
 
+	/**
+	 * Set a time window in milliseconds to schedule delayed messages ahead from a
+	 * {@link org.springframework.integration.store.TimeIndexedMessageGroupStore}.
+	 * @param releaseWindow the window in milliseconds.
+	 * @return the endpoint spec.
+	 * @since 6.2
+	 * @see DelayHandler#setReleaseWindow(long)
+	 */
+	public DelayerEndpointSpec releaseWindow(long releaseWindow) {
+		this.handler.setReleaseWindow(releaseWindow);
+		return this;
+	}
+
+	/**
+	 * Configure a {@link TaskScheduler} for the endpoint and for scheduling the delayed
+	 * messages release in the {@link DelayHandler}.
+	 * @param taskScheduler the task scheduler.
+	 * @return the endpoint spec.
+	 * @since 6.2
+	 * @see DelayHandler#setTaskScheduler(TaskScheduler)
+	 */
+	@Override
+	public DelayerEndpointSpec taskScheduler(TaskScheduler taskScheduler) {
+		Assert.notNull(taskScheduler, "'taskScheduler' must not be null");
+		super.taskScheduler(taskScheduler);
+		this.handler.setTaskScheduler(taskScheduler);
+		return this;
+	}
+
 }
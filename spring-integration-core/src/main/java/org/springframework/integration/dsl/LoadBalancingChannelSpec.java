@@ -1,5 +1,5 @@
 /*
- * Copyright 2016-2019 the original author or authors.
+ * Copyright 2016-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.integration.dsl;
 
 import org.springframework.integration.channel.AbstractMessageChannel;
+import org.springframework.integration.dispatcher.LatencyAwareLoadBalancingStrategy;
 import org.springframework.integration.dispatcher.LoadBalancingStrategy;
 import org.springframework.integration.dispatcher.RoundRobinLoadBalancingStrategy;
 
@@ -46,6 +47,16 @@ public abstract class LoadBalancingChannelSpec<S extends MessageChannelSpec<S, C
 		return _this();
 	}
 
+	/**
+	 * Use a new {@link LatencyAwareLoadBalancingStrategy} for this channel:
+	 * the less loaded of two randomly chosen subscribers is tried first.
+	 * @return the spec.
+	 * @since 6.2
+	 */
+	public S latencyAwareLoadBalancer() {
+		return loadBalancer(new LatencyAwareLoadBalancingStrategy());
+	}
+
 	public S failover(Boolean failoverToSet) {
 		this.failover = failoverToSet;
 		return _this();
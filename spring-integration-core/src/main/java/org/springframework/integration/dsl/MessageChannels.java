@@ -19,6 +19,7 @@ package org.springframework.integration.dsl;
 import java.util.Queue;
 import java.util.concurrent.Executor;
 
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.integration.store.ChannelMessageStore;
 import org.springframework.integration.store.PriorityCapableChannelMessageStore;
 import org.springframework.messaging.Message;
@@ -81,6 +82,29 @@ public final class MessageChannels {
 		return executor(executor).id(id);
 	}
 
+	/**
+	 * Create an {@link ExecutorChannelSpec} based on a {@link VirtualThreadTaskExecutor}:
+	 * every message is handled on a new virtual thread.
+	 * Requires Java 21 or later.
+	 * @return the {@link ExecutorChannelSpec}.
+	 * @since 6.2
+	 */
+	public static ExecutorChannelSpec virtualThreadExecutor() {
+		return executor(new VirtualThreadTaskExecutor());
+	}
+
+	/**
+	 * Create an {@link ExecutorChannelSpec} based on a {@link VirtualThreadTaskExecutor}:
+	 * every message is handled on a new virtual thread named with the channel id plus {@code -} prefix.
+	 * Requires Java 21 or later.
+	 * @param id the bean name for the channel.
+	 * @return the {@link ExecutorChannelSpec}.
+	 * @since 6.2
+	 */
+	public static ExecutorChannelSpec virtualThreadExecutor(String id) {
+		return executor(id, new VirtualThreadTaskExecutor(id + "-"));
+	}
+
 	public static RendezvousChannelSpec rendezvous() {
 		return new RendezvousChannelSpec();
 	}
@@ -170,6 +194,27 @@ public final class MessageChannels {
 		return new PartitionedChannelSpec(partitionCount).id(id);
 	}
 
+	/**
+	 * Create a {@link RingBufferChannelSpec}.
+	 * @param capacity the capacity of the ring buffer (rounded up to a power of two).
+	 * @return the {@link RingBufferChannelSpec}.
+	 * @since 6.2
+	 */
+	public static RingBufferChannelSpec ringBuffer(int capacity) {
+		return new RingBufferChannelSpec(capacity);
+	}
+
+	/**
+	 * Create a {@link RingBufferChannelSpec}.
+	 * @param id the bean name for the channel.
+	 * @param capacity the capacity of the ring buffer (rounded up to a power of two).
+	 * @return the {@link RingBufferChannelSpec}.
+	 * @since 6.2
+	 */
+	public static RingBufferChannelSpec ringBuffer(String id, int capacity) {
+		return new RingBufferChannelSpec(capacity).id(id);
+	}
+
 	private MessageChannels() {
 	}
 
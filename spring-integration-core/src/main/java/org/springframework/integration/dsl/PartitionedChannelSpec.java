@@ -16,6 +16,7 @@
 
 package org.springframework.integration.dsl;
 
+import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadFactory;
 import java.util.function.Function;
 
@@ -40,6 +41,16 @@ public class PartitionedChannelSpec extends LoadBalancingChannelSpec<Partitioned
 	@Nullable
 	private ThreadFactory threadFactory;
 
+	@Nullable
+	private Executor taskExecutor;
+
+	private boolean virtualThreads;
+
+	private boolean rebalancing;
+
+	@Nullable
+	private Integer rebalanceThreshold;
+
 	protected PartitionedChannelSpec(int partitionCount) {
 		this.partitionCount = partitionCount;
 	}
@@ -54,6 +65,54 @@ public class PartitionedChannelSpec extends LoadBalancingChannelSpec<Partitioned
 		return this;
 	}
 
+	/**
+	 * Set a shared {@link Executor} to drain partitions on demand.
+	 * @param taskExecutor the {@link Executor} to use.
+	 * @return the spec.
+	 * @since 6.2
+	 * @see PartitionedChannel#setTaskExecutor(Executor)
+	 */
+	public PartitionedChannelSpec taskExecutor(Executor taskExecutor) {
+		this.taskExecutor = taskExecutor;
+		return this;
+	}
+
+	/**
+	 * Set to {@code true} to drain partitions on demand by virtual threads (Java 21+).
+	 * @param virtualThreads true to use virtual threads.
+	 * @return the spec.
+	 * @since 6.2
+	 * @see PartitionedChannel#setVirtualThreads(boolean)
+	 */
+	public PartitionedChannelSpec virtualThreads(boolean virtualThreads) {
+		this.virtualThreads = virtualThreads;
+		return this;
+	}
+
+	/**
+	 * Set to {@code true} to move idle partition keys away from saturated partitions.
+	 * @param rebalancing true to enable partition rebalancing.
+	 * @return the spec.
+	 * @since 6.2
+	 * @see PartitionedChannel#setRebalancing(boolean)
+	 */
+	public PartitionedChannelSpec rebalancing(boolean rebalancing) {
+		this.rebalancing = rebalancing;
+		return this;
+	}
+
+	/**
+	 * Set the partition depth from which its idle keys are considered for rebalancing.
+	 * @param rebalanceThreshold the partition depth to start rebalancing from.
+	 * @return the spec.
+	 * @since 6.2
+	 * @see PartitionedChannel#setRebalanceThreshold(int)
+	 */
+	public PartitionedChannelSpec rebalanceThreshold(int rebalanceThreshold) {
+		this.rebalanceThreshold = rebalanceThreshold;
+		return this;
+	}
+
 	@Override
 	protected PartitionedChannel doGet() {
 		if (this.partitionKeyFunction != null) {
@@ -72,6 +131,14 @@ public class PartitionedChannelSpec extends LoadBalancingChannelSpec<Partitioned
 		if (this.threadFactory != null) {
 			this.channel.setThreadFactory(this.threadFactory);
 		}
+		if (this.taskExecutor != null) {
+			this.channel.setTaskExecutor(this.taskExecutor);
+		}
+		this.channel.setVirtualThreads(this.virtualThreads);
+		this.channel.setRebalancing(this.rebalancing);
+		if (this.rebalanceThreshold != null) {
+			this.channel.setRebalanceThreshold(this.rebalanceThreshold);
+		}
 		return super.doGet();
 	}
 
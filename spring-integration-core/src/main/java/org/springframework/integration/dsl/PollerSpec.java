@@ -1,5 +1,5 @@
 /*
- * Copyright 2016-2020 the original author or authors.
+ * Copyright 2016-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -132,6 +132,21 @@ public final class PollerSpec extends IntegrationComponentSpec<PollerSpec, Polle
 		return this;
 	}
 
+	/**
+	 * Specify the maximum number of messages to receive in one batch from a
+	 * {@link org.springframework.integration.channel.BatchPollableChannel}.
+	 * The {@link #receiveTimeout(long)} is applied only for the first message in a batch.
+	 * Defaults to {@code 1} - no batching.
+	 * @param receiveBatchSize the max number of messages in a batch.
+	 * @return the spec.
+	 * @since 6.2
+	 * @see PollerMetadata#setReceiveBatchSize(int)
+	 */
+	public PollerSpec receiveBatchSize(int receiveBatchSize) {
+		this.target.setReceiveBatchSize(receiveBatchSize);
+		return this;
+	}
+
 	/**
 	 * Specify AOP {@link Advice}s for the {@code pollingTask}.
 	 * @param advice the {@link Advice}s to use.
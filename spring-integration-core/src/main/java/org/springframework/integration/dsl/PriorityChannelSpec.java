@@ -1,5 +1,5 @@
 /*
- * Copyright 2016-2020 the original author or authors.
+ * Copyright 2016-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -35,6 +35,8 @@ public class PriorityChannelSpec extends MessageChannelSpec<PriorityChannelSpec,
 
 	private Comparator<Message<?>> comparator;
 
+	private int priorityLevels;
+
 	private MessageGroupQueue messageGroupQueue;
 
 	protected PriorityChannelSpec() {
@@ -50,6 +52,19 @@ public class PriorityChannelSpec extends MessageChannelSpec<PriorityChannelSpec,
 		return this;
 	}
 
+	/**
+	 * Set the number of priority levels for an {@code O(1)} bucket per priority channel.
+	 * Ignored if a {@link #comparator(Comparator)} is provided.
+	 * @param priorityLevels the number of priority levels.
+	 * @return the spec.
+	 * @since 6.2
+	 * @see PriorityChannel#PriorityChannel(int, int)
+	 */
+	public PriorityChannelSpec priorityLevels(int priorityLevels) {
+		this.priorityLevels = priorityLevels;
+		return this;
+	}
+
 	public PriorityChannelSpec messageStore(PriorityCapableChannelMessageStore messageGroupStore, Object groupId) {
 		this.messageGroupQueue = new MessageGroupQueue(messageGroupStore, groupId);
 		this.messageGroupQueue.setPriority(true);
@@ -64,6 +79,9 @@ public class PriorityChannelSpec extends MessageChannelSpec<PriorityChannelSpec,
 		if (this.messageGroupQueue != null) {
 			this.channel = new PriorityChannel(this.messageGroupQueue);
 		}
+		else if (this.comparator == null && this.priorityLevels > 0) {
+			this.channel = new PriorityChannel(this.capacity, this.priorityLevels);
+		}
 		else {
 			this.channel = new PriorityChannel(this.capacity, this.comparator);
 		}
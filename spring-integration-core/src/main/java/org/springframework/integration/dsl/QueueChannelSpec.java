@@ -1,5 +1,5 @@
 /*
- * Copyright 2016-2020 the original author or authors.
+ * Copyright 2016-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,10 +16,13 @@
 
 package org.springframework.integration.dsl;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.locks.Lock;
 
 import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.channel.WatermarkListener;
 import org.springframework.integration.store.ChannelMessageStore;
 import org.springframework.integration.store.MessageGroupQueue;
 import org.springframework.messaging.Message;
@@ -35,6 +38,12 @@ public class QueueChannelSpec extends MessageChannelSpec<QueueChannelSpec, Queue
 
 	protected Integer capacity; // NOSONAR
 
+	private final List<WatermarkListener> watermarkListeners = new ArrayList<>();
+
+	private int highWatermark;
+
+	private int lowWatermark;
+
 	protected QueueChannelSpec() {
 	}
 
@@ -46,6 +55,32 @@ public class QueueChannelSpec extends MessageChannelSpec<QueueChannelSpec, Queue
 		this.capacity = capacity;
 	}
 
+	/**
+	 * Set the queue sizes to notify the {@link WatermarkListener}s at.
+	 * @param high the queue size to consider the channel as overloaded.
+	 * @param low the queue size to consider the channel as ready for new messages.
+	 * @return the spec.
+	 * @since 6.2
+	 * @see QueueChannel#setWatermarks(int, int)
+	 */
+	public QueueChannelSpec watermarks(int high, int low) {
+		this.highWatermark = high;
+		this.lowWatermark = low;
+		return this;
+	}
+
+	/**
+	 * Add a {@link WatermarkListener} to notify when the queue size crosses the watermarks.
+	 * @param listener the listener.
+	 * @return the spec.
+	 * @since 6.2
+	 * @see WatermarkListener#pausing(org.springframework.integration.core.Pausable...)
+	 */
+	public QueueChannelSpec watermarkListener(WatermarkListener listener) {
+		this.watermarkListeners.add(listener);
+		return this;
+	}
+
 	@Override
 	protected QueueChannel doGet() {
 		if (this.queue != null) {
@@ -57,6 +92,10 @@ public class QueueChannelSpec extends MessageChannelSpec<QueueChannelSpec, Queue
 		else {
 			this.channel = new QueueChannel();
 		}
+		if (this.highWatermark > 0) {
+			this.channel.setWatermarks(this.highWatermark, this.lowWatermark);
+		}
+		this.channel.setWatermarkListeners(this.watermarkListeners);
 		return super.doGet();
 	}
 
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.dsl;
+
+import org.springframework.integration.channel.RingBufferChannel;
+import org.springframework.integration.util.RingBufferQueue;
+import org.springframework.util.Assert;
+
+/**
+ * The {@link MessageChannelSpec} for a {@link RingBufferChannel}.
+ *
+ * @since 6.2
+ */
+public class RingBufferChannelSpec extends MessageChannelSpec<RingBufferChannelSpec, RingBufferChannel> {
+
+	private final int capacity;
+
+	private RingBufferQueue.ConcurrencyMode concurrencyMode = RingBufferQueue.ConcurrencyMode.MPMC;
+
+	private RingBufferQueue.WaitStrategy waitStrategy = RingBufferQueue.WaitStrategy.BLOCKING;
+
+	protected RingBufferChannelSpec(int capacity) {
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Set the consumer side concurrency mode.
+	 * @param concurrencyMode the {@link RingBufferQueue.ConcurrencyMode}.
+	 * Defaults to {@link RingBufferQueue.ConcurrencyMode#MPMC}.
+	 * @return the spec.
+	 */
+	public RingBufferChannelSpec concurrencyMode(RingBufferQueue.ConcurrencyMode concurrencyMode) {
+		Assert.notNull(concurrencyMode, "'concurrencyMode' must not be null");
+		this.concurrencyMode = concurrencyMode;
+		return this;
+	}
+
+	/**
+	 * Set the strategy for waiting in blocking sends and receives.
+	 * @param waitStrategy the {@link RingBufferQueue.WaitStrategy}.
+	 * Defaults to {@link RingBufferQueue.WaitStrategy#BLOCKING}.
+	 * @return the spec.
+	 */
+	public RingBufferChannelSpec waitStrategy(RingBufferQueue.WaitStrategy waitStrategy) {
+		Assert.notNull(waitStrategy, "'waitStrategy' must not be null");
+		this.waitStrategy = waitStrategy;
+		return this;
+	}
+
+	@Override
+	protected RingBufferChannel doGet() {
+		this.channel = new RingBufferChannel(this.capacity, this.concurrencyMode, this.waitStrategy);
+		return super.doGet();
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.integration.endpoint;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
@@ -24,10 +25,12 @@ import java.util.List;
 import org.reactivestreams.Subscriber;
 
 import org.springframework.context.Lifecycle;
+import org.springframework.integration.channel.BatchPollableChannel;
 import org.springframework.integration.channel.ExecutorChannelInterceptorAware;
 import org.springframework.integration.channel.NullChannel;
 import org.springframework.integration.channel.ReactiveStreamsSubscribableChannel;
 import org.springframework.integration.core.MessageProducer;
+import org.springframework.integration.handler.BatchMessageHandler;
 import org.springframework.integration.router.MessageRouter;
 import org.springframework.integration.support.utils.IntegrationUtils;
 import org.springframework.integration.transaction.IntegrationResourceHolder;
@@ -38,12 +41,19 @@ import org.springframework.messaging.MessageHandler;
 import org.springframework.messaging.PollableChannel;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.GenericMessage;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 
 /**
  * Message Endpoint that connects any {@link MessageHandler} implementation
  * to a {@link PollableChannel}.
+ * <p>
+ * When a {@link #setReceiveBatchSize(int) receiveBatchSize} greater than {@code 1}
+ * is configured and the channel is a {@link BatchPollableChannel}, the messages
+ * are received in batches and each batch is handled within a single poll
+ * (e.g. one transaction for the whole batch); a {@link BatchMessageHandler}
+ * gets the whole batch in one call, other handlers are called for each message.
  *
  * @author Mark Fisher
  * @author Oleg Zhurakousky
@@ -65,6 +75,8 @@ public class PollingConsumer extends AbstractPollingEndpoint implements Integrat
 
 	private long receiveTimeout = DEFAULT_RECEIVE_TIMEOUT;
 
+	private int receiveBatchSize = 1;
+
 	public PollingConsumer(PollableChannel inputChannel, MessageHandler handler) {
 		Assert.notNull(inputChannel, "inputChannel must not be null");
 		Assert.notNull(handler, "handler must not be null");
@@ -87,6 +99,20 @@ public class PollingConsumer extends AbstractPollingEndpoint implements Integrat
 		this.receiveTimeout = receiveTimeout;
 	}
 
+	/**
+	 * Set the maximum number of messages to receive from a {@link BatchPollableChannel}
+	 * in one poll. The {@code receiveTimeout} is applied only for the first message in a batch.
+	 * Each batch counts as one message against the {@code maxMessagesPerPoll}.
+	 * Ignored for not {@link BatchPollableChannel} input channels and reactive handlers.
+	 * Defaults to {@code 1} - no batching.
+	 * @param receiveBatchSize the max number of messages in a batch.
+	 * @since 6.2
+	 */
+	public void setReceiveBatchSize(int receiveBatchSize) {
+		Assert.isTrue(receiveBatchSize > 0, "'receiveBatchSize' must be greater than 0");
+		this.receiveBatchSize = receiveBatchSize;
+	}
+
 	@Override
 	public MessageChannel getInputChannel() {
 		return this.inputChannel;
@@ -144,6 +170,15 @@ public class PollingConsumer extends AbstractPollingEndpoint implements Integrat
 
 	@Override
 	protected void handleMessage(Message<?> message) {
+		if (message instanceof MessageBatch messageBatch) {
+			handleMessageBatch(messageBatch);
+		}
+		else {
+			doHandleMessage(message);
+		}
+	}
+
+	private void doHandleMessage(Message<?> message) {
 		Message<?> theMessage = message;
 		Deque<ExecutorChannelInterceptor> interceptorStack = null;
 		try {
@@ -178,6 +213,54 @@ public class PollingConsumer extends AbstractPollingEndpoint implements Integrat
 		}
 	}
 
+	private void handleMessageBatch(MessageBatch messageBatch) {
+		List<Message<?>> messages = messageBatch.getPayload();
+		if (!(this.handler instanceof BatchMessageHandler batchMessageHandler)) {
+			for (Message<?> message : messages) {
+				doHandleMessage(message);
+			}
+			return;
+		}
+		List<Message<?>> messagesToHandle = messages;
+		List<Deque<ExecutorChannelInterceptor>> interceptorStacks = null;
+		if (this.channelInterceptors != null
+				&& ((ExecutorChannelInterceptorAware) this.inputChannel).hasExecutorInterceptors()) {
+
+			messagesToHandle = new ArrayList<>(messages.size());
+			interceptorStacks = new ArrayList<>(messages.size());
+			for (Message<?> message : messages) {
+				Deque<ExecutorChannelInterceptor> interceptorStack = new ArrayDeque<>();
+				Message<?> theMessage = applyBeforeHandle(message, interceptorStack);
+				if (theMessage != null) {
+					messagesToHandle.add(theMessage);
+					interceptorStacks.add(interceptorStack);
+				}
+			}
+			if (messagesToHandle.isEmpty()) {
+				return;
+			}
+		}
+		try {
+			batchMessageHandler.handleMessages(messagesToHandle);
+			triggerAfterMessagesHandled(messagesToHandle, null, interceptorStacks);
+		}
+		catch (Exception ex) {
+			triggerAfterMessagesHandled(messagesToHandle, ex, interceptorStacks);
+			throw IntegrationUtils.wrapInDeliveryExceptionIfNecessary(messageBatch,
+					() -> "Failed to handle messages batch to " + this + " in " + this.handler, ex);
+		}
+	}
+
+	private void triggerAfterMessagesHandled(List<Message<?>> messages, Exception ex,
+			List<Deque<ExecutorChannelInterceptor>> interceptorStacks) {
+
+		if (interceptorStacks != null) {
+			for (int i = 0; i < messages.size(); i++) {
+				triggerAfterMessageHandled(messages.get(i), ex, interceptorStacks.get(i));
+			}
+		}
+	}
+
 	private Message<?> applyBeforeHandle(Message<?> message, Deque<ExecutorChannelInterceptor> interceptorStack) {
 		Message<?> theMessage = message;
 		for (ChannelInterceptor interceptor : this.channelInterceptors) {
@@ -213,6 +296,12 @@ public class PollingConsumer extends AbstractPollingEndpoint implements Integrat
 
 	@Override
 	protected Message<?> receiveMessage() {
+		if (this.receiveBatchSize > 1 && this.inputChannel instanceof BatchPollableChannel batchPollableChannel
+				&& !isReactive()) {
+
+			List<Message<?>> messages = batchPollableChannel.receive(this.receiveBatchSize, this.receiveTimeout);
+			return messages.isEmpty() ? null : new MessageBatch(messages);
+		}
 		return (this.receiveTimeout >= 0)
 				? this.inputChannel.receive(this.receiveTimeout)
 				: this.inputChannel.receive();
@@ -228,4 +317,18 @@ public class PollingConsumer extends AbstractPollingEndpoint implements Integrat
 		return IntegrationResourceHolder.INPUT_CHANNEL;
 	}
 
+	/**
+	 * The messages received in one poll from a {@link BatchPollableChannel}.
+	 * This is what is bound to the {@link IntegrationResourceHolder} for the poll.
+	 */
+	private static final class MessageBatch extends GenericMessage<List<Message<?>>> {
+
+		private static final long serialVersionUID = 1L;
+
+		MessageBatch(List<Message<?>> messages) {
+			super(messages);
+		}
+
+	}
+
 }
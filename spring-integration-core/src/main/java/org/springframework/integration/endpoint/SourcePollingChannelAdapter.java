@@ -29,6 +29,7 @@ import org.springframework.integration.channel.ReactiveStreamsSubscribableChanne
 import org.springframework.integration.context.ExpressionCapable;
 import org.springframework.integration.core.MessageSource;
 import org.springframework.integration.core.MessagingTemplate;
+import org.springframework.integration.core.Pausable;
 import org.springframework.integration.history.MessageHistory;
 import org.springframework.integration.support.context.NamedComponent;
 import org.springframework.integration.support.management.TrackableComponent;
@@ -41,6 +42,11 @@ import org.springframework.util.Assert;
 /**
  * A Channel Adapter implementation for connecting a
  * {@link MessageSource} to a {@link MessageChannel}.
+ * <p>
+ * When {@link #pause() paused}, the polling cycles are still triggered,
+ * but the {@link MessageSource} is not called until the adapter is {@link #resume() resumed}.
+ * If the {@link MessageSource} is {@link Pausable} itself, it is paused and resumed together
+ * with this adapter, and it is still called on polling cycles, e.g. to keep its connection alive.
  *
  * @author Mark Fisher
  * @author Oleg Zhurakousky
@@ -49,7 +55,7 @@ import org.springframework.util.Assert;
  * @author Christian Tzolov
  */
 public class SourcePollingChannelAdapter extends AbstractPollingEndpoint
-		implements TrackableComponent {
+		implements TrackableComponent, Pausable {
 
 	private final MessagingTemplate messagingTemplate = new MessagingTemplate();
 
@@ -63,6 +69,8 @@ public class SourcePollingChannelAdapter extends AbstractPollingEndpoint
 
 	private volatile boolean shouldTrack;
 
+	private volatile boolean paused;
+
 	private final Lock lock = new ReentrantLock();
 
 	/**
@@ -124,6 +132,35 @@ public class SourcePollingChannelAdapter extends AbstractPollingEndpoint
 		this.shouldTrack = shouldTrack;
 	}
 
+	/**
+	 * Stop calling the {@link MessageSource} on polling cycles until {@link #resume()}.
+	 * @since 6.2
+	 */
+	@Override
+	public void pause() {
+		this.paused = true;
+		if (this.originalSource instanceof Pausable pausable) {
+			pausable.pause();
+		}
+	}
+
+	/**
+	 * Resume calling the {@link MessageSource} on polling cycles.
+	 * @since 6.2
+	 */
+	@Override
+	public void resume() {
+		if (this.originalSource instanceof Pausable pausable) {
+			pausable.resume();
+		}
+		this.paused = false;
+	}
+
+	@Override
+	public boolean isPaused() {
+		return this.paused;
+	}
+
 	@Override
 	public String getComponentType() {
 		return (this.source instanceof NamedComponent) ?
@@ -219,6 +256,9 @@ public class SourcePollingChannelAdapter extends AbstractPollingEndpoint
 
 	@Override
 	protected Message<?> receiveMessage() {
+		if (this.paused && !(this.originalSource instanceof Pausable)) {
+			return null;
+		}
 		return this.source.receive();
 	}
 
@@ -21,6 +21,7 @@ import java.util.concurrent.TimeUnit;
 
 import io.micrometer.common.docs.KeyName;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.search.Search;
@@ -53,6 +54,8 @@ public class MicrometerNodeEnhancer {
 
 	private static final String TAG_RESULT = "result";
 
+	private static final String QUEUE_METER_PREFIX = "spring.integration.channel.queue.";
+
 	private static final TimerStats ZERO_TIMER_STATS = new TimerStats(0L, 0.0, 0.0);
 
 	private final MeterRegistry registry;
@@ -81,8 +84,9 @@ public class MicrometerNodeEnhancer {
 			else if (node instanceof MessageHandlerNode || node instanceof MessageProducerNode) {
 				enhanceWithTimers(node, "handler");
 			}
-			if (node instanceof PollableChannelNode) {
+			if (node instanceof PollableChannelNode pollableChannelNode) {
 				enhanceWithCounts(node, "channel");
+				enhanceWithQueueStats(pollableChannelNode);
 			}
 			else if (node instanceof MessageSourceNode) {
 				enhanceWithCounts(node, "source");
@@ -184,6 +188,27 @@ public class MicrometerNodeEnhancer {
 				(long) (failures == null ? 0 : failures.count()));
 	}
 
+	private void enhanceWithQueueStats(PollableChannelNode node) {
+		node.queueStats(() -> retrieveQueueStats(node));
+	}
+
+	@Nullable
+	private QueueStats retrieveQueueStats(PollableChannelNode node) {
+		Gauge size = findQueueMeter(node, "size").gauge();
+		if (size == null) {
+			return null;
+		}
+		Timer residency = findQueueMeter(node, "residency").timer();
+		Gauge lag = findQueueMeter(node, "lag").gauge();
+		return new QueueStats(buildTimerStats(residency), (long) size.value(), lag == null ? 0 : (long) lag.value());
+	}
+
+	private Search findQueueMeter(PollableChannelNode node, String meter) {
+		return this.registry.find(QUEUE_METER_PREFIX + meter)
+				.tag(TAG_TYPE, "channel")
+				.tag(TAG_NAME, node.getName());
+	}
+
 	private static TimerStats buildTimerStats(@Nullable Timer timer) {
 		return timer == null
 				? ZERO_TIMER_STATS
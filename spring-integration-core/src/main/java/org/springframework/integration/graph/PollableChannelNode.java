@@ -1,5 +1,5 @@
 /*
- * Copyright 2019 the original author or authors.
+ * Copyright 2019-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -34,6 +34,8 @@ public class PollableChannelNode extends MessageChannelNode implements ReceiveCo
 
 	private Supplier<ReceiveCounters> receiveCounters;
 
+	private Supplier<QueueStats> queueStats;
+
 	public PollableChannelNode(int nodeId, String name, MessageChannel channel) {
 		super(nodeId, name, channel);
 	}
@@ -48,4 +50,18 @@ public class PollableChannelNode extends MessageChannelNode implements ReceiveCo
 		this.receiveCounters = counters;
 	}
 
+	/**
+	 * Return the queue statistics if the channel is queue-based and its metrics are available.
+	 * @return the queue statistics.
+	 * @since 6.2
+	 */
+	@Nullable
+	public QueueStats getQueueStats() {
+		return this.queueStats != null ? this.queueStats.get() : null;
+	}
+
+	void queueStats(Supplier<QueueStats> stats) {
+		this.queueStats = stats;
+	}
+
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.graph;
+
+/**
+ * Statistics of a queue-based pollable channel: the time messages spend in the queue,
+ * the current queue size and the age of the oldest message in the queue.
+ *
+ * @since 6.2
+ */
+public class QueueStats {
+
+	private final TimerStats residency;
+
+	private final long size;
+
+	private final long lag;
+
+	public QueueStats(TimerStats residency, long size, long lag) {
+		this.residency = residency;
+		this.size = size;
+		this.lag = lag;
+	}
+
+	public TimerStats getResidency() {
+		return this.residency;
+	}
+
+	public long getSize() {
+		return this.size;
+	}
+
+	public long getLag() {
+		return this.lag;
+	}
+
+}
@@ -18,18 +18,22 @@ package org.springframework.integration.handler;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Stream;
 
 import org.aopalliance.aop.Advice;
@@ -47,6 +51,7 @@ import org.springframework.integration.store.MessageGroup;
 import org.springframework.integration.store.MessageGroupStore;
 import org.springframework.integration.store.MessageStore;
 import org.springframework.integration.store.SimpleMessageStore;
+import org.springframework.integration.store.TimeIndexedMessageGroupStore;
 import org.springframework.integration.support.management.IntegrationManagedResource;
 import org.springframework.jmx.export.annotation.ManagedResource;
 import org.springframework.messaging.Message;
@@ -94,6 +99,10 @@ import org.springframework.util.ObjectUtils;
  * After application restart the bean may get a different generated name and its delayed
  * messages might be lost from reschedule since its group is not managed
  * by the application anymore.
+ * <p>
+ * With a {@link TimeIndexedMessageGroupStore} and a {@link #setReleaseWindow(long) releaseWindow},
+ * only messages due within that window are scheduled in memory; the rest stay in the store
+ * indexed by their release time and are loaded periodically when they fall into the window.
  *
  * @author Mark Fisher
  * @author Artem Bilan
@@ -143,6 +152,12 @@ public class DelayHandler extends AbstractReplyProducingMessageHandler implement
 
 	private long retryDelay = DEFAULT_RETRY_DELAY;
 
+	private long releaseWindow;
+
+	private final Set<UUID> scheduledMessageIds = ConcurrentHashMap.newKeySet();
+
+	private volatile ScheduledFuture<?> releaseWindowTask;
+
 	/**
 	 * Construct an instance with default options.
 	 * The {@link #messageGroupId} must then be provided via the setter.
@@ -309,6 +324,25 @@ public class DelayHandler extends AbstractReplyProducingMessageHandler implement
 		this.retryDelay = retryDelay;
 	}
 
+	/**
+	 * Set a time window in milliseconds to schedule delayed messages ahead.
+	 * When set, the {@link #setMessageStore(MessageGroupStore) messageStore} must be a
+	 * {@link TimeIndexedMessageGroupStore}: delayed messages are stored with their release
+	 * time, and only those due within this window are scheduled in memory.
+	 * The rest are loaded from the store by a task performed every half of this window,
+	 * so the memory and the restart time are bounded by the number of messages in the
+	 * window rather than by the whole delayed backlog.
+	 * Messages stored without a release time (e.g. before this option was set) are
+	 * scheduled in memory by the {@link #reschedulePersistedMessages()}.
+	 * Defaults to {@code 0} - all the delayed messages are scheduled in memory.
+	 * @param releaseWindow the window in milliseconds to schedule delayed messages ahead.
+	 * @since 6.2
+	 */
+	public void setReleaseWindow(long releaseWindow) {
+		Assert.isTrue(releaseWindow >= 0, "'releaseWindow' must not be negative");
+		this.releaseWindow = releaseWindow;
+	}
+
 	private MessageChannel getErrorChannel() {
 		if (this.delayedMessageErrorChannel != null) {
 			return this.delayedMessageErrorChannel;
@@ -340,6 +374,10 @@ public class DelayHandler extends AbstractReplyProducingMessageHandler implement
 		else {
 			Assert.isInstanceOf(MessageStore.class, this.messageStore);
 		}
+		if (this.releaseWindow > 0) {
+			Assert.isInstanceOf(TimeIndexedMessageGroupStore.class, this.messageStore,
+					"A 'TimeIndexedMessageGroupStore' must be provided for the 'releaseWindow': ");
+		}
 		this.evaluationContext = ExpressionUtils.createStandardEvaluationContext(getBeanFactory());
 		this.releaseHandler = createReleaseMessageTask();
 	}
@@ -461,9 +499,25 @@ public class DelayHandler extends AbstractReplyProducingMessageHandler implement
 					.withPayload(messageWrapper)
 					.copyHeaders(message.getHeaders())
 					.build();
-			this.messageStore.addMessageToGroup(this.messageGroupId, delayedMessage);
+			if (this.releaseWindow > 0) {
+				long releaseTime = messageWrapper.getRequestDate() + delay;
+				((TimeIndexedMessageGroupStore) this.messageStore)
+						.addMessageToGroup(this.messageGroupId, delayedMessage, releaseTime);
+				startReleaseWindowTaskIfNecessary(Instant.now());
+				// The window is checked against the current time after the message is stored:
+				// the release window task might have queried the store just before the insert
+				if (releaseTime > System.currentTimeMillis() + this.releaseWindow
+						|| !this.scheduledMessageIds.add(delayedMessage.getHeaders().getId())) {
+
+					return;
+				}
+			}
+			else {
+				this.messageStore.addMessageToGroup(this.messageGroupId, delayedMessage);
+			}
 		}
 
+		UUID messageId = delayedMessage.getHeaders().getId();
 		Runnable releaseTask = releaseTaskForMessage(delayedMessage);
 		Instant startTime = Instant.ofEpochMilli(messageWrapper.getRequestDate()).plusMillis(delay);
 
@@ -478,6 +532,14 @@ public class DelayHandler extends AbstractReplyProducingMessageHandler implement
 							getTaskScheduler().schedule(releaseTask, startTime);
 						}
 
+						@Override
+						public void afterCompletion(int status) {
+							if (status != STATUS_COMMITTED) {
+								// Let the release window task load the message again if it is still in the store
+								DelayHandler.this.scheduledMessageIds.remove(messageId);
+							}
+						}
+
 					});
 		}
 		else {
@@ -486,18 +548,32 @@ public class DelayHandler extends AbstractReplyProducingMessageHandler implement
 	}
 
 	private Runnable releaseTaskForMessage(Message<?> delayedMessage) {
+		UUID messageId = delayedMessage.getHeaders().getId();
+		BooleanSupplier releaseAction;
 		if (this.messageStore instanceof SimpleMessageStore) {
-			return () -> releaseMessage(delayedMessage);
+			releaseAction = () -> releaseMessage(delayedMessage);
 		}
 		else {
-			UUID messageId = delayedMessage.getHeaders().getId();
-			return () -> {
+			releaseAction = () -> {
 				Message<?> messageToRelease = getMessageById(messageId);
-				if (messageToRelease != null) {
-					releaseMessage(messageToRelease);
+				return messageToRelease != null && releaseMessage(messageToRelease);
+			};
+		}
+		if (this.releaseWindow > 0) {
+			return () -> {
+				boolean rescheduled = false;
+				try {
+					rescheduled = releaseAction.getAsBoolean();
+				}
+				finally {
+					// Keep the id while a retry is pending to not let the release window task schedule it again
+					if (!rescheduled) {
+						this.scheduledMessageIds.remove(messageId);
+					}
 				}
 			};
 		}
+		return releaseAction::getAsBoolean;
 	}
 
 	private Message<?> getMessageById(UUID messageId) {
@@ -513,7 +589,12 @@ public class DelayHandler extends AbstractReplyProducingMessageHandler implement
 		}
 	}
 
-	private void releaseMessage(Message<?> message) {
+	/**
+	 * Release the message via the {@link #releaseHandler}.
+	 * @param message the message to release.
+	 * @return true if the release has failed and the message has been rescheduled for retry.
+	 */
+	private boolean releaseMessage(Message<?> message) {
 		String identity = ObjectUtils.getIdentityHexString(message);
 		this.deliveries.putIfAbsent(identity, new AtomicInteger());
 		try {
@@ -529,7 +610,7 @@ public class DelayHandler extends AbstractReplyProducingMessageHandler implement
 				try {
 					if (!(getErrorChannel().send(errorMessage))) {
 						this.logger.debug(() -> "Failed to send error message: " + errorMessage);
-						rescheduleForRetry(message, identity);
+						return rescheduleForRetry(message, identity);
 					}
 					else {
 						this.deliveries.remove(identity);
@@ -537,7 +618,7 @@ public class DelayHandler extends AbstractReplyProducingMessageHandler implement
 				}
 				catch (Exception e1) {
 					logger.debug(e1, () -> "Error flow threw an exception for message: " + message);
-					rescheduleForRetry(message, identity);
+					return rescheduleForRetry(message, identity);
 				}
 			}
 			else {
@@ -545,8 +626,10 @@ public class DelayHandler extends AbstractReplyProducingMessageHandler implement
 				if (!rescheduleForRetry(message, identity)) {
 					throw ex; // there might be an error handler on the scheduler
 				}
+				return true;
 			}
 		}
+		return false;
 	}
 
 	private boolean rescheduleForRetry(Message<?> message, String identity) {
@@ -619,9 +702,18 @@ public class DelayHandler extends AbstractReplyProducingMessageHandler implement
 	 * upon application restart. The logic is based on iteration over
 	 * {@code messageGroup.getMessages()} and schedules task for 'delay' logic. This
 	 * behavior is dictated by the avoidance of invocation thread overload.
+	 * With a {@link #setReleaseWindow(long) releaseWindow}, only messages due within the
+	 * window are loaded from the store, and then the periodic task is started to load
+	 * the next ones. The messages stored without a release time are all scheduled.
 	 */
 	@Override
 	public void reschedulePersistedMessages() {
+		if (this.releaseWindow > 0) {
+			scheduleMessagesWithoutReleaseTime();
+			scheduleMessagesInReleaseWindow();
+			startReleaseWindowTaskIfNecessary(Instant.now().plusMillis(this.releaseWindow / 2));
+			return;
+		}
 		this.lock.lock();
 		try {
 			MessageGroup messageGroup = this.messageStore.getMessageGroup(this.messageGroupId);
@@ -646,6 +738,77 @@ public class DelayHandler extends AbstractReplyProducingMessageHandler implement
 		}
 	}
 
+	private void startReleaseWindowTaskIfNecessary(Instant startTime) {
+		if (this.releaseWindowTask == null) {
+			this.lock.lock();
+			try {
+				if (this.releaseWindowTask == null) {
+					this.releaseWindowTask =
+							getTaskScheduler()
+									.scheduleWithFixedDelay(this::scheduleMessagesInReleaseWindow, startTime,
+											Duration.ofMillis(Math.max(1, this.releaseWindow / 2)));
+				}
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+	}
+
+	private void scheduleMessagesWithoutReleaseTime() {
+		try (Stream<Message<?>> messageStream =
+				((TimeIndexedMessageGroupStore) this.messageStore)
+						.streamMessagesForGroupWithoutTime(this.messageGroupId)) {
+
+			messageStream
+					.filter((message) -> this.scheduledMessageIds.add(message.getHeaders().getId()))
+					.forEach(this::scheduleMessage);
+		}
+		catch (Exception ex) {
+			logger.error(ex, () -> "Failed to load delayed messages without release time from the group: "
+					+ this.messageGroupId);
+		}
+	}
+
+	private void scheduleMessagesInReleaseWindow() {
+		long until = System.currentTimeMillis() + this.releaseWindow;
+		// Messages added concurrently within the window are scheduled by the caller thread
+		// and de-duplicated via 'scheduledMessageIds'
+		try (Stream<Message<?>> messageStream =
+				((TimeIndexedMessageGroupStore) this.messageStore)
+						.streamMessagesForGroupUntil(this.messageGroupId, until)) {
+
+			messageStream
+					.filter((message) -> this.scheduledMessageIds.add(message.getHeaders().getId()))
+					.forEach(this::scheduleMessage);
+		}
+		catch (Exception ex) {
+			logger.error(ex, () -> "Failed to load delayed messages for the release window from the group: "
+					+ this.messageGroupId);
+		}
+	}
+
+	private void scheduleMessage(Message<?> message) {
+		long delay = determineDelayForMessage(message);
+		if (delay > 0) {
+			releaseMessageAfterDelay(message, delay);
+		}
+		else {
+			getTaskScheduler().schedule(releaseTaskForMessage(message), Instant.now());
+		}
+	}
+
+	@Override
+	public void destroy() {
+		super.destroy();
+		ScheduledFuture<?> task = this.releaseWindowTask;
+		if (task != null) {
+			task.cancel(true);
+			this.releaseWindowTask = null;
+		}
+		this.scheduledMessageIds.clear();
+	}
+
 	/**
 	 * Handle {@link ContextRefreshedEvent} to invoke
 	 * {@link #reschedulePersistedMessages} as late as possible after application context
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,16 +16,24 @@
 
 package org.springframework.integration.history;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
+import java.io.Serial;
 import java.io.Serializable;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Objects;
 import java.util.Properties;
-import java.util.stream.Collectors;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import org.apache.commons.logging.Log;
@@ -45,6 +53,18 @@ import org.springframework.messaging.support.GenericMessage;
 import org.springframework.util.Assert;
 
 /**
+ * The immutable list of the components a message has passed through.
+ * <p>
+ * Since version 6.2, the history is stored as compact parallel arrays of component names,
+ * types and timestamps.
+ * A history written on top of the previous one shares its arrays (the prefix) and just
+ * appends one more slot, so tracking a long flow does not copy the whole history on every hop.
+ * A copy is made only when the same history is continued more than once (e.g. after a splitter).
+ * The {@link List} of {@link Properties} view ({@link Entry} instances) is materialized lazily
+ * on the first access to the list elements and cached.
+ * The Java serialization form is the same as before version 6.2: a list of {@link Entry} instances,
+ * so the histories persisted before the upgrade remain readable and vice versa.
+ *
  * @author Mark Fisher
  * @author Artem Bilan
  * @author Gary Russell
@@ -56,6 +76,14 @@ public final class MessageHistory implements List<Properties>, Serializable {
 
 	private static final long serialVersionUID = -2340400235574314134L;
 
+	/**
+	 * The {@code components} list field of the serialized form before version 6.2.
+	 */
+	@Serial
+	private static final ObjectStreamField[] serialPersistentFields = {
+			new ObjectStreamField("components", List.class)
+	};
+
 	private static final Log LOGGER = LogFactory.getLog(MessageHistory.class);
 
 	private static final UnsupportedOperationException UNSUPPORTED_OPERATION_EXCEPTION_IMMUTABLE =
@@ -71,8 +99,15 @@ public final class MessageHistory implements List<Properties>, Serializable {
 
 	private static final MessageBuilderFactory MESSAGE_BUILDER_FACTORY = new DefaultMessageBuilderFactory();
 
+	private static final int INITIAL_CAPACITY = 8;
+
+	private final transient Entries components;
 
-	private final List<Properties> components;
+	/**
+	 * The instance to return from {@link #readResolve()}.
+	 */
+	@Nullable
+	private transient MessageHistory deserialized;
 
 	@Nullable
 	public static MessageHistory read(@Nullable Message<?> message) {
@@ -92,15 +127,11 @@ public final class MessageHistory implements List<Properties>, Serializable {
 		Message<T> message = messageArg;
 		Assert.notNull(message, "Message must not be null");
 		Assert.notNull(component, "Component must not be null");
-		Properties metadata = extractMetadata(component);
-		if (!metadata.isEmpty()) {
+		String name = component.getComponentName();
+		if (name != null && !name.startsWith("org.springframework.integration")) {
 			MessageHistory previousHistory = message.getHeaders().get(HEADER_NAME, MessageHistory.class);
-			List<Properties> components =
-					previousHistory != null
-							? new ArrayList<>(previousHistory)
-							: new ArrayList<>();
-			components.add(metadata);
-			MessageHistory history = new MessageHistory(components);
+			MessageHistory history =
+					append(previousHistory, name, component.getComponentType(), System.currentTimeMillis());
 
 			if (message instanceof MutableMessage) {
 				message.getHeaders().put(HEADER_NAME, history);
@@ -144,21 +175,74 @@ public final class MessageHistory implements List<Properties>, Serializable {
 		return message;
 	}
 
+	/**
+	 * Return a history with one more entry on top of the provided one.
+	 * The provided history is not modified; its entries are shared with the result where possible.
+	 * Typically used by deserializers; the components are tracked with
+	 * {@link #write(Message, NamedComponent)}.
+	 * @param history the history to continue, or {@code null} to start a new one.
+	 * @param name the component name.
+	 * @param type the component type.
+	 * @param timestamp the time the component has been passed.
+	 * @return the new history.
+	 * @since 6.2
+	 */
+	public static MessageHistory append(@Nullable MessageHistory history, String name, @Nullable String type,
+			long timestamp) {
+
+		Assert.notNull(name, "'name' must not be null");
+		return new MessageHistory(
+				Entries.append(history != null ? history.components : null, name, type, timestamp));
+	}
+
 	@JsonCreator
 	private MessageHistory(List<Properties> components) {
 		Assert.notEmpty(components, "component list must not be empty");
-		this.components = components;
+		this.components = components instanceof Entries entries ? entries : Entries.of(components);
 	}
 
+	/**
+	 * Return the name of the component at the provided position
+	 * without materializing the {@link Properties} view.
+	 * @param index the position in this history.
+	 * @return the component name.
+	 * @since 6.2
+	 */
+	public String getName(int index) {
+		return this.components.storage.names[Objects.checkIndex(index, this.components.size)];
+	}
+
+	/**
+	 * Return the type of the component at the provided position
+	 * without materializing the {@link Properties} view.
+	 * @param index the position in this history.
+	 * @return the component type, if any.
+	 * @since 6.2
+	 */
+	@Nullable
+	public String getType(int index) {
+		return this.components.storage.types[Objects.checkIndex(index, this.components.size)];
+	}
+
+	/**
+	 * Return the time the component at the provided position has been passed
+	 * without materializing the {@link Properties} view.
+	 * @param index the position in this history.
+	 * @return the timestamp.
+	 * @since 6.2
+	 */
+	public long getTimestamp(int index) {
+		return this.components.storage.timestamps[Objects.checkIndex(index, this.components.size)];
+	}
 
 	@Override
 	public int size() {
-		return this.components.size();
+		return this.components.size;
 	}
 
 	@Override
 	public boolean isEmpty() {
-		return this.components.isEmpty();
+		return this.components.size == 0;
 	}
 
 	@Override
@@ -178,22 +262,22 @@ public final class MessageHistory implements List<Properties>, Serializable {
 
 	@Override
 	public Iterator<Properties> iterator() {
-		return Collections.unmodifiableList(this.components).iterator();
+		return this.components.iterator();
 	}
 
 	@Override
 	public ListIterator<Properties> listIterator() {
-		return Collections.unmodifiableList(this.components).listIterator();
+		return this.components.listIterator();
 	}
 
 	@Override
 	public ListIterator<Properties> listIterator(int index) {
-		return Collections.unmodifiableList(this.components).listIterator(index);
+		return this.components.listIterator(index);
 	}
 
 	@Override
 	public List<Properties> subList(int fromIndex, int toIndex) {
-		return Collections.unmodifiableList(this.components).subList(fromIndex, toIndex);
+		return this.components.subList(fromIndex, toIndex);
 	}
 
 	@Override
@@ -221,24 +305,62 @@ public final class MessageHistory implements List<Properties>, Serializable {
 		if (this == o) {
 			return true;
 		}
-		if (!(o instanceof MessageHistory)) {
+		if (!(o instanceof MessageHistory that)) {
+			return false;
+		}
+		int size = this.components.size;
+		if (size != that.components.size) {
 			return false;
 		}
-		MessageHistory that = (MessageHistory) o;
-		return this.components.equals(that.components);
+		Storage storage = this.components.storage;
+		Storage other = that.components.storage;
+		return Arrays.equals(storage.names, 0, size, other.names, 0, size)
+				&& Arrays.equals(storage.types, 0, size, other.types, 0, size)
+				&& Arrays.equals(storage.timestamps, 0, size, other.timestamps, 0, size);
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(this.components);
+		Storage storage = this.components.storage;
+		int result = 1;
+		for (int i = 0; i < this.components.size; i++) {
+			result = 31 * result + storage.names[i].hashCode();
+			result = 31 * result + Objects.hashCode(storage.types[i]);
+			result = 31 * result + Long.hashCode(storage.timestamps[i]);
+		}
+		return result;
 	}
 
 	@Override
 	public String toString() {
-		return this.components
-				.stream()
-				.map((props) -> props.getProperty(NAME_PROPERTY))
-				.collect(Collectors.joining(","));
+		StringJoiner joiner = new StringJoiner(",");
+		for (int i = 0; i < this.components.size; i++) {
+			joiner.add(this.components.storage.names[i]);
+		}
+		return joiner.toString();
+	}
+
+	@Serial
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		ObjectOutputStream.PutField fields = out.putFields();
+		fields.put("components", new ArrayList<>(this.components));
+		out.writeFields();
+	}
+
+	@Serial
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		ObjectInputStream.GetField fields = in.readFields();
+		List<Properties> components = (List<Properties>) fields.get("components", null);
+		if (components == null || components.isEmpty()) {
+			throw new InvalidObjectException("No MessageHistory entries");
+		}
+		this.deserialized = new MessageHistory(components);
+	}
+
+	@Serial
+	private Object readResolve() {
+		return this.deserialized;
 	}
 
 
@@ -296,23 +418,6 @@ public final class MessageHistory implements List<Properties>, Serializable {
 		throw UNSUPPORTED_OPERATION_EXCEPTION_IMMUTABLE;
 	}
 
-
-	private static Properties extractMetadata(NamedComponent component) {
-		Entry entry = new Entry();
-		String name = component.getComponentName();
-		String type = component.getComponentType();
-		if (name != null && !name.startsWith("org.springframework.integration")) {
-			entry.setName(name);
-			if (type != null) {
-				entry.setType(type);
-			}
-		}
-		if (!entry.isEmpty()) {
-			entry.setTimestamp(Long.toString(System.currentTimeMillis()));
-		}
-		return entry;
-	}
-
 	/**
 	 * Inner class for each Entry in the history.
 	 */
@@ -346,4 +451,135 @@ public final class MessageHistory implements List<Properties>, Serializable {
 
 	}
 
+	/**
+	 * The {@link Properties} view over a prefix of the {@link Storage}.
+	 * The {@link Entry} instances are created on the first element access.
+	 */
+	private static final class Entries extends AbstractList<Properties> {
+
+		private final Storage storage;
+
+		private final int size;
+
+		@Nullable
+		private volatile Properties[] view;
+
+		Entries(Storage storage, int size) {
+			this.storage = storage;
+			this.size = size;
+		}
+
+		@Override
+		public Properties get(int index) {
+			return view()[Objects.checkIndex(index, this.size)];
+		}
+
+		@Override
+		public int size() {
+			return this.size;
+		}
+
+		private Properties[] view() {
+			Properties[] view = this.view;
+			if (view == null) {
+				view = new Properties[this.size];
+				for (int i = 0; i < this.size; i++) {
+					Entry entry = new Entry();
+					entry.setName(this.storage.names[i]);
+					String type = this.storage.types[i];
+					if (type != null) {
+						entry.setType(type);
+					}
+					entry.setTimestamp(Long.toString(this.storage.timestamps[i]));
+					view[i] = entry;
+				}
+				this.view = view;
+			}
+			return view;
+		}
+
+		static Entries append(@Nullable Entries previous, String name, @Nullable String type, long timestamp) {
+			Storage storage = previous != null ? previous.storage : null;
+			int index = previous != null ? previous.size : 0;
+			if (storage == null || !storage.claim(index)) {
+				storage = storage != null ? storage.copy(index) : new Storage(INITIAL_CAPACITY);
+				storage.claim(index);
+			}
+			storage.names[index] = name;
+			storage.types[index] = type;
+			storage.timestamps[index] = timestamp;
+			return new Entries(storage, index + 1);
+		}
+
+		/**
+		 * Create entries from the arrays of component data; the names and types
+		 * are interned since they repeat across the messages.
+		 */
+		static Entries of(String[] names, String[] types, long[] timestamps) {
+			Storage storage = new Storage(names.length);
+			for (int i = 0; i < names.length; i++) {
+				Assert.notNull(names[i], "component name must not be null");
+				storage.names[i] = names[i].intern();
+				storage.types[i] = types[i] != null ? types[i].intern() : null;
+				storage.timestamps[i] = timestamps[i];
+			}
+			storage.claimed.set(names.length);
+			return new Entries(storage, names.length);
+		}
+
+		static Entries of(List<Properties> components) {
+			int size = components.size();
+			String[] names = new String[size];
+			String[] types = new String[size];
+			long[] timestamps = new long[size];
+			for (int i = 0; i < size; i++) {
+				Properties properties = components.get(i);
+				names[i] = properties.getProperty(NAME_PROPERTY);
+				types[i] = properties.getProperty(TYPE_PROPERTY);
+				String timestamp = properties.getProperty(TIMESTAMP_PROPERTY);
+				timestamps[i] = timestamp != null ? Long.parseLong(timestamp) : 0;
+			}
+			return of(names, types, timestamps);
+		}
+
+	}
+
+	/**
+	 * The append-only arrays shared by the histories derived from each other.
+	 * A slot is claimed by the first history continued at that position;
+	 * the others copy the prefix into a new storage.
+	 * The slots are written before the new history is published, and a history reads
+	 * only the slots up to its own size, so no further synchronization is needed.
+	 */
+	private static final class Storage {
+
+		private final String[] names;
+
+		private final String[] types;
+
+		private final long[] timestamps;
+
+		private final AtomicInteger claimed = new AtomicInteger();
+
+		Storage(int capacity) {
+			this.names = new String[capacity];
+			this.types = new String[capacity];
+			this.timestamps = new long[capacity];
+		}
+
+		boolean claim(int index) {
+			return index < this.names.length && this.claimed.compareAndSet(index, index + 1);
+		}
+
+		Storage copy(int length) {
+			Storage copy = new Storage(Math.max(INITIAL_CAPACITY, length * 2));
+			System.arraycopy(this.names, 0, copy.names, 0, length);
+			System.arraycopy(this.types, 0, copy.types, 0, length);
+			System.arraycopy(this.timestamps, 0, copy.timestamps, 0, length);
+			copy.claimed.set(length);
+			return copy;
+		}
+
+	}
+
 }
@@ -0,0 +1,681 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.scheduling;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.BeanNameAware;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.PeriodicTrigger;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+import org.springframework.scheduling.support.TaskUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.ErrorHandler;
+
+/**
+ * A {@link TaskScheduler} based on a hashed wheel timer: the scheduled tasks are placed
+ * into the buckets of a wheel by their deadline, and a single worker thread advances
+ * the wheel every tick, expiring all the tasks of the current bucket in bulk.
+ * <p>
+ * Scheduling and cancelling a task is {@code O(1)} and does not involve a lock or a heap,
+ * independently of the number of pending tasks. Therefore, this scheduler is suitable for
+ * a large number of timeouts which are mostly cancelled or rescheduled before they expire,
+ * e.g. the group timeouts of the {@code AbstractCorrelatingMessageHandler}
+ * and the message delays of the {@code DelayHandler}.
+ * One instance can be shared between such components via their {@code taskScheduler} option.
+ * <p>
+ * A task is executed on the first tick after its deadline, so the precision of the scheduling
+ * is the {@code tickDuration}; a task scheduled for a deadline farther than a wheel rotation
+ * ({@code tickDuration * ticksPerWheel}) stays in its bucket for several rotations.
+ * <p>
+ * The expired tasks of a tick are executed by the worker thread,
+ * or handed over as a single batch to the {@link #setTaskExecutor(Executor) taskExecutor}.
+ * Long-running or blocking tasks must not be executed on the worker thread, since they delay
+ * the expiration of other tasks.
+ * <p>
+ * The periodic tasks are scheduled as a chain of one-time tasks according to their {@link Trigger}.
+ * The worker thread is started on the first scheduled task and stopped on {@link #destroy()},
+ * when all the pending tasks are cancelled.
+ *
+ * @since 6.2
+ */
+public class HashedWheelTaskScheduler implements TaskScheduler, BeanNameAware, DisposableBean {
+
+	private static final Log LOGGER = LogFactory.getLog(HashedWheelTaskScheduler.class);
+
+	private static final int STATE_INIT = 0;
+
+	private static final int STATE_STARTED = 1;
+
+	private static final int STATE_SHUTDOWN = 2;
+
+	/**
+	 * The maximum number of new tasks to move to the wheel buckets on a tick,
+	 * to not starve the expiration when tasks are scheduled faster than expired.
+	 */
+	private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+	private final long tickNanos;
+
+	private final Bucket[] wheel;
+
+	private final int mask;
+
+	private final Queue<WheelTask> newTasks = new ConcurrentLinkedQueue<>();
+
+	private final Queue<WheelTask> cancelledTasks = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger state = new AtomicInteger(STATE_INIT);
+
+	private final AtomicLong pendingTasks = new AtomicLong();
+
+	private final Lock lifecycleLock = new ReentrantLock();
+
+	private String beanName = "hashedWheelTaskScheduler";
+
+	@Nullable
+	private ThreadFactory threadFactory;
+
+	@Nullable
+	private Executor taskExecutor;
+
+	@Nullable
+	private ErrorHandler errorHandler;
+
+	private volatile long startNanos;
+
+	@Nullable
+	private volatile Thread worker;
+
+	private long tick;
+
+	/**
+	 * Create a scheduler with a 10 milliseconds tick and 512 ticks per wheel.
+	 */
+	public HashedWheelTaskScheduler() {
+		this(Duration.ofMillis(10), 512);
+	}
+
+	/**
+	 * Create a scheduler with the provided tick duration and wheel size.
+	 * @param tickDuration the duration of a tick: the precision of the scheduling.
+	 * @param ticksPerWheel the number of buckets in the wheel; rounded up to a power of two.
+	 */
+	public HashedWheelTaskScheduler(Duration tickDuration, int ticksPerWheel) {
+		Assert.isTrue(tickDuration.toMillis() >= 1, "'tickDuration' must be at least 1 millisecond");
+		Assert.isTrue(ticksPerWheel > 0 && ticksPerWheel <= (1 << 30),
+				"'ticksPerWheel' must be between 1 and 2^30");
+		this.tickNanos = tickDuration.toNanos();
+		int wheelSize = ticksPerWheel == 1 ? 1 : Integer.highestOneBit(ticksPerWheel - 1) << 1;
+		this.wheel = new Bucket[wheelSize];
+		for (int i = 0; i < wheelSize; i++) {
+			this.wheel[i] = new Bucket();
+		}
+		this.mask = wheelSize - 1;
+	}
+
+	@Override
+	public void setBeanName(String name) {
+		this.beanName = name;
+	}
+
+	/**
+	 * Set the {@link ThreadFactory} for the worker thread.
+	 * By default, a daemon thread named after the bean name is created.
+	 * @param threadFactory the thread factory.
+	 */
+	public void setThreadFactory(ThreadFactory threadFactory) {
+		Assert.notNull(threadFactory, "'threadFactory' must not be null");
+		this.threadFactory = threadFactory;
+	}
+
+	/**
+	 * Set an {@link Executor} to execute the tasks expired on a tick as a single batch.
+	 * By default, the expired tasks are executed on the worker thread.
+	 * @param taskExecutor the executor for the expired tasks.
+	 */
+	public void setTaskExecutor(Executor taskExecutor) {
+		Assert.notNull(taskExecutor, "'taskExecutor' must not be null");
+		this.taskExecutor = taskExecutor;
+	}
+
+	/**
+	 * Set an {@link ErrorHandler} for the errors thrown from the scheduled tasks.
+	 * By default, the errors are logged, and for the one-time tasks they are also
+	 * propagated to the returned {@link ScheduledFuture}.
+	 * @param errorHandler the error handler.
+	 */
+	public void setErrorHandler(ErrorHandler errorHandler) {
+		Assert.notNull(errorHandler, "'errorHandler' must not be null");
+		this.errorHandler = errorHandler;
+	}
+
+	/**
+	 * Return the duration of a wheel rotation: the tick duration multiplied by the wheel size.
+	 * @return the rotation duration.
+	 */
+	public Duration getRotationDuration() {
+		return Duration.ofNanos(this.tickNanos * this.wheel.length);
+	}
+
+	/**
+	 * Return the number of tasks scheduled and not yet expired or cancelled.
+	 * @return the number of pending tasks.
+	 */
+	public long getPendingTaskCount() {
+		return this.pendingTasks.get();
+	}
+
+	@Override
+	public ScheduledFuture<?> schedule(Runnable task, Instant startTime) {
+		return newTask(TaskUtils.decorateTaskWithErrorHandler(task, this.errorHandler, false), startTime);
+	}
+
+	@Override
+	@Nullable
+	public ScheduledFuture<?> schedule(Runnable task, Trigger trigger) {
+		return new TriggerTask(TaskUtils.decorateTaskWithErrorHandler(task, this.errorHandler, true), trigger)
+				.schedule();
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, Instant startTime, Duration period) {
+		return schedulePeriodic(task, startTime, period, true);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, Duration period) {
+		return schedulePeriodic(task, getClock().instant(), period, true);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Instant startTime, Duration delay) {
+		return schedulePeriodic(task, startTime, delay, false);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Duration delay) {
+		return schedulePeriodic(task, getClock().instant(), delay, false);
+	}
+
+	/**
+	 * Stop the worker thread and cancel all the pending tasks.
+	 * The tasks are cancelled by the worker thread when it exits, since only that thread
+	 * may access the wheel buckets; this method waits up to 10 seconds for that.
+	 */
+	@Override
+	public void destroy() {
+		this.lifecycleLock.lock();
+		try {
+			int previousState = this.state.getAndSet(STATE_SHUTDOWN);
+			if (previousState == STATE_INIT) {
+				// No worker to hand over to: the tasks are only in the new tasks queue
+				cancelPendingTasks();
+			}
+			else if (previousState == STATE_STARTED) {
+				Thread workerThread = this.worker;
+				if (workerThread != null && workerThread != Thread.currentThread()) {
+					workerThread.interrupt();
+					try {
+						workerThread.join(TimeUnit.SECONDS.toMillis(10));
+					}
+					catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					}
+					if (workerThread.isAlive()) {
+						LOGGER.warn("The [" + this.beanName + "] worker thread has not stopped in 10 seconds; "
+								+ "the pending tasks are cancelled when it does");
+					}
+				}
+			}
+		}
+		finally {
+			this.lifecycleLock.unlock();
+		}
+	}
+
+	private ScheduledFuture<?> schedulePeriodic(Runnable task, Instant startTime, Duration period, boolean fixedRate) {
+		PeriodicTrigger trigger = new PeriodicTrigger(period);
+		trigger.setFixedRate(fixedRate);
+		Duration initialDelay = Duration.between(getClock().instant(), startTime);
+		trigger.setInitialDelay(initialDelay.isNegative() ? Duration.ZERO : initialDelay);
+		ScheduledFuture<?> future = schedule(task, trigger);
+		Assert.state(future != null, "A periodic trigger must always provide the next execution time");
+		return future;
+	}
+
+	private WheelTask newTask(Runnable task, Instant startTime) {
+		start();
+		long delayNanos = saturatedNanos(Duration.between(getClock().instant(), startTime));
+		long now = System.nanoTime() - this.startNanos;
+		long deadline;
+		if (delayNanos <= 0) {
+			deadline = now;
+		}
+		else {
+			deadline = delayNanos > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + delayNanos;
+		}
+		WheelTask wheelTask = new WheelTask(task, deadline);
+		this.pendingTasks.incrementAndGet();
+		this.newTasks.add(wheelTask);
+		if (this.state.get() == STATE_SHUTDOWN && this.newTasks.remove(wheelTask)) {
+			this.pendingTasks.decrementAndGet();
+			throw new TaskRejectedException("The [" + this.beanName + "] has been shut down; task rejected: " + task);
+		}
+		return wheelTask;
+	}
+
+	private void start() {
+		if (this.state.get() != STATE_STARTED) {
+			this.lifecycleLock.lock();
+			try {
+				int currentState = this.state.get();
+				if (currentState == STATE_SHUTDOWN) {
+					throw new TaskRejectedException("The [" + this.beanName + "] has been shut down");
+				}
+				if (currentState == STATE_INIT) {
+					this.startNanos = System.nanoTime();
+					Thread workerThread = this.threadFactory != null
+							? this.threadFactory.newThread(this::work)
+							: newDaemonThread();
+					this.worker = workerThread;
+					this.state.set(STATE_STARTED);
+					workerThread.start();
+				}
+			}
+			finally {
+				this.lifecycleLock.unlock();
+			}
+		}
+	}
+
+	private Thread newDaemonThread() {
+		Thread thread = new Thread(this::work, this.beanName + "-worker");
+		thread.setDaemon(true);
+		return thread;
+	}
+
+	private void work() {
+		try {
+			while (this.state.get() == STATE_STARTED) {
+				if (!waitForNextTick()) {
+					break;
+				}
+				removeCancelledTasks();
+				transferNewTasks();
+				List<WheelTask> expired = this.wheel[(int) (this.tick & this.mask)].expire();
+				this.tick++;
+				if (!expired.isEmpty()) {
+					this.pendingTasks.addAndGet(-expired.size());
+					runExpired(expired);
+				}
+			}
+		}
+		finally {
+			cancelPendingTasks();
+		}
+	}
+
+	/**
+	 * Cancel all the tasks in the wheel and in the new tasks queue.
+	 * Must be called only by the worker thread, or before it has been started.
+	 */
+	private void cancelPendingTasks() {
+		for (Bucket bucket : this.wheel) {
+			bucket.cancelAll();
+		}
+		WheelTask task;
+		while ((task = this.newTasks.poll()) != null) {
+			task.cancel(false);
+		}
+		this.cancelledTasks.clear();
+		this.pendingTasks.set(0);
+	}
+
+	private boolean waitForNextTick() {
+		long deadline = this.tickNanos * (this.tick + 1);
+		long sleepNanos;
+		while ((sleepNanos = deadline - (System.nanoTime() - this.startNanos)) > 0) {
+			LockSupport.parkNanos(this, sleepNanos);
+			if (Thread.interrupted() || this.state.get() != STATE_STARTED) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void removeCancelledTasks() {
+		WheelTask task;
+		while ((task = this.cancelledTasks.poll()) != null) {
+			if (task.bucket != null) {
+				task.bucket.remove(task);
+				this.pendingTasks.decrementAndGet();
+			}
+		}
+	}
+
+	private void transferNewTasks() {
+		for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+			WheelTask task = this.newTasks.poll();
+			if (task == null) {
+				break;
+			}
+			if (task.isCancelled()) {
+				this.pendingTasks.decrementAndGet();
+				continue;
+			}
+			long ticks = task.deadline / this.tickNanos;
+			task.remainingRounds = (ticks - this.tick) / this.wheel.length;
+			Bucket bucket = this.wheel[(int) (Math.max(ticks, this.tick) & this.mask)];
+			bucket.add(task);
+			if (task.isCancelled()) {
+				// Cancelled concurrently before it has been added to the bucket
+				bucket.remove(task);
+				this.pendingTasks.decrementAndGet();
+			}
+		}
+	}
+
+	private void runExpired(List<WheelTask> expired) {
+		Executor executor = this.taskExecutor;
+		if (executor != null) {
+			try {
+				executor.execute(() -> expired.forEach(WheelTask::run));
+				return;
+			}
+			catch (RuntimeException ex) {
+				LOGGER.error("Failed to hand over expired tasks to the executor; running them on the worker thread",
+						ex);
+			}
+		}
+		expired.forEach(WheelTask::run);
+	}
+
+	private static long saturatedNanos(Duration duration) {
+		try {
+			return duration.toNanos();
+		}
+		catch (ArithmeticException ex) {
+			return duration.isNegative() ? Long.MIN_VALUE : Long.MAX_VALUE;
+		}
+	}
+
+	private final class WheelTask extends FutureTask<Object> implements ScheduledFuture<Object> {
+
+		private final long deadline;
+
+		private long remainingRounds;
+
+		@Nullable
+		private Bucket bucket;
+
+		@Nullable
+		private WheelTask previous;
+
+		@Nullable
+		private WheelTask next;
+
+		WheelTask(Runnable task, long deadline) {
+			super(task, null);
+			this.deadline = deadline;
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = super.cancel(mayInterruptIfRunning);
+			if (cancelled) {
+				HashedWheelTaskScheduler.this.cancelledTasks.add(this);
+			}
+			return cancelled;
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(this.deadline - (System.nanoTime() - HashedWheelTaskScheduler.this.startNanos),
+					TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			return other == this ? 0 : Long.compare(getDelay(TimeUnit.NANOSECONDS),
+					other.getDelay(TimeUnit.NANOSECONDS));
+		}
+
+	}
+
+	/**
+	 * A doubly-linked list of tasks; accessed only by the worker thread.
+	 */
+	private static final class Bucket {
+
+		@Nullable
+		private WheelTask head;
+
+		@Nullable
+		private WheelTask tail;
+
+		Bucket() {
+		}
+
+		void add(WheelTask task) {
+			task.bucket = this;
+			if (this.head == null) {
+				this.head = task;
+				this.tail = task;
+			}
+			else {
+				this.tail.next = task; // NOSONAR tail is not null when head is not null
+				task.previous = this.tail;
+				this.tail = task;
+			}
+		}
+
+		void remove(WheelTask task) {
+			if (task.bucket != this) {
+				return;
+			}
+			if (task.previous != null) {
+				task.previous.next = task.next;
+			}
+			else {
+				this.head = task.next;
+			}
+			if (task.next != null) {
+				task.next.previous = task.previous;
+			}
+			else {
+				this.tail = task.previous;
+			}
+			task.previous = null;
+			task.next = null;
+			task.bucket = null;
+		}
+
+		List<WheelTask> expire() {
+			List<WheelTask> expired = new ArrayList<>();
+			WheelTask task = this.head;
+			while (task != null) {
+				WheelTask next = task.next;
+				if (task.remainingRounds <= 0) {
+					remove(task);
+					expired.add(task);
+				}
+				else {
+					task.remainingRounds--;
+				}
+				task = next;
+			}
+			return expired;
+		}
+
+		void cancelAll() {
+			WheelTask task = this.head;
+			while (task != null) {
+				WheelTask next = task.next;
+				remove(task);
+				task.cancel(false);
+				task = next;
+			}
+		}
+
+	}
+
+	/**
+	 * The periodic task: the next execution is scheduled according to the {@link Trigger}
+	 * after the current one has been completed.
+	 */
+	private final class TriggerTask implements Runnable, ScheduledFuture<Object> {
+
+		private final Runnable task;
+
+		private final Trigger trigger;
+
+		private final SimpleTriggerContext triggerContext = new SimpleTriggerContext(getClock());
+
+		private final Lock lock = new ReentrantLock();
+
+		@Nullable
+		private WheelTask current;
+
+		@Nullable
+		private Instant scheduledExecutionTime;
+
+		private volatile boolean cancelled;
+
+		TriggerTask(Runnable task, Trigger trigger) {
+			this.task = task;
+			this.trigger = trigger;
+		}
+
+		@Nullable
+		ScheduledFuture<?> schedule() {
+			this.lock.lock();
+			try {
+				Instant nextExecution = this.trigger.nextExecution(this.triggerContext);
+				if (nextExecution == null) {
+					return null;
+				}
+				this.scheduledExecutionTime = nextExecution;
+				this.current = newTask(this, nextExecution);
+				return this;
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+
+		@Override
+		public void run() {
+			Instant actualExecutionTime = this.triggerContext.getClock().instant();
+			this.task.run();
+			Instant completionTime = this.triggerContext.getClock().instant();
+			this.lock.lock();
+			try {
+				this.triggerContext.update(this.scheduledExecutionTime, actualExecutionTime, completionTime);
+				if (!this.cancelled && HashedWheelTaskScheduler.this.state.get() == STATE_STARTED) {
+					schedule();
+				}
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			this.lock.lock();
+			try {
+				this.cancelled = true;
+				return obtainCurrent().cancel(mayInterruptIfRunning);
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return this.cancelled;
+		}
+
+		@Override
+		public boolean isDone() {
+			return obtainCurrent().isDone();
+		}
+
+		@Override
+		public Object get() throws InterruptedException, ExecutionException {
+			return obtainCurrent().get();
+		}
+
+		@Override
+		public Object get(long timeout, TimeUnit unit)
+				throws InterruptedException, ExecutionException, TimeoutException {
+
+			return obtainCurrent().get(timeout, unit);
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return obtainCurrent().getDelay(unit);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			return obtainCurrent().compareTo(other);
+		}
+
+		private WheelTask obtainCurrent() {
+			this.lock.lock();
+			try {
+				WheelTask wheelTask = this.current;
+				Assert.state(wheelTask != null, "No current execution");
+				return wheelTask;
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -62,6 +62,8 @@ public class PollerMetadata {
 
 	private long receiveTimeout = DEFAULT_RECEIVE_TIMEOUT;
 
+	private int receiveBatchSize = 1;
+
 	private ErrorHandler errorHandler;
 
 	private List<Advice> adviceChain;
@@ -123,6 +125,24 @@ public class PollerMetadata {
 		return this.receiveTimeout;
 	}
 
+	/**
+	 * Set the maximum number of messages to receive in one batch from a
+	 * {@link org.springframework.integration.channel.BatchPollableChannel}.
+	 * Only applies to a {@link org.springframework.integration.endpoint.PollingConsumer}.
+	 * <p>The default is {@code 1} - no batching.
+	 * @param receiveBatchSize the max number of messages in a batch.
+	 * @since 6.2
+	 * @see org.springframework.integration.endpoint.PollingConsumer#setReceiveBatchSize(int)
+	 */
+	public void setReceiveBatchSize(int receiveBatchSize) {
+		Assert.isTrue(receiveBatchSize > 0, "'receiveBatchSize' must be greater than 0");
+		this.receiveBatchSize = receiveBatchSize;
+	}
+
+	public int getReceiveBatchSize() {
+		return this.receiveBatchSize;
+	}
+
 	public void setAdviceChain(List<Advice> adviceChain) {
 		this.adviceChain = adviceChain;
 	}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2019 the original author or authors.
+ * Copyright 2015-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -29,8 +29,14 @@ public abstract class AbstractBatchingMessageGroupStore implements BasicMessageG
 
 	private static final int DEFAULT_REMOVE_BATCH_SIZE = 100;
 
+	private static final int DEFAULT_ADD_BATCH_SIZE = 100;
+
 	private volatile int removeBatchSize = DEFAULT_REMOVE_BATCH_SIZE;
 
+	private volatile int addBatchSize = DEFAULT_ADD_BATCH_SIZE;
+
+	private volatile int loadBatchSize;
+
 	private volatile MessageGroupFactory messageGroupFactory = new SimpleMessageGroupFactory();
 
 	/**
@@ -48,6 +54,48 @@ public abstract class AbstractBatchingMessageGroupStore implements BasicMessageG
 		return this.removeBatchSize;
 	}
 
+	/**
+	 * Set the batch size when bulk adding messages to groups for message stores
+	 * that support batch insert.
+	 * Default 100.
+	 * @param addBatchSize the batch size.
+	 * @since 6.2
+	 */
+	public void setAddBatchSize(int addBatchSize) {
+		Assert.isTrue(addBatchSize > 0, "'addBatchSize' must be greater than 0");
+		this.addBatchSize = addBatchSize;
+	}
+
+	public int getAddBatchSize() {
+		return this.addBatchSize;
+	}
+
+	/**
+	 * Set the number of messages to load at once when iterating over messages of a group,
+	 * for message stores that support paged loading via
+	 * {@link MessageGroupStore#iterateMessagesForGroup(Object)}.
+	 * A lazy-loaded group with more messages than this number is then iterated
+	 * page by page instead of loading all its messages into memory.
+	 * Default 0 - load all the messages of the group at once.
+	 * @param loadBatchSize the batch size.
+	 * @since 6.2
+	 */
+	public void setLoadBatchSize(int loadBatchSize) {
+		Assert.isTrue(loadBatchSize >= 0, "'loadBatchSize' must not be negative");
+		this.loadBatchSize = loadBatchSize;
+	}
+
+	/**
+	 * Return the number of messages to load from the store at once
+	 * when a lazy-loaded group is iterated.
+	 * @return the batch size; {@code 0} means the whole group is loaded at once.
+	 * @since 6.2
+	 * @see #setLoadBatchSize(int)
+	 */
+	public int getLoadBatchSize() {
+		return this.loadBatchSize;
+	}
+
 	/**
 	 * Specify the {@link MessageGroupFactory} to create {@link MessageGroup} object where
 	 * it is necessary.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,9 +21,11 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import org.springframework.jmx.export.annotation.ManagedAttribute;
@@ -357,6 +359,36 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 		return messages;
 	}
 
+	/**
+	 * Return an iterator which retrieves the messages of the group from the store
+	 * in pages of the {@link #setLoadBatchSize(int)} size
+	 * using the {@link #doRetrieveAll(Collection)} for every page.
+	 * Falls back to the whole group loading if the batch size is not configured.
+	 * @param groupId the group id.
+	 * @return the iterator over messages in the group.
+	 * @since 6.2
+	 */
+	@Override
+	public Iterator<Message<?>> iterateMessagesForGroup(Object groupId) {
+		int pageSize = getLoadBatchSize();
+		MessageGroupMetadata groupMetadata = getGroupMetadata(groupId);
+		if (pageSize == 0 || groupMetadata == null) {
+			return super.iterateMessagesForGroup(groupId);
+		}
+		List<Object> messageKeys =
+				groupMetadata.getMessageIds()
+						.stream()
+						.map((messageId) -> this.messagePrefix + messageId)
+						.collect(Collectors.toList());
+		return IntStream.iterate(0, (from) -> from < messageKeys.size(), (from) -> from + pageSize)
+				.mapToObj((from) -> messageKeys.subList(from, Math.min(from + pageSize, messageKeys.size())))
+				.map(this::doRetrieveAll)
+				.flatMap(Collection::stream)
+				.filter(Objects::nonNull)
+				.<Message<?>>map(this::extractMessage)
+				.iterator();
+	}
+
 	@Override
 	public Stream<Message<?>> streamMessagesForGroup(Object groupId) {
 		return getGroupMetadata(groupId)
@@ -402,6 +434,23 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 
 	protected abstract Object doRetrieve(Object id);
 
+	/**
+	 * Retrieve objects for the provided keys.
+	 * The result may contain {@code null} for keys without values.
+	 * The default implementation calls {@link #doRetrieve(Object)} for each key;
+	 * override it if the target store can fetch several keys at once.
+	 * @param ids the keys to retrieve.
+	 * @return the retrieved objects.
+	 * @since 6.2
+	 */
+	protected Collection<?> doRetrieveAll(Collection<Object> ids) {
+		List<Object> objects = new ArrayList<>(ids.size());
+		for (Object id : ids) {
+			objects.add(doRetrieve(id));
+		}
+		return objects;
+	}
+
 	protected abstract void doStore(Object id, Object objectToStore);
 
 	protected abstract void doStoreIfAbsent(Object id, Object objectToStore);
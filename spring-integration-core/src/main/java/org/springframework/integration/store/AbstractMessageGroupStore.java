@@ -132,7 +132,7 @@ public abstract class AbstractMessageGroupStore extends AbstractBatchingMessageG
 		try {
 			int count = 0;
 			long threshold = System.currentTimeMillis() - timeout;
-			for (MessageGroup group : this) {
+			for (MessageGroup group : messageGroupsToExpire(threshold)) {
 
 				long timestamp = group.getTimestamp();
 				if (this.isTimeoutOnIdle() && group.getLastModified() > 0) {
@@ -151,6 +151,22 @@ public abstract class AbstractMessageGroupStore extends AbstractBatchingMessageG
 		}
 	}
 
+	/**
+	 * Return the message groups to check for expiry against the provided threshold in the
+	 * {@link #expireMessageGroups(long)}.
+	 * The result must contain at least all the groups with a timestamp (or last modified time
+	 * if {@link #isTimeoutOnIdle()}) before or equal to the threshold; other groups are skipped.
+	 * The default implementation returns all the groups in this store.
+	 * Stores which maintain an index by group timestamp should override this method
+	 * to avoid a full iteration over the store on every expiry cycle.
+	 * @param threshold the epoch milliseconds to expire groups older than.
+	 * @return the groups to check for expiry.
+	 * @since 6.2
+	 */
+	protected Iterable<MessageGroup> messageGroupsToExpire(long threshold) {
+		return this;
+	}
+
 	/**
 	 * Used by expireMessageGroups. We need to return a snapshot of the group
 	 * at the time the reaper runs, so we can properly detect if the
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,11 @@
 
 package org.springframework.integration.store;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.messaging.Message;
+
 /**
  * A marker interface that indicates this message store has optimizations for
  * use in a {@link org.springframework.integration.channel.QueueChannel}.
@@ -26,4 +31,24 @@ package org.springframework.integration.store;
  */
 public interface ChannelMessageStore extends BasicMessageGroupStore {
 
+	/**
+	 * Poll up to {@code maxMessages} messages from the group in their queue order.
+	 * The default implementation calls {@link #pollMessageFromGroup(Object)} until the group
+	 * is exhausted or the requested number of messages is polled.
+	 * Implementations are encouraged to override this method if the target store can
+	 * retrieve and remove several messages in a single operation.
+	 * @param groupId the group id to poll messages from.
+	 * @param maxMessages the maximum number of messages to poll.
+	 * @return the polled messages; never null, but may be empty.
+	 * @since 6.2
+	 */
+	default List<Message<?>> pollMessagesFromGroup(Object groupId, int maxMessages) {
+		List<Message<?>> messages = new ArrayList<>();
+		Message<?> message;
+		while (messages.size() < maxMessages && (message = pollMessageFromGroup(groupId)) != null) {
+			messages.add(message);
+		}
+		return messages;
+	}
+
 }
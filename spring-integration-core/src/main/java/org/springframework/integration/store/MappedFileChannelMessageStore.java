@@ -0,0 +1,778 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.store;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.serializer.Deserializer;
+import org.springframework.core.serializer.Serializer;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.integration.IntegrationMessageHeaderAccessor;
+import org.springframework.integration.support.converter.AllowListDeserializingConverter;
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.Message;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * A {@link PriorityCapableChannelMessageStore} which keeps messages in local
+ * memory-mapped, append-only log files; intended as a durable backing store for the
+ * {@link org.springframework.integration.channel.QueueChannel} (via
+ * {@link MessageGroupQueue}) when a database is not available.
+ * <p>
+ * Each group is a directory under the provided base directory with a log per priority
+ * (only one log if priority is not enabled). A log consists of segment files named by
+ * their base offset and a consumer offset checkpoint file. Records are appended as
+ * {@code [length][crc32][serialized message]}; a new segment is rolled when the
+ * current one has no room for the next record, and the segments are deleted as soon as
+ * the consumer offset moves past them.
+ * <p>
+ * The data is written into mapped memory, so it survives a process crash as soon as
+ * the method returns. To survive an OS crash or power loss, the
+ * {@link #setFlushBatchSize(int) flushBatchSize} can be configured to force the
+ * changes to the storage device after that number of appends and polls (group commit);
+ * otherwise the changes are forced on {@link #flush()} and {@link #close()}.
+ * On restart the log is recovered from the consumer checkpoint: the records after it
+ * are verified against their checksums and a torn tail is truncated.
+ * Since the checkpoint may be behind the actual consumer position after a crash,
+ * the already polled messages may be redelivered.
+ * <p>
+ * With priority enabled, the messages are polled in the order of their
+ * {@link IntegrationMessageHeaderAccessor#PRIORITY} header from 9 to 0 and then
+ * those without a priority (or with a priority outside that range), each in FIFO order.
+ * <p>
+ * The mapped files are unmapped explicitly when their segments are deleted, their group
+ * is removed or the store is closed. The store cannot be used after {@link #close()}.
+ * Since Java has no public API to unmap a file, this relies on the
+ * {@code sun.misc.Unsafe.invokeCleaner()} from the {@code jdk.unsupported} module.
+ * If it is not available (e.g. in a custom runtime image without that module),
+ * an INFO message is logged and the files are unmapped only when their buffers are
+ * garbage collected: until then, the disk space of the deleted segments is not reclaimed,
+ * and on Windows the consumed segment files cannot be deleted until the next recovery.
+ * <p>
+ * The store is not intended to be shared between processes.
+ *
+ * @since 6.2
+ */
+public class MappedFileChannelMessageStore implements PriorityCapableChannelMessageStore, DisposableBean,
+		Closeable, Flushable {
+
+	/**
+	 * The default size of the segment file: 16 MiB.
+	 */
+	public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+	private static final Log LOGGER = LogFactory.getLog(MappedFileChannelMessageStore.class);
+
+	private static final int HEADER_SIZE = 8;
+
+	private static final int END_OF_SEGMENT = -1;
+
+	private static final int MAX_PRIORITY = 9;
+
+	private static final String SEGMENT_SUFFIX = ".segment";
+
+	private static final String CHECKPOINT_FILE = "consumer.offset";
+
+	private static final String DEFAULT_LOG = "default";
+
+	private final Map<Object, GroupLogs> groups = new ConcurrentHashMap<>();
+
+	private final Path baseDirectory;
+
+	private int segmentSize = DEFAULT_SEGMENT_SIZE;
+
+	private int flushBatchSize;
+
+	private boolean priorityEnabled;
+
+	private SerializingConverter serializer = new SerializingConverter();
+
+	private AllowListDeserializingConverter deserializer = new AllowListDeserializingConverter();
+
+	private MessageGroupFactory messageGroupFactory = new SimpleMessageGroupFactory();
+
+	private volatile boolean closed;
+
+	/**
+	 * Construct an instance based on the provided directory.
+	 * The directory is created if it doesn't exist.
+	 * @param baseDirectory the directory for the group logs.
+	 */
+	public MappedFileChannelMessageStore(File baseDirectory) {
+		Assert.notNull(baseDirectory, "'baseDirectory' must not be null");
+		this.baseDirectory = baseDirectory.toPath();
+		try {
+			Files.createDirectories(this.baseDirectory);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Failed to create directory " + baseDirectory, ex);
+		}
+	}
+
+	/**
+	 * Set the size of the segment files; a message which does not fit into a segment of
+	 * this size is written into a segment of its own.
+	 * Defaults to {@value #DEFAULT_SEGMENT_SIZE}.
+	 * Must be set before the store is used; the existing segments keep their size.
+	 * @param segmentSize the segment size in bytes.
+	 */
+	public void setSegmentSize(int segmentSize) {
+		Assert.isTrue(segmentSize > HEADER_SIZE, () -> "'segmentSize' must be greater than " + HEADER_SIZE);
+		this.segmentSize = segmentSize;
+	}
+
+	/**
+	 * Set the number of appends and polls on a group log after which the changes are
+	 * forced to the storage device.
+	 * Defaults to 0 - the changes are forced only on {@link #flush()} and {@link #close()}
+	 * leaving it to the OS otherwise; {@code 1} means force on every operation.
+	 * @param flushBatchSize the number of operations to force the changes after.
+	 */
+	public void setFlushBatchSize(int flushBatchSize) {
+		Assert.isTrue(flushBatchSize >= 0, "'flushBatchSize' must not be negative");
+		this.flushBatchSize = flushBatchSize;
+	}
+
+	/**
+	 * Enable messages ordering by their {@link IntegrationMessageHeaderAccessor#PRIORITY}
+	 * header. Must be set before the store is used: the logs created with one setting
+	 * are not visible with another.
+	 * @param priorityEnabled true to enable priority.
+	 */
+	public void setPriorityEnabled(boolean priorityEnabled) {
+		this.priorityEnabled = priorityEnabled;
+	}
+
+	@Override
+	public boolean isPriorityEnabled() {
+		return this.priorityEnabled;
+	}
+
+	/**
+	 * A converter for serializing messages to byte arrays for storage.
+	 * @param serializer The serializer to set
+	 */
+	@SuppressWarnings("unchecked")
+	public void setSerializer(Serializer<? super Message<?>> serializer) {
+		Assert.notNull(serializer, "The provided serializer must not be null.");
+		this.serializer = new SerializingConverter((Serializer<Object>) serializer);
+	}
+
+	/**
+	 * A converter for deserializing byte arrays to messages.
+	 * @param deserializer the deserializer to set
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void setDeserializer(Deserializer<? extends Message<?>> deserializer) {
+		this.deserializer = new AllowListDeserializingConverter((Deserializer) deserializer);
+	}
+
+	/**
+	 * Add patterns for packages/classes that are allowed to be deserialized. A class can
+	 * be fully qualified or a wildcard '*' is allowed at the beginning or end of the
+	 * class name. Examples: {@code com.foo.*}, {@code *.MyClass}.
+	 * @param patterns the patterns.
+	 */
+	public void addAllowedPatterns(String... patterns) {
+		this.deserializer.addAllowedPatterns(patterns);
+	}
+
+	/**
+	 * Specify the {@link MessageGroupFactory} to create {@link MessageGroup} object where
+	 * it is necessary.
+	 * Defaults to {@link SimpleMessageGroupFactory}.
+	 * @param messageGroupFactory the {@link MessageGroupFactory} to use.
+	 */
+	public void setMessageGroupFactory(MessageGroupFactory messageGroupFactory) {
+		Assert.notNull(messageGroupFactory, "'messageGroupFactory' must not be null");
+		this.messageGroupFactory = messageGroupFactory;
+	}
+
+	protected MessageGroupFactory getMessageGroupFactory() {
+		return this.messageGroupFactory;
+	}
+
+	@Override
+	public int messageGroupSize(Object groupId) {
+		return doWithGroupLogs(groupId, (groupLogs) -> {
+			int size = 0;
+			for (MessageLog log : groupLogs.logs) {
+				size += log.count;
+			}
+			return size;
+		});
+	}
+
+	/**
+	 * Return a snapshot of the messages in the group in the order they would be polled.
+	 * All the messages are read from the log, so use with care on large groups.
+	 * @param groupId The group identifier.
+	 * @return the group of messages.
+	 */
+	@Override
+	public MessageGroup getMessageGroup(Object groupId) {
+		List<byte[]> records = doWithGroupLogs(groupId, (groupLogs) -> {
+			List<byte[]> groupRecords = new ArrayList<>();
+			for (MessageLog log : groupLogs.logs) {
+				log.readAll(groupRecords);
+			}
+			return groupRecords;
+		});
+		List<Message<?>> messages = new ArrayList<>(records.size());
+		for (byte[] record : records) {
+			messages.add(deserialize(record));
+		}
+		return getMessageGroupFactory().create(messages, groupId);
+	}
+
+	@Override
+	public MessageGroup addMessageToGroup(Object groupId, Message<?> message) {
+		byte[] record = this.serializer.convert(message);
+		int logIndex = logIndex(message);
+		doWithGroupLogs(groupId, (groupLogs) -> {
+			groupLogs.logs[logIndex].append(record);
+			return null;
+		});
+		return getMessageGroupFactory().create(groupId);
+	}
+
+	@Override
+	@Nullable
+	public Message<?> pollMessageFromGroup(Object groupId) {
+		byte[] record = doWithGroupLogs(groupId, (groupLogs) -> {
+			for (MessageLog log : groupLogs.logs) {
+				byte[] polled = log.poll();
+				if (polled != null) {
+					return polled;
+				}
+			}
+			return null;
+		});
+		return record != null ? deserialize(record) : null;
+	}
+
+	@Override
+	public void removeMessageGroup(Object groupId) {
+		Assert.notNull(groupId, "'groupId' must not be null");
+		assertNotClosed();
+		this.groups.compute(groupId, (key, groupLogs) -> {
+			GroupLogs toRemove = groupLogs != null ? groupLogs : new GroupLogs(groupDirectory(key));
+			toRemove.lock.lock();
+			try {
+				toRemove.release();
+				FileSystemUtils.deleteRecursively(toRemove.directory);
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException("Failed to remove group " + key, ex);
+			}
+			finally {
+				toRemove.lock.unlock();
+			}
+			return null;
+		});
+	}
+
+	/**
+	 * Force all the changes in the group logs to the storage device.
+	 */
+	@Override
+	public void flush() {
+		for (GroupLogs groupLogs : this.groups.values()) {
+			groupLogs.lock.lock();
+			try {
+				if (!groupLogs.released) {
+					for (MessageLog log : groupLogs.logs) {
+						log.force();
+					}
+				}
+			}
+			finally {
+				groupLogs.lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Flush the group logs and unmap their files.
+	 * The store cannot be used afterwards: a new instance recovers the logs from the files.
+	 */
+	@Override
+	public void close() {
+		this.closed = true;
+		Iterator<GroupLogs> iterator = this.groups.values().iterator();
+		while (iterator.hasNext()) {
+			GroupLogs groupLogs = iterator.next();
+			groupLogs.lock.lock();
+			try {
+				if (!groupLogs.released) {
+					for (MessageLog log : groupLogs.logs) {
+						log.force();
+					}
+					groupLogs.release();
+				}
+			}
+			finally {
+				groupLogs.lock.unlock();
+			}
+			iterator.remove();
+		}
+	}
+
+	@Override
+	public void destroy() {
+		close();
+	}
+
+	/**
+	 * Perform the action on the group logs under their lock.
+	 * The logs released by a concurrent {@link #removeMessageGroup(Object)} are replaced
+	 * with fresh ones, so nothing is written into the removed group directory.
+	 */
+	@Nullable
+	private <T> T doWithGroupLogs(Object groupId, Function<GroupLogs, T> action) {
+		Assert.notNull(groupId, "'groupId' must not be null");
+		while (true) {
+			assertNotClosed();
+			GroupLogs groupLogs = this.groups.computeIfAbsent(groupId, (key) -> new GroupLogs(groupDirectory(key)));
+			groupLogs.lock.lock();
+			try {
+				if (this.closed) {
+					groupLogs.release(); // created concurrently with close()
+				}
+				else if (!groupLogs.released) {
+					return action.apply(groupLogs);
+				}
+			}
+			finally {
+				groupLogs.lock.unlock();
+			}
+		}
+	}
+
+	private void assertNotClosed() {
+		Assert.state(!this.closed, "The store is closed");
+	}
+
+	private Path groupDirectory(Object groupId) {
+		String name =
+				URLEncoder.encode(groupId.toString(), StandardCharsets.UTF_8)
+						.replace(".", "%2E")
+						.replace("*", "%2A");
+		return this.baseDirectory.resolve(name);
+	}
+
+	private int logIndex(Message<?> message) {
+		if (this.priorityEnabled) {
+			Integer priority = new IntegrationMessageHeaderAccessor(message).getPriority();
+			if (priority != null && priority >= 0 && priority <= MAX_PRIORITY) {
+				return MAX_PRIORITY - priority;
+			}
+			return MAX_PRIORITY + 1;
+		}
+		return 0;
+	}
+
+	private Message<?> deserialize(byte[] record) {
+		return (Message<?>) this.deserializer.convert(record);
+	}
+
+	private static long crc(byte[] data) {
+		CRC32 crc32 = new CRC32();
+		crc32.update(data);
+		return crc32.getValue();
+	}
+
+	private final class GroupLogs {
+
+		private final Lock lock = new ReentrantLock();
+
+		private final Path directory;
+
+		private final MessageLog[] logs;
+
+		private boolean released;
+
+		GroupLogs(Path directory) {
+			this.directory = directory;
+			if (MappedFileChannelMessageStore.this.priorityEnabled) {
+				this.logs = new MessageLog[MAX_PRIORITY + 2];
+				for (int i = 0; i <= MAX_PRIORITY; i++) {
+					this.logs[i] = new MessageLog(directory.resolve("priority-" + (MAX_PRIORITY - i)));
+				}
+				this.logs[MAX_PRIORITY + 1] = new MessageLog(directory.resolve(DEFAULT_LOG));
+			}
+			else {
+				this.logs = new MessageLog[] { new MessageLog(directory.resolve(DEFAULT_LOG)) };
+			}
+		}
+
+		/**
+		 * Unmap the log files; must be called under the lock.
+		 * The instance cannot be used afterwards.
+		 */
+		void release() {
+			for (MessageLog log : this.logs) {
+				log.clear();
+			}
+			this.released = true;
+		}
+
+	}
+
+	/**
+	 * An append-only log of segments with a consumer offset.
+	 * The offsets are logical: a segment base offset plus a position in that segment,
+	 * so the next segment starts from the base offset plus the previous segment size.
+	 * Not thread-safe: guarded by the {@link GroupLogs#lock}.
+	 */
+	private final class MessageLog {
+
+		private final TreeMap<Long, MappedByteBuffer> segments = new TreeMap<>();
+
+		private final Path directory;
+
+		private MappedByteBuffer checkpoint;
+
+		private long readOffset;
+
+		private long writeOffset;
+
+		private int count;
+
+		private int unflushed;
+
+		MessageLog(Path directory) {
+			this.directory = directory;
+			if (Files.isDirectory(directory)) {
+				recover();
+			}
+		}
+
+		void append(byte[] record) {
+			int recordSize = HEADER_SIZE + record.length;
+			Map.Entry<Long, MappedByteBuffer> segment = this.segments.floorEntry(this.writeOffset);
+			if (segment == null || segment.getKey() + segment.getValue().capacity() < this.writeOffset + recordSize) {
+				segment = rollSegment(segment, recordSize);
+			}
+			MappedByteBuffer buffer = segment.getValue();
+			int position = (int) (this.writeOffset - segment.getKey());
+			buffer.put(position + HEADER_SIZE, record);
+			buffer.putInt(position + 4, (int) crc(record));
+			buffer.putInt(position, record.length);
+			this.writeOffset += recordSize;
+			this.count++;
+			operationDone();
+		}
+
+		@Nullable
+		byte[] poll() {
+			if (this.count == 0) {
+				return null;
+			}
+			Map.Entry<Long, MappedByteBuffer> segment = this.segments.floorEntry(this.readOffset);
+			int position = (int) (this.readOffset - segment.getKey());
+			if (isEndOfSegment(segment.getValue(), position)) {
+				this.readOffset = segment.getKey() + segment.getValue().capacity();
+				segment = this.segments.floorEntry(this.readOffset);
+				position = 0;
+			}
+			while (this.segments.firstKey() < segment.getKey()) {
+				deleteSegment(this.segments.firstKey());
+			}
+			MappedByteBuffer buffer = segment.getValue();
+			byte[] record = readRecord(buffer, position, buffer.getInt(position));
+			this.readOffset += HEADER_SIZE + record.length;
+			this.count--;
+			this.checkpoint.putLong(0, this.readOffset);
+			operationDone();
+			return record;
+		}
+
+		void readAll(List<byte[]> records) {
+			long offset = this.readOffset;
+			for (int i = 0; i < this.count; i++) {
+				Map.Entry<Long, MappedByteBuffer> segment = this.segments.floorEntry(offset);
+				int position = (int) (offset - segment.getKey());
+				if (isEndOfSegment(segment.getValue(), position)) {
+					offset = segment.getKey() + segment.getValue().capacity();
+					segment = this.segments.floorEntry(offset);
+					position = 0;
+				}
+				MappedByteBuffer buffer = segment.getValue();
+				byte[] record = readRecord(buffer, position, buffer.getInt(position));
+				records.add(record);
+				offset += HEADER_SIZE + record.length;
+			}
+		}
+
+		void force() {
+			if (this.checkpoint != null) {
+				for (MappedByteBuffer segment : this.segments.values()) {
+					segment.force();
+				}
+				this.checkpoint.force();
+			}
+			this.unflushed = 0;
+		}
+
+		void clear() {
+			this.segments.values().forEach(BufferUnmapper::unmap);
+			this.segments.clear();
+			if (this.checkpoint != null) {
+				BufferUnmapper.unmap(this.checkpoint);
+			}
+			this.checkpoint = null;
+			this.count = 0;
+			this.readOffset = 0;
+			this.writeOffset = 0;
+		}
+
+		private void operationDone() {
+			int batchSize = MappedFileChannelMessageStore.this.flushBatchSize;
+			if (batchSize > 0 && ++this.unflushed >= batchSize) {
+				force();
+			}
+		}
+
+		private Map.Entry<Long, MappedByteBuffer> rollSegment(@Nullable Map.Entry<Long, MappedByteBuffer> current,
+				int recordSize) {
+
+			long baseOffset = this.writeOffset;
+			if (current != null) {
+				MappedByteBuffer buffer = current.getValue();
+				int position = (int) (this.writeOffset - current.getKey());
+				if (buffer.capacity() - position >= 4) { // NOSONAR magic number
+					buffer.putInt(position, END_OF_SEGMENT);
+				}
+				if (MappedFileChannelMessageStore.this.flushBatchSize > 0) {
+					buffer.force();
+				}
+				baseOffset = current.getKey() + buffer.capacity();
+			}
+			else if (this.checkpoint == null) {
+				try {
+					Files.createDirectories(this.directory);
+				}
+				catch (IOException ex) {
+					throw new UncheckedIOException("Failed to create directory " + this.directory, ex);
+				}
+				this.checkpoint = map(this.directory.resolve(CHECKPOINT_FILE), Long.BYTES);
+				this.checkpoint.putLong(0, this.readOffset);
+			}
+			int size = Math.max(MappedFileChannelMessageStore.this.segmentSize, recordSize);
+			MappedByteBuffer buffer = map(segmentFile(baseOffset), size);
+			this.segments.put(baseOffset, buffer);
+			this.writeOffset = baseOffset;
+			return this.segments.lastEntry();
+		}
+
+		private void recover() {
+			Path checkpointFile = this.directory.resolve(CHECKPOINT_FILE);
+			if (!Files.exists(checkpointFile)) {
+				return;
+			}
+			this.checkpoint = map(checkpointFile, Long.BYTES);
+			this.readOffset = this.checkpoint.getLong(0);
+			try (Stream<Path> files = Files.list(this.directory)) {
+				Iterator<Path> iterator = files.iterator();
+				while (iterator.hasNext()) {
+					Path file = iterator.next();
+					String fileName = file.getFileName().toString();
+					if (fileName.endsWith(SEGMENT_SUFFIX)) {
+						long baseOffset = Long.parseLong(fileName.substring(0, fileName.indexOf('.')));
+						this.segments.put(baseOffset, map(file, (int) Files.size(file)));
+					}
+				}
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException("Failed to recover log " + this.directory, ex);
+			}
+			while (!this.segments.isEmpty()
+					&& this.segments.firstKey() + this.segments.firstEntry().getValue().capacity() <= this.readOffset) {
+
+				deleteSegment(this.segments.firstKey());
+			}
+			if (this.segments.isEmpty()) {
+				this.writeOffset = this.readOffset;
+			}
+			else {
+				this.readOffset = Math.max(this.readOffset, this.segments.firstKey());
+				scan();
+			}
+		}
+
+		/**
+		 * Find the write offset and the number of messages after the read offset,
+		 * truncating the log on the first record which fails verification.
+		 */
+		private void scan() {
+			long offset = this.readOffset;
+			Map.Entry<Long, MappedByteBuffer> segment = this.segments.floorEntry(offset);
+			while (true) {
+				MappedByteBuffer buffer = segment.getValue();
+				int position = (int) (offset - segment.getKey());
+				if (isEndOfSegment(buffer, position)) {
+					long nextOffset = segment.getKey() + buffer.capacity();
+					segment = this.segments.ceilingEntry(nextOffset);
+					if (segment == null || segment.getKey() != nextOffset) {
+						offset = nextOffset;
+						break;
+					}
+					offset = nextOffset;
+					continue;
+				}
+				int length = buffer.getInt(position);
+				if (length == 0) {
+					break;
+				}
+				if (length < 0 || position + HEADER_SIZE + length > buffer.capacity()
+						|| buffer.getInt(position + 4) != (int) crc(readRecord(buffer, position, length))) {
+
+					LOGGER.warn("Truncating the log " + this.directory + " at offset " + offset
+							+ " due to an incomplete record");
+					buffer.putInt(position, 0);
+					break;
+				}
+				offset += HEADER_SIZE + length;
+				this.count++;
+			}
+			this.writeOffset = offset;
+			while (!this.segments.isEmpty() && this.segments.lastKey() > offset) {
+				deleteSegment(this.segments.lastKey());
+			}
+		}
+
+		private void deleteSegment(long baseOffset) {
+			BufferUnmapper.unmap(this.segments.remove(baseOffset));
+			Path file = segmentFile(baseOffset);
+			try {
+				Files.deleteIfExists(file);
+			}
+			catch (IOException ex) {
+				LOGGER.warn("Failed to delete consumed segment " + file
+						+ "; it will be deleted on the next recovery", ex);
+			}
+		}
+
+		private Path segmentFile(long baseOffset) {
+			return this.directory.resolve(String.format("%020d", baseOffset) + SEGMENT_SUFFIX);
+		}
+
+		private boolean isEndOfSegment(MappedByteBuffer buffer, int position) {
+			return buffer.capacity() - position < HEADER_SIZE || buffer.getInt(position) == END_OF_SEGMENT;
+		}
+
+		private byte[] readRecord(MappedByteBuffer buffer, int position, int length) {
+			byte[] record = new byte[length];
+			buffer.get(position + HEADER_SIZE, record);
+			return record;
+		}
+
+		private MappedByteBuffer map(Path file, int size) {
+			try (FileChannel channel = FileChannel.open(file,
+					StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+
+				return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException("Failed to map file " + file, ex);
+			}
+		}
+
+	}
+
+	/**
+	 * The only place which unmaps the {@link MappedByteBuffer}s explicitly,
+	 * via the {@code sun.misc.Unsafe.invokeCleaner()} resolved reflectively.
+	 * If that is not available, an INFO message is logged once
+	 * and the buffers are left to the garbage collector.
+	 */
+	private static final class BufferUnmapper {
+
+		@Nullable
+		private static final Object UNSAFE;
+
+		@Nullable
+		private static final Method INVOKE_CLEANER;
+
+		static {
+			Object unsafe = null;
+			Method invokeCleaner = null;
+			try {
+				Class<?> unsafeClass = ClassUtils.forName("sun.misc.Unsafe", null);
+				Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+				ReflectionUtils.makeAccessible(theUnsafe);
+				unsafe = theUnsafe.get(null);
+				invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+			}
+			catch (Exception | LinkageError ex) {
+				LOGGER.info("The 'sun.misc.Unsafe.invokeCleaner()' is not available: "
+						+ "the mapped files are unmapped only when their buffers are garbage collected", ex);
+			}
+			UNSAFE = unsafe;
+			INVOKE_CLEANER = invokeCleaner;
+		}
+
+		private BufferUnmapper() {
+		}
+
+		static void unmap(@Nullable MappedByteBuffer buffer) {
+			if (buffer != null && INVOKE_CLEANER != null) {
+				try {
+					ReflectionUtils.invokeMethod(INVOKE_CLEANER, UNSAFE, buffer);
+				}
+				catch (RuntimeException ex) {
+					LOGGER.warn("Failed to unmap the buffer; relying on garbage collection", ex);
+				}
+			}
+		}
+
+	}
+
+}
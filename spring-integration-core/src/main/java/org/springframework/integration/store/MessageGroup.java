@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,9 +16,11 @@
 
 package org.springframework.integration.store;
 
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.stream.Stream;
 
+import org.springframework.integration.StaticMessageHeaderAccessor;
 import org.springframework.lang.Nullable;
 import org.springframework.messaging.Message;
 
@@ -104,6 +106,42 @@ public interface MessageGroup {
 	 */
 	int size();
 
+	/**
+	 * Return the lowest sequence number of the messages in this group;
+	 * a message without a sequence number header is considered as {@code 0}.
+	 * The default implementation scans all the messages in the group.
+	 * @return the lowest sequence number or {@code 0} if the group is empty.
+	 * @since 6.2
+	 */
+	default int getMinSequenceNumber() {
+		return getMessages()
+				.stream()
+				.mapToInt(StaticMessageHeaderAccessor::getSequenceNumber)
+				.min()
+				.orElse(0);
+	}
+
+	/**
+	 * Return the highest sequence number of the contiguous run of sequence numbers
+	 * starting from the {@link #getMinSequenceNumber()}.
+	 * For example, for the sequence numbers {@code 3, 4, 5, 7} the result is {@code 5}.
+	 * The default implementation scans all the messages in the group.
+	 * @return the end of the contiguous sequence run or
+	 * {@code getMinSequenceNumber() - 1} if the group is empty.
+	 * @since 6.2
+	 */
+	default int getContiguousSequenceEnd() {
+		int min = getMinSequenceNumber();
+		BitSet sequences = new BitSet();
+		for (Message<?> message : getMessages()) {
+			int sequence = StaticMessageHeaderAccessor.getSequenceNumber(message) - min;
+			if (sequence >= 0) {
+				sequences.set(sequence);
+			}
+		}
+		return min + sequences.nextClearBit(0) - 1;
+	}
+
 	/**
 	 * @return a single message from the group
 	 */
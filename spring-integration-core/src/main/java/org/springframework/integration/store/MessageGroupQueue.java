@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.util.AbstractQueue;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
@@ -54,6 +55,8 @@ public class MessageGroupQueue extends AbstractQueue<Message<?>> implements Bloc
 
 	private static final int DEFAULT_CAPACITY = Integer.MAX_VALUE;
 
+	private static final int DRAIN_BATCH_SIZE = 100;
+
 	private final BasicMessageGroupStore messageGroupStore;
 
 	private final Object groupId;
@@ -225,34 +228,62 @@ public class MessageGroupQueue extends AbstractQueue<Message<?>> implements Bloc
 		return this.drainTo(c, Integer.MAX_VALUE);
 	}
 
+	/**
+	 * Remove up to {@code maxElements} messages from the store into the collection.
+	 * The messages are polled from the store in chunks of up to 100,
+	 * releasing the lock in between, so draining a large queue neither loads it at once
+	 * nor removes it in a single store operation.
+	 * @param collection the collection to transfer messages into.
+	 * @param maxElements the maximum number of messages to transfer.
+	 * @return the number of messages transferred.
+	 */
 	@Override
 	public int drainTo(Collection<? super Message<?>> collection, int maxElements) {
 		Assert.notNull(collection, "'collection' must not be null");
 		int originalSize = collection.size();
-		ArrayList<Message<?>> list = new ArrayList<>();
-		final Lock lock = this.storeLock;
 		try {
-			lock.lockInterruptibly();
-			try {
-				Message<?> message = this.messageGroupStore.pollMessageFromGroup(this.groupId);
-				for (int i = 0; i < maxElements && message != null; i++) {
-					list.add(message);
-					message = this.messageGroupStore.pollMessageFromGroup(this.groupId);
+			int remaining = maxElements;
+			while (remaining > 0) {
+				int chunkSize = Math.min(remaining, DRAIN_BATCH_SIZE);
+				List<Message<?>> chunk = drainChunk(chunkSize);
+				collection.addAll(chunk);
+				remaining -= chunk.size();
+				if (chunk.size() < chunkSize) {
+					break;
 				}
-				this.messageStoreNotFull.signal();
-			}
-			finally {
-				lock.unlock();
 			}
 		}
 		catch (InterruptedException e) {
 			this.logger.warn("Queue may not have drained completely since this operation was interrupted", e);
 			Thread.currentThread().interrupt();
 		}
-		collection.addAll(list);
 		return collection.size() - originalSize;
 	}
 
+	private List<Message<?>> drainChunk(int maxElements) throws InterruptedException {
+		List<Message<?>> list = new ArrayList<>();
+		final Lock lock = this.storeLock;
+		lock.lockInterruptibly();
+		try {
+			if (this.messageGroupStore instanceof ChannelMessageStore channelMessageStore) {
+				list.addAll(channelMessageStore.pollMessagesFromGroup(this.groupId, maxElements));
+			}
+			else {
+				Message<?> message;
+				while (list.size() < maxElements
+						&& (message = this.messageGroupStore.pollMessageFromGroup(this.groupId)) != null) {
+
+					list.add(message);
+				}
+			}
+			this.messageStoreNotFull.signalAll();
+		}
+		finally {
+			lock.unlock();
+		}
+		return list;
+	}
+
 	@Override
 	public boolean offer(Message<?> message) {
 		boolean offered = true;
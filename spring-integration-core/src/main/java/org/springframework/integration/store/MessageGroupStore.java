@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -167,6 +167,22 @@ public interface MessageGroupStore extends BasicMessageGroupStore {
 		return getMessagesForGroup(groupId).stream();
 	}
 
+	/**
+	 * Return an iterator over messages stored in the provided group which loads them
+	 * from the store in pages.
+	 * Unlike the {@link #streamMessagesForGroup(Object)} result, this iterator does not hold
+	 * any resources between pages, so it does not have to be closed or fully consumed.
+	 * This way a large group can be processed with memory bounded by the page size.
+	 * By default, it iterates over a result of {@link #getMessagesForGroup(Object)}.
+	 * @param groupId the group id to retrieve messages.
+	 * @return the {@link Iterator} for messages in this group.
+	 * @since 6.2
+	 * @see AbstractBatchingMessageGroupStore#setLoadBatchSize(int)
+	 */
+	default Iterator<Message<?>> iterateMessagesForGroup(Object groupId) {
+		return getMessagesForGroup(groupId).iterator();
+	}
+
 	/**
 	 * Invoked when a MessageGroupStore expires a group.
 	 */
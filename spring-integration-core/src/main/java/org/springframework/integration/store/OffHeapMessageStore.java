@@ -0,0 +1,676 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import org.springframework.integration.codec.Codec;
+import org.springframework.integration.message.AdviceMessage;
+import org.springframework.integration.support.MutableMessage;
+import org.springframework.integration.support.MutableMessageHeaders;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.ErrorMessage;
+import org.springframework.messaging.support.GenericMessage;
+import org.springframework.util.Assert;
+
+/**
+ * The {@link MessageStore} and {@link MessageGroupStore} implementation which keeps messages
+ * encoded by the provided {@link Codec} (e.g. a
+ * {@link org.springframework.integration.codec.kryo.MessageCodec}) outside the Java heap,
+ * so a large amount of buffered messages does not contribute to the garbage collection pressure.
+ * <p>
+ * The memory is allocated on demand by direct {@link ByteBuffer} slabs of the
+ * {@code slabSize} (1 MiB by default) up to the {@code capacity} in bytes.
+ * A message is written into a slab with enough free space at its end.
+ * A slab with no live messages is reused from its start; when no slab has enough free space
+ * at its end and no more slabs can be allocated, a slab with enough space left by removed
+ * messages is compacted in place.
+ * A {@link MessageStoreException} is thrown if the message does not fit into the store.
+ * <p>
+ * Only messages are encoded: their classes, ids, timestamps and locations are kept on heap
+ * in a map by message id, and every group keeps the ids of its messages in an insertion-ordered
+ * hash set, so adding, polling and removing a message of a group are {@code O(1)}.
+ * The message is decoded into the class it was stored with, so the codec must support
+ * that class and the payload and header types of messages.
+ * Concurrent modifications of the same group must be guarded by the caller,
+ * e.g. the aggregator or the {@link MessageGroupQueue} lock.
+ * <p>
+ * This store is also a {@link ChannelMessageStore} to be used for a
+ * {@link org.springframework.integration.channel.QueueChannel} via the {@link MessageGroupQueue}.
+ *
+ * @since 6.2
+ */
+public class OffHeapMessageStore extends AbstractMessageGroupStore implements MessageStore, ChannelMessageStore {
+
+	/**
+	 * The default size of the memory slab - 1 MiB.
+	 */
+	public static final int DEFAULT_SLAB_SIZE = 1024 * 1024;
+
+	private static final String GROUP_ID_MUST_NOT_BE_NULL = "'groupId' must not be null";
+
+	private static final int COMPACTION_CHUNK_SIZE = 8 * 1024;
+
+	private final Map<UUID, Entry> messages = new ConcurrentHashMap<>();
+
+	private final Map<Object, Group> groups = new ConcurrentHashMap<>();
+
+	private final Lock memoryLock = new ReentrantLock();
+
+	private final List<Slab> slabs = new ArrayList<>();
+
+	private final byte[] compactionChunk = new byte[COMPACTION_CHUNK_SIZE];
+
+	private final Codec codec;
+
+	private final long capacity;
+
+	private final int slabSize;
+
+	private final int maxSlabs;
+
+	private Slab currentSlab;
+
+	private long usedBytes;
+
+	/**
+	 * Create an instance with the provided codec for messages and capacity in bytes.
+	 * @param codec the {@link Codec} to encode and decode messages.
+	 * @param capacity the maximum number of bytes to allocate for messages.
+	 */
+	public OffHeapMessageStore(Codec codec, long capacity) {
+		this(codec, capacity, DEFAULT_SLAB_SIZE);
+	}
+
+	/**
+	 * Create an instance with the provided codec for messages, capacity in bytes
+	 * and the size of memory slabs to allocate.
+	 * The capacity is rounded up to the whole number of slabs.
+	 * An encoded message cannot be larger than a slab.
+	 * @param codec the {@link Codec} to encode and decode messages.
+	 * @param capacity the maximum number of bytes to allocate for messages.
+	 * @param slabSize the number of bytes in a single memory slab.
+	 */
+	public OffHeapMessageStore(Codec codec, long capacity, int slabSize) {
+		Assert.notNull(codec, "'codec' must not be null");
+		Assert.isTrue(slabSize > 0, "'slabSize' must be greater than 0");
+		Assert.isTrue(capacity >= slabSize, "'capacity' must not be less than 'slabSize'");
+		this.codec = codec;
+		this.slabSize = slabSize;
+		long slabsForCapacity = (capacity + slabSize - 1) / slabSize;
+		Assert.isTrue(slabsForCapacity <= Integer.MAX_VALUE, "'capacity' is too big for the 'slabSize'");
+		this.maxSlabs = (int) slabsForCapacity;
+		this.capacity = this.maxSlabs * (long) slabSize;
+	}
+
+	/**
+	 * Return the maximum number of bytes this store can allocate for messages.
+	 * @return the capacity in bytes.
+	 */
+	@ManagedAttribute
+	public long getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Return the number of bytes of the currently stored encoded messages.
+	 * @return the used bytes.
+	 */
+	@ManagedAttribute
+	public long getUsedBytes() {
+		this.memoryLock.lock();
+		try {
+			return this.usedBytes;
+		}
+		finally {
+			this.memoryLock.unlock();
+		}
+	}
+
+	/**
+	 * Return the number of bytes in memory slabs allocated so far.
+	 * @return the allocated bytes.
+	 */
+	@ManagedAttribute
+	public long getAllocatedBytes() {
+		this.memoryLock.lock();
+		try {
+			return this.slabs.size() * (long) this.slabSize;
+		}
+		finally {
+			this.memoryLock.unlock();
+		}
+	}
+
+	// MessageStore methods
+
+	@Override
+	@Nullable
+	public Message<?> getMessage(UUID messageId) {
+		Assert.notNull(messageId, "'messageId' must not be null");
+		Entry entry = this.messages.get(messageId);
+		return entry != null ? read(entry) : null;
+	}
+
+	@Override
+	@Nullable
+	public MessageMetadata getMessageMetadata(UUID messageId) {
+		Assert.notNull(messageId, "'messageId' must not be null");
+		Entry entry = this.messages.get(messageId);
+		if (entry != null) {
+			MessageMetadata messageMetadata = new MessageMetadata(messageId);
+			messageMetadata.setTimestamp(entry.timestamp);
+			return messageMetadata;
+		}
+		return null;
+	}
+
+	@Override
+	public <T> Message<T> addMessage(Message<T> message) {
+		Assert.notNull(message, "'message' must not be null");
+		Entry entry = write(message);
+		Entry old = this.messages.put(entry.messageId, entry);
+		if (old != null) {
+			free(old);
+		}
+		return message;
+	}
+
+	@Override
+	@Nullable
+	public Message<?> removeMessage(UUID messageId) {
+		Assert.notNull(messageId, "'messageId' must not be null");
+		Entry entry = this.messages.remove(messageId);
+		if (entry != null) {
+			Message<?> message = read(entry);
+			free(entry);
+			return message;
+		}
+		return null;
+	}
+
+	@Override
+	@ManagedAttribute
+	public long getMessageCount() {
+		return this.messages.size();
+	}
+
+	// MessageGroupStore methods
+
+	@Override
+	public MessageGroup getMessageGroup(Object groupId) {
+		Assert.notNull(groupId, GROUP_ID_MUST_NOT_BE_NULL);
+		Group group = this.groups.get(groupId);
+		if (group != null) {
+			MessageGroup messageGroup =
+					getMessageGroupFactory().create(this, groupId, group.timestamp, group.complete);
+			messageGroup.setLastModified(group.lastModified);
+			messageGroup.setLastReleasedMessageSequenceNumber(group.lastReleasedMessageSequenceNumber);
+			messageGroup.setCondition(group.condition);
+			return messageGroup;
+		}
+		else {
+			return new SimpleMessageGroup(groupId);
+		}
+	}
+
+	@Override
+	public void addMessagesToGroup(Object groupId, Message<?>... messagesToAdd) {
+		Assert.notNull(groupId, GROUP_ID_MUST_NOT_BE_NULL);
+		Assert.notNull(messagesToAdd, "'messages' must not be null");
+		Group group = this.groups.computeIfAbsent(groupId, (key) -> new Group());
+		for (Message<?> message : messagesToAdd) {
+			UUID messageId = message.getHeaders().getId();
+			if (!this.messages.containsKey(messageId)) {
+				Entry entry = write(message);
+				if (this.messages.putIfAbsent(messageId, entry) != null) {
+					free(entry);
+				}
+			}
+			group.add(messageId);
+		}
+		group.lastModified = System.currentTimeMillis();
+	}
+
+	@Override
+	public void removeMessagesFromGroup(Object groupId, Collection<Message<?>> messagesToRemove) {
+		Assert.notNull(groupId, GROUP_ID_MUST_NOT_BE_NULL);
+		Assert.notNull(messagesToRemove, "'messages' must not be null");
+		Group group = this.groups.get(groupId);
+		if (group != null) {
+			for (Message<?> message : messagesToRemove) {
+				UUID messageId = message.getHeaders().getId();
+				group.remove(messageId);
+				freeMessage(messageId);
+			}
+			group.lastModified = System.currentTimeMillis();
+		}
+	}
+
+	@Override
+	public void completeGroup(Object groupId) {
+		Assert.notNull(groupId, GROUP_ID_MUST_NOT_BE_NULL);
+		Group group = this.groups.get(groupId);
+		if (group != null) {
+			group.complete = true;
+			group.lastModified = System.currentTimeMillis();
+		}
+	}
+
+	@Override
+	public void removeMessageGroup(Object groupId) {
+		Assert.notNull(groupId, GROUP_ID_MUST_NOT_BE_NULL);
+		Group group = this.groups.remove(groupId);
+		if (group != null) {
+			for (UUID messageId : group.messageIds()) {
+				freeMessage(messageId);
+			}
+		}
+	}
+
+	@Override
+	public void setGroupCondition(Object groupId, String condition) {
+		Group group = this.groups.get(groupId);
+		if (group != null) {
+			group.condition = condition;
+		}
+	}
+
+	@Override
+	public void setLastReleasedSequenceNumberForGroup(Object groupId, int sequenceNumber) {
+		Assert.notNull(groupId, GROUP_ID_MUST_NOT_BE_NULL);
+		Group group = this.groups.computeIfAbsent(groupId, (key) -> new Group());
+		group.lastReleasedMessageSequenceNumber = sequenceNumber;
+		group.lastModified = System.currentTimeMillis();
+	}
+
+	@Override
+	@Nullable
+	public Message<?> pollMessageFromGroup(Object groupId) {
+		Assert.notNull(groupId, GROUP_ID_MUST_NOT_BE_NULL);
+		Group group = this.groups.get(groupId);
+		if (group != null) {
+			UUID messageId = group.poll();
+			if (messageId != null) {
+				group.lastModified = System.currentTimeMillis();
+				return removeMessage(messageId);
+			}
+		}
+		return null;
+	}
+
+	@Override
+	@Nullable
+	public Message<?> getOneMessageFromGroup(Object groupId) {
+		Assert.notNull(groupId, GROUP_ID_MUST_NOT_BE_NULL);
+		Group group = this.groups.get(groupId);
+		if (group != null) {
+			UUID messageId = group.first();
+			if (messageId != null) {
+				return getMessage(messageId);
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public Collection<Message<?>> getMessagesForGroup(Object groupId) {
+		return streamMessagesForGroup(groupId).toList();
+	}
+
+	/**
+	 * Return an iterator which decodes the messages of the group one by one.
+	 * Only the ids of the messages in the group are copied up front.
+	 * @param groupId the group id.
+	 * @return the iterator over messages in the group.
+	 */
+	@Override
+	public Iterator<Message<?>> iterateMessagesForGroup(Object groupId) {
+		return streamMessagesForGroup(groupId).iterator();
+	}
+
+	@Override
+	public Stream<Message<?>> streamMessagesForGroup(Object groupId) {
+		Assert.notNull(groupId, GROUP_ID_MUST_NOT_BE_NULL);
+		Group group = this.groups.get(groupId);
+		if (group == null) {
+			return Stream.empty();
+		}
+		return group.messageIds()
+				.stream()
+				.<Message<?>>map(this::getMessage)
+				.filter(Objects::nonNull);
+	}
+
+	@Override
+	public int messageGroupSize(Object groupId) {
+		Assert.notNull(groupId, GROUP_ID_MUST_NOT_BE_NULL);
+		Group group = this.groups.get(groupId);
+		return group != null ? group.size() : 0;
+	}
+
+	@Override
+	public Iterator<MessageGroup> iterator() {
+		return new ArrayList<>(this.groups.keySet())
+				.stream()
+				.map(this::getMessageGroup)
+				.iterator();
+	}
+
+	@Override
+	@ManagedAttribute
+	public int getMessageGroupCount() {
+		return this.groups.size();
+	}
+
+	@Override
+	@ManagedAttribute
+	public int getMessageCountForAllMessageGroups() {
+		int count = 0;
+		for (Group group : this.groups.values()) {
+			count += group.size();
+		}
+		return count;
+	}
+
+	private void freeMessage(UUID messageId) {
+		Entry entry = this.messages.remove(messageId);
+		if (entry != null) {
+			free(entry);
+		}
+	}
+
+	private Entry write(Message<?> message) {
+		byte[] bytes;
+		try {
+			bytes = this.codec.encode(message);
+		}
+		catch (IOException ex) {
+			throw new MessageStoreException(message, "Failed to encode message", ex);
+		}
+		if (bytes.length > this.slabSize) {
+			throw new MessageStoreException(message,
+					"The encoded message of " + bytes.length + " bytes is larger than the slab size: "
+							+ this.slabSize);
+		}
+		this.memoryLock.lock();
+		try {
+			Slab slab = allocate(bytes.length);
+			if (slab == null) {
+				throw new MessageStoreException(message,
+						"Not enough space for the encoded message of " + bytes.length + " bytes; used "
+								+ this.usedBytes + " of " + this.capacity + " bytes capacity");
+			}
+			Entry entry = new Entry(slab, slab.position, bytes.length, message, System.currentTimeMillis());
+			slab.buffer.put(entry.offset, bytes);
+			slab.position += bytes.length;
+			slab.liveBytes += bytes.length;
+			slab.entries.add(entry);
+			this.usedBytes += bytes.length;
+			return entry;
+		}
+		finally {
+			this.memoryLock.unlock();
+		}
+	}
+
+	@Nullable
+	private Message<?> read(Entry entry) {
+		byte[] bytes = new byte[entry.length];
+		this.memoryLock.lock();
+		try {
+			if (!entry.slab.entries.contains(entry)) {
+				return null; // removed concurrently
+			}
+			entry.slab.buffer.get(entry.offset, bytes);
+		}
+		finally {
+			this.memoryLock.unlock();
+		}
+		try {
+			return restoreIdAndTimestamp(this.codec.decode(bytes, entry.type), entry);
+		}
+		catch (IOException ex) {
+			throw new MessageStoreException("Failed to decode message", ex);
+		}
+	}
+
+	/**
+	 * A codec may not preserve the {@link MessageHeaders#ID} and {@link MessageHeaders#TIMESTAMP}
+	 * (e.g. the {@link org.springframework.integration.codec.kryo.MessageCodec} generates new ones),
+	 * so restore them from the entry for a message with the same identity as the stored one.
+	 */
+	private static Message<?> restoreIdAndTimestamp(Message<?> message, Entry entry) {
+		MessageHeaders headers = message.getHeaders();
+		if (entry.messageId.equals(headers.getId()) && entry.messageTimestamp.equals(headers.getTimestamp())) {
+			return message;
+		}
+		Map<String, Object> headersToRestore = new HashMap<>(headers);
+		headersToRestore.put(MessageHeaders.ID, entry.messageId);
+		headersToRestore.put(MessageHeaders.TIMESTAMP, entry.messageTimestamp);
+		MutableMessageHeaders restoredHeaders = new MutableMessageHeaders(headersToRestore);
+		if (message instanceof ErrorMessage errorMessage) {
+			return new ErrorMessage(errorMessage.getPayload(), restoredHeaders, errorMessage.getOriginalMessage());
+		}
+		else if (message instanceof AdviceMessage<?> adviceMessage) {
+			return new AdviceMessage<>(adviceMessage.getPayload(), restoredHeaders, adviceMessage.getInputMessage());
+		}
+		else if (message instanceof GenericMessage<?>) {
+			return new GenericMessage<>(message.getPayload(), restoredHeaders);
+		}
+		else {
+			return new MutableMessage<>(message.getPayload(), headersToRestore);
+		}
+	}
+
+	private void free(Entry entry) {
+		this.memoryLock.lock();
+		try {
+			Slab slab = entry.slab;
+			if (slab.entries.remove(entry)) {
+				slab.liveBytes -= entry.length;
+				this.usedBytes -= entry.length;
+				if (slab.liveBytes == 0) {
+					slab.position = 0;
+				}
+			}
+		}
+		finally {
+			this.memoryLock.unlock();
+		}
+	}
+
+	/**
+	 * Find a slab with at least the requested number of free bytes at its end:
+	 * the current one, any other already allocated, a newly allocated one
+	 * or a compacted one with enough bytes left by removed messages.
+	 * Must be called under the memory lock.
+	 */
+	@Nullable
+	private Slab allocate(int length) {
+		if (this.currentSlab != null && this.currentSlab.freeAtEnd() >= length) {
+			return this.currentSlab;
+		}
+		for (Slab slab : this.slabs) {
+			if (slab.freeAtEnd() >= length) {
+				this.currentSlab = slab;
+				return slab;
+			}
+		}
+		if (this.slabs.size() < this.maxSlabs) {
+			Slab slab = new Slab(ByteBuffer.allocateDirect(this.slabSize));
+			this.slabs.add(slab);
+			this.currentSlab = slab;
+			return slab;
+		}
+		Slab candidate = null;
+		for (Slab slab : this.slabs) {
+			if (this.slabSize - slab.liveBytes >= length
+					&& (candidate == null || slab.liveBytes < candidate.liveBytes)) {
+
+				candidate = slab;
+			}
+		}
+		if (candidate != null) {
+			compact(candidate);
+			this.currentSlab = candidate;
+		}
+		return candidate;
+	}
+
+	/**
+	 * Move live messages of the slab to its start in their offset order.
+	 * Since a message is only moved towards the start, it is safe to copy it in chunks
+	 * even if its old and new places overlap.
+	 */
+	private void compact(Slab slab) {
+		int target = 0;
+		for (Entry entry : slab.entries) {
+			if (entry.offset != target) {
+				for (int copied = 0; copied < entry.length; copied += COMPACTION_CHUNK_SIZE) {
+					int chunk = Math.min(COMPACTION_CHUNK_SIZE, entry.length - copied);
+					slab.buffer.get(entry.offset + copied, this.compactionChunk, 0, chunk);
+					slab.buffer.put(target + copied, this.compactionChunk, 0, chunk);
+				}
+				entry.offset = target;
+			}
+			target += entry.length;
+		}
+		slab.position = target;
+	}
+
+	private final class Slab {
+
+		private final ByteBuffer buffer;
+
+		private final Set<Entry> entries = new LinkedHashSet<>();
+
+		private int position;
+
+		private int liveBytes;
+
+		Slab(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		int freeAtEnd() {
+			return OffHeapMessageStore.this.slabSize - this.position;
+		}
+
+	}
+
+	private static final class Group {
+
+		private final Set<UUID> messageIds = new LinkedHashSet<>();
+
+		private final long timestamp = System.currentTimeMillis();
+
+		private volatile long lastModified = this.timestamp;
+
+		private volatile boolean complete;
+
+		private volatile int lastReleasedMessageSequenceNumber;
+
+		@Nullable
+		private volatile String condition;
+
+		Group() {
+		}
+
+		synchronized void add(UUID messageId) {
+			this.messageIds.add(messageId);
+		}
+
+		synchronized void remove(UUID messageId) {
+			this.messageIds.remove(messageId);
+		}
+
+		@Nullable
+		synchronized UUID poll() {
+			Iterator<UUID> iterator = this.messageIds.iterator();
+			if (iterator.hasNext()) {
+				UUID messageId = iterator.next();
+				iterator.remove();
+				return messageId;
+			}
+			return null;
+		}
+
+		@Nullable
+		synchronized UUID first() {
+			Iterator<UUID> iterator = this.messageIds.iterator();
+			return iterator.hasNext() ? iterator.next() : null;
+		}
+
+		synchronized int size() {
+			return this.messageIds.size();
+		}
+
+		synchronized List<UUID> messageIds() {
+			return new ArrayList<>(this.messageIds);
+		}
+
+	}
+
+	private static final class Entry {
+
+		private final Slab slab;
+
+		private final int length;
+
+		private final Class<? extends Message<?>> type;
+
+		private final UUID messageId;
+
+		private final Long messageTimestamp;
+
+		private final long timestamp;
+
+		private int offset;
+
+		@SuppressWarnings("unchecked")
+		Entry(Slab slab, int offset, int length, Message<?> message, long timestamp) {
+			this.slab = slab;
+			this.offset = offset;
+			this.length = length;
+			this.type = (Class<? extends Message<?>>) message.getClass();
+			this.messageId = message.getHeaders().getId();
+			this.messageTimestamp = message.getHeaders().getTimestamp();
+			this.timestamp = timestamp;
+		}
+
+	}
+
+}
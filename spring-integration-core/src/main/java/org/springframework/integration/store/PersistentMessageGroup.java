@@ -259,10 +259,23 @@ class PersistentMessageGroup implements MessageGroup {
 
 		@Override
 		public Iterator<Message<?>> iterator() {
+			if (this.collection == null && isLoadInBatches()) {
+				Object groupId = PersistentMessageGroup.this.original.getGroupId();
+				if (LOGGER.isDebugEnabled()) {
+					LOGGER.debug("Iterating over messages in batches for messageGroup: " + groupId);
+				}
+				return PersistentMessageGroup.this.messageGroupStore.iterateMessagesForGroup(groupId);
+			}
 			load();
 			return this.collection.iterator();
 		}
 
+		private boolean isLoadInBatches() {
+			return PersistentMessageGroup.this.messageGroupStore instanceof AbstractBatchingMessageGroupStore store
+					&& store.getLoadBatchSize() > 0
+					&& size() > store.getLoadBatchSize();
+		}
+
 		@Override
 		public int size() {
 			return PersistentMessageGroup.this.size();
@@ -16,16 +16,19 @@
 
 package org.springframework.integration.store;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
-import java.util.Set;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.springframework.integration.IntegrationMessageHeaderAccessor;
+import org.springframework.integration.StaticMessageHeaderAccessor;
 import org.springframework.lang.Nullable;
 import org.springframework.messaging.Message;
 import org.springframework.util.Assert;
@@ -34,6 +37,11 @@ import org.springframework.util.Assert;
  * Represents a mutable group of correlated messages that is bound to a certain {@link MessageStore} and group id.
  * The group will grow during its lifetime, when messages are {@link #add}ed to it.
  * This MessageGroup is thread safe.
+ * <p>
+ * The sequence numbers of the messages are tracked in a compact bit set (or a sorted map
+ * when they are sparse) together with the lowest sequence number and the end of the
+ * contiguous run starting from it, so the {@link #containsSequence(Integer)}, {@link #getMinSequenceNumber()}
+ * and {@link #getContiguousSequenceEnd()} do not iterate the messages.
  *
  * @author Iwein Fuld
  * @author Oleg Zhurakousky
@@ -52,7 +60,9 @@ public class SimpleMessageGroup implements MessageGroup {
 
 	private final Collection<Message<?>> messages;
 
-	private final Set<Integer> sequences = new HashSet<>();
+	private final SequenceSet sequences = new SequenceSet();
+
+	private final boolean sequencesTracked;
 
 	private final long timestamp;
 
@@ -91,6 +101,7 @@ public class SimpleMessageGroup implements MessageGroup {
 		this.groupId = groupId;
 		this.timestamp = timestamp;
 		this.complete = complete;
+		this.sequencesTracked = !storePreLoaded;
 		if (!storePreLoaded) {
 			Assert.notNull(messages, "'messages' must not be null");
 			for (Message<?> message : messages) {
@@ -128,8 +139,11 @@ public class SimpleMessageGroup implements MessageGroup {
 
 	@Override
 	public boolean remove(Message<?> message) {
-		this.sequences.remove(message.getHeaders().get(IntegrationMessageHeaderAccessor.SEQUENCE_NUMBER));
-		return this.messages.remove(message);
+		boolean removed = this.messages.remove(message);
+		if (removed) {
+			this.sequences.remove(StaticMessageHeaderAccessor.getSequenceNumber(message));
+		}
+		return removed;
 	}
 
 	@Override
@@ -138,9 +152,11 @@ public class SimpleMessageGroup implements MessageGroup {
 	}
 
 	private boolean addMessage(Message<?> message) {
-		Integer sequence = message.getHeaders().get(IntegrationMessageHeaderAccessor.SEQUENCE_NUMBER, Integer.class);
-		this.sequences.add(sequence != null ? sequence : 0);
-		return this.messages.add(message);
+		boolean added = this.messages.add(message);
+		if (added) {
+			this.sequences.add(StaticMessageHeaderAccessor.getSequenceNumber(message));
+		}
+		return added;
 	}
 
 	@Override
@@ -181,6 +197,38 @@ public class SimpleMessageGroup implements MessageGroup {
 		return this.messages.size();
 	}
 
+	/**
+	 * Return the lowest sequence number of the messages in this group.
+	 * When the group is created on top of a pre-loaded message store,
+	 * the messages are scanned as in the {@link MessageGroup} default implementation.
+	 * @return the lowest sequence number or {@code 0} if the group is empty.
+	 * @since 6.2
+	 */
+	@Override
+	public int getMinSequenceNumber() {
+		if (this.sequencesTracked) {
+			return this.sequences.min();
+		}
+		return MessageGroup.super.getMinSequenceNumber();
+	}
+
+	/**
+	 * Return the highest sequence number of the contiguous run of sequence numbers
+	 * starting from the {@link #getMinSequenceNumber()}.
+	 * When the group is created on top of a pre-loaded message store,
+	 * the messages are scanned as in the {@link MessageGroup} default implementation.
+	 * @return the end of the contiguous sequence run or
+	 * {@code getMinSequenceNumber() - 1} if the group is empty.
+	 * @since 6.2
+	 */
+	@Override
+	public int getContiguousSequenceEnd() {
+		if (this.sequencesTracked) {
+			return this.sequences.runEnd();
+		}
+		return MessageGroup.super.getContiguousSequenceEnd();
+	}
+
 	@Override
 	public void setCondition(String condition) {
 		this.condition = condition;
@@ -218,7 +266,7 @@ public class SimpleMessageGroup implements MessageGroup {
 	 * @since 4.3.7
 	 */
 	public boolean containsSequence(Integer sequence) {
-		return this.sequences.contains(sequence);
+		return sequence != null && this.sequences.contains(sequence);
 	}
 
 	@Override
@@ -231,4 +279,226 @@ public class SimpleMessageGroup implements MessageGroup {
 				'}';
 	}
 
+	/**
+	 * The set of sequence numbers as a bit set which is a window over the sequence numbers
+	 * starting from the {@link #baseWord}: the window is moved forward, instead of growing,
+	 * when the lower words are empty, e.g. when a resequencer releases the contiguous runs.
+	 * When the window would span more than {@link #MAX_DENSE_WORDS} words and more words than
+	 * there are sequence numbers (sparse or far apart sequence numbers), the set switches to
+	 * a sorted map until it is cleared. Duplicate sequence numbers are counted, so the
+	 * sequence stays in the set until its last message is removed.
+	 * The lowest sequence number ({@link #min}) and the end of the contiguous run starting
+	 * from it ({@link #runEnd}) are maintained on every change.
+	 */
+	private static final class SequenceSet {
+
+		private static final int MAX_DENSE_WORDS = 1024;
+
+		private long[] words = new long[1];
+
+		private int baseWord;
+
+		@Nullable
+		private Map<Integer, Integer> duplicates;
+
+		@Nullable
+		private TreeMap<Integer, Integer> sparse;
+
+		private int count;
+
+		private int min;
+
+		private int runEnd = -1;
+
+		SequenceSet() {
+		}
+
+		int min() {
+			return this.min;
+		}
+
+		int runEnd() {
+			return this.runEnd;
+		}
+
+		boolean contains(int sequence) {
+			if (this.sparse != null) {
+				return this.sparse.containsKey(sequence);
+			}
+			int index = (sequence >> 6) - this.baseWord;
+			return this.count > 0 && index >= 0 && index < this.words.length
+					&& (this.words[index] & (1L << sequence)) != 0;
+		}
+
+		void add(int sequence) {
+			if (this.sparse == null && !fitsDense(sequence >> 6)) {
+				toSparse();
+			}
+			if (this.sparse != null) {
+				if (this.sparse.merge(sequence, 1, Integer::sum) > 1) {
+					return;
+				}
+			}
+			else {
+				int index = indexFor(sequence >> 6);
+				long mask = 1L << sequence;
+				if ((this.words[index] & mask) != 0) {
+					if (this.duplicates == null) {
+						this.duplicates = new HashMap<>();
+					}
+					this.duplicates.merge(sequence, 1, Integer::sum);
+					return;
+				}
+				this.words[index] |= mask;
+			}
+			if (this.count++ == 0) {
+				this.min = sequence;
+				this.runEnd = sequence;
+			}
+			else if (sequence < this.min) {
+				if (sequence != this.min - 1) {
+					this.runEnd = sequence;
+				}
+				this.min = sequence;
+			}
+			else if (sequence == this.runEnd + 1) {
+				this.runEnd = nextClearBit(sequence) - 1;
+			}
+		}
+
+		void remove(int sequence) {
+			if (!contains(sequence)) {
+				return;
+			}
+			if (this.sparse != null) {
+				Integer remaining = this.sparse.remove(sequence);
+				if (remaining > 1) {
+					this.sparse.put(sequence, remaining - 1);
+					return;
+				}
+			}
+			else {
+				if (this.duplicates != null) {
+					Integer extra = this.duplicates.remove(sequence);
+					if (extra != null) {
+						if (extra > 1) {
+							this.duplicates.put(sequence, extra - 1);
+						}
+						return;
+					}
+				}
+				this.words[(sequence >> 6) - this.baseWord] &= ~(1L << sequence);
+			}
+			if (--this.count == 0) {
+				clear();
+			}
+			else if (sequence == this.min) {
+				if (sequence < this.runEnd) {
+					this.min = sequence + 1;
+				}
+				else {
+					this.min = nextSetBit(sequence);
+					this.runEnd = nextClearBit(this.min) - 1;
+				}
+			}
+			else if (sequence <= this.runEnd) {
+				this.runEnd = sequence - 1;
+			}
+		}
+
+		void clear() {
+			this.words = new long[1];
+			this.duplicates = null;
+			this.sparse = null;
+			this.count = 0;
+			this.min = 0;
+			this.runEnd = -1;
+		}
+
+		private boolean fitsDense(int word) {
+			if (this.count == 0) {
+				return true;
+			}
+			int low = Math.min(this.min >> 6, word);
+			int high = Math.max(this.baseWord + this.words.length - 1, word);
+			return high - low < Math.max(MAX_DENSE_WORDS, this.count);
+		}
+
+		private void toSparse() {
+			TreeMap<Integer, Integer> counts = new TreeMap<>();
+			for (int index = 0; index < this.words.length; index++) {
+				long word = this.words[index];
+				while (word != 0) {
+					int sequence = ((this.baseWord + index) << 6) + Long.numberOfTrailingZeros(word);
+					Integer extra = this.duplicates != null ? this.duplicates.get(sequence) : null;
+					counts.put(sequence, extra != null ? extra + 1 : 1);
+					word &= word - 1;
+				}
+			}
+			this.sparse = counts;
+			this.words = new long[0];
+			this.duplicates = null;
+		}
+
+		private int indexFor(int word) {
+			if (this.count == 0) {
+				this.baseWord = word;
+			}
+			else if (word < this.baseWord) {
+				int shift = Math.max(this.baseWord - word, this.words.length);
+				long[] newWords = new long[this.words.length + shift];
+				System.arraycopy(this.words, 0, newWords, shift, this.words.length);
+				this.words = newWords;
+				this.baseWord -= shift;
+			}
+			else if (word - this.baseWord >= this.words.length) {
+				int emptyWords = (this.min >> 6) - this.baseWord;
+				int needed = word - this.baseWord - emptyWords + 1;
+				if (emptyWords >= this.words.length / 2 && needed <= this.words.length) {
+					System.arraycopy(this.words, emptyWords, this.words, 0, this.words.length - emptyWords);
+					Arrays.fill(this.words, this.words.length - emptyWords, this.words.length, 0L);
+				}
+				else {
+					long[] newWords = new long[Math.max(this.words.length * 2, needed)];
+					System.arraycopy(this.words, emptyWords, newWords, 0, this.words.length - emptyWords);
+					this.words = newWords;
+				}
+				this.baseWord += emptyWords;
+			}
+			return word - this.baseWord;
+		}
+
+		private int nextSetBit(int sequence) {
+			if (this.sparse != null) {
+				return this.sparse.ceilingKey(sequence);
+			}
+			int index = (sequence >> 6) - this.baseWord;
+			long word = this.words[index] & (-1L << sequence);
+			while (word == 0) {
+				word = this.words[++index];
+			}
+			return ((this.baseWord + index) << 6) + Long.numberOfTrailingZeros(word);
+		}
+
+		private int nextClearBit(int sequence) {
+			if (this.sparse != null) {
+				int next = sequence;
+				while (this.sparse.containsKey(next)) {
+					next++;
+				}
+				return next;
+			}
+			int index = (sequence >> 6) - this.baseWord;
+			long word = ~this.words[index] & (-1L << sequence);
+			while (word == 0) {
+				if (++index == this.words.length) {
+					return (this.baseWord + index) << 6;
+				}
+				word = ~this.words[index];
+			}
+			return ((this.baseWord + index) << 6) + Long.numberOfTrailingZeros(word);
+		}
+
+	}
+
 }
@@ -19,9 +19,13 @@ package org.springframework.integration.store;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 
 import org.springframework.integration.support.locks.DefaultLockRegistry;
@@ -36,6 +40,9 @@ import org.springframework.util.CollectionUtils;
 /**
  * Map-based in-memory implementation of {@link MessageStore} and {@link MessageGroupStore}.
  * Enforces a maximum capacity for the store.
+ * <p>
+ * The groups are indexed by their creation timestamp, so the
+ * {@link #expireMessageGroups(long)} visits only groups older than the threshold.
  *
  * @author Iwein Fuld
  * @author Mark Fisher
@@ -62,6 +69,14 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 
 	private final ConcurrentMap<Object, UpperBound> groupToUpperBound = new ConcurrentHashMap<>();
 
+	private final ConcurrentNavigableMap<ExpiryIndexKey, Object> expiryIndex = new ConcurrentSkipListMap<>();
+
+	private final ConcurrentMap<Object, ExpiryIndexKey> groupToExpiryIndexKey = new ConcurrentHashMap<>();
+
+	private final AtomicLong expiryIndexSequence = new AtomicLong();
+
+	private boolean useExpiryIndex = true;
+
 	private final int groupCapacity;
 
 	private final int individualCapacity;
@@ -285,6 +300,10 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 					}
 					group = getMessageGroupFactory().create(groupId);
 					this.groupIdToMessageGroup.put(groupId, group);
+					ExpiryIndexKey expiryIndexKey =
+							new ExpiryIndexKey(group.getTimestamp(), this.expiryIndexSequence.incrementAndGet());
+					this.expiryIndex.put(expiryIndexKey, groupId);
+					this.groupToExpiryIndexKey.put(groupId, expiryIndexKey);
 					upperBound = new UpperBound(this.groupCapacity);
 					for (Message<?> message : messages) {
 						upperBound.tryAcquire(-1);
@@ -337,6 +356,10 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 					UpperBound upperBound = this.groupToUpperBound.remove(groupId);
 					Assert.state(upperBound != null, UPPER_BOUND_MUST_NOT_BE_NULL);
 					upperBound.release(this.groupCapacity);
+					ExpiryIndexKey expiryIndexKey = this.groupToExpiryIndexKey.remove(groupId);
+					if (expiryIndexKey != null) {
+						this.expiryIndex.remove(expiryIndexKey);
+					}
 				}
 			}
 			finally {
@@ -382,11 +405,45 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 		}
 	}
 
+	/**
+	 * Specify whether {@link #messageGroupsToExpire(long)} should use the creation time index
+	 * of the groups in this store. Must be set to {@code false} by subclasses which
+	 * override the {@link #iterator()} to provide their own groups. Defaults to {@code true}.
+	 * @param useExpiryIndex false to expire groups from the {@link #iterator()}.
+	 * @since 6.2
+	 */
+	protected void setUseExpiryIndex(boolean useExpiryIndex) {
+		this.useExpiryIndex = useExpiryIndex;
+	}
+
 	@Override
 	public Iterator<MessageGroup> iterator() {
 		return new HashSet<>(this.groupIdToMessageGroup.values()).iterator();
 	}
 
+	/**
+	 * Return the groups created before or at the threshold from the time-ordered index.
+	 * Since a group cannot be modified before its creation, these are also all the candidates
+	 * for expiry when {@link #isTimeoutOnIdle()}.
+	 * If the index is switched off via {@link #setUseExpiryIndex(boolean)},
+	 * all the groups from the {@link #iterator()} are returned instead.
+	 * @param threshold the epoch milliseconds to expire groups older than.
+	 * @return the groups to check for expiry.
+	 * @since 6.2
+	 */
+	@Override
+	protected Iterable<MessageGroup> messageGroupsToExpire(long threshold) {
+		if (!this.useExpiryIndex) {
+			return super.messageGroupsToExpire(threshold);
+		}
+		Collection<Object> groupIds =
+				this.expiryIndex.headMap(new ExpiryIndexKey(threshold, Long.MAX_VALUE), true).values();
+		return () -> groupIds.stream()
+				.map(this.groupIdToMessageGroup::get)
+				.filter(Objects::nonNull)
+				.iterator();
+	}
+
 	@Override
 	public void setGroupCondition(Object groupId, String condition) {
 		MessageGroup group = this.groupIdToMessageGroup.get(groupId);
@@ -499,4 +556,14 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 		}
 	}
 
+	private record ExpiryIndexKey(long timestamp, long sequence) implements Comparable<ExpiryIndexKey> {
+
+		@Override
+		public int compareTo(ExpiryIndexKey other) {
+			int result = Long.compare(this.timestamp, other.timestamp);
+			return result != 0 ? result : Long.compare(this.sequence, other.sequence);
+		}
+
+	}
+
 }
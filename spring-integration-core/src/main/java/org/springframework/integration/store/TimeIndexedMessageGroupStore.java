@@ -0,0 +1,65 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.store;
+
+import java.util.stream.Stream;
+
+import org.springframework.messaging.Message;
+
+/**
+ * A {@link MessageGroupStore} which can index messages in a group by a time,
+ * e.g. a release time of the message delayed by the
+ * {@link org.springframework.integration.handler.DelayHandler},
+ * and then return only those messages which are due by the requested time
+ * without loading the whole group into memory.
+ * <p>
+ * The messages added to the group with this contract are removed from the group
+ * (and from the time index) by the regular {@link MessageGroupStore} operations.
+ *
+ * @since 6.2
+ */
+public interface TimeIndexedMessageGroupStore extends MessageGroupStore {
+
+	/**
+	 * Store a message in the group and index it by the provided time.
+	 * @param groupId the group to store the message in.
+	 * @param message the message to store.
+	 * @param time the epoch milliseconds to index the message by.
+	 */
+	void addMessageToGroup(Object groupId, Message<?> message, long time);
+
+	/**
+	 * Return a stream of messages from the group which are indexed by the time before
+	 * or equal to the provided one, in the order of that time.
+	 * The messages added to the group without a time are not returned.
+	 * The stream must be closed after use.
+	 * @param groupId the group to stream messages from.
+	 * @param time the epoch milliseconds to stream messages until (inclusive).
+	 * @return the stream of messages due by the provided time.
+	 */
+	Stream<Message<?>> streamMessagesForGroupUntil(Object groupId, long time);
+
+	/**
+	 * Return a stream of messages from the group which were added without a time,
+	 * e.g. stored before the time index was used for this group.
+	 * The stream must be closed after use.
+	 * @param groupId the group to stream messages from.
+	 * @return the stream of messages without a time.
+	 */
+	Stream<Message<?>> streamMessagesForGroupWithoutTime(Object groupId);
+
+}
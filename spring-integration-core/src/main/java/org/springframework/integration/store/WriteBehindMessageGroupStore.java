@@ -0,0 +1,938 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.store;
+
+import java.io.Flushable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.integration.support.locks.DefaultLockRegistry;
+import org.springframework.integration.support.locks.LockRegistry;
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessagingException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link MessageGroupStore} decorator which keeps message groups in memory and writes
+ * the changes behind to the delegate (typically persistent) store.
+ * <p>
+ * The groups are read from the delegate store only when they are not in memory yet,
+ * and all the group reads (e.g. from a release strategy) are served from memory afterwards.
+ * Up to {@link #setMaxCachedGroups(int) maxCachedGroups} groups are kept in memory;
+ * above that, the least recently accessed groups without unflushed changes are evicted.
+ * A read of an empty or unknown group does not keep it in memory.
+ * The group modifications are applied in memory and queued; the queue is flushed to the
+ * delegate store in batches when it reaches the {@link #setFlushBatchSize(int) flushBatchSize}
+ * or every {@link #setFlushInterval(Duration) flushInterval}.
+ * A flush batch is coalesced: the messages added to and then removed from a group in the
+ * same batch are not written at all, the changes of a group removed in the same batch are
+ * discarded, and the consecutive additions to (or removals from) a group are written with a
+ * single store call.
+ * <p>
+ * With the default {@link DurabilityMode#FLUSH_ON_RELEASE} the operations performed on a
+ * group release ({@link #completeGroup(Object)}, {@link #removeMessagesFromGroup(Object, Collection)},
+ * {@link #removeMessageGroup(Object)} and {@link #setLastReleasedSequenceNumberForGroup(Object, int)})
+ * flush the queue in the calling thread. With {@link DurabilityMode#ASYNC} all the changes
+ * are flushed only on the batch size and time thresholds.
+ * <p>
+ * The queued changes are lost if the application crashes, unless a
+ * {@link #setJournal(BasicMessageGroupStore) journal} is provided: every change is appended
+ * to the journal (typically a local {@link MappedFileChannelMessageStore}) before it is
+ * acknowledged and trimmed from it when it has been written to the delegate store.
+ * On {@link #afterPropertiesSet()} the changes remaining in the journal are replayed to the
+ * delegate store, so some of them may be applied twice.
+ * <p>
+ * The store is intended to be the only writer to the delegate store for its groups.
+ *
+ * @since 6.2
+ */
+public class WriteBehindMessageGroupStore extends AbstractMessageGroupStore
+		implements InitializingBean, DisposableBean, Flushable {
+
+	/**
+	 * The default number of queued changes to flush them after.
+	 */
+	public static final int DEFAULT_FLUSH_BATCH_SIZE = 100;
+
+	/**
+	 * The default interval to flush queued changes.
+	 */
+	public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(1);
+
+	/**
+	 * The default number of groups to keep in memory.
+	 */
+	public static final int DEFAULT_MAX_CACHED_GROUPS = 1000;
+
+	private static final String OPERATION_HEADER = "writeBehindOperation";
+
+	private static final String GROUP_ID_HEADER = "writeBehindGroupId";
+
+	private static final String ARGUMENT_HEADER = "writeBehindArgument";
+
+	private static final String INTERRUPTED_WHILE_OBTAINING_LOCK = "Interrupted while obtaining lock";
+
+	/**
+	 * The groups in memory in their access order; guarded by the {@link #groupsLock}.
+	 */
+	private final LinkedHashMap<Object, CachedGroup> groups = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final Lock groupsLock = new ReentrantLock();
+
+	private final LockRegistry lockRegistry = new DefaultLockRegistry();
+
+	private final Deque<Operation> pending = new ArrayDeque<>();
+
+	private final Lock pendingLock = new ReentrantLock();
+
+	private final Lock flushLock = new ReentrantLock();
+
+	private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+	private final MessageGroupStore delegate;
+
+	private DurabilityMode durabilityMode = DurabilityMode.FLUSH_ON_RELEASE;
+
+	private int flushBatchSize = DEFAULT_FLUSH_BATCH_SIZE;
+
+	private Duration flushInterval = DEFAULT_FLUSH_INTERVAL;
+
+	private int maxCachedGroups = DEFAULT_MAX_CACHED_GROUPS;
+
+	@Nullable
+	private TaskScheduler taskScheduler;
+
+	@Nullable
+	private BasicMessageGroupStore journal;
+
+	private Object journalGroupId = "writeBehindJournal";
+
+	private int untrimmedJournalEntries;
+
+	/**
+	 * The sequence of the last queued change; guarded by the {@link #pendingLock}.
+	 */
+	private long queuedChanges;
+
+	/**
+	 * The sequence of the last change written to the delegate store: a cached group
+	 * with its last change up to this one can be evicted.
+	 */
+	private volatile long flushedChanges;
+
+	@Nullable
+	private ScheduledFuture<?> flushTask;
+
+	/**
+	 * Construct an instance to write changes behind to the provided store.
+	 * @param delegate the store to write to.
+	 */
+	public WriteBehindMessageGroupStore(MessageGroupStore delegate) {
+		super(false);
+		Assert.notNull(delegate, "'delegate' must not be null");
+		this.delegate = delegate;
+	}
+
+	/**
+	 * Set the {@link DurabilityMode}.
+	 * Defaults to {@link DurabilityMode#FLUSH_ON_RELEASE}.
+	 * @param durabilityMode the mode.
+	 */
+	public void setDurabilityMode(DurabilityMode durabilityMode) {
+		Assert.notNull(durabilityMode, "'durabilityMode' must not be null");
+		this.durabilityMode = durabilityMode;
+	}
+
+	/**
+	 * Set the number of queued changes to flush them after.
+	 * The flush is performed on the {@link #setTaskScheduler(TaskScheduler) taskScheduler},
+	 * or in the calling thread if it is not provided.
+	 * Defaults to {@value #DEFAULT_FLUSH_BATCH_SIZE}.
+	 * @param flushBatchSize the number of changes.
+	 */
+	public void setFlushBatchSize(int flushBatchSize) {
+		Assert.isTrue(flushBatchSize > 0, "'flushBatchSize' must be greater than 0");
+		this.flushBatchSize = flushBatchSize;
+	}
+
+	/**
+	 * Set the interval to flush queued changes on the
+	 * {@link #setTaskScheduler(TaskScheduler) taskScheduler}.
+	 * Defaults to 1 second.
+	 * @param flushInterval the interval.
+	 */
+	public void setFlushInterval(Duration flushInterval) {
+		Assert.isTrue(flushInterval != null && !flushInterval.isNegative() && !flushInterval.isZero(),
+				"'flushInterval' must be positive");
+		this.flushInterval = flushInterval;
+	}
+
+	/**
+	 * Set the maximum number of groups to keep in memory.
+	 * The least recently accessed groups are evicted above this number as soon as
+	 * their changes are written to the delegate store.
+	 * Defaults to {@value #DEFAULT_MAX_CACHED_GROUPS}.
+	 * @param maxCachedGroups the number of groups.
+	 */
+	public void setMaxCachedGroups(int maxCachedGroups) {
+		Assert.isTrue(maxCachedGroups > 0, "'maxCachedGroups' must be greater than 0");
+		this.maxCachedGroups = maxCachedGroups;
+	}
+
+	/**
+	 * Set a {@link TaskScheduler} to flush the changes in the background on the batch size
+	 * and time thresholds. Without a scheduler the changes are flushed only on the batch
+	 * size threshold, in the calling thread.
+	 * @param taskScheduler the scheduler.
+	 */
+	public void setTaskScheduler(TaskScheduler taskScheduler) {
+		this.taskScheduler = taskScheduler;
+	}
+
+	/**
+	 * Set a store to journal the queued changes in order to recover them after
+	 * a crash. Must support FIFO {@link BasicMessageGroupStore#pollMessageFromGroup(Object)}
+	 * and keep the messages order in the {@link BasicMessageGroupStore#getMessageGroup(Object)}.
+	 * @param journal the journal store.
+	 */
+	public void setJournal(BasicMessageGroupStore journal) {
+		this.journal = journal;
+	}
+
+	/**
+	 * Set a group id for the changes in the {@link #setJournal(BasicMessageGroupStore) journal}.
+	 * Defaults to {@code writeBehindJournal}.
+	 * @param journalGroupId the group id.
+	 */
+	public void setJournalGroupId(Object journalGroupId) {
+		Assert.notNull(journalGroupId, "'journalGroupId' must not be null");
+		this.journalGroupId = journalGroupId;
+	}
+
+	/**
+	 * Replay the changes from the {@link #setJournal(BasicMessageGroupStore) journal} to the
+	 * delegate store and start the periodic flush if a
+	 * {@link #setTaskScheduler(TaskScheduler) taskScheduler} is provided.
+	 */
+	@Override
+	public void afterPropertiesSet() {
+		if (this.journal != null) {
+			replayJournal(this.journal);
+		}
+		if (this.taskScheduler != null) {
+			this.flushTask = this.taskScheduler.scheduleWithFixedDelay(this::scheduledFlush, this.flushInterval);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if (this.flushTask != null) {
+			this.flushTask.cancel(false);
+			this.flushTask = null;
+		}
+		flush();
+	}
+
+	@Override
+	public MessageGroup getMessageGroup(Object groupId) {
+		return readGroup(groupId);
+	}
+
+	@Override
+	public int messageGroupSize(Object groupId) {
+		return readGroup(groupId).size();
+	}
+
+	@Override
+	public MessageGroupMetadata getGroupMetadata(Object groupId) {
+		return new MessageGroupMetadata(readGroup(groupId));
+	}
+
+	@Override
+	public Message<?> getOneMessageFromGroup(Object groupId) {
+		return readGroup(groupId).getOne();
+	}
+
+	@Override
+	public Collection<Message<?>> getMessagesForGroup(Object groupId) {
+		return readGroup(groupId).getMessages();
+	}
+
+	@Override
+	public void addMessagesToGroup(Object groupId, Message<?>... messages) {
+		Assert.notNull(groupId, "'groupId' must not be null");
+		Assert.notNull(messages, "'messages' must not be null");
+		int pendingSize =
+				doInGroupLock(groupId, () -> {
+					CachedGroup cached = obtainGroup(groupId);
+					SimpleMessageGroup group = cached.group;
+					int size = enqueue(new Operation(OperationType.ADD, groupId, List.of(messages), null), cached);
+					for (Message<?> message : messages) {
+						group.add(message);
+					}
+					group.setLastModified(System.currentTimeMillis());
+					return size;
+				});
+		flushIfNecessary(pendingSize, false);
+	}
+
+	@Override
+	public void removeMessagesFromGroup(Object groupId, Collection<Message<?>> messages) {
+		Assert.notNull(groupId, "'groupId' must not be null");
+		Assert.notNull(messages, "'messages' must not be null");
+		int pendingSize =
+				doInGroupLock(groupId, () -> {
+					CachedGroup cached = obtainGroup(groupId);
+					SimpleMessageGroup group = cached.group;
+					int size = enqueue(new Operation(OperationType.REMOVE_MESSAGES, groupId, messages, null), cached);
+					for (Message<?> message : messages) {
+						group.remove(message);
+					}
+					group.setLastModified(System.currentTimeMillis());
+					return size;
+				});
+		flushIfNecessary(pendingSize, true);
+	}
+
+	@Override
+	@Nullable
+	public Message<?> pollMessageFromGroup(Object groupId) {
+		Assert.notNull(groupId, "'groupId' must not be null");
+		Message<?>[] polled = new Message<?>[1];
+		int pendingSize =
+				doInGroupLock(groupId, () -> {
+					CachedGroup cached = getCachedGroup(groupId);
+					if (cached == null) {
+						SimpleMessageGroup loaded = loadGroup(groupId);
+						if (loaded.size() == 0) {
+							return 0;
+						}
+						cached = cache(groupId, loaded);
+					}
+					SimpleMessageGroup group = cached.group;
+					Message<?> message = group.getOne();
+					if (message == null) {
+						return 0;
+					}
+					int size =
+							enqueue(new Operation(OperationType.REMOVE_MESSAGES, groupId, List.of(message), null), cached);
+					group.remove(message);
+					group.setLastModified(System.currentTimeMillis());
+					polled[0] = message;
+					return size;
+				});
+		flushIfNecessary(pendingSize, false);
+		return polled[0];
+	}
+
+	@Override
+	public void removeMessageGroup(Object groupId) {
+		Assert.notNull(groupId, "'groupId' must not be null");
+		int pendingSize =
+				doInGroupLock(groupId, () -> {
+					// An empty group stays in memory until the removal is flushed
+					CachedGroup removed = new CachedGroup(new SimpleMessageGroup(groupId));
+					putCachedGroup(groupId, removed);
+					return enqueue(new Operation(OperationType.REMOVE_GROUP, groupId, List.of(), removed), removed);
+				});
+		flushIfNecessary(pendingSize, true);
+	}
+
+	@Override
+	public void completeGroup(Object groupId) {
+		Assert.notNull(groupId, "'groupId' must not be null");
+		int pendingSize =
+				doInGroupLock(groupId, () -> {
+					CachedGroup cached = obtainGroup(groupId);
+					SimpleMessageGroup group = cached.group;
+					int size = enqueue(new Operation(OperationType.COMPLETE, groupId, List.of(), null), cached);
+					group.complete();
+					group.setLastModified(System.currentTimeMillis());
+					return size;
+				});
+		flushIfNecessary(pendingSize, true);
+	}
+
+	@Override
+	public void setLastReleasedSequenceNumberForGroup(Object groupId, int sequenceNumber) {
+		Assert.notNull(groupId, "'groupId' must not be null");
+		int pendingSize =
+				doInGroupLock(groupId, () -> {
+					CachedGroup cached = obtainGroup(groupId);
+					SimpleMessageGroup group = cached.group;
+					int size =
+							enqueue(new Operation(OperationType.LAST_RELEASED, groupId, List.of(), sequenceNumber), cached);
+					group.setLastReleasedMessageSequenceNumber(sequenceNumber);
+					group.setLastModified(System.currentTimeMillis());
+					return size;
+				});
+		flushIfNecessary(pendingSize, true);
+	}
+
+	@Override
+	public void setGroupCondition(Object groupId, String condition) {
+		Assert.notNull(groupId, "'groupId' must not be null");
+		int pendingSize =
+				doInGroupLock(groupId, () -> {
+					CachedGroup cached = obtainGroup(groupId);
+					SimpleMessageGroup group = cached.group;
+					int size = enqueue(new Operation(OperationType.CONDITION, groupId, List.of(), condition), cached);
+					group.setCondition(condition);
+					group.setLastModified(System.currentTimeMillis());
+					return size;
+				});
+		flushIfNecessary(pendingSize, false);
+	}
+
+	/**
+	 * Flush the queued changes and iterate over the groups of the delegate store.
+	 * @return the iterator over the delegate store groups.
+	 */
+	@Override
+	public Iterator<MessageGroup> iterator() {
+		flush();
+		return this.delegate.iterator();
+	}
+
+	/**
+	 * Flush the queued changes and return the groups of the delegate store to expire,
+	 * replaced with the groups in memory, plus all the groups in memory.
+	 * The groups in memory carry the time of their last change instead of the time it was
+	 * written to the delegate store, so idle groups are expired on time.
+	 * @param threshold the epoch milliseconds to expire groups older than.
+	 * @return the groups to check for expiry.
+	 */
+	@Override
+	protected Iterable<MessageGroup> messageGroupsToExpire(long threshold) {
+		flush();
+		Iterable<MessageGroup> storedGroups = this.delegate;
+		if (this.delegate instanceof AbstractMessageGroupStore abstractMessageGroupStore) {
+			storedGroups = abstractMessageGroupStore.messageGroupsToExpire(threshold);
+		}
+		Map<Object, CachedGroup> cachedGroups;
+		this.groupsLock.lock();
+		try {
+			cachedGroups = new HashMap<>(this.groups);
+		}
+		finally {
+			this.groupsLock.unlock();
+		}
+		Map<Object, MessageGroup> groupsToExpire = new LinkedHashMap<>();
+		for (MessageGroup storedGroup : storedGroups) {
+			CachedGroup cached = cachedGroups.get(storedGroup.getGroupId());
+			groupsToExpire.put(storedGroup.getGroupId(), cached != null ? cached.group : storedGroup);
+		}
+		for (Map.Entry<Object, CachedGroup> entry : cachedGroups.entrySet()) {
+			groupsToExpire.putIfAbsent(entry.getKey(), entry.getValue().group);
+		}
+		return groupsToExpire.values();
+	}
+
+	@Override
+	public int getMessageCountForAllMessageGroups() {
+		flush();
+		return this.delegate.getMessageCountForAllMessageGroups();
+	}
+
+	@Override
+	public int getMessageGroupCount() {
+		flush();
+		return this.delegate.getMessageGroupCount();
+	}
+
+	/**
+	 * Write all the queued changes to the delegate store.
+	 * If the delegate store fails, the changes not written yet are returned to the queue
+	 * and the exception is rethrown.
+	 */
+	@Override
+	public void flush() {
+		this.flushLock.lock();
+		try {
+			List<Operation> batch;
+			long batchChanges;
+			this.pendingLock.lock();
+			try {
+				batch = new ArrayList<>(this.pending);
+				this.pending.clear();
+				batchChanges = this.queuedChanges;
+			}
+			finally {
+				this.pendingLock.unlock();
+			}
+			if (batch.isEmpty()) {
+				return;
+			}
+			int journalEntries = 0;
+			for (Operation operation : batch) {
+				if (!operation.requeued) {
+					journalEntries++;
+				}
+			}
+			List<Operation> coalesced = coalesce(batch);
+			int applied = 0;
+			try {
+				for (Operation operation : coalesced) {
+					operation.applyTo(this.delegate);
+					applied++;
+					if (operation.type == OperationType.REMOVE_GROUP) {
+						evictRemovedGroup(operation);
+					}
+				}
+			}
+			catch (RuntimeException ex) {
+				requeue(coalesced.subList(applied, coalesced.size()));
+				this.untrimmedJournalEntries += journalEntries;
+				throw ex;
+			}
+			trimJournal(this.untrimmedJournalEntries + journalEntries);
+			this.untrimmedJournalEntries = 0;
+			this.flushedChanges = batchChanges;
+		}
+		finally {
+			this.flushLock.unlock();
+		}
+		evictIfNecessary();
+	}
+
+	/**
+	 * Return the group from memory or from the delegate store; the latter is kept in memory
+	 * only if it is not empty.
+	 */
+	private SimpleMessageGroup readGroup(Object groupId) {
+		Assert.notNull(groupId, "'groupId' must not be null");
+		CachedGroup cached = getCachedGroup(groupId);
+		if (cached != null) {
+			return cached.group;
+		}
+		return doInGroupLock(groupId, () -> {
+			CachedGroup existing = getCachedGroup(groupId);
+			if (existing != null) {
+				return existing.group;
+			}
+			SimpleMessageGroup loaded = loadGroup(groupId);
+			if (loaded.size() > 0) {
+				cache(groupId, loaded);
+			}
+			return loaded;
+		});
+	}
+
+	/**
+	 * Return the group from memory, loading it from the delegate store if necessary.
+	 * Must be called under the group lock.
+	 */
+	private CachedGroup obtainGroup(Object groupId) {
+		CachedGroup cached = getCachedGroup(groupId);
+		if (cached == null) {
+			cached = cache(groupId, loadGroup(groupId));
+		}
+		return cached;
+	}
+
+	private CachedGroup cache(Object groupId, SimpleMessageGroup group) {
+		CachedGroup cached = new CachedGroup(group);
+		putCachedGroup(groupId, cached);
+		evictIfNecessary();
+		return cached;
+	}
+
+	/**
+	 * Return the group from memory and move it to the tail of the access order.
+	 */
+	@Nullable
+	private CachedGroup getCachedGroup(Object groupId) {
+		this.groupsLock.lock();
+		try {
+			return this.groups.get(groupId);
+		}
+		finally {
+			this.groupsLock.unlock();
+		}
+	}
+
+	private void putCachedGroup(Object groupId, CachedGroup cached) {
+		this.groupsLock.lock();
+		try {
+			this.groups.put(groupId, cached);
+		}
+		finally {
+			this.groupsLock.unlock();
+		}
+	}
+
+	/**
+	 * Evict the least recently accessed groups without unflushed changes
+	 * while there are more than {@link #maxCachedGroups} of them in memory.
+	 */
+	private void evictIfNecessary() {
+		List<Map.Entry<Object, CachedGroup>> candidates;
+		this.groupsLock.lock();
+		try {
+			int excess = this.groups.size() - this.maxCachedGroups;
+			if (excess <= 0) {
+				return;
+			}
+			long flushed = this.flushedChanges;
+			candidates = new ArrayList<>(excess);
+			// The least recently accessed groups are at the head
+			for (Map.Entry<Object, CachedGroup> entry : this.groups.entrySet()) {
+				if (entry.getValue().lastChange <= flushed) {
+					candidates.add(Map.entry(entry.getKey(), entry.getValue()));
+					if (candidates.size() == excess) {
+						break;
+					}
+				}
+			}
+		}
+		finally {
+			this.groupsLock.unlock();
+		}
+		for (Map.Entry<Object, CachedGroup> candidate : candidates) {
+			evict(candidate.getKey(), candidate.getValue());
+		}
+	}
+
+	/**
+	 * Evict the group if it has no unflushed changes; skip it if its lock is busy,
+	 * so the eviction never waits for other groups while holding a group lock.
+	 */
+	private void evict(Object groupId, CachedGroup cached) {
+		Lock lock = this.lockRegistry.obtain(groupId);
+		if (lock.tryLock()) {
+			try {
+				if (cached.lastChange <= this.flushedChanges) {
+					this.groupsLock.lock();
+					try {
+						this.groups.remove(groupId, cached);
+					}
+					finally {
+						this.groupsLock.unlock();
+					}
+				}
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	private SimpleMessageGroup loadGroup(Object groupId) {
+		MessageGroup stored = this.delegate.getMessageGroup(groupId);
+		SimpleMessageGroup group =
+				new SimpleMessageGroup(stored.getMessages(), groupId, stored.getTimestamp(), stored.isComplete());
+		group.setLastReleasedMessageSequenceNumber(stored.getLastReleasedMessageSequenceNumber());
+		group.setCondition(stored.getCondition());
+		group.setLastModified(stored.getLastModified());
+		return group;
+	}
+
+	private void evictRemovedGroup(Operation removal) {
+		doInGroupLock(removal.groupId, () -> {
+			CachedGroup removed = (CachedGroup) removal.argument;
+			this.groupsLock.lock();
+			try {
+				this.groups.computeIfPresent(removal.groupId, (key, cached) ->
+						cached == removed && cached.group.getLastModified() == 0 && cached.group.size() == 0
+								? null
+								: cached);
+			}
+			finally {
+				this.groupsLock.unlock();
+			}
+			return null;
+		});
+	}
+
+	private int enqueue(Operation operation, CachedGroup cached) {
+		this.pendingLock.lock();
+		try {
+			if (this.journal != null) {
+				this.journal.addMessageToGroup(this.journalGroupId, operation.toMessage());
+			}
+			this.pending.add(operation);
+			cached.lastChange = ++this.queuedChanges;
+			return this.pending.size();
+		}
+		finally {
+			this.pendingLock.unlock();
+		}
+	}
+
+	private void requeue(List<Operation> operations) {
+		this.pendingLock.lock();
+		try {
+			for (int i = operations.size() - 1; i >= 0; i--) {
+				Operation operation = operations.get(i);
+				operation.requeued = true;
+				this.pending.addFirst(operation);
+			}
+		}
+		finally {
+			this.pendingLock.unlock();
+		}
+	}
+
+	private void trimJournal(int entries) {
+		if (this.journal != null) {
+			for (int i = 0; i < entries; i++) {
+				this.journal.pollMessageFromGroup(this.journalGroupId);
+			}
+		}
+	}
+
+	private void flushIfNecessary(int pendingSize, boolean release) {
+		if (release && DurabilityMode.FLUSH_ON_RELEASE.equals(this.durabilityMode)) {
+			flush();
+		}
+		else if (pendingSize >= this.flushBatchSize) {
+			if (this.taskScheduler == null) {
+				flush();
+			}
+			else if (this.flushScheduled.compareAndSet(false, true)) {
+				this.taskScheduler.schedule(this::scheduledFlush, Instant.now());
+			}
+		}
+	}
+
+	private void scheduledFlush() {
+		this.flushScheduled.set(false);
+		try {
+			flush();
+		}
+		catch (RuntimeException ex) {
+			this.logger.error("Failed to flush changes to the " + this.delegate + "; will retry", ex);
+		}
+	}
+
+	private void replayJournal(BasicMessageGroupStore journalStore) {
+		Collection<Message<?>> entries = journalStore.getMessageGroup(this.journalGroupId).getMessages();
+		if (entries.isEmpty()) {
+			return;
+		}
+		int size = entries.size();
+		this.logger.info("Replaying " + size + " changes from the journal to the " + this.delegate);
+		for (Message<?> entry : entries) {
+			try {
+				Operation.fromMessage(entry).applyTo(this.delegate);
+			}
+			catch (RuntimeException ex) {
+				this.logger.warn("Failed to replay the journal entry " + entry, ex);
+			}
+		}
+		for (int i = 0; i < size; i++) {
+			journalStore.pollMessageFromGroup(this.journalGroupId);
+		}
+	}
+
+	private <T> T doInGroupLock(Object groupId, Supplier<T> action) {
+		Lock lock = this.lockRegistry.obtain(groupId);
+		try {
+			lock.lockInterruptibly();
+			try {
+				return action.get();
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MessagingException(INTERRUPTED_WHILE_OBTAINING_LOCK, e);
+		}
+	}
+
+	/**
+	 * Coalesce the batch of changes: drop the changes of groups removed later in the batch,
+	 * merge consecutive additions and removals for the same group and cancel additions
+	 * which are removed right after.
+	 * The changes of different groups are independent, so only the order per group matters.
+	 */
+	private static List<Operation> coalesce(List<Operation> batch) {
+		Map<Object, Integer> lastRemovals = new HashMap<>();
+		for (int i = 0; i < batch.size(); i++) {
+			Operation operation = batch.get(i);
+			if (operation.type == OperationType.REMOVE_GROUP) {
+				lastRemovals.put(operation.groupId, i);
+			}
+		}
+		List<Operation> coalesced = new ArrayList<>();
+		Map<Object, Operation> lastOperations = new HashMap<>();
+		for (int i = 0; i < batch.size(); i++) {
+			Operation operation = batch.get(i);
+			Integer lastRemoval = lastRemovals.get(operation.groupId);
+			if (lastRemoval != null && i < lastRemoval) {
+				continue;
+			}
+			Operation last = lastOperations.get(operation.groupId);
+			if (last != null && last.type == OperationType.ADD && operation.type == OperationType.REMOVE_MESSAGES) {
+				operation = cancelAdded(last, operation);
+				if (operation == null) {
+					continue;
+				}
+			}
+			if (last != null && last.type == operation.type
+					&& (operation.type == OperationType.ADD || operation.type == OperationType.REMOVE_MESSAGES)) {
+
+				last.messages.addAll(operation.messages);
+				continue;
+			}
+			coalesced.add(operation);
+			lastOperations.put(operation.groupId, operation);
+		}
+		return coalesced;
+	}
+
+	@Nullable
+	private static Operation cancelAdded(Operation added, Operation removal) {
+		Set<UUID> removedIds = new HashSet<>();
+		for (Message<?> message : removal.messages) {
+			removedIds.add(message.getHeaders().getId());
+		}
+		Set<UUID> cancelledIds = new HashSet<>();
+		added.messages.removeIf((message) -> {
+			UUID id = message.getHeaders().getId();
+			if (removedIds.contains(id)) {
+				cancelledIds.add(id);
+				return true;
+			}
+			return false;
+		});
+		if (cancelledIds.size() == removal.messages.size()) {
+			return null;
+		}
+		List<Message<?>> remaining = new ArrayList<>(removal.messages);
+		remaining.removeIf((message) -> cancelledIds.contains(message.getHeaders().getId()));
+		return new Operation(OperationType.REMOVE_MESSAGES, removal.groupId, remaining, null);
+	}
+
+	/**
+	 * The durability of the changes written behind to the delegate store.
+	 */
+	public enum DurabilityMode {
+
+		/**
+		 * Flush the changes only on the batch size and time thresholds.
+		 */
+		ASYNC,
+
+		/**
+		 * In addition to the thresholds, flush the changes in the calling thread on the
+		 * operations performed on a group release.
+		 */
+		FLUSH_ON_RELEASE
+
+	}
+
+	private static final class CachedGroup {
+
+		private final SimpleMessageGroup group;
+
+		private volatile long lastChange;
+
+		CachedGroup(SimpleMessageGroup group) {
+			this.group = group;
+		}
+
+	}
+
+	private enum OperationType {
+
+		ADD, REMOVE_MESSAGES, REMOVE_GROUP, COMPLETE, LAST_RELEASED, CONDITION
+
+	}
+
+	private static final class Operation {
+
+		private final OperationType type;
+
+		private final Object groupId;
+
+		private final List<Message<?>> messages;
+
+		@Nullable
+		private final Object argument;
+
+		private boolean requeued;
+
+		Operation(OperationType type, Object groupId, Collection<? extends Message<?>> messages,
+				@Nullable Object argument) {
+
+			this.type = type;
+			this.groupId = groupId;
+			this.messages = new ArrayList<>(messages);
+			this.argument = argument;
+		}
+
+		void applyTo(MessageGroupStore store) {
+			switch (this.type) {
+				case ADD -> {
+					if (!this.messages.isEmpty()) {
+						store.addMessagesToGroup(this.groupId, this.messages.toArray(new Message<?>[0]));
+					}
+				}
+				case REMOVE_MESSAGES -> store.removeMessagesFromGroup(this.groupId, this.messages);
+				case REMOVE_GROUP -> store.removeMessageGroup(this.groupId);
+				case COMPLETE -> store.completeGroup(this.groupId);
+				case LAST_RELEASED -> store.setLastReleasedSequenceNumberForGroup(this.groupId, (Integer) this.argument);
+				case CONDITION -> store.setGroupCondition(this.groupId, (String) this.argument);
+			}
+		}
+
+		Message<?> toMessage() {
+			return MessageBuilder.withPayload(new ArrayList<>(this.messages))
+					.setHeader(OPERATION_HEADER, this.type.name())
+					.setHeader(GROUP_ID_HEADER, this.groupId)
+					.setHeader(ARGUMENT_HEADER,
+							this.type == OperationType.REMOVE_GROUP ? null : this.argument)
+					.build();
+		}
+
+		@SuppressWarnings("unchecked")
+		static Operation fromMessage(Message<?> message) {
+			OperationType type = OperationType.valueOf(message.getHeaders().get(OPERATION_HEADER, String.class));
+			Object groupId = message.getHeaders().get(GROUP_ID_HEADER);
+			Assert.state(groupId != null, () -> "No group id in the journal entry: " + message);
+			return new Operation(type, groupId, (Collection<? extends Message<?>>) message.getPayload(),
+					message.getHeaders().get(ARGUMENT_HEADER));
+		}
+
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2021 the original author or authors.
+ * Copyright 2014-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -32,6 +32,8 @@ public class DefaultMessageBuilderFactory implements MessageBuilderFactory {
 
 	private String[] readOnlyHeaders;
 
+	private boolean layeredHeaders;
+
 	/**
 	 * Specify a list of headers which should be considered as a read only
 	 * and prohibited from the population to the message.
@@ -61,9 +63,22 @@ public class DefaultMessageBuilderFactory implements MessageBuilderFactory {
 		this.readOnlyHeaders = headers;
 	}
 
+	/**
+	 * Set to {@code true} to build messages derived from other messages with
+	 * {@link LayeredMessageHeaders}: only the changed headers are stored in the new message
+	 * on top of the original message headers, instead of copying the whole header map.
+	 * Makes sense for flows with many headers where only a few of them are changed on each step.
+	 * @param layeredHeaders true to build messages with layered headers.
+	 * @since 6.2
+	 * @see MessageBuilder#fromMessage(Message, boolean)
+	 */
+	public void setLayeredHeaders(boolean layeredHeaders) {
+		this.layeredHeaders = layeredHeaders;
+	}
+
 	@Override
 	public <T> MessageBuilder<T> fromMessage(Message<T> message) {
-		return MessageBuilder.fromMessage(message)
+		return MessageBuilder.fromMessage(message, this.layeredHeaders)
 				.readOnlyHeaders(this.readOnlyHeaders);
 	}
 
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.support;
+
+import java.io.Serial;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.MessageHeaders;
+
+/**
+ * An immutable {@link MessageHeaders} which references the headers of the message
+ * it has been derived from and keeps only the changed (and removed) headers on top of them.
+ * Thus, deriving a message with a couple of changed headers does not copy the whole header map.
+ * <p>
+ * Only immutable headers are referenced: the headers of any other {@link MessageHeaders}
+ * type (e.g. {@link MutableMessageHeaders}) are copied into the parent layer, so their later
+ * changes are not visible through these headers.
+ * <p>
+ * The header lookups go through the layers; when the chain of layers reaches
+ * {@link #MAX_DEPTH}, the parent headers are flattened into a single map for the new layer.
+ * The bulk operations ({@link #entrySet()}, {@link #size()} etc.) work on a flattened map,
+ * which is built lazily on the first such operation and cached.
+ * <p>
+ * These headers are serialized as a regular flat {@link MessageHeaders} map.
+ * Note that a plain {@link MessageHeaders#equals(Object)} is based on the internal map,
+ * so it is not symmetric with this implementation, but message headers are not equal
+ * anyway because of different {@link MessageHeaders#ID}s.
+ *
+ * @since 6.2
+ *
+ * @see DefaultMessageBuilderFactory#setLayeredHeaders(boolean)
+ */
+public final class LayeredMessageHeaders extends MessageHeaders {
+
+	/**
+	 * The number of layers after which the parent headers are flattened.
+	 */
+	public static final int MAX_DEPTH = 8;
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	private static final Object REMOVED = new Object();
+
+	private final transient Map<String, Object> parent;
+
+	private final transient Map<String, Object> delta;
+
+	private final transient int depth;
+
+	@Nullable
+	private transient volatile Map<String, Object> flattened;
+
+	/**
+	 * Create headers on top of the provided parent headers with a new {@link #ID}
+	 * and the current {@link #TIMESTAMP}.
+	 * @param parent the headers of the message this one is derived from.
+	 * @param changedHeaders the headers to add or override; this map is owned by the new instance.
+	 * @param removedHeaders the parent headers to hide.
+	 */
+	LayeredMessageHeaders(MessageHeaders parent, Map<String, Object> changedHeaders, Set<String> removedHeaders) {
+		super(null, ID_VALUE_NONE, -1L);
+		if (parent instanceof LayeredMessageHeaders layered && layered.depth >= MAX_DEPTH) {
+			this.parent = layered.flatten();
+			this.depth = 1;
+		}
+		else if (!isImmutable(parent)) {
+			this.parent = new HashMap<>(parent);
+			this.depth = 1;
+		}
+		else {
+			this.parent = parent;
+			this.depth = parent instanceof LayeredMessageHeaders layered ? layered.depth + 1 : 1;
+		}
+		for (String removed : removedHeaders) {
+			changedHeaders.put(removed, REMOVED);
+		}
+		changedHeaders.put(ID, getIdGenerator().generateId());
+		changedHeaders.put(TIMESTAMP, System.currentTimeMillis());
+		this.delta = changedHeaders;
+	}
+
+	/**
+	 * Return the number of layers in this headers chain.
+	 * @return the depth.
+	 */
+	public int getDepth() {
+		return this.depth;
+	}
+
+	@Override
+	@Nullable
+	public Object get(Object key) {
+		Object value = this.delta.get(key);
+		if (value == REMOVED) {
+			return null;
+		}
+		return value != null ? value : this.parent.get(key);
+	}
+
+	@Override
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, Class<T> type) {
+		Object value = get(key);
+		if (value == null) {
+			return null;
+		}
+		if (!type.isAssignableFrom(value.getClass())) {
+			throw new IllegalArgumentException("Incorrect type specified for header '" +
+					key + "'. Expected [" + type + "] but actual type is [" + value.getClass() + "]");
+		}
+		return (T) value;
+	}
+
+	@Override
+	public UUID getId() {
+		return (UUID) this.delta.get(ID);
+	}
+
+	@Override
+	public Long getTimestamp() {
+		return (Long) this.delta.get(TIMESTAMP);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return get(key) != null;
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		return flatten().containsValue(value);
+	}
+
+	@Override
+	public Set<Map.Entry<String, Object>> entrySet() {
+		return flatten().entrySet();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return false;
+	}
+
+	@Override
+	public Set<String> keySet() {
+		return flatten().keySet();
+	}
+
+	@Override
+	public int size() {
+		return flatten().size();
+	}
+
+	@Override
+	public Collection<Object> values() {
+		return flatten().values();
+	}
+
+	@Override
+	protected Map<String, Object> getRawHeaders() {
+		return flatten();
+	}
+
+	@Override
+	public boolean equals(@Nullable Object other) {
+		return this == other || (other instanceof MessageHeaders && flatten().equals(other));
+	}
+
+	@Override
+	public int hashCode() {
+		return flatten().hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return flatten().toString();
+	}
+
+	private Map<String, Object> flatten() {
+		Map<String, Object> flat = this.flattened;
+		if (flat == null) {
+			Map<String, Object> headers = new HashMap<>(this.parent);
+			for (Map.Entry<String, Object> entry : this.delta.entrySet()) {
+				if (entry.getValue() == REMOVED) {
+					headers.remove(entry.getKey());
+				}
+				else {
+					headers.put(entry.getKey(), entry.getValue());
+				}
+			}
+			flat = Collections.unmodifiableMap(headers);
+			this.flattened = flat;
+		}
+		return flat;
+	}
+
+	/**
+	 * Check if the headers are known to be immutable, so they can be referenced as a parent layer.
+	 * @param headers the headers to check.
+	 * @return true if the headers are a plain {@link MessageHeaders} or {@link LayeredMessageHeaders}.
+	 */
+	static boolean isImmutable(MessageHeaders headers) {
+		return headers.getClass() == MessageHeaders.class
+				|| headers instanceof LayeredMessageHeaders
+				|| headers instanceof FlatMessageHeaders;
+	}
+
+	@Serial
+	private Object writeReplace() {
+		return new FlatMessageHeaders(flatten());
+	}
+
+	/**
+	 * The serialized form of the {@link LayeredMessageHeaders}.
+	 */
+	private static final class FlatMessageHeaders extends MessageHeaders {
+
+		@Serial
+		private static final long serialVersionUID = 1L;
+
+		FlatMessageHeaders(Map<String, Object> headers) {
+			super(headers, (UUID) headers.get(ID), (Long) headers.get(TIMESTAMP));
+		}
+
+	}
+
+}
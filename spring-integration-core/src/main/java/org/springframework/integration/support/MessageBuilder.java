@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,9 +17,13 @@
 package org.springframework.integration.support;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -33,11 +37,17 @@ import org.springframework.messaging.support.ErrorMessage;
 import org.springframework.messaging.support.GenericMessage;
 import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
+import org.springframework.util.PatternMatchUtils;
+import org.springframework.util.StringUtils;
 
 /**
  * The default message builder; creates immutable {@link GenericMessage}s.
  * Named MessageBuilder instead of DefaultMessageBuilder for backwards
  * compatibility.
+ * <p>
+ * When created with {@link #fromMessage(Message, boolean) layered headers},
+ * the builder does not copy the headers of the original message,
+ * but tracks only the changes and builds a message with {@link LayeredMessageHeaders}.
  *
  * @param <T> the payload type.
  *
@@ -54,7 +64,15 @@ public final class MessageBuilder<T> extends AbstractIntegrationMessageBuilder<T
 
 	private final T payload;
 
-	private final IntegrationMessageHeaderAccessor headerAccessor;
+	private IntegrationMessageHeaderAccessor headerAccessor;
+
+	/**
+	 * The headers of the original message in the layered mode; otherwise null.
+	 */
+	@Nullable
+	private MessageHeaders baseHeaders;
+
+	private Set<String> removedHeaders = Collections.emptySet();
 
 	@Nullable
 	private final Message<T> originalMessage;
@@ -66,11 +84,19 @@ public final class MessageBuilder<T> extends AbstractIntegrationMessageBuilder<T
 	/**
 	 * Private constructor to be invoked from the static factory methods only.
 	 */
-	private MessageBuilder(T payload, @Nullable Message<T> originalMessage) {
+	private MessageBuilder(T payload, @Nullable Message<T> originalMessage, boolean layeredHeaders) {
 		Assert.notNull(payload, "payload must not be null");
 		this.payload = payload;
 		this.originalMessage = originalMessage;
-		this.headerAccessor = new IntegrationMessageHeaderAccessor(originalMessage);
+		if (layeredHeaders && originalMessage != null
+				&& LayeredMessageHeaders.isImmutable(originalMessage.getHeaders())) {
+
+			this.headerAccessor = new IntegrationMessageHeaderAccessor(null);
+			this.baseHeaders = originalMessage.getHeaders();
+		}
+		else {
+			this.headerAccessor = new IntegrationMessageHeaderAccessor(originalMessage);
+		}
 		if (originalMessage != null) {
 			this.modified = (!this.payload.equals(originalMessage.getPayload()));
 		}
@@ -83,13 +109,31 @@ public final class MessageBuilder<T> extends AbstractIntegrationMessageBuilder<T
 
 	@Override
 	public Map<String, Object> getHeaders() {
-		return this.headerAccessor.toMap();
+		if (this.baseHeaders == null) {
+			return this.headerAccessor.toMap();
+		}
+		Map<String, Object> headers = new HashMap<>(this.baseHeaders);
+		headers.keySet().removeAll(this.removedHeaders);
+		headers.putAll(this.headerAccessor.toMap());
+		return headers;
 	}
 
 	@Nullable
 	@Override
 	public <V> V getHeader(String key, Class<V> type) {
-		return this.headerAccessor.getHeader(key, type);
+		if (this.baseHeaders == null || this.headerAccessor.getHeader(key) != null) {
+			return this.headerAccessor.getHeader(key, type);
+		}
+		return this.removedHeaders.contains(key) ? null : this.baseHeaders.get(key, type);
+	}
+
+	@Nullable
+	private Object getHeader(String key) {
+		Object value = this.headerAccessor.getHeader(key);
+		if (value == null && this.baseHeaders != null && !this.removedHeaders.contains(key)) {
+			value = this.baseHeaders.get(key);
+		}
+		return value;
 	}
 
 	/**
@@ -101,7 +145,22 @@ public final class MessageBuilder<T> extends AbstractIntegrationMessageBuilder<T
 	 */
 	public static <T> MessageBuilder<T> fromMessage(Message<T> message) {
 		Assert.notNull(message, "message must not be null");
-		return new MessageBuilder<>(message.getPayload(), message);
+		return new MessageBuilder<>(message.getPayload(), message, false);
+	}
+
+	/**
+	 * Create a builder for a new {@link Message} instance with the payload and headers of the provided message.
+	 * With the {@code layeredHeaders} flag, the headers are not copied: the built message gets
+	 * {@link LayeredMessageHeaders} with only the changes on top of the provided message headers.
+	 * @param message the Message from which the payload and all headers will be taken
+	 * @param layeredHeaders whether to build {@link LayeredMessageHeaders} instead of copying headers.
+	 * @param <T> The type of the payload.
+	 * @return A MessageBuilder.
+	 * @since 6.2
+	 */
+	public static <T> MessageBuilder<T> fromMessage(Message<T> message, boolean layeredHeaders) {
+		Assert.notNull(message, "message must not be null");
+		return new MessageBuilder<>(message.getPayload(), message, layeredHeaders);
 	}
 
 	/**
@@ -111,7 +170,7 @@ public final class MessageBuilder<T> extends AbstractIntegrationMessageBuilder<T
 	 * @return A MessageBuilder.
 	 */
 	public static <T> MessageBuilder<T> withPayload(T payload) {
-		return new MessageBuilder<>(payload, null);
+		return new MessageBuilder<>(payload, null, false);
 	}
 
 	/**
@@ -122,7 +181,16 @@ public final class MessageBuilder<T> extends AbstractIntegrationMessageBuilder<T
 	 */
 	@Override
 	public MessageBuilder<T> setHeader(String headerName, @Nullable Object headerValue) {
-		this.headerAccessor.setHeader(headerName, headerValue);
+		if (this.baseHeaders == null) {
+			this.headerAccessor.setHeader(headerName, headerValue);
+		}
+		else if (headerValue == null) {
+			removeHeader(headerName);
+		}
+		else if (!headerValue.equals(getHeader(headerName))) {
+			this.headerAccessor.setHeader(headerName, headerValue);
+			this.removedHeaders.remove(headerName);
+		}
 		return this;
 	}
 
@@ -134,7 +202,12 @@ public final class MessageBuilder<T> extends AbstractIntegrationMessageBuilder<T
 	 */
 	@Override
 	public MessageBuilder<T> setHeaderIfAbsent(String headerName, Object headerValue) {
-		this.headerAccessor.setHeaderIfAbsent(headerName, headerValue);
+		if (this.baseHeaders == null) {
+			this.headerAccessor.setHeaderIfAbsent(headerName, headerValue);
+		}
+		else if (getHeader(headerName) == null) {
+			setHeader(headerName, headerValue);
+		}
 		return this;
 	}
 
@@ -148,6 +221,16 @@ public final class MessageBuilder<T> extends AbstractIntegrationMessageBuilder<T
 	@Override
 	public MessageBuilder<T> removeHeaders(String... headerPatterns) {
 		this.headerAccessor.removeHeaders(headerPatterns);
+		if (this.baseHeaders != null) {
+			for (String headerName : this.baseHeaders.keySet()) {
+				for (String pattern : headerPatterns) {
+					if (StringUtils.hasLength(pattern) && PatternMatchUtils.simpleMatch(pattern, headerName)) {
+						removeHeader(headerName);
+						break;
+					}
+				}
+			}
+		}
 		return this;
 	}
 
@@ -160,6 +243,12 @@ public final class MessageBuilder<T> extends AbstractIntegrationMessageBuilder<T
 	public MessageBuilder<T> removeHeader(String headerName) {
 		if (!this.headerAccessor.isReadOnly(headerName)) {
 			this.headerAccessor.removeHeader(headerName);
+			if (this.baseHeaders != null && this.baseHeaders.containsKey(headerName)) {
+				if (this.removedHeaders.isEmpty()) {
+					this.removedHeaders = new HashSet<>();
+				}
+				this.removedHeaders.add(headerName);
+			}
 		}
 		else if (LOGGER.isInfoEnabled()) {
 			LOGGER.info("The header [" + headerName + "] is ignored for removal because it is is readOnly.");
@@ -178,7 +267,16 @@ public final class MessageBuilder<T> extends AbstractIntegrationMessageBuilder<T
 	 */
 	@Override
 	public MessageBuilder<T> copyHeaders(@Nullable Map<String, ?> headersToCopy) {
-		this.headerAccessor.copyHeaders(headersToCopy);
+		if (this.baseHeaders == null) {
+			this.headerAccessor.copyHeaders(headersToCopy);
+		}
+		else if (headersToCopy != null) {
+			headersToCopy.forEach((headerName, headerValue) -> {
+				if (!this.headerAccessor.isReadOnly(headerName)) {
+					setHeader(headerName, headerValue);
+				}
+			});
+		}
 		return this;
 	}
 
@@ -193,7 +291,7 @@ public final class MessageBuilder<T> extends AbstractIntegrationMessageBuilder<T
 			for (Map.Entry<String, ?> entry : headersToCopy.entrySet()) {
 				String headerName = entry.getKey();
 				if (!this.headerAccessor.isReadOnly(headerName)) {
-					this.headerAccessor.setHeaderIfAbsent(headerName, entry.getValue());
+					setHeaderIfAbsent(headerName, entry.getValue());
 				}
 			}
 		}
@@ -204,23 +302,25 @@ public final class MessageBuilder<T> extends AbstractIntegrationMessageBuilder<T
 	@Override
 	@Nullable
 	protected List<List<Object>> getSequenceDetails() {
-		return (List<List<Object>>) this.headerAccessor.getHeader(IntegrationMessageHeaderAccessor.SEQUENCE_DETAILS);
+		return (List<List<Object>>) getHeader(IntegrationMessageHeaderAccessor.SEQUENCE_DETAILS);
 	}
 
 	@Override
 	@Nullable
 	protected Object getCorrelationId() {
-		return this.headerAccessor.getCorrelationId();
+		return getHeader(IntegrationMessageHeaderAccessor.CORRELATION_ID);
 	}
 
 	@Override
 	protected Object getSequenceNumber() {
-		return this.headerAccessor.getSequenceNumber();
+		Number sequenceNumber = getHeader(IntegrationMessageHeaderAccessor.SEQUENCE_NUMBER, Number.class);
+		return sequenceNumber != null ? sequenceNumber.intValue() : 0;
 	}
 
 	@Override
 	protected Object getSequenceSize() {
-		return this.headerAccessor.getSequenceSize();
+		Number sequenceSize = getHeader(IntegrationMessageHeaderAccessor.SEQUENCE_SIZE, Number.class);
+		return sequenceSize != null ? sequenceSize.intValue() : 0;
 	}
 
 	/*
@@ -310,19 +410,43 @@ public final class MessageBuilder<T> extends AbstractIntegrationMessageBuilder<T
 	 * @see IntegrationMessageHeaderAccessor#isReadOnly(String)
 	 */
 	public MessageBuilder<T> readOnlyHeaders(String... readOnlyHeaders) {
+		if (this.baseHeaders != null && !ObjectUtils.isEmpty(readOnlyHeaders)) {
+			copyBaseHeaders();
+		}
 		this.readOnlyHeaders = readOnlyHeaders != null ? Arrays.copyOf(readOnlyHeaders, readOnlyHeaders.length) : null;
 		this.headerAccessor.setReadOnlyHeaders(readOnlyHeaders);
 		return this;
 	}
 
+	/**
+	 * Leave the layered mode: populate the header accessor from the original message
+	 * and replay the changes made so far on top of it.
+	 */
+	private void copyBaseHeaders() {
+		IntegrationMessageHeaderAccessor changes = this.headerAccessor;
+		this.headerAccessor = new IntegrationMessageHeaderAccessor(this.originalMessage);
+		this.removedHeaders.forEach(this.headerAccessor::removeHeader);
+		this.headerAccessor.copyHeaders(changes.toMap());
+		this.baseHeaders = null;
+		this.removedHeaders = Collections.emptySet();
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	public Message<T> build() {
-		if (!this.modified && !this.headerAccessor.isModified() && this.originalMessage != null
-				&& !containsReadOnly(this.originalMessage.getHeaders())) {
+		if (!this.modified && !this.headerAccessor.isModified() && this.removedHeaders.isEmpty()
+				&& this.originalMessage != null && !containsReadOnly(this.originalMessage.getHeaders())) {
 
 			return this.originalMessage;
 		}
+		if (this.baseHeaders != null) {
+			MessageHeaders headers =
+					new LayeredMessageHeaders(this.baseHeaders, this.headerAccessor.toMap(), this.removedHeaders);
+			if (this.payload instanceof Throwable throwable) {
+				return (Message<T>) new ErrorMessage(throwable, headers);
+			}
+			return new GenericMessage<>(this.payload, headers);
+		}
 		if (this.payload instanceof Throwable) {
 			return (Message<T>) new ErrorMessage((Throwable) this.payload, this.headerAccessor.toMap());
 		}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -30,6 +30,7 @@ import org.springframework.core.convert.converter.Converter;
 import org.springframework.core.serializer.DefaultDeserializer;
 import org.springframework.core.serializer.Deserializer;
 import org.springframework.core.serializer.support.SerializationFailedException;
+import org.springframework.messaging.Message;
 import org.springframework.util.Assert;
 import org.springframework.util.PatternMatchUtils;
 
@@ -43,6 +44,8 @@ import org.springframework.util.PatternMatchUtils;
  * <p>
  * If a delegate deserializer is a {@link DefaultDeserializer}, only its {@link ClassLoader}
  * is used for a {@link ConfigurableObjectInputStream} logic.
+ * Otherwise, the allowed patterns are checked against the type of the result after deserialization,
+ * and if it is a {@link Message}, also against the types of its payload and header values.
  *
  * @author Gary Russell
  * @author Mark Fisher
@@ -141,6 +144,14 @@ public class AllowListDeserializingConverter implements Converter<byte[], Object
 				 with untrusted data rather than just let it pass downstream.
 				 */
 				checkAllowList(result.getClass());
+				if (result instanceof Message<?> message) {
+					checkAllowList(message.getPayload().getClass());
+					for (Object headerValue : message.getHeaders().values()) {
+						if (headerValue != null) {
+							checkAllowList(headerValue.getClass());
+						}
+					}
+				}
 				return result;
 			}
 		}
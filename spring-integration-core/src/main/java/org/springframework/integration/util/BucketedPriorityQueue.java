@@ -0,0 +1,295 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.util;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * An unbounded {@link BlockingQueue} for a small range of integer priorities:
+ * one FIFO bucket per priority level and a bitmap of the non-empty levels.
+ * <p>
+ * The {@link #offer(Object)} and {@link #poll()} operations are {@code O(1)}:
+ * the highest non-empty level is found by the highest set bit in the bitmap,
+ * and no comparison or sequence bookkeeping is needed to keep the FIFO order
+ * of the elements with the same priority.
+ * The lock is held only for a constant time bucket operation.
+ * <p>
+ * The priority of an element is resolved by the provided function once on insertion;
+ * the elements with a priority outside of the {@code [0, priorityLevels)} range
+ * are placed into the lowest or the highest bucket respectively.
+ * The higher priority elements are returned first.
+ * <p>
+ * The {@link #iterator()} returns a read-only snapshot of the elements
+ * in the order they would be polled at the moment of the call.
+ *
+ * @param <E> the type of elements in this queue.
+ *
+ * @since 6.2
+ */
+public class BucketedPriorityQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+	/**
+	 * The maximum number of priority levels - the number of bits in the bitmap.
+	 */
+	public static final int MAX_PRIORITY_LEVELS = Long.SIZE;
+
+	private final ToIntFunction<? super E> priorityFunction;
+
+	private final ArrayDeque<E>[] buckets;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Condition notEmpty = this.lock.newCondition();
+
+	private long nonEmptyLevels;
+
+	private int count;
+
+	/**
+	 * Create a queue for the priorities from {@code 0} to {@code priorityLevels - 1}.
+	 * @param priorityLevels the number of priority levels; up to {@link #MAX_PRIORITY_LEVELS}.
+	 * @param priorityFunction the function to resolve the priority of an element.
+	 */
+	@SuppressWarnings("unchecked")
+	public BucketedPriorityQueue(int priorityLevels, ToIntFunction<? super E> priorityFunction) {
+		Assert.isTrue(priorityLevels > 0 && priorityLevels <= MAX_PRIORITY_LEVELS,
+				"'priorityLevels' must be between 1 and " + MAX_PRIORITY_LEVELS);
+		Assert.notNull(priorityFunction, "'priorityFunction' must not be null");
+		this.priorityFunction = priorityFunction;
+		this.buckets = new ArrayDeque[priorityLevels];
+		for (int i = 0; i < priorityLevels; i++) {
+			this.buckets[i] = new ArrayDeque<>();
+		}
+	}
+
+	public int getPriorityLevels() {
+		return this.buckets.length;
+	}
+
+	@Override
+	public boolean offer(E element) {
+		Assert.notNull(element, "'element' must not be null");
+		int level = Math.max(0, Math.min(this.buckets.length - 1, this.priorityFunction.applyAsInt(element)));
+		this.lock.lock();
+		try {
+			this.buckets[level].addLast(element);
+			this.nonEmptyLevels |= 1L << level;
+			this.count++;
+			this.notEmpty.signal();
+		}
+		finally {
+			this.lock.unlock();
+		}
+		return true;
+	}
+
+	@Override
+	public void put(E element) {
+		offer(element);
+	}
+
+	@Override
+	public boolean offer(E element, long timeout, TimeUnit unit) {
+		return offer(element);
+	}
+
+	@Override
+	@Nullable
+	public E poll() {
+		this.lock.lock();
+		try {
+			return dequeue();
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public E take() throws InterruptedException {
+		this.lock.lockInterruptibly();
+		try {
+			while (this.count == 0) {
+				this.notEmpty.await();
+			}
+			return dequeue();
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	@Nullable
+	public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+		long nanos = unit.toNanos(timeout);
+		this.lock.lockInterruptibly();
+		try {
+			while (this.count == 0) {
+				if (nanos <= 0) {
+					return null;
+				}
+				nanos = this.notEmpty.awaitNanos(nanos);
+			}
+			return dequeue();
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	@Nullable
+	public E peek() {
+		this.lock.lock();
+		try {
+			return this.nonEmptyLevels == 0 ? null : this.buckets[highestLevel()].peekFirst();
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean remove(Object element) {
+		this.lock.lock();
+		try {
+			for (int level = 0; level < this.buckets.length; level++) {
+				ArrayDeque<E> bucket = this.buckets[level];
+				if (bucket.removeFirstOccurrence(element)) {
+					bucketPolled(level, bucket);
+					return true;
+				}
+			}
+			return false;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public void clear() {
+		this.lock.lock();
+		try {
+			for (ArrayDeque<E> bucket : this.buckets) {
+				bucket.clear();
+			}
+			this.nonEmptyLevels = 0;
+			this.count = 0;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public int size() {
+		this.lock.lock();
+		try {
+			return this.count;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public int remainingCapacity() {
+		return Integer.MAX_VALUE;
+	}
+
+	@Override
+	public int drainTo(Collection<? super E> collection) {
+		return drainTo(collection, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public int drainTo(Collection<? super E> collection, int maxElements) {
+		Assert.notNull(collection, "'collection' must not be null");
+		Assert.isTrue(collection != this, "Cannot drain a queue to itself");
+		this.lock.lock();
+		try {
+			int drained = 0;
+			while (drained < maxElements && this.count > 0) {
+				collection.add(dequeue());
+				drained++;
+			}
+			return drained;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Return a read-only snapshot iterator over the elements in this queue.
+	 * @return the iterator.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		this.lock.lock();
+		try {
+			List<E> snapshot = new ArrayList<>(this.count);
+			for (int level = this.buckets.length - 1; level >= 0; level--) {
+				snapshot.addAll(this.buckets[level]);
+			}
+			return Collections.unmodifiableList(snapshot).iterator();
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Nullable
+	private E dequeue() {
+		if (this.nonEmptyLevels == 0) {
+			return null;
+		}
+		int level = highestLevel();
+		ArrayDeque<E> bucket = this.buckets[level];
+		E element = bucket.pollFirst();
+		bucketPolled(level, bucket);
+		return element;
+	}
+
+	private int highestLevel() {
+		return Long.SIZE - 1 - Long.numberOfLeadingZeros(this.nonEmptyLevels);
+	}
+
+	private void bucketPolled(int level, ArrayDeque<E> bucket) {
+		this.count--;
+		if (bucket.isEmpty()) {
+			this.nonEmptyLevels &= ~(1L << level);
+		}
+	}
+
+}
@@ -0,0 +1,444 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.util;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * A bounded, lock-free {@link BlockingQueue} backed by a pre-allocated ring buffer.
+ * <p>
+ * The buffer size is always a power of two: the requested capacity is rounded up
+ * to the nearest power of two.
+ * Every slot carries its own sequence number, so producers and consumers only contend
+ * on the CAS of their own (padded against false sharing) counter and never allocate on
+ * {@link #offer(Object)} or {@link #poll()}.
+ * <p>
+ * In the {@link ConcurrencyMode#MPSC} mode the consumer side does not perform a CAS
+ * for claiming the next slot: only one thread at a time is allowed to consume from
+ * such a queue, otherwise the same element may be returned to several consumers.
+ * <p>
+ * When a producer has to wait for a free slot (or a consumer for an element) in the timed
+ * and blocking operations, the configured {@link WaitStrategy} is applied.
+ * <p>
+ * Removal of arbitrary elements is not supported; the {@link #iterator()} returns
+ * a read-only snapshot of the elements in the queue at the moment of the call.
+ *
+ * @param <E> the type of elements in this queue.
+ *
+ * @since 6.2
+ */
+public class RingBufferQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+	/**
+	 * The number of {@code long}s between counters: 128 bytes is enough to avoid
+	 * false sharing even with adjacent cache line prefetching.
+	 */
+	private static final int PADDING = 16;
+
+	private static final int HEAD = PADDING;
+
+	private static final int TAIL = PADDING * 2;
+
+	private static final int SPIN_TRIES = 100;
+
+	private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+	private final int capacity;
+
+	private final int mask;
+
+	private final AtomicReferenceArray<E> buffer;
+
+	private final AtomicLongArray sequences;
+
+	private final AtomicLongArray counters = new AtomicLongArray(PADDING * 3);
+
+	private final ConcurrencyMode concurrencyMode;
+
+	private final WaitStrategy waitStrategy;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Condition notEmpty = this.lock.newCondition();
+
+	private final Condition notFull = this.lock.newCondition();
+
+	private final AtomicInteger waitingConsumers = new AtomicInteger();
+
+	private final AtomicInteger waitingProducers = new AtomicInteger();
+
+	/**
+	 * Create a {@link ConcurrencyMode#MPMC} queue with the {@link WaitStrategy#BLOCKING} strategy.
+	 * @param capacity the capacity (rounded up to a power of two).
+	 */
+	public RingBufferQueue(int capacity) {
+		this(capacity, ConcurrencyMode.MPMC, WaitStrategy.BLOCKING);
+	}
+
+	/**
+	 * Create a queue with the provided options.
+	 * @param capacity the capacity (rounded up to a power of two).
+	 * @param concurrencyMode the {@link ConcurrencyMode} for consumers.
+	 * @param waitStrategy the {@link WaitStrategy} for timed and blocking operations.
+	 */
+	public RingBufferQueue(int capacity, ConcurrencyMode concurrencyMode, WaitStrategy waitStrategy) {
+		Assert.isTrue(capacity > 0 && capacity <= (1 << 30), "'capacity' must be between 1 and 2^30");
+		Assert.notNull(concurrencyMode, "'concurrencyMode' must not be null");
+		Assert.notNull(waitStrategy, "'waitStrategy' must not be null");
+		this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+		this.mask = this.capacity - 1;
+		this.buffer = new AtomicReferenceArray<>(this.capacity);
+		this.sequences = new AtomicLongArray(this.capacity);
+		for (int i = 0; i < this.capacity; i++) {
+			this.sequences.setPlain(i, i);
+		}
+		this.concurrencyMode = concurrencyMode;
+		this.waitStrategy = waitStrategy;
+	}
+
+	/**
+	 * Return the actual capacity of the buffer - the requested one rounded up to a power of two.
+	 * @return the capacity.
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	public ConcurrencyMode getConcurrencyMode() {
+		return this.concurrencyMode;
+	}
+
+	public WaitStrategy getWaitStrategy() {
+		return this.waitStrategy;
+	}
+
+	@Override
+	public boolean offer(E element) {
+		Assert.notNull(element, "'element' must not be null");
+		long position = this.counters.get(TAIL);
+		while (true) {
+			int index = (int) position & this.mask;
+			long difference = this.sequences.getAcquire(index) - position;
+			if (difference == 0) {
+				if (this.counters.compareAndSet(TAIL, position, position + 1)) {
+					this.buffer.setPlain(index, element);
+					this.sequences.setRelease(index, position + 1);
+					if (this.waitingConsumers.get() > 0) {
+						signal(this.notEmpty);
+					}
+					return true;
+				}
+				position = this.counters.get(TAIL);
+			}
+			else if (difference < 0) {
+				return false;
+			}
+			else {
+				position = this.counters.get(TAIL);
+			}
+		}
+	}
+
+	@Override
+	@Nullable
+	public E poll() {
+		long position = this.counters.get(HEAD);
+		while (true) {
+			int index = (int) position & this.mask;
+			long difference = this.sequences.getAcquire(index) - (position + 1);
+			if (difference == 0) {
+				if (claimHead(position)) {
+					E element = this.buffer.getPlain(index);
+					this.buffer.setPlain(index, null);
+					this.sequences.setRelease(index, position + this.capacity);
+					if (this.waitingProducers.get() > 0) {
+						signal(this.notFull);
+					}
+					return element;
+				}
+				position = this.counters.get(HEAD);
+			}
+			else if (difference < 0) {
+				return null;
+			}
+			else {
+				position = this.counters.get(HEAD);
+			}
+		}
+	}
+
+	private boolean claimHead(long position) {
+		if (ConcurrencyMode.MPSC.equals(this.concurrencyMode)) {
+			this.counters.set(HEAD, position + 1);
+			return true;
+		}
+		else {
+			return this.counters.compareAndSet(HEAD, position, position + 1);
+		}
+	}
+
+	@Override
+	@Nullable
+	public E peek() {
+		long position = this.counters.get(HEAD);
+		int index = (int) position & this.mask;
+		if (this.sequences.getAcquire(index) == position + 1) {
+			return this.buffer.getPlain(index);
+		}
+		return null;
+	}
+
+	@Override
+	public void put(E element) throws InterruptedException {
+		int attempt = 0;
+		while (!offer(element)) {
+			idle(attempt++, Long.MAX_VALUE, true);
+		}
+	}
+
+	@Override
+	public boolean offer(E element, long timeout, TimeUnit unit) throws InterruptedException {
+		if (offer(element)) {
+			return true;
+		}
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		int attempt = 0;
+		do {
+			long nanos = deadline - System.nanoTime();
+			if (nanos <= 0) {
+				return false;
+			}
+			idle(attempt++, nanos, true);
+		}
+		while (!offer(element));
+		return true;
+	}
+
+	@Override
+	public E take() throws InterruptedException {
+		E element;
+		int attempt = 0;
+		while ((element = poll()) == null) {
+			idle(attempt++, Long.MAX_VALUE, false);
+		}
+		return element;
+	}
+
+	@Override
+	@Nullable
+	public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+		E element = poll();
+		if (element != null) {
+			return element;
+		}
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		int attempt = 0;
+		do {
+			long nanos = deadline - System.nanoTime();
+			if (nanos <= 0) {
+				return null;
+			}
+			idle(attempt++, nanos, false);
+		}
+		while ((element = poll()) == null);
+		return element;
+	}
+
+	private void idle(int attempt, long nanos, boolean producer) throws InterruptedException {
+		if (Thread.interrupted()) {
+			throw new InterruptedException();
+		}
+		switch (this.waitStrategy) {
+			case SPIN -> Thread.onSpinWait();
+			case YIELD -> {
+				if (attempt < SPIN_TRIES) {
+					Thread.onSpinWait();
+				}
+				else {
+					Thread.yield();
+				}
+			}
+			case PARK -> {
+				if (attempt < SPIN_TRIES) {
+					Thread.onSpinWait();
+				}
+				else {
+					LockSupport.parkNanos(this, Math.min(nanos, PARK_NANOS));
+				}
+			}
+			case BLOCKING -> block(nanos, producer);
+		}
+	}
+
+	private void block(long nanos, boolean producer) throws InterruptedException {
+		AtomicInteger waiters = producer ? this.waitingProducers : this.waitingConsumers;
+		this.lock.lockInterruptibly();
+		try {
+			waiters.incrementAndGet();
+			try {
+				// Re-check after registering as a waiter to not miss a signal
+				if (producer ? isFull() : isEmpty()) {
+					(producer ? this.notFull : this.notEmpty).awaitNanos(nanos);
+				}
+			}
+			finally {
+				waiters.decrementAndGet();
+			}
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void signal(Condition condition) {
+		this.lock.lock();
+		try {
+			condition.signalAll();
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private boolean isFull() {
+		return size() >= this.capacity;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.counters.get(TAIL) <= this.counters.get(HEAD);
+	}
+
+	@Override
+	public int size() {
+		long head = this.counters.get(HEAD);
+		while (true) {
+			long tail = this.counters.get(TAIL);
+			long currentHead = this.counters.get(HEAD);
+			if (head == currentHead) {
+				return (int) Math.max(0, Math.min(this.capacity, tail - head));
+			}
+			head = currentHead;
+		}
+	}
+
+	@Override
+	public int remainingCapacity() {
+		return this.capacity - size();
+	}
+
+	@Override
+	public int drainTo(Collection<? super E> collection) {
+		return drainTo(collection, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public int drainTo(Collection<? super E> collection, int maxElements) {
+		Assert.notNull(collection, "'collection' must not be null");
+		Assert.isTrue(collection != this, "Cannot drain the queue to itself");
+		int drained = 0;
+		E element;
+		while (drained < maxElements && (element = poll()) != null) {
+			collection.add(element);
+			drained++;
+		}
+		return drained;
+	}
+
+	/**
+	 * Return a read-only snapshot iterator over the elements in this queue.
+	 * @return the iterator.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		List<E> snapshot = new ArrayList<>();
+		long head = this.counters.get(HEAD);
+		long tail = this.counters.get(TAIL);
+		for (long position = head; position < tail; position++) {
+			int index = (int) position & this.mask;
+			E element = this.buffer.get(index);
+			if (element != null && this.sequences.getAcquire(index) == position + 1) {
+				snapshot.add(element);
+			}
+		}
+		return Collections.unmodifiableList(snapshot).iterator();
+	}
+
+	/**
+	 * The consumer side concurrency of the {@link RingBufferQueue}.
+	 */
+	public enum ConcurrencyMode {
+
+		/**
+		 * Multiple producers, single consumer: the consumer claims slots without a CAS.
+		 * Only one thread at a time must consume from the queue.
+		 */
+		MPSC,
+
+		/**
+		 * Multiple producers, multiple consumers.
+		 */
+		MPMC
+
+	}
+
+	/**
+	 * The strategy for waiting a free slot or an element in the timed and blocking operations.
+	 */
+	public enum WaitStrategy {
+
+		/**
+		 * Busy spin with {@link Thread#onSpinWait()}: the lowest latency, but a CPU core is burned
+		 * for every waiting thread.
+		 */
+		SPIN,
+
+		/**
+		 * Spin for a while, then {@link Thread#yield()}.
+		 */
+		YIELD,
+
+		/**
+		 * Spin for a while, then park for short periods.
+		 */
+		PARK,
+
+		/**
+		 * Wait on a lock condition, which is signalled by the opposite side only when there are waiters.
+		 * No CPU is consumed while idle.
+		 */
+		BLOCKING
+
+	}
+
+}
@@ -157,6 +157,26 @@ public class AggregatingMessageGroupProcessorHeaderTests {
 		assertThat(resultMessage.getHeaders().get("k2")).isNull();
 	}
 
+	@Test
+	public void headersPopulatedByAggregatePayloadsArePropagated() {
+		AbstractAggregatingMessageGroupProcessor processor = new AbstractAggregatingMessageGroupProcessor() {
+
+			@Override
+			protected Object aggregatePayloads(MessageGroup group, Map<String, Object> defaultHeaders) {
+				defaultHeaders.put("fromPayloads", "bar");
+				return "result";
+			}
+
+		};
+		processor.setBeanFactory(mock(BeanFactory.class));
+		Message<?> message = correlatedMessage(1, 1, 1, Collections.singletonMap("common", "foo"));
+		Object result = processor.processMessageGroup(new SimpleMessageGroup(Collections.singletonList(message), 1));
+		Message<?> resultMessage = ((AbstractIntegrationMessageBuilder<?>) result).build();
+		assertThat(resultMessage.getPayload()).isEqualTo("result");
+		assertThat(resultMessage.getHeaders().get("common")).isEqualTo("foo");
+		assertThat(resultMessage.getHeaders().get("fromPayloads")).isEqualTo("bar");
+	}
+
 
 	private void singleMessage(MessageGroupProcessor processor) {
 		Map<String, Object> headers = new HashMap<>();
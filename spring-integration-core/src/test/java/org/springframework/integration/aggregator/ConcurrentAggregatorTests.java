@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,15 +16,22 @@
 
 package org.springframework.integration.aggregator;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
+import org.springframework.beans.factory.BeanFactory;
 import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.core.task.TaskExecutor;
+import org.springframework.expression.common.LiteralExpression;
 import org.springframework.integration.channel.QueueChannel;
 import org.springframework.integration.store.MessageGroup;
 import org.springframework.integration.store.MessageGroupStore;
@@ -35,9 +42,12 @@ import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.MessageHandler;
 import org.springframework.messaging.MessageHandlingException;
 import org.springframework.messaging.MessageHeaders;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.Mockito.mock;
 
 /**
  * @author Mark Fisher
@@ -246,6 +256,105 @@ public class ConcurrentAggregatorTests {
 		assertThat(reply.getPayload()).isEqualTo(105);
 	}
 
+	@Test
+	public void testLockFreeAccumulationForManyConcurrentGroups() throws InterruptedException {
+		AggregatingMessageHandler lockFreeAggregator =
+				new AggregatingMessageHandler(new MultiplyingProcessor(), this.store);
+		lockFreeAggregator.setLockFreeAccumulation(true);
+		lockFreeAggregator.setBeanFactory(mock(BeanFactory.class));
+		lockFreeAggregator.afterPropertiesSet();
+
+		QueueChannel replyChannel = new QueueChannel();
+		int groups = 500;
+		List<Message<?>> messages = new ArrayList<>();
+		for (int i = 0; i < groups; i++) {
+			for (int j = 1; j <= 4; j++) {
+				messages.add(createMessage(j, "group" + i, 4, j, replyChannel, null));
+			}
+		}
+		Collections.shuffle(messages);
+
+		ExecutorService executorService = Executors.newFixedThreadPool(4);
+		CountDownLatch latch = new CountDownLatch(messages.size());
+		messages.forEach((message) ->
+				executorService.execute(new AggregatorTestTask(lockFreeAggregator, message, latch)));
+
+		assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+		executorService.shutdown();
+
+		for (int i = 0; i < groups; i++) {
+			Message<?> reply = replyChannel.receive(0);
+			assertThat(reply).isNotNull();
+			assertThat(reply.getPayload()).isEqualTo(24);
+		}
+		assertThat(replyChannel.receive(0)).isNull();
+		assertThat(this.store.getMessageGroupCount()).isZero();
+	}
+
+	@Test
+	public void testLockFreeAccumulationExpiresPartialGroup() {
+		ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+		taskScheduler.initialize();
+		AggregatingMessageHandler lockFreeAggregator =
+				new AggregatingMessageHandler(new MultiplyingProcessor(), this.store);
+		lockFreeAggregator.setReleaseStrategy(new MessageCountReleaseStrategy(3));
+		lockFreeAggregator.setLockFreeAccumulation(true);
+		lockFreeAggregator.setBeanFactory(mock(BeanFactory.class));
+		lockFreeAggregator.setGroupTimeoutExpression(new LiteralExpression("100"));
+		lockFreeAggregator.setSendPartialResultOnExpiry(true);
+		lockFreeAggregator.setTaskScheduler(taskScheduler);
+		lockFreeAggregator.afterPropertiesSet();
+
+		QueueChannel replyChannel = new QueueChannel();
+		lockFreeAggregator.handleMessage(createMessage(3, "ABC", 0, 0, replyChannel, null));
+		lockFreeAggregator.handleMessage(createMessage(5, "ABC", 0, 0, replyChannel, null));
+
+		Message<?> reply = replyChannel.receive(10000);
+		assertThat(reply).isNotNull();
+		assertThat(reply.getPayload()).isEqualTo(15);
+
+		lockFreeAggregator.handleMessage(createMessage(2, "ABC", 0, 0, replyChannel, null));
+		lockFreeAggregator.handleMessage(createMessage(3, "ABC", 0, 0, replyChannel, null));
+		lockFreeAggregator.handleMessage(createMessage(7, "ABC", 0, 0, replyChannel, null));
+
+		reply = replyChannel.receive(0);
+		assertThat(reply).isNotNull();
+		assertThat(reply.getPayload()).isEqualTo(42);
+
+		lockFreeAggregator.destroy();
+		taskScheduler.destroy();
+	}
+
+	@Test
+	public void testLockFreeAccumulationFallsBackToStoreForLargeGroups() {
+		AggregatingMessageHandler lockFreeAggregator =
+				new AggregatingMessageHandler(new MultiplyingProcessor(), this.store);
+		lockFreeAggregator.setReleaseStrategy(new MessageCountReleaseStrategy(Integer.MAX_VALUE));
+		lockFreeAggregator.setLockFreeAccumulation(true);
+		lockFreeAggregator.setBeanFactory(mock(BeanFactory.class));
+		lockFreeAggregator.afterPropertiesSet();
+
+		QueueChannel replyChannel = new QueueChannel();
+		lockFreeAggregator.handleMessage(createMessage(3, "ABC", 0, 0, replyChannel, null));
+		lockFreeAggregator.handleMessage(createMessage(5, "ABC", 0, 0, replyChannel, null));
+
+		assertThat(replyChannel.receive(0)).isNull();
+		assertThat(this.store.getMessageGroupCount()).isEqualTo(1);
+		assertThat(this.store.messageGroupSize("ABC")).isEqualTo(2);
+	}
+
+	@Test
+	public void testLockFreeAccumulationRequiresCountBasedReleaseStrategy() {
+		AggregatingMessageHandler lockFreeAggregator =
+				new AggregatingMessageHandler(new MultiplyingProcessor(), this.store);
+		lockFreeAggregator.setReleaseStrategy(new SequenceSizeReleaseStrategy());
+		lockFreeAggregator.setLockFreeAccumulation(true);
+		lockFreeAggregator.setBeanFactory(mock(BeanFactory.class));
+		assertThatIllegalStateException()
+				.isThrownBy(lockFreeAggregator::afterPropertiesSet)
+				.withMessageContaining("lockFreeAccumulation");
+	}
+
 
 	private static Message<?> createMessage(Object payload,
 			Object correlationId, int sequenceSize, int sequenceNumber,
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,10 @@ package org.springframework.integration.aggregator;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -395,6 +399,52 @@ public class ResequencerTests {
 		assertThat(out3).isNotNull();
 	}
 
+	@Test
+	public void testLargeShuffledUnboundedResequencing() {
+		SequenceSizeReleaseStrategy releaseStrategy = new SequenceSizeReleaseStrategy(true);
+		this.resequencer = new ResequencingMessageHandler(processor, store, message -> "A", releaseStrategy);
+		QueueChannel replyChannel = new QueueChannel();
+		this.resequencer.setOutputChannel(replyChannel);
+		this.resequencer.setBeanFactory(mock(BeanFactory.class));
+		this.resequencer.afterPropertiesSet();
+
+		List<Integer> sequences = IntStream.rangeClosed(1, 20_000).boxed().collect(Collectors.toList());
+		Random random = new Random(42);
+		for (int i = 0; i < sequences.size(); i += 1000) {
+			Collections.shuffle(sequences.subList(i, i + 1000), random);
+		}
+		for (Integer sequence : sequences) {
+			this.resequencer.handleMessage(MessageBuilder.withPayload(sequence).setSequenceNumber(sequence).build());
+		}
+
+		for (int i = 1; i <= 20_000; i++) {
+			Message<?> out = replyChannel.receive(0);
+			assertThat(out).isNotNull();
+			assertThat(out.getPayload()).isEqualTo(i);
+		}
+		assertThat(replyChannel.receive(0)).isNull();
+		assertThat(this.store.getMessageGroup("A").size()).isZero();
+		assertThat(this.store.getMessageGroup("A").getLastReleasedMessageSequenceNumber()).isEqualTo(20_000);
+	}
+
+	@Test
+	public void testResequencingReversedLargeSequence() {
+		QueueChannel replyChannel = new QueueChannel();
+		this.resequencer.setOutputChannel(replyChannel);
+		for (int i = 5000; i > 0; i--) {
+			this.resequencer.handleMessage(createMessage("" + i, "ABC", 5000, i, null));
+			if (i > 1) {
+				assertThat(replyChannel.getQueueSize()).isZero();
+			}
+		}
+		for (int i = 1; i <= 5000; i++) {
+			Message<?> out = replyChannel.receive(0);
+			assertThat(out).isNotNull();
+			assertThat(new IntegrationMessageHeaderAccessor(out).getSequenceNumber()).isEqualTo(i);
+		}
+		assertThat(this.store.getMessageGroupCount()).isZero();
+	}
+
 	private static Message<?> createMessage(String payload, Object correlationId, int sequenceSize, int sequenceNumber,
 			MessageChannel replyChannel) {
 
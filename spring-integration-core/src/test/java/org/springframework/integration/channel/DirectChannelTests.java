@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -31,15 +32,19 @@ import org.springframework.core.log.LogAccessor;
 import org.springframework.integration.dispatcher.RoundRobinLoadBalancingStrategy;
 import org.springframework.integration.dispatcher.UnicastingDispatcher;
 import org.springframework.integration.endpoint.EventDrivenConsumer;
+import org.springframework.integration.history.MessageHistory;
 import org.springframework.integration.test.util.TestUtils;
 import org.springframework.lang.Nullable;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
 import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.GenericMessage;
 import org.springframework.util.ReflectionUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -204,6 +209,44 @@ class DirectChannelTests {
 		parentContext.close();
 	}
 
+	@Test
+	void sendPlanFollowsConfigurationChanges() {
+		DirectChannel channel = new DirectChannel();
+		channel.setBeanName("planChannel");
+		AtomicReference<Message<?>> received = new AtomicReference<>();
+		channel.subscribe(received::set);
+		AtomicInteger intercepted = new AtomicInteger();
+		ChannelInterceptor interceptor = new ChannelInterceptor() {
+
+			@Override
+			public Message<?> preSend(Message<?> message, MessageChannel channel) {
+				intercepted.incrementAndGet();
+				return message;
+			}
+
+		};
+
+		assertThat(channel.send(new GenericMessage<>("test"))).isTrue();
+		channel.addInterceptor(interceptor);
+		assertThat(channel.send(new GenericMessage<>("test"))).isTrue();
+		assertThat(intercepted.get()).isEqualTo(1);
+		channel.removeInterceptor(interceptor);
+		assertThat(channel.send(new GenericMessage<>("test"))).isTrue();
+		assertThat(intercepted.get()).isEqualTo(1);
+
+		channel.setDatatypes(Integer.class);
+		assertThatExceptionOfType(MessageDeliveryException.class)
+				.isThrownBy(() -> channel.send(new GenericMessage<>("test")))
+				.withMessageContaining("expected one of the following data types");
+		channel.setDatatypes();
+		assertThat(channel.send(new GenericMessage<>("test"))).isTrue();
+
+		assertThat(MessageHistory.read(received.get())).isNull();
+		channel.setShouldTrack(true);
+		assertThat(channel.send(new GenericMessage<>("test"))).isTrue();
+		assertThat(MessageHistory.read(received.get())).hasSize(1);
+	}
+
 
 	private static class ThreadNameExtractingTestTarget implements MessageHandler {
 
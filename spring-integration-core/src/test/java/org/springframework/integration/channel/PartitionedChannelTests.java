@@ -18,12 +18,19 @@ package org.springframework.integration.channel;
 
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.IntStream;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
 
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,19 +38,24 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.integration.config.EnableIntegration;
+import org.springframework.integration.dispatcher.PartitionedDispatcher;
 import org.springframework.integration.dsl.IntegrationFlow;
 import org.springframework.integration.support.MessageBuilder;
+import org.springframework.integration.support.management.micrometer.MicrometerMetricsCaptor;
+import org.springframework.integration.test.util.TestUtils;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.MessageHandler;
 import org.springframework.messaging.PollableChannel;
 import org.springframework.messaging.support.ExecutorChannelInterceptor;
 import org.springframework.messaging.support.GenericMessage;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 import static org.mockito.Mockito.mock;
 
 /**
@@ -118,6 +130,231 @@ public class PartitionedChannelTests {
 		partitionedChannel.destroy();
 	}
 
+	@Test
+	void onDemandPartitionsPreserveOrderPerKey() throws InterruptedException {
+		ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+		taskExecutor.setCorePoolSize(4);
+		taskExecutor.setThreadNamePrefix("shared-");
+		taskExecutor.afterPropertiesSet();
+
+		int keys = 1000;
+		int messagesPerKey = 10;
+		PartitionedChannel partitionedChannel =
+				new PartitionedChannel(keys, (message) -> message.getHeaders().get("partitionKey"));
+		partitionedChannel.setBeanFactory(mock(BeanFactory.class));
+		partitionedChannel.setBeanName("onDemandPartitionedChannel");
+		partitionedChannel.setTaskExecutor(taskExecutor);
+		partitionedChannel.afterPropertiesSet();
+
+		CountDownLatch handleLatch = new CountDownLatch(keys * messagesPerKey);
+		Map<Object, List<Object>> handledPerKey = new ConcurrentHashMap<>();
+		Set<String> threads = ConcurrentHashMap.newKeySet();
+
+		partitionedChannel.subscribe((message) -> {
+			threads.add(Thread.currentThread().getName());
+			handledPerKey.computeIfAbsent(message.getHeaders().get("partitionKey"),
+							(key) -> new CopyOnWriteArrayList<>())
+					.add(message.getPayload());
+			handleLatch.countDown();
+		});
+
+		for (int i = 0; i < messagesPerKey; i++) {
+			for (int key = 0; key < keys; key++) {
+				partitionedChannel.send(MessageBuilder.withPayload(i).setHeader("partitionKey", key).build());
+			}
+		}
+
+		assertThat(handleLatch.await(30, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(handledPerKey).hasSize(keys);
+		assertThat(handledPerKey.values())
+				.allSatisfy(payloads -> assertThat(payloads).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+		assertThat(threads).hasSizeLessThanOrEqualTo(4).allMatch(name -> name.startsWith("shared-"));
+
+		partitionedChannel.destroy();
+		taskExecutor.shutdown();
+	}
+
+	@Test
+	@EnabledForJreRange(min = JRE.JAVA_21)
+	void virtualThreadPartitions() throws InterruptedException {
+		PartitionedChannel partitionedChannel = new PartitionedChannel(10_000);
+		partitionedChannel.setBeanFactory(mock(BeanFactory.class));
+		partitionedChannel.setBeanName("virtualChannel");
+		partitionedChannel.setVirtualThreads(true);
+		partitionedChannel.afterPropertiesSet();
+
+		CountDownLatch handleLatch = new CountDownLatch(1);
+		List<String> threads = new CopyOnWriteArrayList<>();
+
+		partitionedChannel.subscribe((message) -> {
+			threads.add(Thread.currentThread().getName());
+			handleLatch.countDown();
+		});
+
+		partitionedChannel.send(MessageBuilder.withPayload("test").setCorrelationId("someKey").build());
+
+		assertThat(handleLatch.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(threads).singleElement().asString().startsWith("virtualChannel-partition-");
+
+		partitionedChannel.destroy();
+	}
+
+	@Test
+	void idleKeyIsMovedAwayFromSaturatedPartition() throws InterruptedException {
+		PartitionedChannel partitionedChannel =
+				new PartitionedChannel(2, (message) -> message.getHeaders().get("partitionKey"));
+		partitionedChannel.setBeanFactory(mock(BeanFactory.class));
+		partitionedChannel.setBeanName("rebalancingChannel");
+		partitionedChannel.setRebalancing(true);
+		partitionedChannel.setRebalanceThreshold(4);
+		partitionedChannel.afterPropertiesSet();
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		partitionedChannel.registerMetricsCaptor(new MicrometerMetricsCaptor(meterRegistry));
+
+		CountDownLatch hotKeyLatch = new CountDownLatch(1);
+		CountDownLatch handleLatch = new CountDownLatch(30);
+		MultiValueMap<Object, Object> payloadsPerKey = new LinkedMultiValueMap<>();
+		Map<Object, Set<String>> threadsPerKey = new ConcurrentHashMap<>();
+
+		partitionedChannel.subscribe((message) -> {
+			Object key = message.getHeaders().get("partitionKey");
+			if (Integer.valueOf(0).equals(key)) {
+				try {
+					hotKeyLatch.await(10, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			synchronized (payloadsPerKey) {
+				payloadsPerKey.add(key, message.getPayload());
+			}
+			threadsPerKey.computeIfAbsent(key, (k) -> ConcurrentHashMap.newKeySet())
+					.add(Thread.currentThread().getName());
+			handleLatch.countDown();
+		});
+
+		// Both keys hash to the partition 0 out of 2
+		Object hotKey = 0;
+		Object coldKey = 2;
+
+		for (int i = 0; i < 20; i++) {
+			partitionedChannel.send(MessageBuilder.withPayload(i).setHeader("partitionKey", hotKey).build());
+		}
+
+		PartitionedDispatcher dispatcher = partitionedChannel.getDispatcher();
+		int hotPartition = 0;
+		assertThat(dispatcher.getPartitionDepth(hotPartition)).isEqualTo(20);
+		assertThat(meterRegistry.get("spring.integration.channel.partition.depth")
+				.tag("name", "rebalancingChannel")
+				.tag("partition", Integer.toString(hotPartition))
+				.gauge()
+				.value())
+				.isEqualTo(20);
+
+		for (int i = 0; i < 10; i++) {
+			partitionedChannel.send(MessageBuilder.withPayload(i).setHeader("partitionKey", coldKey).build());
+		}
+
+		await().until(() -> handleLatch.getCount() == 20);
+		assertThat(threadsPerKey.get(coldKey)).hasSize(1);
+		await().until(() -> dispatcher.getPartitionDepth(1) == 0);
+
+		hotKeyLatch.countDown();
+
+		assertThat(handleLatch.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(threadsPerKey.get(hotKey)).hasSize(1).doesNotContainAnyElementsOf(threadsPerKey.get(coldKey));
+		assertThat(payloadsPerKey.get(hotKey)).containsExactlyElementsOf(IntStream.range(0, 20).boxed().toList());
+		assertThat(payloadsPerKey.get(coldKey)).containsExactlyElementsOf(IntStream.range(0, 10).boxed().toList());
+
+		await().until(() -> dispatcher.getPartitionDepth(hotPartition) == 0);
+		assertThat(dispatcher.getPartitionProcessingTime(hotPartition)).isGreaterThan(0);
+		assertThat(meterRegistry.get("spring.integration.channel.partition.processing.time").gauges()).hasSize(2);
+
+		partitionedChannel.destroy();
+		assertThat(meterRegistry.find("spring.integration.channel.partition.depth").gauges()).isEmpty();
+	}
+
+	@Test
+	void partitionDepthIsConsistentWhenRebalancingIsSwitched() throws InterruptedException {
+		PartitionedChannel partitionedChannel =
+				new PartitionedChannel(2, (message) -> message.getHeaders().get("partitionKey"));
+		partitionedChannel.setBeanFactory(mock(BeanFactory.class));
+		partitionedChannel.setRebalancing(true);
+		partitionedChannel.afterPropertiesSet();
+
+		CountDownLatch releaseLatch = new CountDownLatch(1);
+		CountDownLatch handleLatch = new CountDownLatch(10);
+		partitionedChannel.subscribe((message) -> {
+			try {
+				releaseLatch.await(10, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			handleLatch.countDown();
+		});
+
+		for (int i = 0; i < 5; i++) {
+			partitionedChannel.send(MessageBuilder.withPayload(i).setHeader("partitionKey", 0).build());
+		}
+		partitionedChannel.setRebalancing(false);
+		for (int i = 0; i < 5; i++) {
+			partitionedChannel.send(MessageBuilder.withPayload(i).setHeader("partitionKey", 0).build());
+		}
+
+		PartitionedDispatcher dispatcher = partitionedChannel.getDispatcher();
+		assertThat(dispatcher.getPartitionDepth(0)).isEqualTo(5);
+
+		releaseLatch.countDown();
+		assertThat(handleLatch.await(10, TimeUnit.SECONDS)).isTrue();
+		await().until(() -> dispatcher.getPartitionDepth(0) == 0);
+
+		partitionedChannel.setRebalancing(true);
+		partitionedChannel.send(MessageBuilder.withPayload(0).setHeader("partitionKey", 0).build());
+		await().until(() -> dispatcher.getPartitionDepth(0) == 0);
+		assertThat(dispatcher.getPartitionDepth(1)).isZero();
+
+		partitionedChannel.destroy();
+	}
+
+	@Test
+	void partitionDepthIsReleasedForDuplicateDispatches() throws InterruptedException {
+		PartitionedChannel partitionedChannel =
+				new PartitionedChannel(2, (message) -> message.getHeaders().get("partitionKey"));
+		partitionedChannel.setBeanFactory(mock(BeanFactory.class));
+		partitionedChannel.setRebalancing(true);
+		partitionedChannel.afterPropertiesSet();
+
+		CountDownLatch releaseLatch = new CountDownLatch(1);
+		CountDownLatch handleLatch = new CountDownLatch(2);
+		partitionedChannel.subscribe((message) -> {
+			try {
+				releaseLatch.await(10, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			handleLatch.countDown();
+		});
+
+		Message<?> message = MessageBuilder.withPayload("test").setHeader("partitionKey", 0).build();
+		partitionedChannel.send(message);
+		partitionedChannel.send(message);
+
+		PartitionedDispatcher dispatcher = partitionedChannel.getDispatcher();
+		assertThat(dispatcher.getPartitionDepth(0)).isEqualTo(2);
+
+		releaseLatch.countDown();
+		assertThat(handleLatch.await(10, TimeUnit.SECONDS)).isTrue();
+		await().until(() -> dispatcher.getPartitionDepth(0) == 0);
+		assertThat(TestUtils.getPropertyValue(dispatcher, "keyAssignments", Map.class)).isEmpty();
+		assertThat(TestUtils.getPropertyValue(dispatcher, "trackedMessages", Map.class)).isEmpty();
+
+		partitionedChannel.destroy();
+	}
+
 	@Autowired
 	@Qualifier("someFlow.input")
 	MessageChannel inputChannel;
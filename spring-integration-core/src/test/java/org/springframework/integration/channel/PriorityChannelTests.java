@@ -25,6 +25,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.jupiter.api.Test;
 
+import org.springframework.integration.dsl.MessageChannels;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.support.GenericMessage;
@@ -285,6 +286,113 @@ public class PriorityChannelTests {
 	}
 
 
+	@Test
+	public void testBatchReceive() {
+		PriorityChannel channel = new PriorityChannel(5);
+		channel.send(createPriorityMessage(1));
+		channel.send(createPriorityMessage(5));
+		channel.send(createPriorityMessage(3));
+		channel.send(createPriorityMessage(5));
+		channel.send(createPriorityMessage(2));
+		assertThat(channel.getRemainingCapacity()).isEqualTo(0);
+		assertThat(channel.receive(3, 0))
+				.extracting("payload")
+				.containsExactly("test:5", "test:5", "test:3");
+		assertThat(channel.getRemainingCapacity()).isEqualTo(3);
+		assertThat(channel.receive(3, 0))
+				.extracting("payload")
+				.containsExactly("test:2", "test:1");
+		assertThat(channel.getRemainingCapacity()).isEqualTo(5);
+	}
+
+
+	@Test
+	public void testPriorityLevels() {
+		PriorityChannel channel = new PriorityChannel(0, 10);
+		for (int i = 0; i < 100; i++) {
+			channel.send(MessageBuilder.withPayload(i).setPriority(i % 10).build());
+		}
+		channel.send(new GenericMessage<>("noPriority"));
+		channel.send(createPriorityMessage(-5));
+		channel.send(createPriorityMessage(99));
+		assertThat(channel.getQueueSize()).isEqualTo(103);
+
+		assertThat(channel.receive(0).getPayload()).isEqualTo(9);
+		assertThat(channel.receive(0).getPayload()).isEqualTo(19);
+		assertThat(channel.receive(8, 0))
+				.extracting("payload")
+				.containsExactly(29, 39, 49, 59, 69, 79, 89, 99);
+		assertThat(channel.receive(0).getPayload()).isEqualTo("test:99");
+		for (int level = 8; level > 0; level--) {
+			for (int i = level; i < 100; i += 10) {
+				assertThat(channel.receive(0).getPayload()).isEqualTo(i);
+			}
+		}
+		assertThat(channel.receive(12, 0))
+				.extracting("payload")
+				.containsExactly(0, 10, 20, 30, 40, 50, 60, 70, 80, 90, "noPriority", "test:-5");
+		assertThat(channel.receive(0)).isNull();
+	}
+
+	@Test
+	public void testPriorityLevelsCapacityAndPurge() {
+		PriorityChannel channel = new PriorityChannel(3, 4);
+		assertThat(channel.send(createPriorityMessage(1), 0)).isTrue();
+		assertThat(channel.send(createPriorityMessage(3), 0)).isTrue();
+		assertThat(channel.send(createPriorityMessage(2), 0)).isTrue();
+		assertThat(channel.send(createPriorityMessage(0), 0)).isFalse();
+		assertThat(channel.getRemainingCapacity()).isEqualTo(0);
+
+		assertThat(channel.purge((message) -> !message.getPayload().equals("test:3")))
+				.extracting("payload")
+				.containsExactly("test:3");
+		assertThat(channel.getQueueSize()).isEqualTo(2);
+		assertThat(channel.receive(0).getPayload()).isEqualTo("test:2");
+	}
+
+	@Test
+	public void testPriorityLevelsBlockingReceive() throws InterruptedException {
+		PriorityChannel channel = new PriorityChannel(0, 10);
+		ExecutorService executorService = Executors.newSingleThreadExecutor();
+		executorService.execute(() -> {
+			try {
+				Thread.sleep(100);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			channel.send(createPriorityMessage(5));
+		});
+		Message<?> message = channel.receive(10_000);
+		assertThat(message).isNotNull();
+		assertThat(message.getPayload()).isEqualTo("test:5");
+		assertThat(channel.receive(10)).isNull();
+		executorService.shutdown();
+	}
+
+	@Test
+	public void testComparatorTakesPrecedenceOverPriorityLevels() {
+		PriorityChannel channel =
+				MessageChannels.priority()
+						.priorityLevels(10)
+						.comparator(new StringPayloadComparator())
+						.getObject();
+		channel.send(createPriorityMessage(1));
+		channel.send(createPriorityMessage(5));
+		channel.send(createPriorityMessage(3));
+		assertThat(channel.receive(3, 0))
+				.extracting("payload")
+				.containsExactly("test:1", "test:3", "test:5");
+
+		channel = MessageChannels.priority().priorityLevels(10).getObject();
+		channel.send(createPriorityMessage(1));
+		channel.send(createPriorityMessage(5));
+		channel.send(createPriorityMessage(3));
+		assertThat(channel.receive(3, 0))
+				.extracting("payload")
+				.containsExactly("test:5", "test:3", "test:1");
+	}
+
 	private static Message<String> createPriorityMessage(int priority) {
 		return MessageBuilder.withPayload("test:" + priority).setPriority(priority).build();
 	}
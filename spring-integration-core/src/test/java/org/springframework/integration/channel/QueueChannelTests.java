@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.integration.channel;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.CountDownLatch;
@@ -25,16 +26,28 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 
+import org.springframework.integration.endpoint.SourcePollingChannelAdapter;
 import org.springframework.integration.selector.UnexpiredMessageSelector;
+import org.springframework.integration.store.MessageGroupQueue;
+import org.springframework.integration.store.SimpleMessageStore;
 import org.springframework.integration.support.MessageBuilder;
+import org.springframework.integration.support.management.micrometer.MicrometerMetricsCaptor;
 import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.GenericMessage;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 
 /**
  * @author Mark Fisher
@@ -284,4 +297,255 @@ public class QueueChannelTests {
 		assertThat(channel.send(new GenericMessage<>("roomAvailable"), 0)).isTrue();
 	}
 
+	@Test
+	public void testBatchReceive() {
+		QueueChannel channel = new QueueChannel(10);
+		assertThat(channel.receive(5, 0)).isEmpty();
+		for (int i = 0; i < 7; i++) {
+			channel.send(new GenericMessage<>(i));
+		}
+		assertThat(channel.receive(5, 0)).extracting("payload").containsExactly(0, 1, 2, 3, 4);
+		assertThat(channel.receive(5, 10)).extracting("payload").containsExactly(5, 6);
+		assertThat(channel.receive(5, 10)).isEmpty();
+		assertThat(channel.getRemainingCapacity()).isEqualTo(10);
+	}
+
+	@Test
+	public void testBatchReceiveNonBlockingQueue() {
+		QueueChannel channel = new QueueChannel(new ArrayDeque<>());
+		for (int i = 0; i < 3; i++) {
+			channel.send(new GenericMessage<>(i));
+		}
+		assertThat(channel.receive(2, 10)).extracting("payload").containsExactly(0, 1);
+		assertThat(channel.receive(2, 10)).extracting("payload").containsExactly(2);
+		assertThat(channel.receive(2, 10)).isEmpty();
+	}
+
+	@Test
+	public void testBatchReceiveBlocksForFirstMessage() throws Exception {
+		QueueChannel channel = new QueueChannel();
+		ExecutorService exec = Executors.newSingleThreadExecutor();
+		exec.execute(() -> {
+			try {
+				Thread.sleep(100);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			channel.send(new GenericMessage<>("testing"));
+		});
+		assertThat(channel.receive(10, 10000)).extracting("payload").containsExactly("testing");
+		exec.shutdownNow();
+	}
+
+	@Test
+	public void testBatchReceiveInterceptors() {
+		QueueChannel channel = new QueueChannel();
+		List<Object> afterReceiveCompletion = new ArrayList<>();
+		channel.addInterceptor(new ChannelInterceptor() {
+
+			@Override
+			public Message<?> postReceive(Message<?> message, MessageChannel channel) {
+				return (Integer) message.getPayload() % 2 == 0 ? message : null;
+			}
+
+			@Override
+			public void afterReceiveCompletion(Message<?> message, MessageChannel channel, Exception ex) {
+				afterReceiveCompletion.add(message != null ? message.getPayload() : "none");
+			}
+
+		});
+		for (int i = 0; i < 4; i++) {
+			channel.send(new GenericMessage<>(i));
+		}
+		assertThat(channel.receive(10, 0)).extracting("payload").containsExactly(0, 2);
+		assertThat(channel.receive(10, 0)).isEmpty();
+		assertThat(afterReceiveCompletion).containsExactly(0, "none", 2, "none", "none");
+	}
+
+	@Test
+	public void testBatchReceiveFromMessageStore() {
+		QueueChannel channel = new QueueChannel(new MessageGroupQueue(new SimpleMessageStore(), "batch", 5));
+		for (int i = 0; i < 5; i++) {
+			channel.send(new GenericMessage<>(i));
+		}
+		assertThat(channel.getRemainingCapacity()).isEqualTo(0);
+		assertThat(channel.receive(3, 0)).extracting("payload").containsExactly(0, 1, 2);
+		assertThat(channel.getQueueSize()).isEqualTo(2);
+		assertThat(channel.receive(3, 0)).extracting("payload").containsExactly(3, 4);
+		assertThat(channel.getRemainingCapacity()).isEqualTo(5);
+	}
+
+	@Test
+	public void watermarksPauseAndResumeProducer() {
+		QueueChannel channel = new QueueChannel(10);
+		channel.setWatermarks(5, 2);
+		SourcePollingChannelAdapter adapter = new SourcePollingChannelAdapter();
+		adapter.setSource(() -> new GenericMessage<>("test"));
+		adapter.setOutputChannel(channel);
+		channel.addWatermarkListener(WatermarkListener.pausing(adapter));
+
+		for (int i = 0; i < 4; i++) {
+			channel.send(new GenericMessage<>(i));
+		}
+		assertThat(adapter.isPaused()).isFalse();
+		channel.send(new GenericMessage<>(4));
+		assertThat(adapter.isPaused()).isTrue();
+		assertThat(channel.isHighWatermarkReached()).isTrue();
+
+		channel.receive(0);
+		channel.receive(0);
+		assertThat(adapter.isPaused()).isTrue();
+		channel.receive(0);
+		assertThat(adapter.isPaused()).isFalse();
+		assertThat(channel.isHighWatermarkReached()).isFalse();
+
+		for (int i = 5; i < 8; i++) {
+			channel.send(new GenericMessage<>(i));
+		}
+		assertThat(adapter.isPaused()).isTrue();
+		channel.clear();
+		assertThat(adapter.isPaused()).isFalse();
+	}
+
+	@Test
+	public void watermarksOnMessageStoreQueue() {
+		QueueChannel channel = new QueueChannel(new MessageGroupQueue(new SimpleMessageStore(), "watermarks"));
+		channel.setWatermarks(3, 0);
+		WatermarkListener listener = mock(WatermarkListener.class);
+		channel.setWatermarkListeners(List.of(listener));
+
+		for (int i = 0; i < 2; i++) {
+			for (int j = 0; j < 5; j++) {
+				channel.send(new GenericMessage<>(j));
+			}
+			assertThat(channel.receive(10, 0)).hasSize(5);
+		}
+
+		var inOrder = inOrder(listener);
+		inOrder.verify(listener).highWatermarkReached(channel);
+		inOrder.verify(listener).lowWatermarkReached(channel);
+		inOrder.verify(listener).highWatermarkReached(channel);
+		inOrder.verify(listener).lowWatermarkReached(channel);
+		inOrder.verifyNoMoreInteractions();
+	}
+
+	@Test
+	public void residencyTrackedForMessageStoreQueue() throws InterruptedException {
+		QueueChannel channel = new QueueChannel(new MessageGroupQueue(new SimpleMessageStore(), "residency"));
+		channel.setBeanName("residencyChannel");
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		channel.registerMetricsCaptor(new MicrometerMetricsCaptor(meterRegistry));
+
+		for (int i = 0; i < 4; i++) {
+			channel.send(new GenericMessage<>(i));
+		}
+		Thread.sleep(20);
+		assertThat(channel.getConsumerLag()).isGreaterThanOrEqualTo(20);
+		assertThat(channel.receive(0)).isNotNull();
+		assertThat(channel.receive(2, 0)).hasSize(2);
+
+		assertThat(meterRegistry.get("spring.integration.channel.queue.residency")
+				.tag("name", "residencyChannel")
+				.timer()
+				.count())
+				.isEqualTo(3);
+		assertThat(meterRegistry.get("spring.integration.channel.queue.size")
+				.tag("name", "residencyChannel")
+				.gauge()
+				.value())
+				.isEqualTo(1);
+
+		channel.clear();
+		assertThat(channel.getConsumerLag()).isZero();
+		assertThat(meterRegistry.get("spring.integration.channel.queue.lag")
+				.tag("name", "residencyChannel")
+				.gauge()
+				.value())
+				.isZero();
+
+		channel.destroy();
+		assertThat(meterRegistry.find("spring.integration.channel.queue.residency").timer()).isNull();
+	}
+
+	@Test
+	public void residencyTrackingReleasedOnEveryRemovalPath() throws InterruptedException {
+		QueueChannel channel = new QueueChannel();
+		channel.registerMetricsCaptor(new MicrometerMetricsCaptor(new SimpleMeterRegistry()));
+
+		for (int i = 0; i < 4; i++) {
+			channel.send(new GenericMessage<>(i));
+		}
+		assertThat(channel.purge((message) -> !message.getPayload().equals(0))).hasSize(1);
+		assertThat(channel.receive(2, 0)).hasSize(2);
+		assertThat(channel.receive(0)).isNotNull();
+		assertThat(channel.receive(0)).isNull();
+		assertThat(channel.getConsumerLag()).isZero();
+
+		channel.send(new GenericMessage<>("test"));
+		Thread.sleep(20);
+		assertThat(channel.getConsumerLag()).isGreaterThanOrEqualTo(20);
+		channel.clear();
+		assertThat(channel.getConsumerLag()).isZero();
+	}
+
+	@Test
+	public void residencyTrackingCorrectedWhenStoreDrainedExternally() throws InterruptedException {
+		SimpleMessageStore messageStore = new SimpleMessageStore();
+		QueueChannel channel = new QueueChannel(new MessageGroupQueue(messageStore, "external"));
+		channel.registerMetricsCaptor(new MicrometerMetricsCaptor(new SimpleMeterRegistry()));
+
+		channel.send(new GenericMessage<>("test"));
+		Thread.sleep(20);
+		assertThat(messageStore.pollMessageFromGroup("external")).isNotNull();
+		assertThat(channel.getConsumerLag()).isGreaterThanOrEqualTo(20);
+
+		assertThat(channel.receive(0)).isNull();
+		assertThat(channel.getConsumerLag()).isZero();
+	}
+
+	@Test
+	public void watermarksTrackedWithoutQueryingStoreSize() {
+		SimpleMessageStore messageStore = spy(new SimpleMessageStore());
+		QueueChannel channel = new QueueChannel(new MessageGroupQueue(messageStore, "noSizeQueries"));
+		channel.setWatermarks(3, 1);
+		SourcePollingChannelAdapter pausedAdapter = new SourcePollingChannelAdapter();
+		pausedAdapter.setSource(() -> new GenericMessage<>("test"));
+		pausedAdapter.setOutputChannel(channel);
+		pausedAdapter.pause();
+		List<Boolean> notifications = new ArrayList<>();
+		channel.addWatermarkListener(WatermarkListener.pausing(pausedAdapter));
+		channel.addWatermarkListener(new WatermarkListener() {
+
+			@Override
+			public void highWatermarkReached(QueueChannel queueChannel) {
+				notifications.add(true);
+				// Interacting with the channel from the listener must not deadlock or recurse
+				queueChannel.receive(0);
+			}
+
+			@Override
+			public void lowWatermarkReached(QueueChannel queueChannel) {
+				notifications.add(false);
+			}
+
+		});
+
+		for (int i = 0; i < 3; i++) {
+			channel.send(new GenericMessage<>(i));
+		}
+		assertThat(notifications).containsExactly(true);
+		assertThat(channel.getQueueSize()).isEqualTo(2);
+		assertThat(channel.isHighWatermarkReached()).isTrue();
+
+		channel.receive(0);
+		assertThat(notifications).containsExactly(true, false);
+		assertThat(pausedAdapter.isPaused()).isTrue();
+
+		clearInvocations(messageStore);
+		channel.send(new GenericMessage<>("more"));
+		channel.receive(0);
+		verify(messageStore, never()).messageGroupSize("noSizeQueries");
+	}
+
 }
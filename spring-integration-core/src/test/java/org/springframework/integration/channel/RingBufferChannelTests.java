@@ -0,0 +1,168 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.channel;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import org.springframework.integration.dsl.MessageChannels;
+import org.springframework.integration.util.RingBufferQueue;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.GenericMessage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.awaitility.Awaitility.await;
+
+/**
+ *
+ * @since 6.2
+ */
+public class RingBufferChannelTests {
+
+	@Test
+	public void testCapacityRoundedAndEnforced() {
+		RingBufferChannel channel = new RingBufferChannel(3);
+		assertThat(channel.getRemainingCapacity()).isEqualTo(4);
+		for (int i = 0; i < 4; i++) {
+			assertThat(channel.send(new GenericMessage<>(i), 0)).isTrue();
+		}
+		assertThat(channel.send(new GenericMessage<>("overflow"), 0)).isFalse();
+		assertThat(channel.send(new GenericMessage<>("overflow"), 10)).isFalse();
+		assertThat(channel.getQueueSize()).isEqualTo(4);
+		assertThat(channel.getRemainingCapacity()).isEqualTo(0);
+
+		for (int i = 0; i < 4; i++) {
+			assertThat(channel.receive(0).getPayload()).isEqualTo(i);
+		}
+		assertThat(channel.receive(0)).isNull();
+		assertThat(channel.receive(10)).isNull();
+		assertThat(channel.getQueueSize()).isEqualTo(0);
+	}
+
+	@Test
+	public void testWrapAroundKeepsFifoOrder() {
+		RingBufferChannel channel = new RingBufferChannel(8);
+		for (int i = 0; i < 100; i++) {
+			channel.send(new GenericMessage<>(i));
+			channel.send(new GenericMessage<>(-i));
+			assertThat(channel.receive(0).getPayload()).isEqualTo(i);
+			assertThat(channel.receive(0).getPayload()).isEqualTo(-i);
+		}
+	}
+
+	@Test
+	public void testClearAndPurge() {
+		RingBufferChannel channel = new RingBufferChannel(16);
+		for (int i = 0; i < 10; i++) {
+			channel.send(new GenericMessage<>(i));
+		}
+		assertThatExceptionOfType(UnsupportedOperationException.class)
+				.isThrownBy(() -> channel.purge((message) -> (Integer) message.getPayload() % 2 == 0));
+		assertThat(channel.getQueueSize()).isEqualTo(10);
+
+		List<Message<?>> cleared = channel.clear();
+		assertThat(cleared).extracting("payload").containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+		assertThat(channel.getQueueSize()).isEqualTo(0);
+
+		channel.send(new GenericMessage<>(10));
+		assertThat(channel.purge(null)).extracting("payload").containsExactly(10);
+	}
+
+	@Test
+	public void testBlockingReceiveIsSignalled() throws InterruptedException {
+		RingBufferChannel channel = MessageChannels.ringBuffer(4).getObject();
+		AtomicReference<Message<?>> received = new AtomicReference<>();
+		Thread consumer = new Thread(() -> received.set(channel.receive()));
+		consumer.start();
+		await().until(() -> consumer.getState() == Thread.State.TIMED_WAITING);
+		channel.send(new GenericMessage<>("test"));
+		consumer.join(10_000);
+		assertThat(received.get()).isNotNull();
+		assertThat(received.get().getPayload()).isEqualTo("test");
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = RingBufferQueue.WaitStrategy.class, names = "SPIN", mode = EnumSource.Mode.EXCLUDE)
+	public void testConcurrentProducersAndConsumers(RingBufferQueue.WaitStrategy waitStrategy)
+			throws InterruptedException {
+
+		RingBufferChannel channel =
+				new RingBufferChannel(64, RingBufferQueue.ConcurrencyMode.MPMC, waitStrategy);
+		int producers = 4;
+		int messagesPerProducer = 10_000;
+		Set<Object> received = ConcurrentHashMap.newKeySet();
+		ExecutorService executorService = Executors.newCachedThreadPool();
+		for (int i = 0; i < producers; i++) {
+			int producer = i;
+			executorService.execute(() -> {
+				for (int j = 0; j < messagesPerProducer; j++) {
+					channel.send(new GenericMessage<>(producer + "-" + j));
+				}
+			});
+			executorService.execute(() -> {
+				for (int j = 0; j < messagesPerProducer; j++) {
+					Message<?> message = channel.receive(10_000);
+					if (message == null) {
+						break;
+					}
+					received.add(message.getPayload());
+				}
+			});
+		}
+		executorService.shutdown();
+		assertThat(executorService.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+		assertThat(received).hasSize(producers * messagesPerProducer);
+		assertThat(channel.getQueueSize()).isEqualTo(0);
+	}
+
+	@Test
+	public void testSingleConsumerMode() throws InterruptedException {
+		RingBufferChannel channel =
+				MessageChannels.ringBuffer(16)
+						.concurrencyMode(RingBufferQueue.ConcurrencyMode.MPSC)
+						.waitStrategy(RingBufferQueue.WaitStrategy.PARK)
+						.getObject();
+		int producers = 4;
+		int messagesPerProducer = 10_000;
+		ExecutorService executorService = Executors.newFixedThreadPool(producers);
+		for (int i = 0; i < producers; i++) {
+			executorService.execute(() -> {
+				for (int j = 0; j < messagesPerProducer; j++) {
+					channel.send(new GenericMessage<>(j));
+				}
+			});
+		}
+		int count = 0;
+		while (count < producers * messagesPerProducer && channel.receive(10_000) != null) {
+			count++;
+		}
+		executorService.shutdown();
+		assertThat(executorService.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(count).isEqualTo(producers * messagesPerProducer);
+	}
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.codec;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.serializer.DefaultSerializer;
+import org.springframework.integration.codec.kryo.MessageCodec;
+import org.springframework.integration.message.AdviceMessage;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.integration.support.MutableMessage;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.GenericMessage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+
+/**
+ *
+ * @since 6.2
+ */
+public class CodecMessageSerializerTests {
+
+	private final CodecMessageSerializer serializer = new CodecMessageSerializer(new MessageCodec());
+
+	@Test
+	void messageRoundTrip() throws IOException {
+		Message<?> message = MessageBuilder.withPayload("foo").setHeader("bar", 1).build();
+		byte[] bytes = this.serializer.serializeToByteArray(message);
+		assertThat(CodecMessageSerializer.isCodecFormat(bytes)).isTrue();
+		Message<?> decoded = this.serializer.deserializeFromByteArray(bytes);
+		assertThat(decoded).isInstanceOf(GenericMessage.class);
+		assertThat(decoded.getPayload()).isEqualTo("foo");
+		assertThat(decoded.getHeaders())
+				.containsEntry("bar", 1)
+				.containsEntry(MessageHeaders.ID, message.getHeaders().getId());
+
+		AdviceMessage<?> adviceMessage = new AdviceMessage<>("bar", message);
+		decoded = this.serializer.deserializeFromByteArray(this.serializer.serializeToByteArray(adviceMessage));
+		assertThat(decoded).isInstanceOf(AdviceMessage.class);
+		assertThat(decoded.getHeaders().getId()).isEqualTo(adviceMessage.getHeaders().getId());
+		assertThat(((AdviceMessage<?>) decoded).getInputMessage().getPayload()).isEqualTo("foo");
+
+		decoded = this.serializer.deserializeFromByteArray(this.serializer.serializeToByteArray(new MutableMessage<>(2)));
+		assertThat(decoded).isInstanceOf(MutableMessage.class);
+		assertThat(decoded.getPayload()).isEqualTo(2);
+	}
+
+	@Test
+	void largePayloadCompressed() throws IOException {
+		Message<?> message = new GenericMessage<>("foo".repeat(1000));
+		byte[] uncompressed = this.serializer.serializeToByteArray(message);
+
+		CodecMessageSerializer compressingSerializer = new CodecMessageSerializer(new MessageCodec());
+		compressingSerializer.setCompressionThreshold(1024);
+		byte[] compressed = compressingSerializer.serializeToByteArray(message);
+		assertThat(CodecMessageSerializer.isCodecFormat(compressed)).isTrue();
+		assertThat(compressed.length).isLessThan(uncompressed.length / 10);
+
+		assertThat(compressingSerializer.deserializeFromByteArray(compressed).getPayload())
+				.isEqualTo(message.getPayload());
+		// The compression flag is in the data, not in the serializer configuration
+		assertThat(this.serializer.deserializeFromByteArray(compressed).getPayload())
+				.isEqualTo(message.getPayload());
+
+		Message<?> small = new GenericMessage<>("foo");
+		assertThat(compressingSerializer.serializeToByteArray(small))
+				.hasSameSizeAs(this.serializer.serializeToByteArray(small));
+	}
+
+	@Test
+	void javaSerializedDataRejected() throws IOException {
+		byte[] bytes = new DefaultSerializer().serializeToByteArray(new GenericMessage<>("foo"));
+		assertThat(CodecMessageSerializer.isCodecFormat(bytes)).isFalse();
+		assertThatIOException()
+				.isThrownBy(() -> this.serializer.deserializeFromByteArray(bytes))
+				.withMessageContaining("not produced by the CodecMessageSerializer");
+	}
+
+}
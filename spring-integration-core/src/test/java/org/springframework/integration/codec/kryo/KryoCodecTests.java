@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2022 the original author or authors.
+ * Copyright 2015-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,11 +22,18 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import com.esotericsoftware.kryo.Registration;
 import org.assertj.core.data.Offset;
 import org.junit.Test;
 
+import org.springframework.integration.history.MessageHistory;
+import org.springframework.integration.support.context.NamedComponent;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.GenericMessage;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -127,6 +134,37 @@ public class KryoCodecTests {
 		assertThat(foo2.get("two")).isEqualTo(2);
 	}
 
+	@Test
+	public void testMessageHistorySerialization() throws IOException {
+		PojoCodec codec = new PojoCodec(new KryoRegistrationRegistrar(List.of(
+				new Registration(MessageHistory.class, new MessageHistorySerializer(),
+						RegistrationIds.DEFAULT_MESSAGE_HISTORY_ID))));
+		Message<?> message = new GenericMessage<>("foo");
+		for (int i = 0; i < 3; i++) {
+			int index = i;
+			message = MessageHistory.write(message, new NamedComponent() {
+
+				@Override
+				public String getComponentName() {
+					return "component" + index;
+				}
+
+				@Override
+				public String getComponentType() {
+					return index > 0 ? "type" : null;
+				}
+
+			});
+		}
+		MessageHistory history = MessageHistory.read(message);
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		codec.encode(history, bos);
+		MessageHistory decoded = codec.decode(bos.toByteArray(), MessageHistory.class);
+		assertThat(decoded).isEqualTo(history);
+		assertThat(decoded.getType(0)).isNull();
+		assertThat(decoded.toString()).isEqualTo("component0,component1,component2");
+	}
+
 	static class SomeClassWithNoDefaultConstructors {
 
 		private String val1;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,12 @@
 
 package org.springframework.integration.config;
 
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.jupiter.api.Test;
@@ -26,6 +31,7 @@ import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.context.support.GenericApplicationContext;
 import org.springframework.integration.support.IdGenerators.JdkIdGenerator;
 import org.springframework.integration.support.IdGenerators.SimpleIncrementingIdGenerator;
+import org.springframework.integration.support.IdGenerators.TimeOrderedIdGenerator;
 import org.springframework.integration.test.util.TestUtils;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.util.IdGenerator;
@@ -212,6 +218,47 @@ public class IdGeneratorConfigurerTests {
 		}
 	}
 
+	@Test
+	public void testTimeOrdered() {
+		try (GenericApplicationContext context = new GenericApplicationContext()) {
+			context.registerBeanDefinition("bfpp",
+					new RootBeanDefinition(DefaultConfiguringBeanFactoryPostProcessor.class));
+			context.registerBeanDefinition("foo", new RootBeanDefinition(TimeOrderedIdGenerator.class));
+			context.refresh();
+			long before = System.currentTimeMillis();
+			UUID previous = new MessageHeaders(null).getId();
+			assertThat(previous.version()).isEqualTo(7);
+			assertThat(previous.variant()).isEqualTo(2);
+			assertThat(previous.getMostSignificantBits() >>> 16).isBetween(before, System.currentTimeMillis() + 1);
+			for (int i = 0; i < 100_000; i++) {
+				UUID id = new MessageHeaders(null).getId();
+				assertThat(id.version()).isEqualTo(7);
+				assertThat(id.variant()).isEqualTo(2);
+				assertThat(id.getMostSignificantBits()).isGreaterThan(previous.getMostSignificantBits());
+				previous = id;
+			}
+		}
+	}
+
+	@Test
+	public void testTimeOrderedUniqueAcrossThreads() throws InterruptedException {
+		IdGenerator idGenerator = new TimeOrderedIdGenerator();
+		int threads = 4;
+		int idsPerThread = 100_000;
+		Set<UUID> ids = ConcurrentHashMap.newKeySet();
+		ExecutorService executorService = Executors.newFixedThreadPool(threads);
+		for (int i = 0; i < threads; i++) {
+			executorService.execute(() -> {
+				for (int j = 0; j < idsPerThread; j++) {
+					ids.add(idGenerator.generateId());
+				}
+			});
+		}
+		executorService.shutdown();
+		assertThat(executorService.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+		assertThat(ids).hasSize(threads * idsPerThread);
+	}
+
 	public static class MyIdGenerator implements IdGenerator {
 
 		@Override
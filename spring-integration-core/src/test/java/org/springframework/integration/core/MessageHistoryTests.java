@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package org.springframework.integration.core;
 
+import java.io.ObjectStreamClass;
+import java.util.List;
 import java.util.Properties;
 
 import org.junit.jupiter.api.Test;
@@ -28,6 +30,7 @@ import org.springframework.integration.support.context.NamedComponent;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.support.ErrorMessage;
 import org.springframework.messaging.support.GenericMessage;
+import org.springframework.util.SerializationUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -128,6 +131,64 @@ public class MessageHistoryTests {
 		assertThat(history2.toString()).isEqualTo("testComponent-1,testComponent-2");
 	}
 
+	@Test
+	public void forkedHistoriesDoNotAffectEachOther() {
+		Message<String> parent = new GenericMessage<>("foo");
+		for (int i = 1; i <= 10; i++) {
+			parent = MessageHistory.write(parent, new TestComponent(i));
+		}
+		Message<String> child1 = MessageHistory.write(parent, new TestComponent(11));
+		Message<String> child2 = MessageHistory.write(parent, new TestComponent(12));
+		Message<String> grandChild = MessageHistory.write(child2, new TestComponent(13));
+
+		MessageHistory parentHistory = MessageHistory.read(parent);
+		assertThat(parentHistory).hasSize(10);
+		assertThat(MessageHistory.read(child1)).hasSize(11);
+		assertThat(MessageHistory.read(child1).getName(10)).isEqualTo("testComponent-11");
+		assertThat(MessageHistory.read(child2).getName(10)).isEqualTo("testComponent-12");
+		assertThat(MessageHistory.read(grandChild).toString()).endsWith("testComponent-10,testComponent-12,testComponent-13");
+		assertThat(MessageHistory.read(grandChild).subList(0, 10)).isEqualTo(parentHistory.subList(0, 10));
+
+		Properties entry = parentHistory.get(9);
+		assertThat(entry).isInstanceOf(MessageHistory.Entry.class);
+		assertThat(entry.getProperty(MessageHistory.NAME_PROPERTY)).isEqualTo("testComponent-10");
+		assertThat(entry.getProperty(MessageHistory.TYPE_PROPERTY)).isEqualTo("type-10");
+		assertThat(entry.getProperty(MessageHistory.TIMESTAMP_PROPERTY))
+				.isEqualTo(Long.toString(parentHistory.getTimestamp(9)));
+	}
+
+	@Test
+	public void serializedHistoryIsEqual() {
+		Message<String> message = new GenericMessage<>("foo");
+		for (int i = 1; i <= 3; i++) {
+			message = MessageHistory.write(message, new TestComponent(i));
+		}
+		MessageHistory history = MessageHistory.read(message);
+		MessageHistory deserialized = (MessageHistory) SerializationUtils.clone(history);
+		assertThat(deserialized).isEqualTo(history).hasSameHashCodeAs(history);
+		assertThat(deserialized.getName(0)).isSameAs("testComponent-1".intern());
+		assertThat(List.copyOf(deserialized)).isEqualTo(List.copyOf(history));
+
+		Message<String> next = MessageHistory.write(MessageBuilder.withPayload("bar")
+						.setHeader(MessageHistory.HEADER_NAME, deserialized)
+						.build(),
+				new TestComponent(4));
+		assertThat(MessageHistory.read(next).toString())
+				.isEqualTo("testComponent-1,testComponent-2,testComponent-3,testComponent-4");
+	}
+
+	@Test
+	public void serializedFormIsCompatibleWithPreviousVersions() {
+		ObjectStreamClass streamClass = ObjectStreamClass.lookup(MessageHistory.class);
+		assertThat(streamClass.getSerialVersionUID()).isEqualTo(-2340400235574314134L);
+		assertThat(streamClass.getFields())
+				.singleElement()
+				.satisfies((field) -> {
+					assertThat(field.getName()).isEqualTo("components");
+					assertThat(field.getType()).isEqualTo(List.class);
+				});
+	}
+
 
 	private static class TestComponent implements NamedComponent {
 
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.dispatcher;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.integration.channel.DirectChannel;
+import org.springframework.integration.support.context.NamedComponent;
+import org.springframework.integration.support.management.micrometer.MicrometerMetricsCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.support.GenericMessage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ *
+ * @since 6.2
+ */
+public class LatencyAwareLoadBalancingStrategyTests {
+
+	@Test
+	void slowHandlerGetsLessTraffic() {
+		LatencyAwareLoadBalancingStrategy strategy = new LatencyAwareLoadBalancingStrategy();
+		UnicastingDispatcher dispatcher = new UnicastingDispatcher();
+		dispatcher.setLoadBalancingStrategy(strategy);
+		AtomicInteger fastCount = new AtomicInteger();
+		AtomicInteger slowCount = new AtomicInteger();
+		MessageHandler fastHandler = (message) -> fastCount.incrementAndGet();
+		MessageHandler slowHandler = (message) -> {
+			slowCount.incrementAndGet();
+			try {
+				Thread.sleep(10);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		};
+		dispatcher.addHandler(slowHandler);
+		dispatcher.addHandler(fastHandler);
+
+		Message<?> message = new GenericMessage<>("test");
+		for (int i = 0; i < 200; i++) {
+			dispatcher.dispatch(message);
+		}
+
+		assertThat(slowCount.get()).isLessThanOrEqualTo(2);
+		assertThat(fastCount.get()).isGreaterThanOrEqualTo(198);
+		assertThat(strategy.getAverageHandlingTime(slowHandler)).isGreaterThanOrEqualTo(10);
+		assertThat(strategy.getAverageHandlingTime(fastHandler)).isLessThan(10);
+		assertThat(strategy.getInFlight(fastHandler)).isZero();
+	}
+
+	@Test
+	void failoverToOtherHandler() {
+		LatencyAwareLoadBalancingStrategy strategy = new LatencyAwareLoadBalancingStrategy();
+		UnicastingDispatcher dispatcher = new UnicastingDispatcher();
+		dispatcher.setLoadBalancingStrategy(strategy);
+		AtomicInteger handled = new AtomicInteger();
+		MessageHandler failingHandler = (message) -> {
+			throw new IllegalStateException("intentional");
+		};
+		dispatcher.addHandler(failingHandler);
+		dispatcher.addHandler((message) -> handled.incrementAndGet());
+
+		for (int i = 0; i < 10; i++) {
+			assertThat(dispatcher.dispatch(new GenericMessage<>("test"))).isTrue();
+		}
+		assertThat(handled.get()).isEqualTo(10);
+		assertThat(strategy.getInFlight(failingHandler)).isZero();
+	}
+
+	@Test
+	void handlerStatisticsAsGauges() {
+		LatencyAwareLoadBalancingStrategy strategy = new LatencyAwareLoadBalancingStrategy();
+		DirectChannel channel = new DirectChannel(strategy);
+		channel.setBeanName("latencyAwareChannel");
+		channel.setBeanFactory(mock(BeanFactory.class));
+		channel.afterPropertiesSet();
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		channel.registerMetricsCaptor(new MicrometerMetricsCaptor(meterRegistry));
+
+		AtomicInteger handled = new AtomicInteger();
+		MessageHandler handler1 = new TestHandler("handler1", handled);
+		MessageHandler handler2 = new TestHandler("handler2", handled);
+		channel.subscribe(handler1);
+		channel.subscribe(handler2);
+
+		for (int i = 0; i < 10; i++) {
+			channel.send(new GenericMessage<>("test"));
+		}
+		assertThat(handled.get()).isEqualTo(10);
+
+		assertThat(meterRegistry.get("spring.integration.channel.handler.inflight")
+				.tag("name", "latencyAwareChannel")
+				.gauges())
+				.isNotEmpty();
+		assertThat(meterRegistry.get("spring.integration.channel.handler.processing.time")
+				.tag("name", "latencyAwareChannel")
+				.gauges())
+				.isNotEmpty();
+
+		channel.unsubscribe(handler1);
+		assertThat(meterRegistry.find("spring.integration.channel.handler.inflight")
+				.tag("handler", "handler1")
+				.gauge())
+				.isNull();
+
+		channel.subscribe((message) -> handled.incrementAndGet());
+		assertThat(meterRegistry.find("spring.integration.channel.handler.inflight").gauges()).hasSize(1);
+
+		channel.destroy();
+		assertThat(meterRegistry.find("spring.integration.channel.handler.inflight").gauges()).isEmpty();
+	}
+
+	@Test
+	void removedHandlerStatisticsAreNotRecreated() {
+		LatencyAwareLoadBalancingStrategy strategy = new LatencyAwareLoadBalancingStrategy();
+		UnicastingDispatcher dispatcher = new UnicastingDispatcher();
+		dispatcher.setLoadBalancingStrategy(strategy);
+		MessageHandler handler = (message) -> {
+		};
+		dispatcher.addHandler(handler);
+		dispatcher.addHandler((message) -> {
+		});
+
+		long start = strategy.handlingStarted(handler);
+		assertThat(strategy.getInFlight(handler)).isEqualTo(1);
+		dispatcher.removeHandler(handler);
+		strategy.handlingFinished(handler, start);
+		strategy.handlingStarted(handler);
+		assertThat(strategy.getInFlight(handler)).isZero();
+		assertThat(strategy.getAverageHandlingTime(handler)).isZero();
+	}
+
+	private record TestHandler(String name, AtomicInteger handled) implements MessageHandler, NamedComponent {
+
+		@Override
+		public void handleMessage(Message<?> message) {
+			this.handled.incrementAndGet();
+		}
+
+		@Override
+		public String getComponentName() {
+			return this.name;
+		}
+
+	}
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.endpoint;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.handler.BatchMessageHandler;
+import org.springframework.integration.support.MessagingExceptionWrapper;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.GenericMessage;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.PeriodicTrigger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+
+/**
+ *
+ * @since 6.2
+ */
+public class PollingConsumerBatchTests {
+
+	private final ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+
+	private final QueueChannel channel = new QueueChannel();
+
+	private final List<Throwable> errors = new CopyOnWriteArrayList<>();
+
+	@BeforeEach
+	public void setup() {
+		this.taskScheduler.afterPropertiesSet();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		this.taskScheduler.destroy();
+	}
+
+	@Test
+	public void testBatchMessageHandler() {
+		TestBatchMessageHandler handler = new TestBatchMessageHandler();
+		sendMessages(25);
+		PollingConsumer consumer = createConsumer(handler, 10);
+		consumer.start();
+		await().until(() -> handler.batches.size() == 3);
+		consumer.stop();
+		assertThat(handler.batches).extracting(List::size).containsExactly(10, 10, 5);
+		assertThat(handler.batches.get(2)).extracting("payload").containsExactly(20, 21, 22, 23, 24);
+		assertThat(handler.singleMessages).isEmpty();
+	}
+
+	@Test
+	public void testRegularHandlerWithBatches() {
+		List<Message<?>> received = new CopyOnWriteArrayList<>();
+		sendMessages(25);
+		PollingConsumer consumer = createConsumer(received::add, 10);
+		consumer.start();
+		await().until(() -> received.size() == 25);
+		consumer.stop();
+		assertThat(received).extracting("payload").first().isEqualTo(0);
+		assertThat(this.channel.getQueueSize()).isEqualTo(0);
+	}
+
+	@Test
+	public void testBatchFailure() {
+		sendMessages(3);
+		MessageHandler handler = new TestBatchMessageHandler() {
+
+			@Override
+			public void handleMessages(List<Message<?>> messages) {
+				throw new IllegalStateException("batch failed");
+			}
+
+		};
+		PollingConsumer consumer = createConsumer(handler, 10);
+		consumer.start();
+		await().until(() -> this.errors.size() == 1);
+		consumer.stop();
+		assertThat(this.errors.get(0)).isInstanceOf(MessagingExceptionWrapper.class);
+		Message<?> failedMessage = ((MessagingExceptionWrapper) this.errors.get(0)).getFailedMessage();
+		assertThat(failedMessage.getPayload()).asList().hasSize(3);
+		assertThat(this.errors.get(0).getCause())
+				.isInstanceOf(MessageDeliveryException.class)
+				.hasStackTraceContaining("batch failed");
+	}
+
+	@Test
+	public void testExecutorInterceptorsAppliedPerMessage() {
+		List<Object> handled = new CopyOnWriteArrayList<>();
+		this.channel.addInterceptor(new ExecutorChannelInterceptor() {
+
+			@Override
+			public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+				return (Integer) message.getPayload() % 2 == 0 ? message : null;
+			}
+
+			@Override
+			public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler,
+					Exception ex) {
+
+				if (message != null) {
+					handled.add(message.getPayload());
+				}
+			}
+
+		});
+		TestBatchMessageHandler handler = new TestBatchMessageHandler();
+		sendMessages(6);
+		PollingConsumer consumer = createConsumer(handler, 10);
+		consumer.start();
+		await().until(() -> handler.batches.size() == 1);
+		consumer.stop();
+		assertThat(handler.batches.get(0)).extracting("payload").containsExactly(0, 2, 4);
+		assertThat(handled).containsExactly(0, 2, 4);
+	}
+
+	private void sendMessages(int count) {
+		for (int i = 0; i < count; i++) {
+			this.channel.send(new GenericMessage<>(i));
+		}
+	}
+
+	private PollingConsumer createConsumer(MessageHandler handler, int receiveBatchSize) {
+		PollingConsumer consumer = new PollingConsumer(this.channel, handler);
+		consumer.setTaskScheduler(this.taskScheduler);
+		consumer.setTrigger(new PeriodicTrigger(Duration.ofMillis(10)));
+		consumer.setReceiveTimeout(0);
+		consumer.setReceiveBatchSize(receiveBatchSize);
+		consumer.setErrorHandler(this.errors::add);
+		consumer.setBeanFactory(mock(BeanFactory.class));
+		consumer.afterPropertiesSet();
+		return consumer;
+	}
+
+	private static class TestBatchMessageHandler implements BatchMessageHandler {
+
+		final List<List<Message<?>>> batches = new CopyOnWriteArrayList<>();
+
+		final List<Message<?>> singleMessages = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void handleMessages(List<Message<?>> messages) {
+			this.batches.add(messages);
+		}
+
+		@Override
+		public void handleMessage(Message<?> message) {
+			this.singleMessages.add(message);
+		}
+
+	}
+
+}
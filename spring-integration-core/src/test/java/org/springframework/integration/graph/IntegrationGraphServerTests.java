@@ -185,6 +185,9 @@ public class IntegrationGraphServerTests {
 		jsonArray = JsonPathUtils.evaluate(baos.toByteArray(), "$..nodes[?(@.name == 'testSource')]");
 		String sourceJson = jsonArray.toString();
 		assertThat(sourceJson).contains("\"receiveCounters\":{\"successes\":1,\"failures\":0");
+		jsonArray = JsonPathUtils.evaluate(baos.toByteArray(), "$..nodes[?(@.name == 'polledChannel')]");
+		String polledChannelJson = jsonArray.toString();
+		assertThat(polledChannelJson).contains("\"queueStats\":{\"residency\":{\"count\":");
 
 		// stats refresh without rebuild()
 		this.testSource.receive();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,14 +18,23 @@ package org.springframework.integration.handler;
 
 import java.time.Duration;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
+import org.aopalliance.intercept.MethodInterceptor;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -46,6 +55,7 @@ import org.springframework.integration.context.IntegrationContextUtils;
 import org.springframework.integration.store.MessageGroup;
 import org.springframework.integration.store.MessageGroupStore;
 import org.springframework.integration.store.SimpleMessageStore;
+import org.springframework.integration.store.TimeIndexedMessageGroupStore;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.integration.test.util.TestUtils;
 import org.springframework.integration.test.util.TestUtils.TestApplicationContext;
@@ -56,6 +66,8 @@ import org.springframework.messaging.MessageHandlingException;
 import org.springframework.messaging.MessagingException;
 import org.springframework.messaging.support.GenericMessage;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -533,6 +545,163 @@ public class DelayHandlerTests {
 				.until(() -> works.size() == 1);
 	}
 
+	@Test
+	public void releaseWindowSchedulesOnlyDueMessages() {
+		TimeIndexedSimpleMessageStore messageStore = new TimeIndexedSimpleMessageStore();
+		this.delayHandler.setMessageStore(messageStore);
+		this.delayHandler.setReleaseWindow(500);
+		setDelayExpression();
+		QueueChannel results = new QueueChannel();
+		this.delayHandler.setOutputChannel(results);
+		startDelayerHandler();
+
+		this.input.send(MessageBuilder.withPayload("late").setHeader("delay", 2000).build());
+		this.input.send(MessageBuilder.withPayload("early").setHeader("delay", 200).build());
+
+		Set<?> scheduledMessageIds =
+				TestUtils.getPropertyValue(this.delayHandler, "scheduledMessageIds", Set.class);
+		assertThat(scheduledMessageIds).hasSize(1);
+		assertThat(this.delayHandler.getDelayedMessageCount()).isEqualTo(2);
+
+		Message<?> message = results.receive(10_000);
+		assertThat(message).isNotNull();
+		assertThat(message.getPayload()).isEqualTo("early");
+		assertThat(results.receive(500)).isNull();
+
+		message = results.receive(10_000);
+		assertThat(message).isNotNull();
+		assertThat(message.getPayload()).isEqualTo("late");
+		assertThat(this.delayHandler.getDelayedMessageCount()).isZero();
+		await().until(scheduledMessageIds::isEmpty);
+		this.delayHandler.destroy();
+	}
+
+	@Test
+	public void releaseWindowReschedulesOnlyDueMessages() {
+		TimeIndexedSimpleMessageStore messageStore = new TimeIndexedSimpleMessageStore();
+		long now = System.currentTimeMillis();
+		long delay = 3_600_000;
+		messageStore.addMessageToGroup(DELAYER_MESSAGE_GROUP_ID,
+				new GenericMessage<>(new DelayHandler.DelayedMessageWrapper(new GenericMessage<>("due"), now - delay)),
+				now);
+		messageStore.addMessageToGroup(DELAYER_MESSAGE_GROUP_ID,
+				new GenericMessage<>(new DelayHandler.DelayedMessageWrapper(new GenericMessage<>("later"), now)),
+				now + delay);
+
+		this.delayHandler.setMessageStore(messageStore);
+		this.delayHandler.setReleaseWindow(100);
+		this.delayHandler.setDefaultDelay(delay);
+		QueueChannel results = new QueueChannel();
+		this.delayHandler.setOutputChannel(results);
+		startDelayerHandler();
+
+		Message<?> message = results.receive(10_000);
+		assertThat(message).isNotNull();
+		assertThat(message.getPayload()).isEqualTo("due");
+		assertThat(results.receive(200)).isNull();
+		assertThat(messageStore.streamed.get()).isEqualTo(1);
+		assertThat(this.delayHandler.getDelayedMessageCount()).isEqualTo(1);
+		this.delayHandler.destroy();
+	}
+
+	@Test
+	public void releaseWindowReschedulesMessagesWithoutReleaseTime() {
+		TimeIndexedSimpleMessageStore messageStore = new TimeIndexedSimpleMessageStore();
+		long delay = 3_600_000;
+		messageStore.addMessagesToGroup(DELAYER_MESSAGE_GROUP_ID,
+				new GenericMessage<>(new DelayHandler.DelayedMessageWrapper(new GenericMessage<>("legacy"),
+						System.currentTimeMillis() - delay)));
+
+		this.delayHandler.setMessageStore(messageStore);
+		this.delayHandler.setReleaseWindow(100);
+		this.delayHandler.setDefaultDelay(delay);
+		QueueChannel results = new QueueChannel();
+		this.delayHandler.setOutputChannel(results);
+		startDelayerHandler();
+
+		Message<?> message = results.receive(10_000);
+		assertThat(message).isNotNull();
+		assertThat(message.getPayload()).isEqualTo("legacy");
+		assertThat(this.delayHandler.getDelayedMessageCount()).isZero();
+		this.delayHandler.destroy();
+	}
+
+	@Test
+	public void releaseWindowForgetsScheduledMessageOnRollback() {
+		this.delayHandler.setMessageStore(new TimeIndexedSimpleMessageStore());
+		this.delayHandler.setReleaseWindow(60_000);
+		setDelayExpression();
+		startDelayerHandler();
+
+		Set<?> scheduledMessageIds =
+				TestUtils.getPropertyValue(this.delayHandler, "scheduledMessageIds", Set.class);
+		TransactionSynchronizationManager.initSynchronization();
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+		try {
+			this.input.send(MessageBuilder.withPayload("test").setHeader("delay", 200).build());
+			assertThat(scheduledMessageIds).hasSize(1);
+			TransactionSynchronizationManager.getSynchronizations()
+					.forEach((synchronization) ->
+							synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+			assertThat(scheduledMessageIds).isEmpty();
+		}
+		finally {
+			TransactionSynchronizationManager.setActualTransactionActive(false);
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		this.delayHandler.destroy();
+	}
+
+	@Test
+	public void releaseWindowKeepsScheduledMessageWhileRetryIsPending() {
+		TimeIndexedSimpleMessageStore messageStore = new TimeIndexedSimpleMessageStore();
+		this.delayHandler.setMessageStore(messageStore);
+		this.delayHandler.setReleaseWindow(100);
+		this.delayHandler.setRetryDelay(500);
+		// Emulate a transaction rollback which returns the delayed message back to the store
+		this.delayHandler.setDelayedAdviceChain(List.of((MethodInterceptor) (invocation) -> {
+			Message<?> delayedMessage = (Message<?>) invocation.getArguments()[0];
+			try {
+				return invocation.proceed();
+			}
+			catch (Exception ex) {
+				messageStore.addMessageToGroup(DELAYER_MESSAGE_GROUP_ID, delayedMessage, System.currentTimeMillis());
+				throw ex;
+			}
+		}));
+		setDelayExpression();
+		startDelayerHandler();
+
+		List<Long> attempts = new CopyOnWriteArrayList<>();
+		this.output.unsubscribe(this.resultHandler);
+		this.output.subscribe((message) -> {
+			attempts.add(System.currentTimeMillis());
+			if (attempts.size() == 1) {
+				throw new RuntimeException("intentional test failure");
+			}
+		});
+
+		this.input.send(MessageBuilder.withPayload("test").setHeader("delay", 10).build());
+
+		await().atMost(Duration.ofSeconds(10)).until(() -> attempts.size() == 2);
+		assertThat(attempts.get(1) - attempts.get(0)).isGreaterThanOrEqualTo(400);
+		Set<?> scheduledMessageIds =
+				TestUtils.getPropertyValue(this.delayHandler, "scheduledMessageIds", Set.class);
+		await().until(scheduledMessageIds::isEmpty);
+		assertThat(this.delayHandler.getDelayedMessageCount()).isZero();
+		assertThat(attempts).hasSize(2);
+		this.delayHandler.destroy();
+	}
+
+	@Test
+	public void releaseWindowRequiresTimeIndexedMessageGroupStore() {
+		this.delayHandler.setMessageStore(new SimpleMessageStore());
+		this.delayHandler.setReleaseWindow(100);
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(this::startDelayerHandler)
+				.withMessageContaining("TimeIndexedMessageGroupStore");
+	}
+
 
 	private void waitForLatch(long timeout) {
 		try {
@@ -567,6 +736,55 @@ public class DelayHandlerTests {
 	}
 
 
+	private static class TimeIndexedSimpleMessageStore extends SimpleMessageStore
+			implements TimeIndexedMessageGroupStore {
+
+		private final Map<UUID, Long> releaseTimes = new ConcurrentHashMap<>();
+
+		private final Map<UUID, Message<?>> messages = new ConcurrentHashMap<>();
+
+		private final AtomicInteger streamed = new AtomicInteger();
+
+		TimeIndexedSimpleMessageStore() {
+		}
+
+		@Override
+		public void addMessageToGroup(Object groupId, Message<?> message, long time) {
+			addMessagesToGroup(groupId, message);
+			this.messages.put(message.getHeaders().getId(), message);
+			this.releaseTimes.put(message.getHeaders().getId(), time);
+		}
+
+		@Override
+		public void removeMessagesFromGroup(Object groupId, Collection<Message<?>> messagesToRemove) {
+			super.removeMessagesFromGroup(groupId, messagesToRemove);
+			messagesToRemove.forEach((message) -> {
+				this.releaseTimes.remove(message.getHeaders().getId());
+				this.messages.remove(message.getHeaders().getId());
+			});
+		}
+
+		@Override
+		public Stream<Message<?>> streamMessagesForGroupUntil(Object groupId, long time) {
+			return this.releaseTimes.entrySet()
+					.stream()
+					.filter((entry) -> entry.getValue() <= time)
+					.sorted(Map.Entry.comparingByValue())
+					.<Message<?>>map((entry) -> this.messages.get(entry.getKey()))
+					.filter(Objects::nonNull)
+					.peek((message) -> this.streamed.incrementAndGet());
+		}
+
+		@Override
+		public Stream<Message<?>> streamMessagesForGroupWithoutTime(Object groupId) {
+			return getMessageGroup(groupId)
+					.streamMessages()
+					.filter((message) -> !this.releaseTimes.containsKey(message.getHeaders().getId()));
+		}
+
+	}
+
+
 	@SuppressWarnings("serial")
 	private static class TestTimedOutException extends RuntimeException {
 
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.scheduling;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.expression.common.LiteralExpression;
+import org.springframework.integration.aggregator.AggregatingMessageHandler;
+import org.springframework.integration.aggregator.DefaultAggregatingMessageGroupProcessor;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.handler.DelayHandler;
+import org.springframework.integration.store.SimpleMessageStore;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.GenericMessage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+
+/**
+ *
+ * @since 6.2
+ */
+public class HashedWheelTaskSchedulerTests {
+
+	private final HashedWheelTaskScheduler taskScheduler = new HashedWheelTaskScheduler(Duration.ofMillis(5), 8);
+
+	@AfterEach
+	void tearDown() {
+		this.taskScheduler.destroy();
+	}
+
+	@Test
+	void tasksExecutedInDeadlineOrder() throws InterruptedException {
+		List<Integer> executions = new CopyOnWriteArrayList<>();
+		CountDownLatch latch = new CountDownLatch(3);
+		Instant now = Instant.now();
+		long start = System.nanoTime();
+		this.taskScheduler.schedule(() -> {
+			executions.add(3);
+			latch.countDown();
+		}, now.plusMillis(150));
+		this.taskScheduler.schedule(() -> {
+			executions.add(1);
+			latch.countDown();
+		}, now.plusMillis(20));
+		this.taskScheduler.schedule(() -> {
+			executions.add(2);
+			latch.countDown();
+		}, now.plusMillis(60));
+
+		assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(150);
+		assertThat(executions).containsExactly(1, 2, 3);
+		assertThat(this.taskScheduler.getPendingTaskCount()).isZero();
+	}
+
+	@Test
+	void taskBeyondRotationIsNotExecutedEarly() throws Exception {
+		assertThat(this.taskScheduler.getRotationDuration()).isEqualTo(Duration.ofMillis(40));
+		long start = System.nanoTime();
+		AtomicInteger executed = new AtomicInteger();
+		ScheduledFuture<?> future =
+				this.taskScheduler.schedule(executed::incrementAndGet, Instant.now().plusMillis(200));
+		assertThat(future.getDelay(TimeUnit.MILLISECONDS)).isBetween(100L, 200L);
+		future.get(10, TimeUnit.SECONDS);
+		assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(200);
+		assertThat(executed.get()).isEqualTo(1);
+		assertThat(future.isDone()).isTrue();
+	}
+
+	@Test
+	void cancelledTasksAreNotExecuted() throws InterruptedException {
+		AtomicInteger executed = new AtomicInteger();
+		CountDownLatch latch = new CountDownLatch(1);
+		Instant startTime = Instant.now().plusMillis(50);
+		for (int i = 0; i < 1000; i++) {
+			ScheduledFuture<?> future = this.taskScheduler.schedule(executed::incrementAndGet, startTime);
+			assertThat(future.cancel(false)).isTrue();
+		}
+		this.taskScheduler.schedule(latch::countDown, startTime.plusMillis(10));
+
+		assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(executed.get()).isZero();
+		await().until(() -> this.taskScheduler.getPendingTaskCount() == 0);
+	}
+
+	@Test
+	void expiredTasksHandedOverToExecutorInBatch() throws InterruptedException {
+		AtomicInteger batches = new AtomicInteger();
+		this.taskScheduler.setTaskExecutor((task) -> {
+			batches.incrementAndGet();
+			Executors.defaultThreadFactory().newThread(task).start();
+		});
+		CountDownLatch latch = new CountDownLatch(100);
+		Instant startTime = Instant.now().plusMillis(100);
+		for (int i = 0; i < 100; i++) {
+			this.taskScheduler.schedule(latch::countDown, startTime);
+		}
+
+		assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(batches.get()).isEqualTo(1);
+	}
+
+	@Test
+	void failedTaskPropagatesErrorToFuture() {
+		ScheduledFuture<?> future =
+				this.taskScheduler.schedule(() -> {
+					throw new IllegalStateException("intentional");
+				}, Instant.now());
+
+		assertThatExceptionOfType(ExecutionException.class)
+				.isThrownBy(() -> future.get(10, TimeUnit.SECONDS))
+				.withCauseInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void periodicTasks() throws InterruptedException {
+		CountDownLatch fixedRateLatch = new CountDownLatch(3);
+		CountDownLatch fixedDelayLatch = new CountDownLatch(3);
+		AtomicInteger failures = new AtomicInteger();
+		ScheduledFuture<?> fixedRate =
+				this.taskScheduler.scheduleAtFixedRate(fixedRateLatch::countDown, Duration.ofMillis(10));
+		ScheduledFuture<?> fixedDelay =
+				this.taskScheduler.scheduleWithFixedDelay(() -> {
+					fixedDelayLatch.countDown();
+					failures.incrementAndGet();
+					throw new IllegalStateException("intentional");
+				}, Instant.now().plusMillis(20), Duration.ofMillis(10));
+
+		assertThat(fixedRateLatch.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(fixedDelayLatch.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(fixedRate.cancel(false)).isTrue();
+		assertThat(fixedDelay.cancel(false)).isTrue();
+		assertThat(fixedRate.isCancelled()).isTrue();
+		int failuresAfterCancel = failures.get();
+		Thread.sleep(100);
+		assertThat(failures.get()).isLessThanOrEqualTo(failuresAfterCancel + 1);
+		assertThat(this.taskScheduler.getPendingTaskCount()).isZero();
+	}
+
+	@Test
+	void pendingTasksCancelledOnDestroy() {
+		ScheduledFuture<?> future = this.taskScheduler.schedule(() -> { }, Instant.now().plusSeconds(60));
+		this.taskScheduler.destroy();
+		assertThat(future.isCancelled()).isTrue();
+		assertThat(this.taskScheduler.getPendingTaskCount()).isZero();
+		assertThatExceptionOfType(TaskRejectedException.class)
+				.isThrownBy(() -> this.taskScheduler.schedule(() -> { }, Instant.now()));
+	}
+
+	@Test
+	void aggregatorGroupTimeoutOnHashedWheel() {
+		AggregatingMessageHandler aggregator =
+				new AggregatingMessageHandler(new DefaultAggregatingMessageGroupProcessor(), new SimpleMessageStore());
+		QueueChannel outputChannel = new QueueChannel();
+		aggregator.setOutputChannel(outputChannel);
+		aggregator.setGroupTimeoutExpression(new LiteralExpression("50"));
+		aggregator.setSendPartialResultOnExpiry(true);
+		aggregator.setTaskScheduler(this.taskScheduler);
+		aggregator.setBeanFactory(mock(BeanFactory.class));
+		aggregator.afterPropertiesSet();
+
+		for (int i = 0; i < 10; i++) {
+			aggregator.handleMessage(
+					MessageBuilder.withPayload(i)
+							.setCorrelationId(i % 2)
+							.setSequenceNumber(i / 2 + 1)
+							.setSequenceSize(10)
+							.build());
+		}
+
+		Message<?> result1 = outputChannel.receive(10_000);
+		Message<?> result2 = outputChannel.receive(10_000);
+		assertThat(result1).isNotNull();
+		assertThat(result2).isNotNull();
+		assertThat((List<?>) result1.getPayload()).hasSize(5);
+		assertThat((List<?>) result2.getPayload()).hasSize(5);
+		assertThat(outputChannel.receive(100)).isNull();
+		aggregator.destroy();
+	}
+
+	@Test
+	void delayHandlerOnHashedWheel() {
+		DelayHandler delayHandler = new DelayHandler("delayer", this.taskScheduler);
+		QueueChannel outputChannel = new QueueChannel();
+		delayHandler.setOutputChannel(outputChannel);
+		delayHandler.setDefaultDelay(50);
+		delayHandler.setBeanFactory(mock(BeanFactory.class));
+		delayHandler.afterPropertiesSet();
+
+		long start = System.nanoTime();
+		for (int i = 0; i < 100; i++) {
+			delayHandler.handleMessage(new GenericMessage<>(i));
+		}
+		for (int i = 0; i < 100; i++) {
+			assertThat(outputChannel.receive(10_000)).isNotNull();
+		}
+		assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(50);
+		assertThat(delayHandler.getDelayedMessageCount()).isZero();
+		delayHandler.destroy();
+	}
+
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.GenericMessage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ *
+ * @since 6.2
+ */
+public class MappedFileChannelMessageStoreTests {
+
+	@TempDir
+	File directory;
+
+	@Test
+	void queueChannelOnMappedFileStore() {
+		MappedFileChannelMessageStore store = new MappedFileChannelMessageStore(this.directory);
+		QueueChannel channel = new QueueChannel(new MessageGroupQueue(store, "queue"));
+		for (int i = 0; i < 100; i++) {
+			channel.send(MessageBuilder.withPayload(i).setHeader("foo", "bar").build());
+		}
+		assertThat(channel.getQueueSize()).isEqualTo(100);
+
+		for (int i = 0; i < 100; i++) {
+			Message<?> message = channel.receive(0);
+			assertThat(message).isNotNull();
+			assertThat(message.getPayload()).isEqualTo(i);
+			assertThat(message.getHeaders()).containsEntry("foo", "bar");
+		}
+		assertThat(channel.receive(0)).isNull();
+		store.close();
+	}
+
+	@Test
+	void messagesRecoveredAfterRestart() {
+		MappedFileChannelMessageStore store = new MappedFileChannelMessageStore(this.directory);
+		store.setSegmentSize(1024);
+		for (int i = 0; i < 50; i++) {
+			store.addMessageToGroup("group", new GenericMessage<>("message" + i));
+		}
+		for (int i = 0; i < 20; i++) {
+			assertThat(store.pollMessageFromGroup("group").getPayload()).isEqualTo("message" + i);
+		}
+		store.close();
+
+		store = new MappedFileChannelMessageStore(this.directory);
+		store.setSegmentSize(1024);
+		assertThat(store.messageGroupSize("group")).isEqualTo(30);
+		assertThat(store.getMessageGroup("group").getMessages())
+				.<Object>extracting(Message::getPayload)
+				.first()
+				.isEqualTo("message20");
+
+		store.addMessageToGroup("group", new GenericMessage<>("message50"));
+		for (int i = 20; i <= 50; i++) {
+			assertThat(store.pollMessageFromGroup("group").getPayload()).isEqualTo("message" + i);
+		}
+		assertThat(store.pollMessageFromGroup("group")).isNull();
+		store.close();
+	}
+
+	@Test
+	void segmentsRolledAndDeletedWhenConsumed() throws IOException {
+		MappedFileChannelMessageStore store = new MappedFileChannelMessageStore(this.directory);
+		store.setSegmentSize(1024);
+		store.setFlushBatchSize(10);
+		for (int i = 0; i < 100; i++) {
+			store.addMessageToGroup("group", new GenericMessage<>("x".repeat(100)));
+		}
+		int segments = segmentFiles("group").size();
+		assertThat(segments).isGreaterThan(10);
+
+		for (int i = 0; i < 50; i++) {
+			store.pollMessageFromGroup("group");
+		}
+		assertThat(segmentFiles("group").size()).isLessThan(segments / 2 + 2);
+
+		store.addMessageToGroup("group", new GenericMessage<>("y".repeat(4096)));
+		for (int i = 0; i < 50; i++) {
+			assertThat(store.pollMessageFromGroup("group").getPayload()).isEqualTo("x".repeat(100));
+		}
+		assertThat(store.pollMessageFromGroup("group").getPayload()).isEqualTo("y".repeat(4096));
+		assertThat(segmentFiles("group")).hasSize(1);
+
+		store.removeMessageGroup("group");
+		assertThat(new File(this.directory, "group")).doesNotExist();
+		assertThat(store.messageGroupSize("group")).isZero();
+	}
+
+	@Test
+	void storeCannotBeUsedAfterClose() {
+		MappedFileChannelMessageStore store = new MappedFileChannelMessageStore(this.directory);
+		store.addMessageToGroup("group", new GenericMessage<>("foo"));
+		store.close();
+
+		assertThatIllegalStateException()
+				.isThrownBy(() -> store.addMessageToGroup("group", new GenericMessage<>("bar")))
+				.withMessage("The store is closed");
+		assertThatIllegalStateException()
+				.isThrownBy(() -> store.pollMessageFromGroup("group"));
+
+		MappedFileChannelMessageStore recovered = new MappedFileChannelMessageStore(this.directory);
+		assertThat(recovered.pollMessageFromGroup("group").getPayload()).isEqualTo("foo");
+		assertThat(recovered.pollMessageFromGroup("group")).isNull();
+		recovered.close();
+	}
+
+	@Test
+	void tornRecordTruncatedOnRecovery() throws IOException {
+		MappedFileChannelMessageStore store = new MappedFileChannelMessageStore(this.directory);
+		store.setSegmentSize(4096);
+		store.addMessageToGroup("group", new GenericMessage<>("foo"));
+		store.addMessageToGroup("group", new GenericMessage<>("bar"));
+		store.close();
+
+		Path segment = segmentFiles("group").get(0);
+		try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+			byte[] data = new byte[4096];
+			file.readFully(data);
+			int lastRecordEnd = 4096;
+			while (data[lastRecordEnd - 1] == 0) {
+				lastRecordEnd--;
+			}
+			file.seek(lastRecordEnd - 1);
+			file.write(data[lastRecordEnd - 1] + 1);
+		}
+
+		store = new MappedFileChannelMessageStore(this.directory);
+		assertThat(store.messageGroupSize("group")).isEqualTo(1);
+		store.addMessageToGroup("group", new GenericMessage<>("baz"));
+		assertThat(store.pollMessageFromGroup("group").getPayload()).isEqualTo("foo");
+		assertThat(store.pollMessageFromGroup("group").getPayload()).isEqualTo("baz");
+		assertThat(store.pollMessageFromGroup("group")).isNull();
+		store.close();
+	}
+
+	@Test
+	void priorityOrder() {
+		MappedFileChannelMessageStore store = new MappedFileChannelMessageStore(this.directory);
+		store.setPriorityEnabled(true);
+		QueueChannel channel = new QueueChannel(new MessageGroupQueue(store, "priority"));
+		channel.send(new GenericMessage<>("none1"));
+		channel.send(MessageBuilder.withPayload("low").setPriority(1).build());
+		channel.send(MessageBuilder.withPayload("high1").setPriority(8).build());
+		channel.send(new GenericMessage<>("none2"));
+		channel.send(MessageBuilder.withPayload("high2").setPriority(8).build());
+		channel.send(MessageBuilder.withPayload("outOfRange").setPriority(42).build());
+
+		assertThat(store.getMessageGroup("priority").getMessages())
+				.<Object>extracting(Message::getPayload)
+				.containsExactly("high1", "high2", "low", "none1", "none2", "outOfRange");
+
+		for (String payload : List.of("high1", "high2", "low", "none1", "none2", "outOfRange")) {
+			assertThat(channel.receive(0).getPayload()).isEqualTo(payload);
+		}
+		assertThat(channel.receive(0)).isNull();
+		store.close();
+	}
+
+	private List<Path> segmentFiles(String group) throws IOException {
+		try (Stream<Path> files = Files.list(this.directory.toPath().resolve(group).resolve("default"))) {
+			return files.filter((file) -> file.toString().endsWith(".segment")).sorted().toList();
+		}
+	}
+
+}
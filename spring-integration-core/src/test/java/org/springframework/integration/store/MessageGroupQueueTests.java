@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,9 @@
 
 package org.springframework.integration.store;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CompletionService;
 import java.util.concurrent.CountDownLatch;
@@ -36,6 +38,8 @@ import org.springframework.messaging.support.GenericMessage;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 /**
  * @author Dave Syer
@@ -63,6 +67,34 @@ public class MessageGroupQueueTests {
 		assertThat(result).isNull();
 	}
 
+	@Test
+	public void testDrainToPollsChannelMessageStoreInBatch() {
+		SimpleMessageStore messageStore = spy(new SimpleMessageStore());
+		MessageGroupQueue queue = new MessageGroupQueue(messageStore, "FOO");
+		for (int i = 0; i < 5; i++) {
+			queue.offer(new GenericMessage<>(i));
+		}
+		List<Message<?>> messages = new ArrayList<>();
+		assertThat(queue.drainTo(messages, 3)).isEqualTo(3);
+		assertThat(messages).<Object>extracting(Message::getPayload).containsExactly(0, 1, 2);
+		verify(messageStore).pollMessagesFromGroup("FOO", 3);
+		assertThat(queue.size()).isEqualTo(2);
+	}
+
+	@Test
+	public void testDrainAllPollsChannelMessageStoreInChunks() {
+		SimpleMessageStore messageStore = spy(new SimpleMessageStore());
+		MessageGroupQueue queue = new MessageGroupQueue(messageStore, "FOO");
+		for (int i = 0; i < 250; i++) {
+			queue.offer(new GenericMessage<>(i));
+		}
+		List<Message<?>> messages = new ArrayList<>();
+		assertThat(queue.drainTo(messages)).isEqualTo(250);
+		assertThat(messages).<Object>extracting(Message::getPayload).startsWith(0, 1, 2).endsWith(248, 249);
+		verify(messageStore, times(3)).pollMessagesFromGroup("FOO", 100);
+		assertThat(queue.size()).isZero();
+	}
+
 	@Test
 	public void testPollEmpty() throws Exception {
 		MessageGroupQueue queue = spy(new MessageGroupQueue(new SimpleMessageStore(), "FOO"));
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,11 +20,16 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.Test;
 
+import org.springframework.integration.aggregator.DefaultAggregatingMessageGroupProcessor;
 import org.springframework.integration.store.MessageGroupStore.MessageGroupCallback;
+import org.springframework.integration.support.AbstractIntegrationMessageBuilder;
+import org.springframework.integration.support.MessageBuilder;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.support.GenericMessage;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -74,6 +79,96 @@ public class MessageStoreTests {
 		assertThat(store.getMessageCountForAllMessageGroups()).isEqualTo(1);
 	}
 
+	@Test
+	public void testLazyLoadedGroupIteratedInBatches() {
+		TestKeyValueMessageStore store = new TestKeyValueMessageStore();
+		store.setLoadBatchSize(2);
+		for (int i = 0; i < 5; i++) {
+			store.addMessagesToGroup("foo", new GenericMessage<>(i));
+		}
+		MessageGroup group = store.getMessageGroup("foo");
+		List<Object> payloads = new ArrayList<>();
+		for (Message<?> message : group.getMessages()) {
+			payloads.add(message.getPayload());
+		}
+		assertThat(payloads).containsExactly(0, 1, 2, 3, 4);
+		assertThat(store.retrieveAllCalls).isEqualTo(3);
+
+		store.removeMessagesFromGroup("foo", group.getMessages());
+		assertThat(store.getMessageGroup("foo").size()).isEqualTo(0);
+
+		store.addMessagesToGroup("bar", new GenericMessage<>("bar"));
+		for (Message<?> message : store.getMessageGroup("bar").getMessages()) {
+			assertThat(message.getPayload()).isEqualTo("bar");
+		}
+		assertThat(store.retrieveAllCalls).isEqualTo(6);
+	}
+
+	@Test
+	public void testLazyLoadedGroupAggregatedInSingleIteration() {
+		TestKeyValueMessageStore store = new TestKeyValueMessageStore();
+		store.setLoadBatchSize(2);
+		for (int i = 0; i < 5; i++) {
+			store.addMessagesToGroup("foo",
+					MessageBuilder.withPayload(i).setHeader("same", "bar").setHeader("conflict", i).build());
+		}
+		Object result = new DefaultAggregatingMessageGroupProcessor().processMessageGroup(store.getMessageGroup("foo"));
+		assertThat(store.retrieveAllCalls).isEqualTo(3);
+		Message<?> message = ((AbstractIntegrationMessageBuilder<?>) result).build();
+		assertThat(message.getPayload()).isEqualTo(List.of(0, 1, 2, 3, 4));
+		assertThat(message.getHeaders())
+				.containsEntry("same", "bar")
+				.doesNotContainKey("conflict");
+	}
+
+	private static class TestKeyValueMessageStore extends AbstractKeyValueMessageStore {
+
+		private final Map<Object, Object> map = new LinkedHashMap<>();
+
+		private int retrieveAllCalls;
+
+		@Override
+		protected Object doRetrieve(Object id) {
+			return this.map.get(id);
+		}
+
+		@Override
+		protected Collection<?> doRetrieveAll(Collection<Object> ids) {
+			this.retrieveAllCalls++;
+			return super.doRetrieveAll(ids);
+		}
+
+		@Override
+		protected void doStore(Object id, Object objectToStore) {
+			this.map.put(id, objectToStore);
+		}
+
+		@Override
+		protected void doStoreIfAbsent(Object id, Object objectToStore) {
+			this.map.putIfAbsent(id, objectToStore);
+		}
+
+		@Override
+		protected Object doRemove(Object id) {
+			return this.map.remove(id);
+		}
+
+		@Override
+		protected void doRemoveAll(Collection<Object> ids) {
+			ids.forEach(this.map::remove);
+		}
+
+		@Override
+		protected Collection<?> doListKeys(String keyPattern) {
+			String prefix = keyPattern.replace("*", "");
+			return this.map.keySet()
+					.stream()
+					.filter((key) -> key.toString().startsWith(prefix))
+					.toList();
+		}
+
+	}
+
 	private static class TestMessageStore extends SimpleMessageStore {
 
 		MessageGroup testMessages =
@@ -84,6 +179,7 @@ public class MessageStoreTests {
 
 		TestMessageStore() {
 			super();
+			setUseExpiryIndex(false);
 		}
 
 		@Override
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.store;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.codec.kryo.MessageCodec;
+import org.springframework.integration.message.AdviceMessage;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.GenericMessage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ *
+ * @since 6.2
+ */
+public class OffHeapMessageStoreTests {
+
+	@Test
+	void messagesStoredOffHeap() {
+		OffHeapMessageStore store = new OffHeapMessageStore(new MessageCodec(), 1024 * 1024, 64 * 1024);
+		assertThat(store.getAllocatedBytes()).isZero();
+
+		Message<String> message = MessageBuilder.withPayload("foo").setHeader("bar", "baz").build();
+		store.addMessage(message);
+		assertThat(store.getMessageCount()).isEqualTo(1);
+		assertThat(store.getUsedBytes()).isPositive();
+		assertThat(store.getAllocatedBytes()).isEqualTo(64 * 1024);
+
+		Message<?> stored = store.getMessage(message.getHeaders().getId());
+		assertThat(stored).isNotSameAs(message);
+		assertThat(stored.getPayload()).isEqualTo("foo");
+		assertThat(stored.getHeaders()).containsEntry("bar", "baz");
+		assertThat(stored.getHeaders().getId()).isEqualTo(message.getHeaders().getId());
+		assertThat(stored.getHeaders().getTimestamp()).isEqualTo(message.getHeaders().getTimestamp());
+		assertThat(store.getMessageMetadata(message.getHeaders().getId()).getTimestamp()).isPositive();
+
+		assertThat(store.removeMessage(message.getHeaders().getId()).getPayload()).isEqualTo("foo");
+		assertThat(store.getMessage(message.getHeaders().getId())).isNull();
+		assertThat(store.getMessageCount()).isZero();
+		assertThat(store.getUsedBytes()).isZero();
+	}
+
+	@Test
+	void messageGroupsInOffHeapStore() {
+		OffHeapMessageStore store = new OffHeapMessageStore(new MessageCodec(), 1024 * 1024, 64 * 1024);
+		for (int i = 0; i < 10; i++) {
+			store.addMessagesToGroup("group", new GenericMessage<>(i));
+		}
+		assertThat(store.messageGroupSize("group")).isEqualTo(10);
+		assertThat(store.getMessageGroupCount()).isEqualTo(1);
+
+		List<Object> payloads = new ArrayList<>();
+		for (Message<?> message : store.getMessageGroup("group").getMessages()) {
+			payloads.add(message.getPayload());
+		}
+		assertThat(payloads).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+
+		store.removeMessagesFromGroup("group", store.getMessageGroup("group").getMessages());
+		assertThat(store.messageGroupSize("group")).isZero();
+		assertThat(store.getMessageCount()).isZero();
+		assertThat(store.getUsedBytes()).isZero();
+
+		store.removeMessageGroup("group");
+		assertThat(store.getMessageGroupCount()).isZero();
+	}
+
+	@Test
+	void queueChannelOnOffHeapStore() {
+		OffHeapMessageStore store = new OffHeapMessageStore(new MessageCodec(), 1024 * 1024, 64 * 1024);
+		QueueChannel channel = new QueueChannel(new MessageGroupQueue(store, "queue"));
+		for (int i = 0; i < 100; i++) {
+			channel.send(new GenericMessage<>(i));
+		}
+		assertThat(channel.getQueueSize()).isEqualTo(100);
+
+		for (int i = 0; i < 100; i++) {
+			Message<?> message = channel.receive(0);
+			assertThat(message).isNotNull();
+			assertThat(message.getPayload()).isEqualTo(i);
+		}
+		assertThat(channel.receive(0)).isNull();
+		assertThat(store.getUsedBytes()).isZero();
+	}
+
+	@Test
+	void groupMessageIdsKeptInInsertionOrderWithoutDuplicates() {
+		OffHeapMessageStore store = new OffHeapMessageStore(new MessageCodec(), 8 * 1024 * 1024, 64 * 1024);
+		List<Message<?>> messages = new ArrayList<>();
+		for (int i = 0; i < 20_000; i++) {
+			Message<Integer> message = new GenericMessage<>(i);
+			messages.add(message);
+			store.addMessagesToGroup("group", message);
+		}
+		store.addMessagesToGroup("group", messages.get(0));
+		assertThat(store.messageGroupSize("group")).isEqualTo(20_000);
+		assertThat(store.getMessageCount()).isEqualTo(20_000);
+		assertThat(store.getOneMessageFromGroup("group").getPayload()).isEqualTo(0);
+
+		store.removeMessagesFromGroup("group", messages.get(1));
+		assertThat(store.pollMessageFromGroup("group").getPayload()).isEqualTo(0);
+		assertThat(store.pollMessageFromGroup("group").getPayload()).isEqualTo(2);
+		assertThat(store.messageGroupSize("group")).isEqualTo(19_997);
+
+		store.removeMessageGroup("group");
+		assertThat(store.getMessageCount()).isZero();
+		assertThat(store.getUsedBytes()).isZero();
+	}
+
+	@Test
+	void capacityInBytesAndCompaction() {
+		OffHeapMessageStore store = new OffHeapMessageStore(new MessageCodec(), 4 * 1024, 1024);
+		List<Message<?>> messages = new ArrayList<>();
+		while (true) {
+			Message<String> message = new GenericMessage<>("x".repeat(100));
+			try {
+				store.addMessage(message);
+				messages.add(message);
+			}
+			catch (MessageStoreException ex) {
+				assertThat(ex).hasMessageContaining("Not enough space");
+				break;
+			}
+		}
+		assertThat(store.getAllocatedBytes()).isEqualTo(store.getCapacity());
+		int storedCount = messages.size();
+		assertThat(storedCount).isGreaterThan(10);
+
+		List<Message<?>> remaining = new ArrayList<>();
+		for (int i = 0; i < storedCount; i++) {
+			Message<?> message = messages.get(i);
+			if (i % 2 == 0) {
+				store.removeMessage(message.getHeaders().getId());
+			}
+			else {
+				remaining.add(message);
+			}
+		}
+
+		for (int i = 0; i < storedCount / 2; i++) {
+			Message<String> message = new GenericMessage<>("x".repeat(100));
+			store.addMessage(message);
+			remaining.add(message);
+		}
+
+		assertThat(store.getMessageCount()).isEqualTo(remaining.size());
+		assertThat(store.getAllocatedBytes()).isEqualTo(store.getCapacity());
+		for (Message<?> message : remaining) {
+			assertThat(store.getMessage(message.getHeaders().getId()))
+					.extracting(Message::getPayload)
+					.isEqualTo(message.getPayload());
+		}
+	}
+
+	@Test
+	void messageTypeAndIdPreserved() {
+		OffHeapMessageStore store = new OffHeapMessageStore(new MessageCodec(), 1024 * 1024, 64 * 1024);
+		AdviceMessage<String> adviceMessage = new AdviceMessage<>("bar", new GenericMessage<>("foo"));
+		store.addMessage(adviceMessage);
+
+		Message<?> stored = store.getMessage(adviceMessage.getHeaders().getId());
+		assertThat(stored).isInstanceOf(AdviceMessage.class);
+		assertThat(stored.getPayload()).isEqualTo("bar");
+		assertThat(stored.getHeaders().getId()).isEqualTo(adviceMessage.getHeaders().getId());
+		assertThat(((AdviceMessage<?>) stored).getInputMessage()).extracting(Message::getPayload).isEqualTo("foo");
+	}
+
+	@Test
+	void messageLargerThanSlabRejected() {
+		OffHeapMessageStore store = new OffHeapMessageStore(new MessageCodec(), 4 * 1024, 1024);
+		assertThatExceptionOfType(MessageStoreException.class)
+				.isThrownBy(() -> store.addMessage(new GenericMessage<>("x".repeat(2048))))
+				.withMessageContaining("larger than the slab size");
+		assertThat(store.getMessageCount()).isZero();
+	}
+
+}
@@ -21,10 +21,13 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
 
 import org.junit.jupiter.api.Test;
 
 import org.springframework.integration.support.MessageBuilder;
+import org.springframework.integration.test.util.TestUtils;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.support.GenericMessage;
@@ -96,6 +99,102 @@ public class SimpleMessageGroupTests {
 		assertThat(grp.getMessages().size()).isEqualTo(2);
 	}
 
+	@Test
+	public void sequenceNumbersTracked() {
+		SimpleMessageGroup grp = new SimpleMessageGroup(this.key);
+		assertThat(grp.getMinSequenceNumber()).isZero();
+		assertThat(grp.getContiguousSequenceEnd()).isEqualTo(-1);
+
+		List<Message<?>> messages = new ArrayList<>();
+		TreeSet<Integer> expected = new TreeSet<>();
+		Random random = new Random(42);
+		int window = 0;
+		for (int i = 0; i < 20_000; i++) {
+			if (random.nextInt(3) > 0 || messages.isEmpty()) {
+				int sequence = window + random.nextInt(500) - 100;
+				if (expected.add(sequence)) {
+					Message<?> message = MessageBuilder.withPayload(sequence).setSequenceNumber(sequence).build();
+					messages.add(message);
+					grp.add(message);
+				}
+			}
+			else {
+				Message<?> message = messages.remove(random.nextInt(Math.min(messages.size(), 10)));
+				assertThat(grp.remove(message)).isTrue();
+				expected.remove((Integer) message.getPayload());
+			}
+			if (i % 100 == 0) {
+				window += 64;
+			}
+			int min = expected.isEmpty() ? 0 : expected.first();
+			int runEnd = min - 1;
+			while (expected.contains(runEnd + 1)) {
+				runEnd++;
+			}
+			assertThat(grp.getMinSequenceNumber()).isEqualTo(min);
+			assertThat(grp.getContiguousSequenceEnd()).isEqualTo(runEnd);
+			assertThat(grp.containsSequence(min)).isEqualTo(!expected.isEmpty());
+			assertThat(grp.containsSequence(runEnd + 1)).isFalse();
+		}
+
+		SimpleMessageGroup copy = new SimpleMessageGroup(grp);
+		assertThat(copy.getMinSequenceNumber()).isEqualTo(grp.getMinSequenceNumber());
+		assertThat(copy.getContiguousSequenceEnd()).isEqualTo(grp.getContiguousSequenceEnd());
+
+		grp.clear();
+		assertThat(grp.getMinSequenceNumber()).isZero();
+		assertThat(grp.getContiguousSequenceEnd()).isEqualTo(-1);
+	}
+
+	@Test
+	public void sparseSequenceNumbersTracked() {
+		SimpleMessageGroup grp = new SimpleMessageGroup(this.key);
+		Message<?> high = MessageBuilder.withPayload("high").setSequenceNumber(2_000_000_000).build();
+		Message<?> low = MessageBuilder.withPayload("low").setSequenceNumber(1).build();
+		Message<?> next = MessageBuilder.withPayload("next").setSequenceNumber(2).build();
+		grp.add(high);
+		grp.add(low);
+		grp.add(next);
+		assertThat(TestUtils.getPropertyValue(grp, "sequences.words", long[].class).length).isLessThan(1024);
+		assertThat(grp.getMinSequenceNumber()).isEqualTo(1);
+		assertThat(grp.getContiguousSequenceEnd()).isEqualTo(2);
+		assertThat(grp.containsSequence(2_000_000_000)).isTrue();
+
+		grp.remove(low);
+		grp.remove(next);
+		assertThat(grp.getMinSequenceNumber()).isEqualTo(2_000_000_000);
+		assertThat(grp.getContiguousSequenceEnd()).isEqualTo(2_000_000_000);
+
+		grp.remove(high);
+		assertThat(grp.getMinSequenceNumber()).isZero();
+		assertThat(grp.getContiguousSequenceEnd()).isEqualTo(-1);
+	}
+
+	@Test
+	public void duplicateSequenceNumbersTracked() {
+		SimpleMessageGroup grp = new SimpleMessageGroup(this.key);
+		Message<?> first = MessageBuilder.withPayload("first").setSequenceNumber(1).build();
+		Message<?> duplicate = MessageBuilder.withPayload("duplicate").setSequenceNumber(1).build();
+		Message<?> second = MessageBuilder.withPayload("second").setSequenceNumber(2).build();
+		grp.add(first);
+		grp.add(duplicate);
+		grp.add(second);
+		grp.add(second);
+
+		grp.remove(first);
+		assertThat(grp.containsSequence(1)).isTrue();
+		assertThat(grp.getMinSequenceNumber()).isEqualTo(1);
+		assertThat(grp.getContiguousSequenceEnd()).isEqualTo(2);
+
+		grp.remove(second);
+		assertThat(grp.containsSequence(2)).isFalse();
+		assertThat(grp.getContiguousSequenceEnd()).isEqualTo(1);
+
+		grp.remove(duplicate);
+		assertThat(grp.containsSequence(1)).isFalse();
+		assertThat(grp.getMinSequenceNumber()).isZero();
+	}
+
 	@Test
 	// This test used to take 2 min and half to run; now ~200 milliseconds.
 	public void testPerformance() {
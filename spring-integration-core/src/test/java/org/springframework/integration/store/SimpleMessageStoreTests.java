@@ -18,7 +18,9 @@ package org.springframework.integration.store;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -27,6 +29,7 @@ import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.integration.support.MessageBuilder;
+import org.springframework.integration.test.util.TestUtils;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessagingException;
 import org.springframework.messaging.support.GenericMessage;
@@ -264,6 +267,36 @@ public class SimpleMessageStoreTests {
 
 	}
 
+	@Test
+	public void shouldExpireOnlyMessageGroupsOlderThanTimeoutWithoutFullIteration() throws InterruptedException {
+		SimpleMessageStore store = new SimpleMessageStore() {
+
+			@Override
+			public Iterator<MessageGroup> iterator() {
+				throw new IllegalStateException("The expiry must not iterate over all the groups");
+			}
+
+		};
+		List<Object> expired = new ArrayList<>();
+		store.registerMessageGroupExpiryCallback((messageGroupStore, group) -> {
+			expired.add(group.getGroupId());
+			messageGroupStore.removeMessageGroup(group.getGroupId());
+		});
+
+		store.addMessageToGroup("old", new GenericMessage<>("foo"));
+		Thread.sleep(200);
+		store.addMessageToGroup("new", new GenericMessage<>("bar"));
+		store.addMessageToGroup("old", new GenericMessage<>("baz"));
+
+		assertThat(store.expireMessageGroups(100)).isEqualTo(1);
+		assertThat(expired).containsExactly("old");
+
+		assertThat(store.expireMessageGroups(-10000)).isEqualTo(1);
+		assertThat(expired).containsExactly("old", "new");
+		assertThat(TestUtils.getPropertyValue(store, "expiryIndex", Map.class)).isEmpty();
+		assertThat(TestUtils.getPropertyValue(store, "groupToExpiryIndexKey", Map.class)).isEmpty();
+	}
+
 	@Test
 	public void testAddAndRemoveMessagesFromMessageGroup() {
 		SimpleMessageStore messageStore = new SimpleMessageStore();
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.store;
+
+import java.io.File;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.integration.aggregator.AggregatingMessageHandler;
+import org.springframework.integration.aggregator.DefaultAggregatingMessageGroupProcessor;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.GenericMessage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ *
+ * @since 6.2
+ */
+public class WriteBehindMessageGroupStoreTests {
+
+	@TempDir
+	File journalDirectory;
+
+	@Test
+	void changesWrittenBehindInBatches() {
+		SimpleMessageStore delegate = new SimpleMessageStore();
+		WriteBehindMessageGroupStore store = new WriteBehindMessageGroupStore(delegate);
+		store.setDurabilityMode(WriteBehindMessageGroupStore.DurabilityMode.ASYNC);
+		store.setFlushBatchSize(11);
+
+		for (int i = 0; i < 9; i++) {
+			store.addMessagesToGroup("group", new GenericMessage<>(i));
+		}
+		store.setGroupCondition("group", "condition");
+		assertThat(store.messageGroupSize("group")).isEqualTo(9);
+		assertThat(store.getMessageGroup("group").getCondition()).isEqualTo("condition");
+		assertThat(delegate.messageGroupSize("group")).isZero();
+
+		store.addMessagesToGroup("group", new GenericMessage<>(9));
+		assertThat(delegate.messageGroupSize("group")).isEqualTo(10);
+		assertThat(delegate.getMessageGroup("group").getCondition()).isEqualTo("condition");
+
+		store.pollMessageFromGroup("group");
+		store.completeGroup("group");
+		assertThat(store.getMessageGroup("group").isComplete()).isTrue();
+		assertThat(delegate.getMessageGroup("group").isComplete()).isFalse();
+
+		store.flush();
+		assertThat(delegate.messageGroupSize("group")).isEqualTo(9);
+		assertThat(delegate.getMessageGroup("group").isComplete()).isTrue();
+		assertThat(store.getMessageGroupCount()).isEqualTo(1);
+	}
+
+	@Test
+	void batchCoalesced() {
+		SimpleMessageStore delegate = spy(new SimpleMessageStore());
+		WriteBehindMessageGroupStore store = new WriteBehindMessageGroupStore(delegate);
+		store.setDurabilityMode(WriteBehindMessageGroupStore.DurabilityMode.ASYNC);
+
+		Message<?> message1 = new GenericMessage<>("foo");
+		Message<?> message2 = new GenericMessage<>("bar");
+		Message<?> message3 = new GenericMessage<>("baz");
+		store.addMessagesToGroup("transient", message1);
+		store.addMessagesToGroup("transient", message2);
+		store.completeGroup("transient");
+		store.removeMessageGroup("transient");
+		assertThat(store.messageGroupSize("transient")).isZero();
+
+		store.addMessagesToGroup("group", message1);
+		store.addMessagesToGroup("group", message2);
+		store.removeMessagesFromGroup("group", message1);
+		store.addMessagesToGroup("group", message3);
+
+		store.flush();
+
+		verify(delegate, never()).addMessagesToGroup(eq("transient"), any(Message[].class));
+		verify(delegate, never()).completeGroup("transient");
+		verify(delegate).removeMessageGroup("transient");
+		verify(delegate).addMessagesToGroup("group", message2, message3);
+		verify(delegate, never()).removeMessagesFromGroup(eq("group"), any(List.class));
+		assertThat(delegate.getMessageGroup("group").getMessages()).containsExactly(message2, message3);
+	}
+
+	@Test
+	void aggregatorFlushesOnRelease() {
+		SimpleMessageStore delegate = new SimpleMessageStore();
+		WriteBehindMessageGroupStore store = new WriteBehindMessageGroupStore(delegate);
+		AggregatingMessageHandler aggregator =
+				new AggregatingMessageHandler(new DefaultAggregatingMessageGroupProcessor(), store);
+		QueueChannel output = new QueueChannel();
+		aggregator.setOutputChannel(output);
+		aggregator.setExpireGroupsUponCompletion(true);
+
+		for (int i = 1; i <= 3; i++) {
+			aggregator.handleMessage(
+					MessageBuilder.withPayload(i)
+							.setCorrelationId("correlation")
+							.setSequenceNumber(i)
+							.setSequenceSize(3)
+							.build());
+			if (i < 3) {
+				assertThat(delegate.messageGroupSize("correlation")).isZero();
+			}
+		}
+
+		Message<?> result = output.receive(0);
+		assertThat(result).isNotNull();
+		assertThat(result.getPayload()).isEqualTo(List.of(1, 2, 3));
+		assertThat(delegate.getMessageGroupCount()).isZero();
+		assertThat(store.getMessageGroupCount()).isZero();
+	}
+
+	@Test
+	void unflushedChangesRecoveredFromJournal() {
+		SimpleMessageStore delegate = new SimpleMessageStore();
+		MappedFileChannelMessageStore journal = new MappedFileChannelMessageStore(this.journalDirectory);
+		WriteBehindMessageGroupStore store = new WriteBehindMessageGroupStore(delegate);
+		store.setDurabilityMode(WriteBehindMessageGroupStore.DurabilityMode.ASYNC);
+		store.setJournal(journal);
+		store.afterPropertiesSet();
+
+		store.addMessagesToGroup("group", new GenericMessage<>("foo"));
+		store.flush();
+		store.addMessagesToGroup("group", new GenericMessage<>("bar"), new GenericMessage<>("baz"));
+		store.setLastReleasedSequenceNumberForGroup("group", 2);
+		assertThat(journal.messageGroupSize("writeBehindJournal")).isEqualTo(2);
+		assertThat(delegate.messageGroupSize("group")).isEqualTo(1);
+		journal.close();
+
+		// Emulate a crash: a new instance over the same delegate and journal files
+		journal = new MappedFileChannelMessageStore(this.journalDirectory);
+		store = new WriteBehindMessageGroupStore(delegate);
+		store.setJournal(journal);
+		store.afterPropertiesSet();
+
+		assertThat(journal.messageGroupSize("writeBehindJournal")).isZero();
+		assertThat(delegate.getMessageGroup("group").getMessages())
+				.<Object>extracting(Message::getPayload)
+				.containsExactly("foo", "bar", "baz");
+		assertThat(delegate.getMessageGroup("group").getLastReleasedMessageSequenceNumber()).isEqualTo(2);
+		assertThat(store.messageGroupSize("group")).isEqualTo(3);
+		journal.close();
+	}
+
+	@Test
+	void cachedGroupsBounded() {
+		SimpleMessageStore delegate = spy(new SimpleMessageStore());
+		WriteBehindMessageGroupStore store = new WriteBehindMessageGroupStore(delegate);
+		store.setDurabilityMode(WriteBehindMessageGroupStore.DurabilityMode.ASYNC);
+		store.setMaxCachedGroups(2);
+
+		assertThat(store.getMessageGroup("unknown").size()).isZero();
+		assertThat(store.messageGroupSize("unknown")).isZero();
+		verify(delegate, times(2)).getMessageGroup("unknown");
+
+		store.addMessagesToGroup("group1", new GenericMessage<>("foo"));
+		store.addMessagesToGroup("group2", new GenericMessage<>("bar"));
+		store.addMessagesToGroup("group3", new GenericMessage<>("baz"));
+		assertThat(store.messageGroupSize("group1")).isEqualTo(1);
+		assertThat(store.messageGroupSize("group2")).isEqualTo(1);
+		assertThat(store.messageGroupSize("group3")).isEqualTo(1);
+		assertThat(store.messageGroupSize("group1")).isEqualTo(1);
+
+		clearInvocations(delegate);
+		store.flush();
+		assertThat(store.messageGroupSize("group1")).isEqualTo(1);
+		assertThat(store.messageGroupSize("group3")).isEqualTo(1);
+		verify(delegate, never()).getMessageGroup(any());
+
+		assertThat(store.messageGroupSize("group2")).isEqualTo(1);
+		verify(delegate).getMessageGroup("group2");
+	}
+
+	@Test
+	void failedFlushRetried() {
+		SimpleMessageStore delegate = spy(new SimpleMessageStore());
+		SimpleMessageStore journal = new SimpleMessageStore();
+		WriteBehindMessageGroupStore store = new WriteBehindMessageGroupStore(delegate);
+		store.setDurabilityMode(WriteBehindMessageGroupStore.DurabilityMode.ASYNC);
+		store.setJournal(journal);
+
+		willThrow(new IllegalStateException("delegate is down"))
+				.willCallRealMethod()
+				.given(delegate)
+				.addMessagesToGroup(eq("group2"), any(Message[].class));
+
+		store.addMessagesToGroup("group1", new GenericMessage<>("foo"));
+		store.addMessagesToGroup("group2", new GenericMessage<>("bar"));
+		store.addMessagesToGroup("group3", new GenericMessage<>("baz"));
+
+		assertThatIllegalStateException()
+				.isThrownBy(store::flush)
+				.withMessage("delegate is down");
+		assertThat(delegate.messageGroupSize("group1")).isEqualTo(1);
+		assertThat(delegate.messageGroupSize("group3")).isZero();
+		assertThat(journal.messageGroupSize("writeBehindJournal")).isEqualTo(3);
+
+		store.addMessagesToGroup("group1", new GenericMessage<>("qux"));
+		store.flush();
+		assertThat(delegate.messageGroupSize("group1")).isEqualTo(2);
+		assertThat(delegate.messageGroupSize("group2")).isEqualTo(1);
+		assertThat(delegate.messageGroupSize("group3")).isEqualTo(1);
+		verify(delegate, times(2)).addMessagesToGroup(eq("group2"), any(Message[].class));
+		assertThat(journal.messageGroupSize("writeBehindJournal")).isZero();
+	}
+
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.support;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.integration.IntegrationMessageHeaderAccessor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.ErrorMessage;
+import org.springframework.messaging.support.GenericMessage;
+import org.springframework.util.SerializationUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ *
+ * @since 6.2
+ */
+public class LayeredMessageHeadersTests {
+
+	private final DefaultMessageBuilderFactory layeredFactory = new DefaultMessageBuilderFactory();
+
+	LayeredMessageHeadersTests() {
+		this.layeredFactory.setLayeredHeaders(true);
+	}
+
+	@Test
+	void layeredHeadersSameAsCopied() {
+		Message<String> original = originalMessage();
+
+		Message<String> layered = modify(this.layeredFactory.fromMessage(original));
+		Message<String> copied = modify(MessageBuilder.fromMessage(original));
+
+		assertThat(layered.getHeaders()).isInstanceOf(LayeredMessageHeaders.class);
+		assertThat(copied.getHeaders()).isNotInstanceOf(LayeredMessageHeaders.class);
+		assertThat(layered.getHeaders().getId()).isNotEqualTo(original.getHeaders().getId());
+		assertThat(layered.getHeaders().getTimestamp()).isNotNull();
+
+		Map<String, Object> expected = new HashMap<>(copied.getHeaders());
+		expected.remove(MessageHeaders.ID);
+		expected.remove(MessageHeaders.TIMESTAMP);
+		Map<String, Object> actual = new HashMap<>(layered.getHeaders());
+		actual.remove(MessageHeaders.ID);
+		actual.remove(MessageHeaders.TIMESTAMP);
+		assertThat(actual).isEqualTo(expected)
+				.containsEntry("header0", "changed")
+				.containsEntry("newHeader", "new")
+				.doesNotContainKeys("header1", "prefix.a", "prefix.b")
+				.containsKey("header2");
+
+		assertThat(layered.getHeaders().get("header1")).isNull();
+		assertThat(layered.getHeaders().containsKey("prefix.a")).isFalse();
+		assertThat(layered.getHeaders().get("header2", String.class)).isEqualTo("value2");
+		assertThat(layered.getHeaders().size()).isEqualTo(copied.getHeaders().size());
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> layered.getHeaders().get("header2", Integer.class));
+
+		assertThat(original.getHeaders()).containsEntry("header1", "value1").containsKey("prefix.a");
+	}
+
+	@Test
+	void unchangedMessageIsReturnedAsIs() {
+		Message<String> original = originalMessage();
+		assertThat(this.layeredFactory.fromMessage(original).setHeader("header0", "value0").build())
+				.isSameAs(original);
+		assertThat(this.layeredFactory.fromMessage(original).removeHeader("header1").build())
+				.isNotSameAs(original);
+	}
+
+	@Test
+	void deepChainIsFlattened() {
+		Message<?> message = originalMessage();
+		for (int i = 0; i < 3 * LayeredMessageHeaders.MAX_DEPTH; i++) {
+			message = this.layeredFactory.fromMessage(message)
+					.setHeader("step", i)
+					.setHeader("step" + i, i)
+					.removeHeader("step" + (i - 1))
+					.build();
+			assertThat(((LayeredMessageHeaders) message.getHeaders()).getDepth())
+					.isBetween(1, LayeredMessageHeaders.MAX_DEPTH);
+		}
+		int lastStep = 3 * LayeredMessageHeaders.MAX_DEPTH - 1;
+		assertThat(message.getHeaders())
+				.containsEntry("step", lastStep)
+				.containsEntry("step" + lastStep, lastStep)
+				.doesNotContainKey("step" + (lastStep - 1))
+				.containsEntry("header2", "value2");
+	}
+
+	@Test
+	void sequenceDetailsAndErrorMessage() {
+		Message<String> original = originalMessage();
+		Message<String> message =
+				this.layeredFactory.fromMessage(original)
+						.pushSequenceDetails("correlation", 1, 2)
+						.build();
+		IntegrationMessageHeaderAccessor accessor = new IntegrationMessageHeaderAccessor(message);
+		assertThat(accessor.getCorrelationId()).isEqualTo("correlation");
+		assertThat(accessor.getSequenceNumber()).isEqualTo(1);
+		assertThat(accessor.getSequenceSize()).isEqualTo(2);
+
+		Message<String> nested = this.layeredFactory.fromMessage(message).pushSequenceDetails("nested", 3, 4).build();
+		assertThat(nested.getHeaders()).containsEntry(IntegrationMessageHeaderAccessor.CORRELATION_ID, "nested");
+		Message<String> popped = this.layeredFactory.fromMessage(nested).popSequenceDetails().build();
+		assertThat(popped.getHeaders())
+				.containsEntry(IntegrationMessageHeaderAccessor.CORRELATION_ID, "correlation")
+				.containsEntry(IntegrationMessageHeaderAccessor.SEQUENCE_NUMBER, 1)
+				.doesNotContainKey(IntegrationMessageHeaderAccessor.SEQUENCE_DETAILS);
+
+		Message<?> errorMessage =
+				this.layeredFactory.fromMessage(MessageBuilder.withPayload(new RuntimeException("test")).build())
+						.setHeader("error", true)
+						.build();
+		assertThat(errorMessage).isInstanceOf(ErrorMessage.class);
+		assertThat(errorMessage.getHeaders()).containsEntry("error", true);
+	}
+
+	@Test
+	void readOnlyHeadersWithLayeredHeaders() {
+		DefaultMessageBuilderFactory factory = new DefaultMessageBuilderFactory();
+		factory.setLayeredHeaders(true);
+		factory.setReadOnlyHeaders("header1");
+		Message<String> message = factory.fromMessage(originalMessage()).setHeader("header0", "changed").build();
+		assertThat(message.getHeaders())
+				.doesNotContainKey("header1")
+				.containsEntry("header0", "changed")
+				.containsEntry("header2", "value2");
+	}
+
+	@Test
+	void layeredHeadersSerializedFlat() {
+		GenericMessage<String> message =
+				(GenericMessage<String>) modify(this.layeredFactory.fromMessage(originalMessage()));
+		Message<?> deserialized = SerializationUtils.clone(message);
+		assertThat(deserialized.getHeaders()).isNotInstanceOf(LayeredMessageHeaders.class);
+		assertThat(message.getHeaders()).isEqualTo(deserialized.getHeaders());
+		assertThat(deserialized.getHeaders().getId()).isEqualTo(message.getHeaders().getId());
+		assertThat(deserialized.getHeaders().getTimestamp()).isEqualTo(message.getHeaders().getTimestamp());
+	}
+
+	@Test
+	void mutableParentHeadersAreNotReferenced() {
+		MutableMessage<String> original = new MutableMessage<>("test", Map.of("header0", "value0"));
+		Message<String> message = this.layeredFactory.fromMessage(original).setHeader("newHeader", "new").build();
+		original.getHeaders().put("header0", "changed");
+		original.getHeaders().put("header1", "added");
+		assertThat(message.getHeaders())
+				.containsEntry("header0", "value0")
+				.containsEntry("newHeader", "new")
+				.doesNotContainKey("header1");
+		assertThat(message.getHeaders()).isNotInstanceOf(LayeredMessageHeaders.class);
+
+		Message<String> layeredOverMutable =
+				new GenericMessage<>("test", new LayeredMessageHeaders(original.getHeaders(), new HashMap<>(),
+						Set.of()));
+		original.getHeaders().put("header0", "changedAgain");
+		assertThat(layeredOverMutable.getHeaders()).containsEntry("header0", "changed");
+	}
+
+	private static Message<String> originalMessage() {
+		MessageBuilder<String> builder = MessageBuilder.withPayload("test");
+		for (int i = 0; i < 30; i++) {
+			builder.setHeader("header" + i, "value" + i);
+		}
+		return builder.setHeader("prefix.a", "a")
+				.setHeader("prefix.b", "b")
+				.build();
+	}
+
+	private static Message<String> modify(MessageBuilder<String> builder) {
+		return builder.setHeader("header0", "changed")
+				.setHeader("newHeader", "new")
+				.removeHeader("header1")
+				.removeHeaders("prefix.*")
+				.setHeaderIfAbsent("header2", "ignored")
+				.copyHeadersIfAbsent(Map.of("header3", "ignored", "header30", "copied"))
+				.build();
+	}
+
+}
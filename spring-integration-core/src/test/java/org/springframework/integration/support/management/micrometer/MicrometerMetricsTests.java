@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2022 the original author or authors.
+ * Copyright 2018-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -186,6 +186,15 @@ public class MicrometerMetricsTests {
 				.tag("name", "queue")
 				.gauge().value()).isEqualTo(8d);
 
+		assertThat(registry.get("spring.integration.channel.queue.residency")
+				.tag("name", "queue")
+				.timer().count()).isEqualTo(1);
+
+		assertThat(registry.get("spring.integration.channel.queue.lag")
+				.tag("name", "queue")
+				.gauge().value()).isGreaterThanOrEqualTo(0d);
+		assertThat(this.queue.getConsumerLag()).isGreaterThanOrEqualTo(0);
+
 		assertThat(registry.get("spring.integration.send")
 				.tag("name", "nullChannel")
 				.tag("result", "success")
@@ -16,7 +16,10 @@
 
 package org.springframework.integration.jdbc.store;
 
+import java.sql.PreparedStatement;
 import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -39,6 +42,7 @@ import org.springframework.core.serializer.Deserializer;
 import org.springframework.core.serializer.Serializer;
 import org.springframework.core.serializer.support.SerializingConverter;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.integration.codec.CodecMessageSerializer;
 import org.springframework.integration.jdbc.store.channel.ChannelMessageStorePreparedStatementSetter;
 import org.springframework.integration.jdbc.store.channel.ChannelMessageStoreQueryProvider;
 import org.springframework.integration.jdbc.store.channel.MessageRowMapper;
@@ -49,13 +53,19 @@ import org.springframework.integration.store.SimpleMessageGroupFactory;
 import org.springframework.integration.support.converter.AllowListDeserializingConverter;
 import org.springframework.integration.util.UUIDConverter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.PreparedStatementCreatorFactory;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+import org.springframework.jdbc.core.namedparam.ParsedSql;
 import org.springframework.jdbc.support.lob.DefaultLobHandler;
 import org.springframework.jdbc.support.lob.LobHandler;
 import org.springframework.jmx.export.annotation.ManagedAttribute;
 import org.springframework.jmx.export.annotation.ManagedMetric;
 import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.lang.Nullable;
 import org.springframework.messaging.Message;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
@@ -115,6 +125,8 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 		POLL_WITH_EXCLUSIONS,
 		PRIORITY,
 		PRIORITY_WITH_EXCLUSIONS,
+		POLL_MESSAGES,
+		PRIORITY_POLL_MESSAGES,
 		DELETE_MESSAGE
 	}
 
@@ -138,10 +150,17 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 
 	private JdbcTemplate jdbcTemplate;
 
+	private JdbcTemplate pollMessagesJdbcTemplate;
+
 	private AllowListDeserializingConverter deserializer;
 
 	private SerializingConverter serializer;
 
+	private final List<String> allowedPatterns = new ArrayList<>();
+
+	@Nullable
+	private AllowListDeserializingConverter codecDeserializer;
+
 	private LobHandler lobHandler = new DefaultLobHandler();
 
 	private MessageRowMapper messageRowMapper;
@@ -210,6 +229,10 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 	 */
 	public void addAllowedPatterns(String... patterns) {
 		this.deserializer.addAllowedPatterns(patterns);
+		Collections.addAll(this.allowedPatterns, patterns);
+		if (this.codecDeserializer != null) {
+			this.codecDeserializer.addAllowedPatterns(patterns);
+		}
 	}
 
 	/**
@@ -303,6 +326,30 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 		this.serializer = new SerializingConverter((Serializer<Object>) serializer);
 	}
 
+	/**
+	 * Serialize messages with the provided {@link CodecMessageSerializer}, e.g. based on the
+	 * Kryo {@link org.springframework.integration.codec.kryo.MessageCodec}, instead of the Java serialization.
+	 * The rows stored before are still read by the {@link #setDeserializer(Deserializer) deserializer}:
+	 * the format of each row is detected by {@link CodecMessageSerializer#isCodecFormat(byte[])}.
+	 * The rows in the codec format are decoded through an {@link AllowListDeserializingConverter}
+	 * with the same {@link #addAllowedPatterns(String...) allowed patterns}, which are checked
+	 * against the types of the decoded message, its payload and header values.
+	 * Ignored for reading if a custom {@link #setMessageRowMapper(MessageRowMapper)} is provided.
+	 * <p>
+	 * The Kryo {@link org.springframework.integration.codec.kryo.MessageCodec} needs the
+	 * {@code --add-opens java.base/java.util=ALL-UNNAMED} JVM option at runtime
+	 * to encode {@link java.util.UUID} header values.
+	 * @param codecMessageSerializer the {@link CodecMessageSerializer} to use.
+	 * @since 6.2
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public void setCodecMessageSerializer(CodecMessageSerializer codecMessageSerializer) {
+		Assert.notNull(codecMessageSerializer, "The provided codecMessageSerializer must not be null.");
+		setSerializer(codecMessageSerializer);
+		this.codecDeserializer = new AllowListDeserializingConverter((Deserializer) codecMessageSerializer);
+		this.codecDeserializer.setAllowedPatterns(this.allowedPatterns.toArray(new String[0]));
+	}
+
 	/**
 	 * Public setter for the table prefix property. This will be prefixed to all the table names before queries are
 	 * executed. Defaults to {@link #DEFAULT_TABLE_PREFIX}.
@@ -408,7 +455,8 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 		Assert.notNull(this.channelMessageStoreQueryProvider, "A channelMessageStoreQueryProvider must be provided.");
 
 		if (this.messageRowMapper == null) {
-			this.messageRowMapper = new MessageRowMapper(this.deserializer, this.lobHandler);
+			this.messageRowMapper =
+					new MessageRowMapper(this.deserializer, this.codecDeserializer, this.lobHandler);
 		}
 
 		if (this.jdbcTemplate.getFetchSize() != 1) {
@@ -420,6 +468,17 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 					this.lobHandler);
 		}
 		this.jdbcTemplate.afterPropertiesSet();
+		this.pollMessagesJdbcTemplate = createPollMessagesJdbcTemplate();
+	}
+
+	private JdbcTemplate createPollMessagesJdbcTemplate() {
+		// Same settings as the main JdbcTemplate, but without its 'maxRows=1' and 'fetchSize=1'
+		// for single message polls: the fetch size is set per statement to the number of messages to poll
+		JdbcTemplate template = new JdbcTemplate();
+		template.setDataSource(this.jdbcTemplate.getDataSource());
+		template.setExceptionTranslator(this.jdbcTemplate.getExceptionTranslator());
+		template.setQueryTimeout(this.jdbcTemplate.getQueryTimeout());
+		return template;
 	}
 
 	/**
@@ -560,6 +619,82 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 		return polledMessage;
 	}
 
+	/**
+	 * Poll the database for up to {@code maxMessages} messages persisted for the given
+	 * group id which represents the channel identifier.
+	 * The messages are selected by a single
+	 * {@link ChannelMessageStoreQueryProvider#getPollMessagesFromGroupQuery()}
+	 * (or {@link ChannelMessageStoreQueryProvider#getPriorityPollMessagesFromGroupQuery()})
+	 * which skips rows locked by other transactions where the database supports it,
+	 * and they are removed with a single batch update.
+	 * Therefore, this method should be called in a transaction to let concurrent consumers
+	 * of the same channel claim different messages instead of waiting for each other.
+	 * The statement fetch size is set to {@code maxMessages}, so the selected rows are fetched
+	 * in a single round trip regardless of the {@code fetchSize} of the provided {@link JdbcTemplate}.
+	 * Falls back to polling messages one by one if the query provider doesn't provide
+	 * a multi-row query or {@link #setUsingIdCache(boolean)} is {@code true}.
+	 * @since 6.2
+	 */
+	@Override
+	public List<Message<?>> pollMessagesFromGroup(Object groupId, int maxMessages) {
+		if (maxMessages < 1) {
+			return new ArrayList<>();
+		}
+		String query;
+		if (this.priorityEnabled) {
+			query = getQuery(Query.PRIORITY_POLL_MESSAGES,
+					() -> this.channelMessageStoreQueryProvider.getPriorityPollMessagesFromGroupQuery());
+		}
+		else {
+			query = getQuery(Query.POLL_MESSAGES,
+					() -> this.channelMessageStoreQueryProvider.getPollMessagesFromGroupQuery());
+		}
+		if (query == null || this.usingIdCache) {
+			return PriorityCapableChannelMessageStore.super.pollMessagesFromGroup(groupId, maxMessages);
+		}
+		String key = getKey(groupId);
+		MapSqlParameterSource parameters = new MapSqlParameterSource();
+		parameters.addValue("region", this.region);
+		parameters.addValue("group_key", key);
+		parameters.addValue("max_rows", maxMessages);
+
+		ResultSetExtractor<List<Message<?>>> messagesExtractor =
+				(resultSet) -> {
+					List<Message<?>> polled = new ArrayList<>();
+					int rowNum = 0;
+					while (rowNum < maxMessages && resultSet.next()) {
+						Message<?> message = this.messageRowMapper.mapRow(resultSet, rowNum++);
+						if (message != null) {
+							polled.add(message);
+						}
+					}
+					return polled;
+				};
+
+		ParsedSql parsedSql = NamedParameterUtils.parseSqlStatement(query);
+		PreparedStatementCreator preparedStatementCreator =
+				new PreparedStatementCreatorFactory(
+						NamedParameterUtils.substituteNamedParameters(parsedSql, parameters),
+						NamedParameterUtils.buildSqlParameterList(parsedSql, parameters))
+						.newPreparedStatementCreator(NamedParameterUtils.buildValueArray(parsedSql, parameters, null));
+
+		// Fetch all the selected rows in a single round trip; rows are locked as they are fetched on some databases
+		List<Message<?>> messages =
+				this.pollMessagesJdbcTemplate.query(
+						(connection) -> {
+							PreparedStatement preparedStatement =
+									preparedStatementCreator.createPreparedStatement(connection);
+							preparedStatement.setFetchSize(maxMessages);
+							return preparedStatement;
+						},
+						messagesExtractor);
+
+		if (messages == null || messages.isEmpty()) {
+			return new ArrayList<>();
+		}
+		return doRemoveMessagesFromGroup(key, messages);
+	}
+
 	/**
 	 * This method executes a call to the DB to get the oldest Message in the
 	 * MessageGroup which in the context of the {@link JdbcChannelMessageStore}
@@ -649,6 +784,31 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 		return result;
 	}
 
+	private List<Message<?>> doRemoveMessagesFromGroup(String groupKey, List<Message<?>> messagesToRemove) {
+		List<Object[]> batchArgs = new ArrayList<>(messagesToRemove.size());
+		for (Message<?> message : messagesToRemove) {
+			batchArgs.add(new Object[] {getKey(message.getHeaders().getId()), groupKey, this.region});
+		}
+		int[] updated = this.jdbcTemplate.batchUpdate(
+				getQuery(Query.DELETE_MESSAGE, () -> this.channelMessageStoreQueryProvider.getDeleteMessageQuery()),
+				batchArgs,
+				new int[] {Types.VARCHAR, Types.VARCHAR, Types.VARCHAR});
+
+		List<Message<?>> removed = new ArrayList<>(messagesToRemove.size());
+		for (int i = 0; i < updated.length; i++) {
+			Message<?> message = messagesToRemove.get(i);
+			UUID id = message.getHeaders().getId();
+			if (updated[i] != 0) { // including Statement.SUCCESS_NO_INFO
+				LOGGER.debug(() -> "Message with id '" + id + "' was deleted.");
+				removed.add(message);
+			}
+			else {
+				LOGGER.warn(() -> "Message with id '" + id + "' was not deleted.");
+			}
+		}
+		return removed;
+	}
+
 	/**
 	 * Remove a Message Id from the idCache. Should be used in conjunction
 	 * with the Spring Integration Transaction Synchronization feature to remove
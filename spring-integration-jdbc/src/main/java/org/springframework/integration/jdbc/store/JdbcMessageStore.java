@@ -16,14 +16,18 @@
 
 package org.springframework.integration.jdbc.store;
 
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -38,12 +42,14 @@ import org.springframework.core.serializer.Serializer;
 import org.springframework.core.serializer.support.SerializingConverter;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.integration.codec.CodecMessageSerializer;
 import org.springframework.integration.store.AbstractMessageGroupStore;
 import org.springframework.integration.store.MessageGroup;
 import org.springframework.integration.store.MessageGroupMetadata;
 import org.springframework.integration.store.MessageMetadata;
 import org.springframework.integration.store.MessageStore;
 import org.springframework.integration.store.SimpleMessageGroup;
+import org.springframework.integration.store.TimeIndexedMessageGroupStore;
 import org.springframework.integration.support.converter.AllowListDeserializingConverter;
 import org.springframework.integration.util.FunctionIterator;
 import org.springframework.integration.util.UUIDConverter;
@@ -54,6 +60,7 @@ import org.springframework.jdbc.core.SingleColumnRowMapper;
 import org.springframework.jdbc.support.lob.DefaultLobHandler;
 import org.springframework.jdbc.support.lob.LobHandler;
 import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.lang.Nullable;
 import org.springframework.messaging.Message;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
@@ -73,6 +80,13 @@ import org.springframework.util.StringUtils;
  * on {@link #start()} to check if required tables are present in DB.
  * The application context will fail to start if the table is not present.
  * This check can be disabled via {@link #setCheckDatabaseOnStart(boolean)}.
+ * <p>
+ * As a {@link TimeIndexedMessageGroupStore}, this store keeps a time for messages
+ * added to a group with it in the {@code RELEASE_TIME} column of the {@code GROUP_TO_MESSAGE}
+ * table, indexed together with the group key.
+ * <p>
+ * The {@link #expireMessageGroups(long)} queries only the keys of groups older than the
+ * threshold, in pages of {@link #setExpiryPageSize(int)}, instead of loading all the groups.
  *
  * @author Dave Syer
  * @author Oleg Zhurakousky
@@ -85,13 +99,25 @@ import org.springframework.util.StringUtils;
  * @since 2.0
  */
 public class JdbcMessageStore extends AbstractMessageGroupStore
-		implements MessageStore, BeanClassLoaderAware, SmartLifecycle {
+		implements MessageStore, TimeIndexedMessageGroupStore, BeanClassLoaderAware, SmartLifecycle {
 
 	/**
 	 * Default value for the table prefix property.
 	 */
 	public static final String DEFAULT_TABLE_PREFIX = "INT_";
 
+	/**
+	 * Default value for the expiry page size property.
+	 * @since 6.2
+	 */
+	public static final int DEFAULT_EXPIRY_PAGE_SIZE = 100;
+
+	/**
+	 * The maximum number of message ids in a single {@code DELETE ... IN} statement
+	 * (the limit of the Oracle database).
+	 */
+	private static final int MAX_IN_CLAUSE_SIZE = 1000;
+
 	private enum Query {
 		CREATE_MESSAGE_GROUP("""
 				INSERT into %PREFIX%MESSAGE_GROUP(
@@ -105,9 +131,9 @@ public class JdbcMessageStore extends AbstractMessageGroupStore
 				where GROUP_KEY=? and REGION=?
 				"""),
 
-		REMOVE_MESSAGE_FROM_GROUP("""
+		REMOVE_MESSAGES_FROM_GROUP("""
 				DELETE from %PREFIX%GROUP_TO_MESSAGE
-				where GROUP_KEY=? and MESSAGE_ID=? and REGION=?
+				where GROUP_KEY=? and REGION=? and MESSAGE_ID in (%MESSAGE_IDS%)
 				"""),
 
 		REMOVE_GROUP_TO_MESSAGE_JOIN("""
@@ -135,6 +161,34 @@ public class JdbcMessageStore extends AbstractMessageGroupStore
 				ORDER BY CREATED_DATE
 				"""),
 
+		LIST_MESSAGES_BY_GROUP_KEY_AFTER("""
+				SELECT m.MESSAGE_ID, m.MESSAGE_BYTES, m.CREATED_DATE
+				from %PREFIX%MESSAGE m
+				join %PREFIX%GROUP_TO_MESSAGE gm
+				on m.MESSAGE_ID = gm.MESSAGE_ID and m.REGION = gm.REGION
+				where gm.GROUP_KEY = ? and gm.REGION = ?
+					and (m.CREATED_DATE > ? or (m.CREATED_DATE = ? and m.MESSAGE_ID > ?))
+				ORDER BY m.CREATED_DATE, m.MESSAGE_ID
+				"""),
+
+		LIST_MESSAGES_BY_GROUP_KEY_UNTIL_RELEASE_TIME("""
+				SELECT m.MESSAGE_ID, m.MESSAGE_BYTES, m.CREATED_DATE
+				from %PREFIX%MESSAGE m
+				join %PREFIX%GROUP_TO_MESSAGE gm
+				on m.MESSAGE_ID = gm.MESSAGE_ID and m.REGION = gm.REGION
+				where gm.GROUP_KEY = ? and gm.REGION = ? and gm.RELEASE_TIME <= ?
+				ORDER BY gm.RELEASE_TIME
+				"""),
+
+		LIST_MESSAGES_BY_GROUP_KEY_WITHOUT_RELEASE_TIME("""
+				SELECT m.MESSAGE_ID, m.MESSAGE_BYTES, m.CREATED_DATE
+				from %PREFIX%MESSAGE m
+				join %PREFIX%GROUP_TO_MESSAGE gm
+				on m.MESSAGE_ID = gm.MESSAGE_ID and m.REGION = gm.REGION
+				where gm.GROUP_KEY = ? and gm.REGION = ? and gm.RELEASE_TIME is null
+				ORDER BY m.CREATED_DATE
+				"""),
+
 		POLL_FROM_GROUP("""
 				SELECT %PREFIX%MESSAGE.MESSAGE_ID, %PREFIX%MESSAGE.MESSAGE_BYTES
 				from %PREFIX%MESSAGE
@@ -174,6 +228,11 @@ public class JdbcMessageStore extends AbstractMessageGroupStore
 				where MESSAGE_ID=? and REGION=?
 				"""),
 
+		DELETE_MESSAGES("""
+				DELETE from %PREFIX%MESSAGE
+				where REGION=? and MESSAGE_ID in (%MESSAGE_IDS%)
+				"""),
+
 		CREATE_MESSAGE("""
 				INSERT into %PREFIX%MESSAGE(MESSAGE_ID, REGION, CREATED_DATE, MESSAGE_BYTES)
 				values (?, ?, ?, ?)
@@ -213,6 +272,11 @@ public class JdbcMessageStore extends AbstractMessageGroupStore
 				values (?, ?, ?)
 				"""),
 
+		CREATE_GROUP_TO_MESSAGE_WITH_RELEASE_TIME("""
+				INSERT into %PREFIX%GROUP_TO_MESSAGE (GROUP_KEY, MESSAGE_ID, REGION, RELEASE_TIME)
+				values (?, ?, ?, ?)
+				"""),
+
 		UPDATE_GROUP("""
 				UPDATE %PREFIX%MESSAGE_GROUP
 				set UPDATED_DATE=?
@@ -223,6 +287,22 @@ public class JdbcMessageStore extends AbstractMessageGroupStore
 				SELECT distinct GROUP_KEY as CREATED
 				from %PREFIX%MESSAGE_GROUP
 				where REGION=?
+				"""),
+
+		LIST_GROUP_KEYS_CREATED_BEFORE("""
+				SELECT GROUP_KEY, CREATED_DATE as GROUP_DATE
+				from %PREFIX%MESSAGE_GROUP
+				where REGION=? and CREATED_DATE<=?
+					and (CREATED_DATE>? or (CREATED_DATE=? and GROUP_KEY>?))
+				order by CREATED_DATE, GROUP_KEY
+				"""),
+
+		LIST_GROUP_KEYS_UPDATED_BEFORE("""
+				SELECT GROUP_KEY, UPDATED_DATE as GROUP_DATE
+				from %PREFIX%MESSAGE_GROUP
+				where REGION=? and UPDATED_DATE<=?
+					and (UPDATED_DATE>? or (UPDATED_DATE=? and GROUP_KEY>?))
+				order by UPDATED_DATE, GROUP_KEY
 				""");
 
 		private final String sql;
@@ -255,10 +335,17 @@ public class JdbcMessageStore extends AbstractMessageGroupStore
 
 	private SerializingConverter serializer;
 
+	private final List<String> allowedPatterns = new ArrayList<>();
+
+	@Nullable
+	private AllowListDeserializingConverter codecDeserializer;
+
 	private LobHandler lobHandler = new DefaultLobHandler();
 
 	private boolean checkDatabaseOnStart = true;
 
+	private int expiryPageSize = DEFAULT_EXPIRY_PAGE_SIZE;
+
 	/**
 	 * Create a {@link MessageStore} with all mandatory properties.
 	 * @param dataSource a {@link DataSource}
@@ -332,6 +419,29 @@ public class JdbcMessageStore extends AbstractMessageGroupStore
 		this.deserializerExplicitlySet = true;
 	}
 
+	/**
+	 * Serialize messages with the provided {@link CodecMessageSerializer}, e.g. based on the
+	 * Kryo {@link org.springframework.integration.codec.kryo.MessageCodec}, instead of the Java serialization.
+	 * The rows stored before are still read by the {@link #setDeserializer(Deserializer) deserializer}:
+	 * the format of each row is detected by {@link CodecMessageSerializer#isCodecFormat(byte[])}.
+	 * The rows in the codec format are decoded through an {@link AllowListDeserializingConverter}
+	 * with the same {@link #addAllowedPatterns(String...) allowed patterns}, which are checked
+	 * against the types of the decoded message, its payload and header values.
+	 * <p>
+	 * The Kryo {@link org.springframework.integration.codec.kryo.MessageCodec} needs the
+	 * {@code --add-opens java.base/java.util=ALL-UNNAMED} JVM option at runtime
+	 * to encode {@link java.util.UUID} header values.
+	 * @param codecMessageSerializer the {@link CodecMessageSerializer} to use.
+	 * @since 6.2
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public void setCodecMessageSerializer(CodecMessageSerializer codecMessageSerializer) {
+		Assert.notNull(codecMessageSerializer, "'codecMessageSerializer' must not be null");
+		setSerializer(codecMessageSerializer);
+		this.codecDeserializer = new AllowListDeserializingConverter((Deserializer) codecMessageSerializer);
+		this.codecDeserializer.setAllowedPatterns(this.allowedPatterns.toArray(new String[0]));
+	}
+
 	/**
 	 * Add patterns for packages/classes that are allowed to be deserialized. A class can
 	 * be fully qualified or a wildcard '*' is allowed at the beginning or end of the
@@ -341,6 +451,10 @@ public class JdbcMessageStore extends AbstractMessageGroupStore
 	 */
 	public void addAllowedPatterns(String... patterns) {
 		this.deserializer.addAllowedPatterns(patterns);
+		Collections.addAll(this.allowedPatterns, patterns);
+		if (this.codecDeserializer != null) {
+			this.codecDeserializer.addAllowedPatterns(patterns);
+		}
 	}
 
 	/**
@@ -356,6 +470,18 @@ public class JdbcMessageStore extends AbstractMessageGroupStore
 		}
 	}
 
+	/**
+	 * Set the maximum number of group keys to query at once from the database
+	 * for expiry in the {@link #expireMessageGroups(long)}.
+	 * Defaults to {@link #DEFAULT_EXPIRY_PAGE_SIZE}.
+	 * @param expiryPageSize the page size.
+	 * @since 6.2
+	 */
+	public void setExpiryPageSize(int expiryPageSize) {
+		Assert.isTrue(expiryPageSize > 0, "'expiryPageSize' must be greater than 0");
+		this.expiryPageSize = expiryPageSize;
+	}
+
 	@Override
 	public boolean isAutoStartup() {
 		return this.checkDatabaseOnStart;
@@ -455,8 +581,56 @@ public class JdbcMessageStore extends AbstractMessageGroupStore
 		return message;
 	}
 
+	/**
+	 * Insert the messages with a single JDBC batch.
+	 * If any of them already exists, fall back to {@link #addMessage(Message)} for each
+	 * message, which ignores the existing ones.
+	 * @param messages the messages to insert.
+	 */
+	private void addMessages(List<Message<?>> messages) {
+		if (messages.size() == 1) {
+			addMessage(messages.get(0));
+			return;
+		}
+		Timestamp createdDate = new Timestamp(System.currentTimeMillis());
+		try {
+			this.jdbcTemplate.batchUpdate(getQuery(Query.CREATE_MESSAGE),
+					messages,
+					messages.size(),
+					(ps, messageToAdd) -> {
+						String messageId = getKey(messageToAdd.getHeaders().getId());
+						if (logger.isDebugEnabled()) {
+							logger.debug("Inserting message with id key=" + messageId);
+						}
+						ps.setString(1, messageId); // NOSONAR - magic number
+						ps.setString(2, this.region); // NOSONAR - magic number
+						ps.setTimestamp(3, createdDate); // NOSONAR - magic number
+						this.lobHandler.getLobCreator()
+								.setBlobAsBytes(ps, 4, this.serializer.convert(messageToAdd)); // NOSONAR - magic number
+					});
+		}
+		catch (DataIntegrityViolationException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Some of the messages already exist.\n" +
+						"Inserting messages one by one...");
+			}
+			for (Message<?> message : messages) {
+				addMessage(message);
+			}
+		}
+	}
+
 	@Override
 	public void addMessagesToGroup(Object groupId, Message<?>... messages) {
+		doAddMessagesToGroup(groupId, null, messages);
+	}
+
+	@Override
+	public void addMessageToGroup(Object groupId, Message<?> message, long time) {
+		doAddMessagesToGroup(groupId, time, message);
+	}
+
+	private void doAddMessagesToGroup(Object groupId, @Nullable Long releaseTime, Message<?>... messages) {
 		String groupKey = getKey(groupId);
 		MessageGroupMetadata groupMetadata = getGroupMetadata(groupKey);
 
@@ -466,12 +640,18 @@ public class JdbcMessageStore extends AbstractMessageGroupStore
 						? new Timestamp(System.currentTimeMillis())
 						: new Timestamp(groupMetadata.getTimestamp());
 
-		for (Message<?> message : messages) {
-			addMessage(message);
+		int batchSize = getAddBatchSize();
+		List<Message<?>> messagesToAdd = Arrays.asList(messages);
+		for (int i = 0; i < messagesToAdd.size(); i += batchSize) {
+			addMessages(messagesToAdd.subList(i, Math.min(i + batchSize, messagesToAdd.size())));
 		}
-		this.jdbcTemplate.batchUpdate(getQuery(Query.CREATE_GROUP_TO_MESSAGE),
-				Arrays.asList(messages),
-				100, // NOSONAR magic number
+		Query createGroupToMessageQuery =
+				releaseTime != null
+						? Query.CREATE_GROUP_TO_MESSAGE_WITH_RELEASE_TIME
+						: Query.CREATE_GROUP_TO_MESSAGE;
+		this.jdbcTemplate.batchUpdate(getQuery(createGroupToMessageQuery),
+				messagesToAdd,
+				batchSize,
 				(ps, messageToAdd) -> {
 					String messageId = getKey(messageToAdd.getHeaders().getId());
 					if (logger.isDebugEnabled()) {
@@ -481,6 +661,9 @@ public class JdbcMessageStore extends AbstractMessageGroupStore
 					ps.setString(1, groupKey); // NOSONAR - magic number
 					ps.setString(2, messageId); // NOSONAR - magic number
 					ps.setString(3, JdbcMessageStore.this.region); // NOSONAR - magic number
+					if (releaseTime != null) {
+						ps.setLong(4, releaseTime); // NOSONAR - magic number
+					}
 				});
 
 		if (groupNotExist) {
@@ -569,26 +752,44 @@ public class JdbcMessageStore extends AbstractMessageGroupStore
 		if (logger.isDebugEnabled()) {
 			logger.debug("Removing messages from group with group key=" + groupKey);
 		}
-		this.jdbcTemplate.batchUpdate(getQuery(Query.REMOVE_MESSAGE_FROM_GROUP),
-				messages,
-				getRemoveBatchSize(),
-				(ps, messageToRemove) -> {
-					ps.setString(1, groupKey); // NOSONAR - magic number
-					ps.setString(2, getKey(messageToRemove.getHeaders().getId())); // NOSONAR - magic number
-					ps.setString(3, JdbcMessageStore.this.region); // NOSONAR - magic number
-				});
-
-		this.jdbcTemplate.batchUpdate(getQuery(Query.DELETE_MESSAGE),
-				messages,
-				getRemoveBatchSize(),
-				(ps, messageToRemove) -> {
-					ps.setString(1, getKey(messageToRemove.getHeaders().getId())); // NOSONAR - magic number
-					ps.setString(2, JdbcMessageStore.this.region); // NOSONAR - magic number
-				});
+		// A single pass over the messages: the collection may be a lazy view of the group in the store
+		int batchSize = Math.min(getRemoveBatchSize(), MAX_IN_CLAUSE_SIZE);
+		List<Message<?>> batch = new ArrayList<>(batchSize);
+		for (Message<?> message : messages) {
+			batch.add(message);
+			if (batch.size() == batchSize) {
+				doRemoveMessagesFromGroup(groupKey, batch);
+				batch.clear();
+			}
+		}
+		if (!batch.isEmpty()) {
+			doRemoveMessagesFromGroup(groupKey, batch);
+		}
 
 		updateMessageGroup(groupKey);
 	}
 
+	private void doRemoveMessagesFromGroup(String groupKey, List<Message<?>> messages) {
+		List<String> messageIds = new ArrayList<>(messages.size());
+		for (Message<?> message : messages) {
+			messageIds.add(getKey(message.getHeaders().getId()));
+		}
+		String idsPlaceholders = String.join(", ", Collections.nCopies(messageIds.size(), "?"));
+
+		List<Object> args = new ArrayList<>(messageIds.size() + 2);
+		args.add(groupKey);
+		args.add(this.region);
+		args.addAll(messageIds);
+		this.jdbcTemplate.update(
+				StringUtils.replace(getQuery(Query.REMOVE_MESSAGES_FROM_GROUP), "%MESSAGE_IDS%", idsPlaceholders),
+				args.toArray());
+
+		args.remove(0);
+		this.jdbcTemplate.update(
+				StringUtils.replace(getQuery(Query.DELETE_MESSAGES), "%MESSAGE_IDS%", idsPlaceholders),
+				args.toArray());
+	}
+
 	@Override
 	public void removeMessageGroup(Object groupId) {
 		String groupKey = getKey(groupId);
@@ -663,12 +864,43 @@ public class JdbcMessageStore extends AbstractMessageGroupStore
 				this.region, this.region);
 	}
 
+	/**
+	 * Return an iterator which queries the messages of the group in pages of the
+	 * {@link #setLoadBatchSize(int)} size, starting each page after the creation date
+	 * and id of the last message on the previous page.
+	 * Falls back to the whole group loading if the batch size is not configured.
+	 * @param groupId the group id.
+	 * @return the iterator over messages in the group.
+	 * @since 6.2
+	 */
+	@Override
+	public Iterator<Message<?>> iterateMessagesForGroup(Object groupId) {
+		if (getLoadBatchSize() > 0) {
+			return new GroupMessagesIterator(getKey(groupId));
+		}
+		else {
+			return super.iterateMessagesForGroup(groupId);
+		}
+	}
+
 	@Override
 	public Stream<Message<?>> streamMessagesForGroup(Object groupId) {
 		return this.jdbcTemplate.queryForStream(getQuery(Query.LIST_MESSAGES_BY_GROUP_KEY), this.mapper,
 				getKey(groupId), this.region, this.region);
 	}
 
+	@Override
+	public Stream<Message<?>> streamMessagesForGroupUntil(Object groupId, long time) {
+		return this.jdbcTemplate.queryForStream(getQuery(Query.LIST_MESSAGES_BY_GROUP_KEY_UNTIL_RELEASE_TIME),
+				this.mapper, getKey(groupId), this.region, time);
+	}
+
+	@Override
+	public Stream<Message<?>> streamMessagesForGroupWithoutTime(Object groupId) {
+		return this.jdbcTemplate.queryForStream(getQuery(Query.LIST_MESSAGES_BY_GROUP_KEY_WITHOUT_RELEASE_TIME),
+				this.mapper, getKey(groupId), this.region);
+	}
+
 	@Override
 	public Iterator<MessageGroup> iterator() {
 		List<String> groupIds =
@@ -676,6 +908,18 @@ public class JdbcMessageStore extends AbstractMessageGroupStore
 		return new FunctionIterator<>(groupIds, this::getMessageGroup);
 	}
 
+	/**
+	 * Query only the keys of groups created (or updated if {@link #isTimeoutOnIdle()})
+	 * before or at the threshold, ordered by that date, in pages of {@link #setExpiryPageSize(int)}.
+	 * @param threshold the epoch milliseconds to expire groups older than.
+	 * @return the groups to check for expiry.
+	 * @since 6.2
+	 */
+	@Override
+	protected Iterable<MessageGroup> messageGroupsToExpire(long threshold) {
+		return () -> new ExpiryCandidatesIterator(new Timestamp(threshold));
+	}
+
 	/**
 	 * Replace patterns in the input to produce a valid SQL query. This implementation lazily initializes a
 	 * simple map-based cache, only replacing the table prefix on the first access to a named query.
@@ -733,6 +977,141 @@ public class JdbcMessageStore extends AbstractMessageGroupStore
 		return input == null ? null : UUIDConverter.getUUID(input).toString();
 	}
 
+	private record GroupKeyAndDate(String groupKey, Timestamp date) {
+
+	}
+
+	private record MessageIdAndDate(@Nullable Message<?> message, String messageId, Timestamp date) {
+
+	}
+
+	/**
+	 * The {@link Iterator} over the messages in the group which queries the next page of messages
+	 * after the creation date and id of the last message on the previous page.
+	 */
+	private final class GroupMessagesIterator implements Iterator<Message<?>> {
+
+		private final String query = getQuery(Query.LIST_MESSAGES_BY_GROUP_KEY_AFTER);
+
+		private final String groupKey;
+
+		private final int pageSize = getLoadBatchSize();
+
+		private Iterator<MessageIdAndDate> page;
+
+		private MessageIdAndDate last = new MessageIdAndDate(null, "", new Timestamp(0));
+
+		private boolean lastPage;
+
+		private Message<?> next;
+
+		GroupMessagesIterator(String groupKey) {
+			this.groupKey = groupKey;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (this.next == null) {
+				if (this.page == null || !this.page.hasNext()) {
+					if (this.lastPage) {
+						return false;
+					}
+					List<MessageIdAndDate> messages = queryNextPage();
+					this.lastPage = messages.size() < this.pageSize;
+					this.page = messages.iterator();
+				}
+				if (this.page.hasNext()) {
+					this.last = this.page.next();
+					this.next = this.last.message();
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public Message<?> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Message<?> message = this.next;
+			this.next = null;
+			return message;
+		}
+
+		private List<MessageIdAndDate> queryNextPage() {
+			return JdbcMessageStore.this.jdbcTemplate.query(con -> {
+						PreparedStatement preparedStatement = con.prepareStatement(this.query);
+						preparedStatement.setMaxRows(this.pageSize);
+						preparedStatement.setString(1, this.groupKey);
+						preparedStatement.setString(2, JdbcMessageStore.this.region);
+						preparedStatement.setTimestamp(3, this.last.date());
+						preparedStatement.setTimestamp(4, this.last.date());
+						preparedStatement.setString(5, this.last.messageId());
+						return preparedStatement;
+					},
+					(rs, rowNum) ->
+							new MessageIdAndDate(JdbcMessageStore.this.mapper.mapRow(rs, rowNum),
+									rs.getString("MESSAGE_ID"), rs.getTimestamp("CREATED_DATE")));
+		}
+
+	}
+
+	/**
+	 * The {@link Iterator} over the groups to expire which queries the next page of group keys
+	 * after the date and key of the last group on the previous page.
+	 */
+	private final class ExpiryCandidatesIterator implements Iterator<MessageGroup> {
+
+		private final String query =
+				getQuery(isTimeoutOnIdle() ? Query.LIST_GROUP_KEYS_UPDATED_BEFORE : Query.LIST_GROUP_KEYS_CREATED_BEFORE);
+
+		private final Timestamp threshold;
+
+		private Iterator<GroupKeyAndDate> page;
+
+		private GroupKeyAndDate last = new GroupKeyAndDate("", new Timestamp(0));
+
+		private boolean lastPage;
+
+		ExpiryCandidatesIterator(Timestamp threshold) {
+			this.threshold = threshold;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if ((this.page == null || !this.page.hasNext()) && !this.lastPage) {
+				List<GroupKeyAndDate> groupKeys = queryNextPage();
+				this.lastPage = groupKeys.size() < JdbcMessageStore.this.expiryPageSize;
+				this.page = groupKeys.iterator();
+			}
+			return this.page.hasNext();
+		}
+
+		@Override
+		public MessageGroup next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			this.last = this.page.next();
+			return getMessageGroup(this.last.groupKey());
+		}
+
+		private List<GroupKeyAndDate> queryNextPage() {
+			return JdbcMessageStore.this.jdbcTemplate.query(con -> {
+						PreparedStatement preparedStatement = con.prepareStatement(this.query);
+						preparedStatement.setMaxRows(JdbcMessageStore.this.expiryPageSize);
+						preparedStatement.setString(1, JdbcMessageStore.this.region);
+						preparedStatement.setTimestamp(2, this.threshold);
+						preparedStatement.setTimestamp(3, this.last.date());
+						preparedStatement.setTimestamp(4, this.last.date());
+						preparedStatement.setString(5, this.last.groupKey());
+						return preparedStatement;
+					},
+					(rs, rowNum) -> new GroupKeyAndDate(rs.getString("GROUP_KEY"), rs.getTimestamp("GROUP_DATE")));
+		}
+
+	}
+
 	/**
 	 * Convenience class to be used to unpack a message from a result set row. Uses column named in the result set to
 	 * extract the required data, so that select clause ordering is unimportant.
@@ -745,6 +1124,10 @@ public class JdbcMessageStore extends AbstractMessageGroupStore
 			if (messageBytes == null) {
 				return null;
 			}
+			AllowListDeserializingConverter codecDeserializer = JdbcMessageStore.this.codecDeserializer;
+			if (codecDeserializer != null && CodecMessageSerializer.isCodecFormat(messageBytes)) {
+				return (Message<?>) codecDeserializer.convert(messageBytes);
+			}
 			else {
 				return (Message<?>) JdbcMessageStore.this.deserializer.convert(messageBytes);
 			}
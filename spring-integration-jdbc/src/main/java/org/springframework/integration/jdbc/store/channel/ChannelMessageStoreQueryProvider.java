@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -66,6 +66,32 @@ public interface ChannelMessageStoreQueryProvider {
 	 */
 	String getPriorityPollFromGroupQuery();
 
+	/**
+	 * Get the query used to retrieve up to {@code :max_rows} oldest messages for a channel.
+	 * If the database supports it, the rows locked by other transactions must be skipped
+	 * (e.g. {@code FOR UPDATE SKIP LOCKED}), so concurrent consumers of the same channel
+	 * don't block each other.
+	 * Returns {@code null} by default, meaning the store polls messages one by one.
+	 * @return Sql Query
+	 * @since 6.2
+	 */
+	default String getPollMessagesFromGroupQuery() {
+		return null;
+	}
+
+	/**
+	 * Get the query used to retrieve up to {@code :max_rows} oldest messages by priority for a channel.
+	 * If the database supports it, the rows locked by other transactions must be skipped
+	 * (e.g. {@code FOR UPDATE SKIP LOCKED}), so concurrent consumers of the same channel
+	 * don't block each other.
+	 * Returns {@code null} by default, meaning the store polls messages one by one.
+	 * @return Sql Query
+	 * @since 6.2
+	 */
+	default String getPriorityPollMessagesFromGroupQuery() {
+		return null;
+	}
+
 	/**
 	 * Query that retrieves a message for the provided message id, channel and
 	 * region.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,15 +19,20 @@ package org.springframework.integration.jdbc.store.channel;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
+import org.springframework.integration.codec.CodecMessageSerializer;
 import org.springframework.integration.support.converter.AllowListDeserializingConverter;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.lob.LobHandler;
+import org.springframework.lang.Nullable;
 import org.springframework.messaging.Message;
 
 /**
  * Convenience class to be used to unpack a {@link Message} from a result set
  * row. Uses column named in the result set to extract the required data, so
  * that select clause ordering is unimportant.
+ * <p>
+ * If a codec deserializer is provided, the rows in the {@link CodecMessageSerializer}
+ * format are decoded with it, and all others with the main deserializer.
  *
  * @author Gunnar Hillert
  * @author Gary Russell
@@ -40,6 +45,9 @@ public class MessageRowMapper implements RowMapper<Message<?>> {
 
 	private final AllowListDeserializingConverter deserializer;
 
+	@Nullable
+	private final AllowListDeserializingConverter codecDeserializer;
+
 	private final LobHandler lobHandler;
 
 	/**
@@ -49,7 +57,23 @@ public class MessageRowMapper implements RowMapper<Message<?>> {
 	 * @param lobHandler the {@link LobHandler} to use.
 	 */
 	public MessageRowMapper(AllowListDeserializingConverter deserializer, LobHandler lobHandler) {
+		this(deserializer, null, lobHandler);
+	}
+
+	/**
+	 * Construct an instance based on the provided {@link AllowListDeserializingConverter}s
+	 * and {@link LobHandler}.
+	 * @param deserializer the {@link AllowListDeserializingConverter} for rows not in the codec format.
+	 * @param codecDeserializer the {@link AllowListDeserializingConverter} delegating to a
+	 * {@link CodecMessageSerializer} for rows in its format.
+	 * @param lobHandler the {@link LobHandler} to use.
+	 * @since 6.2
+	 */
+	public MessageRowMapper(AllowListDeserializingConverter deserializer,
+			@Nullable AllowListDeserializingConverter codecDeserializer, LobHandler lobHandler) {
+
 		this.deserializer = deserializer;
+		this.codecDeserializer = codecDeserializer;
 		this.lobHandler = lobHandler;
 	}
 
@@ -59,6 +83,9 @@ public class MessageRowMapper implements RowMapper<Message<?>> {
 		if (blobAsBytes == null) {
 			return null;
 		}
+		else if (this.codecDeserializer != null && CodecMessageSerializer.isCodecFormat(blobAsBytes)) {
+			return (Message<?>) this.codecDeserializer.convert(blobAsBytes);
+		}
 		else {
 			return (Message<?>) this.deserializer.convert(blobAsBytes);
 		}
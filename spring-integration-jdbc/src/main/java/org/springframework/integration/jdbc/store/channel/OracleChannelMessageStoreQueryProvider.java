@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -75,4 +75,21 @@ public class OracleChannelMessageStoreQueryProvider extends AbstractChannelMessa
 				"order by MESSAGE_PRIORITY DESC NULLS LAST, CREATED_DATE, MESSAGE_SEQUENCE FOR UPDATE SKIP LOCKED";
 	}
 
+	/**
+	 * Oracle doesn't allow a row limit together with {@code FOR UPDATE}, so this query is the same as
+	 * {@link #getPollFromGroupQuery()}: the rows are locked as they are fetched, and the
+	 * {@link org.springframework.integration.jdbc.store.JdbcChannelMessageStore#pollMessagesFromGroup(Object, int)}
+	 * sets the statement fetch size to the requested number of rows and stops reading the result after them.
+	 * So a single round trip fetches and locks up to that number of rows, skipping the rows locked by others.
+	 */
+	@Override
+	public String getPollMessagesFromGroupQuery() {
+		return getPollFromGroupQuery();
+	}
+
+	@Override
+	public String getPriorityPollMessagesFromGroupQuery() {
+		return getPriorityPollFromGroupQuery();
+	}
+
 }
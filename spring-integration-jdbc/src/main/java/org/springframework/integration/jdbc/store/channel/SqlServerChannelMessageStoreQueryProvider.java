@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2022 the original author or authors.
+ * Copyright 2018-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,6 +28,11 @@ public class SqlServerChannelMessageStoreQueryProvider extends AbstractChannelMe
 					+ "from %PREFIX%CHANNEL_MESSAGE "
 					+ "where %PREFIX%CHANNEL_MESSAGE.GROUP_KEY = :group_key and %PREFIX%CHANNEL_MESSAGE.REGION = :region ";
 
+	private static final String SELECT_MESSAGES =
+			"SELECT TOP (:max_rows) %PREFIX%CHANNEL_MESSAGE.MESSAGE_ID, %PREFIX%CHANNEL_MESSAGE.MESSAGE_BYTES "
+					+ "from %PREFIX%CHANNEL_MESSAGE WITH (UPDLOCK, ROWLOCK, READPAST) "
+					+ "where %PREFIX%CHANNEL_MESSAGE.GROUP_KEY = :group_key and %PREFIX%CHANNEL_MESSAGE.REGION = :region ";
+
 	@Override
 	public String getPollFromGroupExcludeIdsQuery() {
 		return SELECT_COMMON +
@@ -60,4 +65,16 @@ public class SqlServerChannelMessageStoreQueryProvider extends AbstractChannelMe
 				+ " values (?, ?, ?, ?, ?,(NEXT VALUE FOR %PREFIX%MESSAGE_SEQ), ?)";
 	}
 
+	@Override
+	public String getPollMessagesFromGroupQuery() {
+		return SELECT_MESSAGES +
+				"order by CREATED_DATE, MESSAGE_SEQUENCE";
+	}
+
+	@Override
+	public String getPriorityPollMessagesFromGroupQuery() {
+		return SELECT_MESSAGES +
+				"order by MESSAGE_PRIORITY DESC, CREATED_DATE, MESSAGE_SEQUENCE";
+	}
+
 }
@@ -1,6 +1,9 @@
 -- Autogenerated: do not edit this file
 
 DROP INDEX  INT_MESSAGE_IX1 IF EXISTS;
+DROP INDEX  INT_GROUP_TO_MESSAGE_IX1 IF EXISTS;
+DROP INDEX  INT_MESSAGE_GROUP_IX1 IF EXISTS;
+DROP INDEX  INT_MESSAGE_GROUP_IX2 IF EXISTS;
 DROP INDEX  INT_CHANNEL_MSG_DATE_IDX IF EXISTS;
 DROP INDEX  INT_CHANNEL_MSG_PRIORITY_IDX IF EXISTS;
 DROP TABLE  INT_MESSAGE IF EXISTS;
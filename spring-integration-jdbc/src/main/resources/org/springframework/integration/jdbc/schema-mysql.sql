@@ -12,9 +12,12 @@ CREATE TABLE INT_GROUP_TO_MESSAGE  (
 	GROUP_KEY CHAR(36) NOT NULL,
 	MESSAGE_ID CHAR(36) NOT NULL,
 	REGION VARCHAR(100) NOT NULL,
+	RELEASE_TIME BIGINT,
 	constraint INT_GROUP_TO_MESSAGE_PK primary key (GROUP_KEY, MESSAGE_ID, REGION)
 ) ENGINE=InnoDB;
 
+CREATE INDEX INT_GROUP_TO_MESSAGE_IX1 ON INT_GROUP_TO_MESSAGE (GROUP_KEY, REGION, RELEASE_TIME);
+
 CREATE TABLE INT_MESSAGE_GROUP  (
 	GROUP_KEY CHAR(36) NOT NULL,
 	REGION VARCHAR(100) NOT NULL,
@@ -48,6 +51,9 @@ CREATE TABLE INT_CHANNEL_MESSAGE (
 ) ENGINE=InnoDB;
 
 CREATE INDEX INT_CHANNEL_MSG_DELETE_IDX ON INT_CHANNEL_MESSAGE (REGION, GROUP_KEY, MESSAGE_ID);
+
+CREATE INDEX INT_MESSAGE_GROUP_IX1 ON INT_MESSAGE_GROUP (REGION, CREATED_DATE);
+CREATE INDEX INT_MESSAGE_GROUP_IX2 ON INT_MESSAGE_GROUP (REGION, UPDATED_DATE);
 -- This is only needed if the message group store property 'priorityEnabled' is true
 -- CREATE UNIQUE INDEX INT_CHANNEL_MSG_PRIORITY_IDX ON INT_CHANNEL_MESSAGE (REGION, GROUP_KEY, MESSAGE_PRIORITY DESC, CREATED_DATE, MESSAGE_SEQUENCE);
 
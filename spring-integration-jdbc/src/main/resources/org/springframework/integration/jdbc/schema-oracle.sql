@@ -12,9 +12,12 @@ CREATE TABLE INT_GROUP_TO_MESSAGE  (
 	GROUP_KEY VARCHAR2(36) NOT NULL,
 	MESSAGE_ID CHAR(36) NOT NULL,
 	REGION VARCHAR2(100),
+	RELEASE_TIME NUMBER(19,0),
 	constraint INT_GROUP_TO_MESSAGE_PK primary key (GROUP_KEY, MESSAGE_ID, REGION)
 );
 
+CREATE INDEX INT_GROUP_TO_MESSAGE_IX1 ON INT_GROUP_TO_MESSAGE (GROUP_KEY, REGION, RELEASE_TIME);
+
 CREATE TABLE INT_MESSAGE_GROUP  (
 	GROUP_KEY VARCHAR2(36) NOT NULL,
 	REGION VARCHAR2(100) NOT NULL,
@@ -26,6 +29,9 @@ CREATE TABLE INT_MESSAGE_GROUP  (
 	constraint INT_MESSAGE_GROUP_PK primary key (GROUP_KEY, REGION)
 );
 
+CREATE INDEX INT_MESSAGE_GROUP_IX1 ON INT_MESSAGE_GROUP (REGION, CREATED_DATE);
+CREATE INDEX INT_MESSAGE_GROUP_IX2 ON INT_MESSAGE_GROUP (REGION, UPDATED_DATE);
+
 CREATE TABLE INT_LOCK  (
 	LOCK_KEY VARCHAR2(36) NOT NULL,
 	REGION VARCHAR2(100) NOT NULL,
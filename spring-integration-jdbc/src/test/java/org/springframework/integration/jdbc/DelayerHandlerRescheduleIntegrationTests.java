@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,10 +23,13 @@ import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import org.springframework.beans.factory.BeanFactory;
 import org.springframework.context.support.AbstractApplicationContext;
 import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.integration.channel.QueueChannel;
 import org.springframework.integration.context.IntegrationContextUtils;
 import org.springframework.integration.handler.DelayHandler;
+import org.springframework.integration.jdbc.store.JdbcMessageStore;
 import org.springframework.integration.store.MessageGroup;
 import org.springframework.integration.store.MessageGroupStore;
 import org.springframework.integration.store.SimpleMessageGroup;
@@ -42,12 +45,14 @@ import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.MessageHandler;
 import org.springframework.messaging.MessagingException;
 import org.springframework.messaging.PollableChannel;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Mockito.mock;
 
 /**
  * @author Artem Bilan
@@ -170,6 +175,56 @@ public class DelayerHandlerRescheduleIntegrationTests {
 		context.close();
 	}
 
+	@Test
+	public void testDelayerHandlerReleaseWindowWithJdbcMessageStore() throws Exception {
+		JdbcMessageStore messageStore = new JdbcMessageStore(dataSource);
+		String groupId = "releaseWindowDelayer";
+		QueueChannel output = new QueueChannel();
+
+		ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+		taskScheduler.afterPropertiesSet();
+		DelayHandler delayHandler = releaseWindowDelayHandler(groupId, messageStore, taskScheduler, output);
+		delayHandler.handleMessage(MessageBuilder.withPayload("late").setHeader("delay", 2000).build());
+		delayHandler.handleMessage(MessageBuilder.withPayload("early").setHeader("delay", 200).build());
+
+		// Emulate restart
+		delayHandler.destroy();
+		taskScheduler.shutdown();
+		taskScheduler.getScheduledExecutor().awaitTermination(10, TimeUnit.SECONDS);
+
+		assertThat(messageStore.messageGroupSize(groupId)).isEqualTo(2);
+
+		taskScheduler = new ThreadPoolTaskScheduler();
+		taskScheduler.afterPropertiesSet();
+		delayHandler = releaseWindowDelayHandler(groupId, messageStore, taskScheduler, output);
+		delayHandler.reschedulePersistedMessages();
+
+		Message<?> message = output.receive(10_000);
+		assertThat(message).isNotNull();
+		assertThat(message.getPayload()).isEqualTo("early");
+
+		message = output.receive(10_000);
+		assertThat(message).isNotNull();
+		assertThat(message.getPayload()).isEqualTo("late");
+
+		assertThat(messageStore.messageGroupSize(groupId)).isEqualTo(0);
+		delayHandler.destroy();
+		taskScheduler.destroy();
+	}
+
+	private static DelayHandler releaseWindowDelayHandler(String groupId, JdbcMessageStore messageStore,
+			TaskScheduler taskScheduler, MessageChannel output) {
+
+		DelayHandler delayHandler = new DelayHandler(groupId, taskScheduler);
+		delayHandler.setMessageStore(messageStore);
+		delayHandler.setReleaseWindow(500);
+		delayHandler.setDelayExpressionString("headers.delay");
+		delayHandler.setOutputChannel(output);
+		delayHandler.setBeanFactory(mock(BeanFactory.class));
+		delayHandler.afterPropertiesSet();
+		return delayHandler;
+	}
+
 	@SuppressWarnings("unused")
 	private static class ExceptionMessageHandler implements MessageHandler {
 
@@ -22,11 +22,13 @@ import java.lang.reflect.Method;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Properties;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import javax.sql.DataSource;
 
@@ -46,8 +48,11 @@ import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.context.ApplicationContextException;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.annotation.SynthesizingMethodParameter;
+import org.springframework.core.serializer.support.SerializationFailedException;
 import org.springframework.integration.IntegrationMessageHeaderAccessor;
 import org.springframework.integration.channel.DirectChannel;
+import org.springframework.integration.codec.CodecMessageSerializer;
+import org.springframework.integration.codec.kryo.MessageCodec;
 import org.springframework.integration.handler.support.CollectionArgumentResolver;
 import org.springframework.integration.history.MessageHistory;
 import org.springframework.integration.store.MessageGroup;
@@ -152,6 +157,51 @@ public class JdbcMessageStoreTests {
 		assertThat(result.getPayload()).isEqualTo("foo");
 	}
 
+	@Test
+	public void testCodecMessageSerializer() {
+		Message<String> javaSerialized = MessageBuilder.withPayload("foo").setCorrelationId("group").build();
+		messageStore.addMessagesToGroup("group", javaSerialized);
+
+		CodecMessageSerializer codecMessageSerializer = new CodecMessageSerializer(new MessageCodec());
+		codecMessageSerializer.setCompressionThreshold(1024);
+		messageStore.setCodecMessageSerializer(codecMessageSerializer);
+		Message<String> encoded = MessageBuilder.withPayload("bar".repeat(1000)).setCorrelationId("group").build();
+		messageStore.addMessagesToGroup("group", encoded);
+
+		byte[] messageBytes =
+				new JdbcTemplate(this.dataSource)
+						.queryForObject("SELECT MESSAGE_BYTES from INT_MESSAGE where MESSAGE_ID = ?", byte[].class,
+								UUIDConverter.getUUID(encoded.getHeaders().getId()).toString());
+		assertThat(CodecMessageSerializer.isCodecFormat(messageBytes)).isTrue();
+		assertThat(messageBytes.length).isLessThan(300);
+
+		assertThat(messageStore.getMessage(javaSerialized.getHeaders().getId()).getPayload()).isEqualTo("foo");
+		assertThat(messageStore.getMessage(encoded.getHeaders().getId()).getPayload())
+				.isEqualTo(encoded.getPayload());
+		assertThat(messageStore.getMessageGroup("group").getMessages())
+				.containsExactlyInAnyOrder(javaSerialized, encoded);
+
+		messageStore.removeMessagesFromGroup("group", javaSerialized, encoded);
+		assertThat(messageStore.messageGroupSize("group")).isZero();
+	}
+
+	@Test
+	public void testCodecMessageSerializerRespectsAllowedPatterns() {
+		messageStore.addAllowedPatterns("org.springframework.messaging.*", "java.util.UUID");
+		messageStore.setCodecMessageSerializer(new CodecMessageSerializer(new MessageCodec()));
+		Message<Date> message = MessageBuilder.withPayload(new Date()).build();
+		messageStore.addMessage(message);
+
+		assertThatExceptionOfType(SerializationFailedException.class)
+				.isThrownBy(() -> messageStore.getMessage(message.getHeaders().getId()))
+				.withCauseInstanceOf(SecurityException.class)
+				.withStackTraceContaining("java.util.Date");
+
+		messageStore.addAllowedPatterns("java.util.Date");
+		assertThat(messageStore.getMessage(message.getHeaders().getId()).getPayload())
+				.isEqualTo(message.getPayload());
+	}
+
 	@Test
 	public void testAddAndGetWithDifferentRegion() {
 		Message<String> message = MessageBuilder.withPayload("foo").build();
@@ -246,6 +296,30 @@ public class JdbcMessageStoreTests {
 		assertThat(group.size()).isEqualTo(0);
 	}
 
+	@Test
+	public void testAddMessagesToGroupInBatchesWithExistingMessage() {
+		String groupId = "X";
+		this.messageStore.setAddBatchSize(10);
+		List<Message<?>> messages = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			messages.add(MessageBuilder.withPayload("foo" + i).setCorrelationId(groupId).build());
+		}
+		this.messageStore.addMessage(messages.get(12));
+
+		this.messageStore.addMessagesToGroup(groupId, messages.toArray(new Message<?>[0]));
+		assertThat(this.messageStore.messageGroupSize(groupId)).isEqualTo(25);
+		assertThat(this.messageStore.getMessageCount()).isEqualTo(25);
+		assertThat(this.messageStore.getMessageGroup(groupId).getMessages())
+				.<Object>extracting(Message::getPayload)
+				.contains("foo0", "foo12", "foo24");
+
+		this.messageStore.removeMessagesFromGroup(groupId, messages.subList(0, 20));
+		assertThat(this.messageStore.messageGroupSize(groupId)).isEqualTo(5);
+		assertThat(this.messageStore.getMessageCount()).isEqualTo(5);
+		assertThat(this.messageStore.getMessage(messages.get(0).getHeaders().getId())).isNull();
+		assertThat(this.messageStore.getMessage(messages.get(24).getHeaders().getId())).isNotNull();
+	}
+
 	@Test
 	public void testRemoveMessageGroup() {
 		JdbcTemplate template = new JdbcTemplate(this.dataSource);
@@ -380,6 +454,35 @@ public class JdbcMessageStoreTests {
 		assertThat(group.size()).isEqualTo(0);
 	}
 
+	@Test
+	public void testExpireMessageGroupsInPages() {
+		this.messageStore.setExpiryPageSize(2);
+		List<Object> expired = new ArrayList<>();
+		this.messageStore.registerMessageGroupExpiryCallback((messageGroupStore, group) ->
+				expired.add(group.getGroupId()));
+
+		JdbcTemplate template = new JdbcTemplate(this.dataSource);
+		template.afterPropertiesSet();
+		Timestamp createdDate = new Timestamp(System.currentTimeMillis() - 10000);
+		List<String> oldGroupKeys = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			String groupId = "old" + i;
+			this.messageStore.addMessagesToGroup(groupId, new GenericMessage<>("foo"));
+			String groupKey = UUIDConverter.getUUID(groupId).toString();
+			oldGroupKeys.add(groupKey);
+			template.update("UPDATE INT_MESSAGE_GROUP set CREATED_DATE=? where GROUP_KEY=? and REGION=?",
+					ps -> {
+						ps.setTimestamp(1, createdDate);
+						ps.setString(2, groupKey);
+						ps.setString(3, "DEFAULT");
+					});
+		}
+		this.messageStore.addMessagesToGroup("new", new GenericMessage<>("bar"));
+
+		assertThat(this.messageStore.expireMessageGroups(2000)).isEqualTo(5);
+		assertThat(expired).containsExactlyInAnyOrderElementsOf(oldGroupKeys);
+	}
+
 	private void updateMessageGroup(JdbcTemplate template, final String groupId, final long timeout) {
 		template.update("UPDATE INT_MESSAGE_GROUP set UPDATED_DATE=? where GROUP_KEY=? and REGION=?",
 				(PreparedStatementSetter) ps -> {
@@ -581,6 +684,62 @@ public class JdbcMessageStoreTests {
 		pooledMessageStore.removeMessageGroup(groupId);
 	}
 
+	@Test
+	void timeIndexedMessagesStreamedUntilTime() {
+		String groupId = "timeIndexed";
+		Message<String> late = MessageBuilder.withPayload("late").build();
+		Message<String> early = MessageBuilder.withPayload("early").build();
+		Message<String> noTime = MessageBuilder.withPayload("noTime").build();
+		this.messageStore.addMessageToGroup(groupId, late, 3000);
+		this.messageStore.addMessageToGroup(groupId, early, 1000);
+		this.messageStore.addMessagesToGroup(groupId, noTime);
+
+		assertThat(this.messageStore.messageGroupSize(groupId)).isEqualTo(3);
+
+		try (Stream<Message<?>> messages = this.messageStore.streamMessagesForGroupUntil(groupId, 2000)) {
+			assertThat(messages.<Object>map(Message::getPayload)).containsExactly("early");
+		}
+		try (Stream<Message<?>> messages = this.messageStore.streamMessagesForGroupUntil(groupId, 3000)) {
+			assertThat(messages.<Object>map(Message::getPayload)).containsExactly("early", "late");
+		}
+		try (Stream<Message<?>> messages = this.messageStore.streamMessagesForGroupWithoutTime(groupId)) {
+			assertThat(messages.<Object>map(Message::getPayload)).containsExactly("noTime");
+		}
+
+		this.messageStore.removeMessagesFromGroup(groupId, early);
+		try (Stream<Message<?>> messages = this.messageStore.streamMessagesForGroupUntil(groupId, 3000)) {
+			assertThat(messages.<Object>map(Message::getPayload)).containsExactly("late");
+		}
+	}
+
+	@Test
+	void messageGroupIteratedInPages() throws InterruptedException {
+		this.messageStore.setLoadBatchSize(2);
+		String groupId = "paged";
+		for (int i = 0; i < 5; i++) {
+			this.messageStore.addMessagesToGroup(groupId, new GenericMessage<>(i));
+			Thread.sleep(1);
+		}
+
+		MessageGroup group = this.messageStore.getMessageGroup(groupId);
+		List<Object> payloads = new ArrayList<>();
+		for (Message<?> message : group.getMessages()) {
+			payloads.add(message.getPayload());
+		}
+		assertThat(payloads).containsExactly(0, 1, 2, 3, 4);
+
+		JdbcTemplate template = new JdbcTemplate(this.dataSource);
+		template.update("UPDATE INT_MESSAGE set CREATED_DATE=?", new Timestamp(System.currentTimeMillis()));
+		payloads.clear();
+		this.messageStore.iterateMessagesForGroup(groupId).forEachRemaining((message) ->
+				payloads.add(message.getPayload()));
+		assertThat(payloads).containsExactlyInAnyOrder(0, 1, 2, 3, 4);
+
+		this.messageStore.removeMessagesFromGroup(groupId, this.messageStore.getMessageGroup(groupId).getMessages());
+		assertThat(this.messageStore.messageGroupSize(groupId)).isEqualTo(0);
+		assertThat(this.messageStore.getMessageCount()).isEqualTo(0);
+	}
+
 	@Test
 	void noTableThrowsExceptionOnStart() {
 		try (TestUtils.TestApplicationContext testApplicationContext = TestUtils.createTestApplicationContext()) {
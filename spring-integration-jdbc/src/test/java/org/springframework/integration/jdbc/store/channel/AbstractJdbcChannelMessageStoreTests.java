@@ -18,6 +18,7 @@ package org.springframework.integration.jdbc.store.channel;
 
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.List;
 
 import javax.sql.DataSource;
 
@@ -26,11 +27,15 @@ import org.junit.jupiter.api.Test;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.integration.codec.CodecMessageSerializer;
+import org.springframework.integration.codec.kryo.MessageCodec;
 import org.springframework.integration.jdbc.store.JdbcChannelMessageStore;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.jdbc.support.lob.DefaultLobHandler;
 import org.springframework.jdbc.support.lob.LobHandler;
 import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.GenericMessage;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
 import org.springframework.transaction.PlatformTransactionManager;
@@ -130,6 +135,55 @@ public abstract class AbstractJdbcChannelMessageStoreTests {
 		assertThat(messageFromDb.getHeaders().getId()).isEqualTo(message.getHeaders().getId());
 	}
 
+	@Test
+	public void testPollMessagesFromGroup() {
+		for (int i = 0; i < 5; i++) {
+			messageStore.addMessageToGroup(TEST_MESSAGE_GROUP, new GenericMessage<>(i));
+		}
+
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+		List<Message<?>> messages =
+				transactionTemplate.execute(status -> messageStore.pollMessagesFromGroup(TEST_MESSAGE_GROUP, 3));
+		assertThat(messages).<Object>extracting(Message::getPayload).containsExactly(0, 1, 2);
+
+		messages = transactionTemplate.execute(status -> messageStore.pollMessagesFromGroup(TEST_MESSAGE_GROUP, 3));
+		assertThat(messages).<Object>extracting(Message::getPayload).containsExactly(3, 4);
+
+		assertThat(messageStore.messageGroupSize(TEST_MESSAGE_GROUP)).isZero();
+		assertThat(messageStore.pollMessagesFromGroup(TEST_MESSAGE_GROUP, 3)).isEmpty();
+	}
+
+	@Test
+	public void testCodecMessageSerializerReadsJavaSerializedMessages() {
+		Message<?> javaSerialized = MessageBuilder.withPayload("foo").build();
+		messageStore.addMessageToGroup(TEST_MESSAGE_GROUP, javaSerialized);
+
+		JdbcChannelMessageStore codecMessageStore = new JdbcChannelMessageStore(dataSource);
+		codecMessageStore.setRegion(REGION);
+		codecMessageStore.setChannelMessageStoreQueryProvider(queryProvider);
+		codecMessageStore.setCodecMessageSerializer(new CodecMessageSerializer(new MessageCodec()));
+		codecMessageStore.afterPropertiesSet();
+
+		Message<?> encoded = MessageBuilder.withPayload("bar").setHeader("baz", 1).build();
+		codecMessageStore.addMessageToGroup(TEST_MESSAGE_GROUP, encoded);
+
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		Message<?> polled = transactionTemplate.execute(status ->
+				codecMessageStore.pollMessageFromGroup(TEST_MESSAGE_GROUP));
+		assertThat(polled).isNotNull();
+		assertThat(polled.getPayload()).isEqualTo("foo");
+		assertThat(polled.getHeaders().getId()).isEqualTo(javaSerialized.getHeaders().getId());
+
+		polled = transactionTemplate.execute(status -> codecMessageStore.pollMessageFromGroup(TEST_MESSAGE_GROUP));
+		assertThat(polled).isNotNull();
+		assertThat(polled.getPayload()).isEqualTo("bar");
+		assertThat(polled.getHeaders())
+				.containsEntry("baz", 1)
+				.containsEntry(MessageHeaders.ID, encoded.getHeaders().getId());
+		assertThat(codecMessageStore.messageGroupSize(TEST_MESSAGE_GROUP)).isZero();
+	}
+
 	private ChannelMessageStorePreparedStatementSetter getMessageGroupPreparedStatementSetter() {
 		return new ChannelMessageStorePreparedStatementSetter() {
 
@@ -16,8 +16,20 @@
 
 package org.springframework.integration.jdbc.store.channel;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
 import org.springframework.integration.jdbc.mysql.MySqlContainerTest;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.GenericMessage;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 /**
  * @author Gunnar Hillert
@@ -27,4 +39,39 @@ import org.springframework.test.context.ContextConfiguration;
 public class MySqlJdbcChannelMessageStoreTests extends AbstractJdbcChannelMessageStoreTests
 		implements MySqlContainerTest {
 
+	@Test
+	void concurrentPollersSkipLockedMessages() throws InterruptedException {
+		for (int i = 0; i < 4; i++) {
+			this.messageStore.addMessageToGroup(TEST_MESSAGE_GROUP, new GenericMessage<>(i));
+		}
+
+		TransactionTemplate transactionTemplate = new TransactionTemplate(this.transactionManager);
+		CountDownLatch claimedLatch = new CountDownLatch(1);
+		CountDownLatch releaseLatch = new CountDownLatch(1);
+
+		CompletableFuture<List<Message<?>>> firstPoller =
+				CompletableFuture.supplyAsync(() ->
+						transactionTemplate.execute(status -> {
+							List<Message<?>> messages = this.messageStore.pollMessagesFromGroup(TEST_MESSAGE_GROUP, 2);
+							claimedLatch.countDown();
+							try {
+								releaseLatch.await(10, TimeUnit.SECONDS);
+							}
+							catch (InterruptedException ex) {
+								Thread.currentThread().interrupt();
+							}
+							return messages;
+						}));
+
+		assertThat(claimedLatch.await(10, TimeUnit.SECONDS)).isTrue();
+
+		List<Message<?>> secondPolled =
+				transactionTemplate.execute(status -> this.messageStore.pollMessagesFromGroup(TEST_MESSAGE_GROUP, 2));
+		releaseLatch.countDown();
+
+		assertThat(secondPolled).<Object>extracting(Message::getPayload).containsExactly(2, 3);
+		assertThat(firstPoller.join()).<Object>extracting(Message::getPayload).containsExactly(0, 1);
+		assertThat(this.messageStore.messageGroupSize(TEST_MESSAGE_GROUP)).isZero();
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2013-2022 the original author or authors.
+ * Copyright 2013-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.integration.mongodb.store;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -31,13 +32,17 @@ import org.springframework.data.mongodb.MongoDatabaseFactory;
 import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.integration.store.MessageGroup;
 import org.springframework.integration.store.MessageStore;
 import org.springframework.integration.store.SimpleMessageGroup;
+import org.springframework.integration.store.TimeIndexedMessageGroupStore;
 import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.lang.Nullable;
 import org.springframework.messaging.Message;
 import org.springframework.util.Assert;
 
@@ -47,7 +52,19 @@ import org.springframework.util.Assert;
  * configure the instance of {@link MongoTemplate}. The mechanism of storing the messages/group of messages
  * in the store is and is different from {@link MongoDbMessageStore}. Since the store uses serialization of the
  * messages by default, all the headers, and the payload of the Message must implement {@link java.io.Serializable}
- * interface
+ * interface.
+ * <p>
+ * As a {@link TimeIndexedMessageGroupStore}, this store keeps a time for messages
+ * added to a group with it in the {@link MessageDocumentFields#RELEASE_TIME} field,
+ * indexed together with the group id.
+ * <p>
+ * The {@link #expireMessageGroups(long)} queries only the ids of groups older than the threshold,
+ * using an index on the {@link MessageDocumentFields#GROUP_CREATED_TIME}
+ * (or {@link MessageDocumentFields#LAST_MODIFIED_TIME} if {@link #isTimeoutOnIdle()}) field.
+ * <p>
+ * With a {@link #setLoadBatchSize(int)} the {@link #iterateMessagesForGroup(Object)} queries
+ * messages of the group in pages ordered by the {@link MessageDocumentFields#SEQUENCE},
+ * using an index on the group id and sequence.
  *
  * @author Amol Nayak
  * @author Artem Bilan
@@ -56,7 +73,7 @@ import org.springframework.util.Assert;
  * @since 3.0
  */
 public class ConfigurableMongoDbMessageStore extends AbstractConfigurableMongoDbMessageStore
-		implements MessageStore {
+		implements MessageStore, TimeIndexedMessageGroupStore {
 
 	private static final String GROUP_ID_MUST_NOT_BE_NULL = "'groupId' must not be null";
 
@@ -91,6 +108,26 @@ public class ConfigurableMongoDbMessageStore extends AbstractConfigurableMongoDb
 		super(mongoDbFactory, mappingMongoConverter, collectionName);
 	}
 
+	@Override
+	public void afterPropertiesSet() {
+		super.afterPropertiesSet();
+		getMongoTemplate().indexOps(this.collectionName)
+				.ensureIndex(
+						new Index(MessageDocumentFields.GROUP_ID, Sort.Direction.ASC)
+								.on(MessageDocumentFields.RELEASE_TIME, Sort.Direction.ASC)
+								.partial(PartialIndexFilter.of(
+										Criteria.where(MessageDocumentFields.RELEASE_TIME).exists(true))));
+		getMongoTemplate().indexOps(this.collectionName)
+				.ensureIndex(
+						new Index(expiryTimeField(), Sort.Direction.ASC)
+								.partial(PartialIndexFilter.of(
+										Criteria.where(MessageDocumentFields.GROUP_ID).exists(true))));
+		getMongoTemplate().indexOps(this.collectionName)
+				.ensureIndex(
+						new Index(MessageDocumentFields.GROUP_ID, Sort.Direction.ASC)
+								.on(MessageDocumentFields.SEQUENCE, Sort.Direction.ASC));
+	}
+
 	@Override
 	public <T> Message<T> addMessage(Message<T> message) {
 		Assert.notNull(message, "'message' must not be null");
@@ -147,6 +184,15 @@ public class ConfigurableMongoDbMessageStore extends AbstractConfigurableMongoDb
 
 	@Override
 	public void addMessagesToGroup(Object groupId, Message<?>... messages) {
+		doAddMessagesToGroup(groupId, null, messages);
+	}
+
+	@Override
+	public void addMessageToGroup(Object groupId, Message<?> message, long time) {
+		doAddMessagesToGroup(groupId, time, message);
+	}
+
+	private void doAddMessagesToGroup(Object groupId, @Nullable Long releaseTime, Message<?>... messages) {
 		Assert.notNull(groupId, GROUP_ID_MUST_NOT_BE_NULL);
 		Assert.notNull(messages, "'message' must not be null");
 
@@ -177,6 +223,7 @@ public class ConfigurableMongoDbMessageStore extends AbstractConfigurableMongoDb
 			if (condition != null) {
 				document.setCondition(condition);
 			}
+			document.setReleaseTime(releaseTime);
 			addMessageDocument(document);
 		}
 	}
@@ -248,6 +295,31 @@ public class ConfigurableMongoDbMessageStore extends AbstractConfigurableMongoDb
 
 	}
 
+	/**
+	 * Query only the ids of groups with documents created (or modified if {@link #isTimeoutOnIdle()})
+	 * before or at the threshold.
+	 * @param threshold the epoch milliseconds to expire groups older than.
+	 * @return the groups to check for expiry.
+	 * @since 6.2
+	 */
+	@Override
+	protected Iterable<MessageGroup> messageGroupsToExpire(long threshold) {
+		Query query = Query.query(Criteria.where(MessageDocumentFields.GROUP_ID).exists(true)
+				.and(expiryTimeField()).lte(threshold));
+		Iterable<String> groupIds = getMongoTemplate().getCollection(this.collectionName)
+				.distinct(MessageDocumentFields.GROUP_ID, query.getQueryObject(), String.class);
+
+		return () -> StreamSupport.stream(groupIds.spliterator(), false)
+				.map(this::getMessageGroup)
+				.iterator();
+	}
+
+	private String expiryTimeField() {
+		return isTimeoutOnIdle()
+				? MessageDocumentFields.LAST_MODIFIED_TIME
+				: MessageDocumentFields.GROUP_CREATED_TIME;
+	}
+
 	@Override
 	@ManagedAttribute
 	public int getMessageCountForAllMessageGroups() {
@@ -291,6 +363,32 @@ public class ConfigurableMongoDbMessageStore extends AbstractConfigurableMongoDb
 				.collect(Collectors.toList());
 	}
 
+	@Override
+	public Iterator<Message<?>> iterateMessagesForGroup(Object groupId) {
+		Assert.notNull(groupId, GROUP_ID_MUST_NOT_BE_NULL);
+		int pageSize = getLoadBatchSize();
+		if (pageSize == 0) {
+			return super.iterateMessagesForGroup(groupId);
+		}
+		return Stream.iterate(findGroupPage(groupId, Long.MIN_VALUE, pageSize),
+						(page) -> !page.isEmpty(),
+						(page) ->
+								page.size() < pageSize
+										? Collections.emptyList()
+										: findGroupPage(groupId, page.get(page.size() - 1).getSequence(), pageSize))
+				.flatMap(List::stream)
+				.map(MessageDocument::getMessage)
+				.iterator();
+	}
+
+	private List<MessageDocument> findGroupPage(Object groupId, long afterSequence, int pageSize) {
+		Query query = groupIdQuery(groupId)
+				.addCriteria(Criteria.where(MessageDocumentFields.SEQUENCE).gt(afterSequence))
+				.with(Sort.by(MessageDocumentFields.SEQUENCE))
+				.limit(pageSize);
+		return getMongoTemplate().find(query, MessageDocument.class, this.collectionName);
+	}
+
 	@Override
 	public Stream<Message<?>> streamMessagesForGroup(Object groupId) {
 		Assert.notNull(groupId, GROUP_ID_MUST_NOT_BE_NULL);
@@ -302,6 +400,32 @@ public class ConfigurableMongoDbMessageStore extends AbstractConfigurableMongoDb
 		return documents.map(MessageDocument::getMessage);
 	}
 
+	@Override
+	public Stream<Message<?>> streamMessagesForGroupUntil(Object groupId, long time) {
+		Assert.notNull(groupId, GROUP_ID_MUST_NOT_BE_NULL);
+		Query query = groupIdQuery(groupId)
+				.addCriteria(Criteria.where(MessageDocumentFields.RELEASE_TIME).lte(time))
+				.with(Sort.by(MessageDocumentFields.RELEASE_TIME));
+		Stream<MessageDocument> documents =
+				getMongoTemplate()
+						.stream(query, MessageDocument.class, this.collectionName);
+
+		return documents.map(MessageDocument::getMessage);
+	}
+
+	@Override
+	public Stream<Message<?>> streamMessagesForGroupWithoutTime(Object groupId) {
+		Assert.notNull(groupId, GROUP_ID_MUST_NOT_BE_NULL);
+		Query query = groupIdQuery(groupId)
+				.addCriteria(Criteria.where(MessageDocumentFields.RELEASE_TIME).exists(false))
+				.with(Sort.by(MessageDocumentFields.SEQUENCE));
+		Stream<MessageDocument> documents =
+				getMongoTemplate()
+						.stream(query, MessageDocument.class, this.collectionName);
+
+		return documents.map(MessageDocument::getMessage);
+	}
+
 	private void updateGroup(Object groupId, Update update) {
 		getMongoTemplate()
 				.findAndModify(groupOrderQuery(groupId), update, FindAndModifyOptions.none(), Map.class,
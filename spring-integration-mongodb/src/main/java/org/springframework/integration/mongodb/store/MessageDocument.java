@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2022 the original author or authors.
+ * Copyright 2014-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -66,6 +66,8 @@ public class MessageDocument {
 
 	private long sequence;
 
+	private Long releaseTime;
+
 	public MessageDocument(Message<?> message) {
 		this(message, message.getHeaders().getId());
 	}
@@ -167,4 +169,25 @@ public class MessageDocument {
 		return this.sequence;
 	}
 
+	/**
+	 * Set the time to index this document by in the
+	 * {@link org.springframework.integration.store.TimeIndexedMessageGroupStore}.
+	 * @param releaseTime the time in epoch milliseconds.
+	 * @since 6.2
+	 */
+	public void setReleaseTime(Long releaseTime) {
+		this.releaseTime = releaseTime;
+	}
+
+	/**
+	 * Return the time this document is indexed by in the
+	 * {@link org.springframework.integration.store.TimeIndexedMessageGroupStore}.
+	 * @return the time in epoch milliseconds.
+	 * @since 6.2
+	 */
+	@Nullable
+	public Long getReleaseTime() {
+		return this.releaseTime;
+	}
+
 }
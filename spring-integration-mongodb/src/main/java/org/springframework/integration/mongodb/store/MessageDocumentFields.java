@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -31,12 +31,25 @@ public final class MessageDocumentFields {
 
 	public static final String LAST_MODIFIED_TIME = "lastModifiedTime";
 
+	/**
+	 * The creation time of the group a message belongs to.
+	 * @since 6.2
+	 */
+	public static final String GROUP_CREATED_TIME = "groupCreatedTime";
+
 	public static final String SEQUENCE = "sequence";
 
 	public static final String LAST_RELEASED_SEQUENCE = "lastReleasedSequence";
 
 	public static final String COMPLETE = "complete";
 
+	/**
+	 * The time a message is indexed by in a
+	 * {@link org.springframework.integration.store.TimeIndexedMessageGroupStore}.
+	 * @since 6.2
+	 */
+	public static final String RELEASE_TIME = "releaseTime";
+
 	private MessageDocumentFields() {
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,7 +25,6 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Properties;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -210,6 +209,9 @@ public class MongoDbMessageStore extends AbstractMessageGroupStore
 				new Index(GROUP_ID_KEY, Sort.Direction.ASC)
 						.on(GROUP_UPDATE_TIMESTAMP_KEY, Sort.Direction.DESC)
 						.on(SEQUENCE, Sort.Direction.DESC));
+		indexOperations.ensureIndex(
+				new Index(GROUP_ID_KEY, Sort.Direction.ASC)
+						.on(SEQUENCE, Sort.Direction.ASC));
 	}
 
 	@Override
@@ -436,6 +438,32 @@ public class MongoDbMessageStore extends AbstractMessageGroupStore
 				.collect(Collectors.toList());
 	}
 
+	@Override
+	public Iterator<Message<?>> iterateMessagesForGroup(Object groupId) {
+		Assert.notNull(groupId, GROUP_ID_MUST_NOT_BE_NULL);
+		int pageSize = getLoadBatchSize();
+		if (pageSize == 0) {
+			return super.iterateMessagesForGroup(groupId);
+		}
+		return Stream.iterate(findGroupPage(groupId, Long.MIN_VALUE, pageSize),
+						(page) -> !page.isEmpty(),
+						(page) ->
+								page.size() < pageSize
+										? Collections.emptyList()
+										: findGroupPage(groupId, page.get(page.size() - 1).getSequence(), pageSize))
+				.flatMap(List::stream)
+				.map(MessageWrapper::getMessage)
+				.iterator();
+	}
+
+	private List<MessageWrapper> findGroupPage(Object groupId, long afterSequence, int pageSize) {
+		Query query = whereGroupIdIs(groupId)
+				.addCriteria(Criteria.where(SEQUENCE).gt(afterSequence))
+				.with(Sort.by(SEQUENCE))
+				.limit(pageSize);
+		return this.template.find(query, MessageWrapper.class, this.collectionName);
+	}
+
 	@Override
 	public Stream<Message<?>> streamMessagesForGroup(Object groupId) {
 		Assert.notNull(groupId, GROUP_ID_MUST_NOT_BE_NULL);
@@ -709,12 +737,11 @@ public class MongoDbMessageStore extends AbstractMessageGroupStore
 		@Override
 		public Document convert(MessageHistory source) {
 			BasicDBList dbList = new BasicDBList();
-			for (Properties properties : source) {
+			for (int i = 0; i < source.size(); i++) {
 				Document historyProperty = new Document()
-						.append(MessageHistory.NAME_PROPERTY, properties.getProperty(MessageHistory.NAME_PROPERTY))
-						.append(MessageHistory.TYPE_PROPERTY, properties.getProperty(MessageHistory.TYPE_PROPERTY))
-						.append(MessageHistory.TIMESTAMP_PROPERTY,
-								properties.getProperty(MessageHistory.TIMESTAMP_PROPERTY));
+						.append(MessageHistory.NAME_PROPERTY, source.getName(i))
+						.append(MessageHistory.TYPE_PROPERTY, source.getType(i))
+						.append(MessageHistory.TIMESTAMP_PROPERTY, Long.toString(source.getTimestamp(i)));
 				dbList.add(historyProperty);
 			}
 			return new Document("components", dbList)
@@ -962,6 +989,10 @@ public class MongoDbMessageStore extends AbstractMessageGroupStore
 			this._condition = condition;
 		}
 
+		public long getSequence() {
+			return this.sequence;
+		}
+
 		public void setSequence(long sequence) {
 			this.sequence = sequence;
 		}
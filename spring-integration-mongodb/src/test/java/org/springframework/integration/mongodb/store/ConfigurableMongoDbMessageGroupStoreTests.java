@@ -16,7 +16,10 @@
 
 package org.springframework.integration.mongodb.store;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.bson.Document;
 import org.junit.jupiter.api.Disabled;
@@ -88,6 +91,25 @@ class ConfigurableMongoDbMessageGroupStoreTests extends AbstractMongoDbMessageGr
 		}
 	}
 
+	@Test
+	void timeIndexedMessagesStreamedUntilTime() {
+		ConfigurableMongoDbMessageStore messageStore = getMessageGroupStore();
+		String groupId = "timeIndexed";
+		messageStore.addMessageToGroup(groupId, new GenericMessage<>("late"), 3000);
+		messageStore.addMessageToGroup(groupId, new GenericMessage<>("early"), 1000);
+		messageStore.addMessagesToGroup(groupId, new GenericMessage<>("noTime"));
+
+		assertThat(messageStore.messageGroupSize(groupId)).isEqualTo(3);
+
+		try (Stream<Message<?>> messages = messageStore.streamMessagesForGroupUntil(groupId, 2000)) {
+			assertThat(messages.<Object>map(Message::getPayload)).containsExactly("early");
+		}
+		try (Stream<Message<?>> messages = messageStore.streamMessagesForGroupUntil(groupId, 3000)) {
+			assertThat(messages.<Object>map(Message::getPayload)).containsExactly("early", "late");
+		}
+		messageStore.removeMessageGroup(groupId);
+	}
+
 	@Test
 	@Disabled("The performance test. Enough slow. Also needs the release strategy changed to size() == 1000")
 	void messageGroupStoreLazyLoadPerformance() {
@@ -140,6 +162,44 @@ class ConfigurableMongoDbMessageGroupStoreTests extends AbstractMongoDbMessageGr
 		context.close();
 	}
 
+	@Test
+	void expireOnlyMessageGroupsOlderThanTimeout() throws InterruptedException {
+		ConfigurableMongoDbMessageStore messageStore = getMessageGroupStore();
+		List<Object> expired = new ArrayList<>();
+		messageStore.registerMessageGroupExpiryCallback((messageGroupStore, group) -> {
+			expired.add(group.getGroupId());
+			messageGroupStore.removeMessageGroup(group.getGroupId());
+		});
+
+		messageStore.addMessagesToGroup("old", new GenericMessage<>("foo"));
+		Thread.sleep(200);
+		messageStore.addMessagesToGroup("new", new GenericMessage<>("bar"));
+
+		assertThat(messageStore.expireMessageGroups(100)).isEqualTo(1);
+		assertThat(expired).containsExactly("old");
+		assertThat(messageStore.messageGroupSize("new")).isEqualTo(1);
+
+		messageStore.removeMessageGroup("new");
+	}
+
+	@Test
+	void messageGroupIteratedInPages() {
+		ConfigurableMongoDbMessageStore messageStore = getMessageGroupStore();
+		messageStore.setLoadBatchSize(2);
+		for (int i = 0; i < 5; i++) {
+			messageStore.addMessagesToGroup("paged", new GenericMessage<>(i));
+		}
+
+		List<Object> payloads = new ArrayList<>();
+		for (Message<?> message : messageStore.getMessageGroup("paged").getMessages()) {
+			payloads.add(message.getPayload());
+		}
+		assertThat(payloads).containsExactly(0, 1, 2, 3, 4);
+
+		messageStore.removeMessagesFromGroup("paged", messageStore.getMessageGroup("paged").getMessages());
+		assertThat(messageStore.messageGroupSize("paged")).isEqualTo(0);
+	}
+
 	@Test
 	void testPriorityChannel() {
 		ClassPathXmlApplicationContext context =
@@ -1,5 +1,5 @@
 /*
- * Copyright 2007-2020 the original author or authors.
+ * Copyright 2007-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,23 +16,37 @@
 
 package org.springframework.integration.redis.store;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.BeanClassLoaderAware;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.BoundValueOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.SerializationException;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.integration.store.AbstractKeyValueMessageStore;
+import org.springframework.integration.store.MessageGroupMetadata;
+import org.springframework.integration.store.TimeIndexedMessageGroupStore;
+import org.springframework.messaging.Message;
 import org.springframework.util.Assert;
 
 /**
  * Redis implementation of the key/value style
  * {@link org.springframework.integration.store.MessageStore} and
- * {@link org.springframework.integration.store.MessageGroupStore}
+ * {@link org.springframework.integration.store.MessageGroupStore}.
+ * <p>
+ * As a {@link TimeIndexedMessageGroupStore}, this store keeps message ids
+ * added to a group with a time in a sorted set per group, scored by that time.
  *
  * @author Oleg Zhurakousky
  * @author Gary Russell
@@ -40,12 +54,19 @@ import org.springframework.util.Assert;
  *
  * @since 2.1
  */
-public class RedisMessageStore extends AbstractKeyValueMessageStore implements BeanClassLoaderAware {
+public class RedisMessageStore extends AbstractKeyValueMessageStore
+		implements TimeIndexedMessageGroupStore, BeanClassLoaderAware {
 
 	private static final String ID_MUST_NOT_BE_NULL = "'id' must not be null";
 
+	private static final String RELEASE_TIME_INDEX_KEY_PREFIX = "RELEASE_TIME_INDEX_";
+
 	private final RedisTemplate<Object, Object> redisTemplate;
 
+	private final StringRedisTemplate indexTemplate;
+
+	private final String releaseTimeIndexPrefix;
+
 	private boolean valueSerializerSet;
 
 	private volatile boolean unlinkAvailable = true;
@@ -75,6 +96,8 @@ public class RedisMessageStore extends AbstractKeyValueMessageStore implements B
 		this.redisTemplate.setKeySerializer(new StringRedisSerializer());
 		this.redisTemplate.setValueSerializer(new JdkSerializationRedisSerializer());
 		this.redisTemplate.afterPropertiesSet();
+		this.indexTemplate = new StringRedisTemplate(connectionFactory);
+		this.releaseTimeIndexPrefix = prefix + RELEASE_TIME_INDEX_KEY_PREFIX;
 	}
 
 	@Override
@@ -90,6 +113,67 @@ public class RedisMessageStore extends AbstractKeyValueMessageStore implements B
 		this.valueSerializerSet = true;
 	}
 
+	@Override
+	public void addMessageToGroup(Object groupId, Message<?> message, long time) {
+		addMessagesToGroup(groupId, message);
+		this.indexTemplate.opsForZSet()
+				.add(this.releaseTimeIndexPrefix + groupId, message.getHeaders().getId().toString(), time);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The ids of messages removed from the store are removed from the time index
+	 * when they are met in the requested time range.
+	 */
+	@Override
+	public Stream<Message<?>> streamMessagesForGroupUntil(Object groupId, long time) {
+		Assert.notNull(groupId, "'groupId' must not be null");
+		String indexKey = this.releaseTimeIndexPrefix + groupId;
+		Set<String> messageIds =
+				this.indexTemplate.opsForZSet().rangeByScore(indexKey, Double.NEGATIVE_INFINITY, time);
+		if (messageIds == null || messageIds.isEmpty()) {
+			return Stream.empty();
+		}
+		List<Message<?>> messages = new ArrayList<>(messageIds.size());
+		List<Object> removedMessageIds = new ArrayList<>();
+		for (String messageId : messageIds) {
+			Message<?> message = getMessage(UUID.fromString(messageId));
+			if (message != null) {
+				messages.add(message);
+			}
+			else {
+				removedMessageIds.add(messageId);
+			}
+		}
+		if (!removedMessageIds.isEmpty()) {
+			this.indexTemplate.opsForZSet().remove(indexKey, removedMessageIds.toArray());
+		}
+		return messages.stream();
+	}
+
+	@Override
+	public Stream<Message<?>> streamMessagesForGroupWithoutTime(Object groupId) {
+		Assert.notNull(groupId, "'groupId' must not be null");
+		MessageGroupMetadata groupMetadata = getGroupMetadata(groupId);
+		if (groupMetadata == null) {
+			return Stream.empty();
+		}
+		Set<String> indexedMessageIds =
+				this.indexTemplate.opsForZSet().range(this.releaseTimeIndexPrefix + groupId, 0, -1);
+		return groupMetadata.getMessageIds()
+				.stream()
+				.filter((messageId) -> indexedMessageIds == null || !indexedMessageIds.contains(messageId.toString()))
+				.<Message<?>>map(this::getMessage)
+				.filter(Objects::nonNull);
+	}
+
+	@Override
+	public void removeMessageGroup(Object groupId) {
+		super.removeMessageGroup(groupId);
+		this.indexTemplate.delete(this.releaseTimeIndexPrefix + groupId);
+	}
+
 	@Override
 	protected Object doRetrieve(Object id) {
 		Assert.notNull(id, ID_MUST_NOT_BE_NULL);
@@ -97,6 +181,17 @@ public class RedisMessageStore extends AbstractKeyValueMessageStore implements B
 		return ops.get();
 	}
 
+	/**
+	 * Retrieve the objects for all the provided keys with a single {@code MGET} command.
+	 * @param ids the keys to retrieve.
+	 * @return the retrieved objects.
+	 * @since 6.2
+	 */
+	@Override
+	protected Collection<?> doRetrieveAll(Collection<Object> ids) {
+		List<Object> objects = this.redisTemplate.opsForValue().multiGet(ids);
+		return objects != null ? objects : Collections.emptyList();
+	}
 
 	@Override
 	protected void doStore(Object id, Object objectToStore) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2007-2022 the original author or authors.
+ * Copyright 2007-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,6 +26,7 @@ import java.util.UUID;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import junit.framework.AssertionFailedError;
@@ -405,6 +406,50 @@ class RedisMessageGroupStoreTests implements RedisContainerTest {
 		messageStore.removeMessageGroup(this.groupId);
 	}
 
+	@Test
+	void timeIndexedMessagesStreamedUntilTime() {
+		RedisMessageStore store = new RedisMessageStore(redisConnectionFactory);
+
+		Message<?> late = new GenericMessage<>("late");
+		Message<?> first = new GenericMessage<>("first");
+		Message<?> second = new GenericMessage<>("second");
+		Message<?> removed = new GenericMessage<>("removed");
+		store.addMessageToGroup(this.groupId, late, 3000);
+		store.addMessageToGroup(this.groupId, second, 2000);
+		store.addMessageToGroup(this.groupId, first, 1000);
+		store.addMessageToGroup(this.groupId, removed, 1500);
+		store.addMessageToGroup(this.groupId, new GenericMessage<>("not indexed"));
+		store.removeMessagesFromGroup(this.groupId, removed);
+
+		try (Stream<Message<?>> messages = store.streamMessagesForGroupUntil(this.groupId, 2000)) {
+			assertThat(messages.<Object>map(Message::getPayload)).containsExactly("first", "second");
+		}
+
+		store.removeMessageGroup(this.groupId);
+
+		try (Stream<Message<?>> messages = store.streamMessagesForGroupUntil(this.groupId, 3000)) {
+			assertThat(messages).isEmpty();
+		}
+	}
+
+	@Test
+	void messageGroupIteratedInPages() {
+		RedisMessageStore store = new RedisMessageStore(redisConnectionFactory);
+		store.setLoadBatchSize(2);
+		for (int i = 0; i < 5; i++) {
+			store.addMessagesToGroup(this.groupId, new GenericMessage<>(i));
+		}
+
+		List<Object> payloads = new ArrayList<>();
+		for (Message<?> message : store.getMessageGroup(this.groupId).getMessages()) {
+			payloads.add(message.getPayload());
+		}
+		assertThat(payloads).containsExactly(0, 1, 2, 3, 4);
+
+		store.removeMessagesFromGroup(this.groupId, store.getMessageGroup(this.groupId).getMessages());
+		assertThat(store.messageGroupSize(this.groupId)).isEqualTo(0);
+	}
+
 	@Test
 	void testJsonSerialization() {
 		RedisMessageStore store = new RedisMessageStore(redisConnectionFactory);